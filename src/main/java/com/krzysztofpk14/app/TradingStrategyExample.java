@@ -75,7 +75,7 @@ public class TradingStrategyExample {
             System.out.println("Zalogowano pomyslnie.");
             
             // Utwórz manager strategii
-            StrategyManager strategyManager = new StrategyManager(client);
+            StrategyManager strategyManager = new StrategyManager(client, true);
             
             // Dodaj strategie z parametrami
             // Strategia MA Crossover
@@ -4,6 +4,7 @@ import com.krzysztofpk14.app.bossaapi.model.base.BaseMessage;
 import com.krzysztofpk14.app.bossaapi.model.base.FixmlMessage;
 import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.UserRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.SecurityListRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.BusinessMessageReject;
@@ -11,40 +12,127 @@ import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
 import com.krzysztofpk14.app.bossaapi.model.response.UserResponse;
 import com.krzysztofpk14.app.bossaapi.model.response.SecurityList;
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
 import com.krzysztofpk14.app.bossaapi.util.FixmlGenerator;
 import com.krzysztofpk14.app.bossaapi.util.FixmlParser;
+import com.krzysztofpk14.app.bossaapi.util.TimerWheel;
+import com.krzysztofpk14.app.bossaapi.util.TokenBucket;
 
 import jakarta.xml.bind.JAXBException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 /**
  * Główna klasa klienta do komunikacji z bossaAPI.
  */
 public class BossaApiClient {
+    // Wspólne koło czasowe pilnujące terminów odpowiedzi wszystkich klientów
+    private static final TimerWheel REQUEST_TIMER = new TimerWheel("BossaAPI-RequestTimer", 100, 512);
+    private static final long SYNC_WAIT_MARGIN_MILLIS = 500;
+    
     private final BossaApiConnection connection;
-    private final Map<String, CompletableFuture<UserResponse>> loginResponses = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<ExecutionReport>> orderResponses = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<MarketDataResponse>> marketDataFutures = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<ExecutionReport>> orderFutures = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<SecurityList>> securityListFutures = new ConcurrentHashMap<>();
+    private final PendingRequests pendingRequests =
+            new PendingRequests(REQUEST_TIMER, PendingRequests.DEFAULT_MAX_PENDING);
+    private volatile long requestTimeoutMillis = PendingRequests.DEFAULT_TIMEOUT_MILLIS;
+    
+    // Limit częstotliwości zleceń całego klienta (null - bez limitu)
+    private volatile TokenBucket orderThrottle;
+    
+    // Tory obsługi komunikatów: dane rynkowe i raporty wykonania według symbolu,
+    // odpowiedzi sterujące (logowanie, lista instrumentów, odrzucenia) w osobnym torze
+    private final DispatchLanes instrumentLanes;
+    private final DispatchLanes controlLane;
+    
+    // Wspólne notowania dla strategii i GUI, aktualizowane raz na komunikat
+    private final MarketDataCache marketDataCache;
     
     private final Map<String, Consumer<MarketDataResponse>> marketDataHandlers = new ConcurrentHashMap<>();
     private final Map<String, Consumer<ExecutionReport>> executionReportHandlers = new ConcurrentHashMap<>();
     
-    private boolean loggedIn = false;
+    // Stan sesji odtwarzany po ponownym połączeniu
+    private final Map<String, MarketDataRequest> activeSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, OrderRequest> openOrders = new ConcurrentHashMap<>();
+    // Identyfikatory nadane otwartym zleceniom przez serwer (ClOrdID → OrdID)
+    private final Map<String, String> openOrderIds = new ConcurrentHashMap<>();
+    private final ReconnectSupervisor reconnectSupervisor;
+    private volatile boolean autoReconnect = true;
+    private volatile boolean sessionActive = false;
+    private String host;
+    private int port;
+    private String password;
+    
+    private volatile boolean loggedIn = false;
     private String username;
     
     /**
      * Tworzy nowy obiekt klienta bossaAPI.
      */
     public BossaApiClient() {
-        this.connection = new BossaApiConnection();
+        this(DispatchLanes.defaultLaneCount());
+    }
+    
+    /**
+     * Tworzy nowy obiekt klienta bossaAPI z podaną liczbą torów obsługi komunikatów.
+     * 
+     * @param dispatchLanes Liczba równoległych torów dla komunikatów instrumentów
+     */
+    public BossaApiClient(int dispatchLanes) {
+        this(null, dispatchLanes);
+    }
+    
+    /**
+     * Tworzy klienta korzystającego ze wspólnego nieblokującego transportu. Wielu klientów
+     * może dzielić jeden transport, np. przy generowaniu obciążenia serwera.
+     * 
+     * @param transport Transport NIO lub null dla gniazda blokującego
+     * @param dispatchLanes Liczba równoległych torów dla komunikatów instrumentów
+     */
+    public BossaApiClient(NioTransport transport, int dispatchLanes) {
+        this(transport, dispatchLanes, new MarketDataCache());
+    }
+    
+    /**
+     * Tworzy klienta zapisującego notowania do wskazanej pamięci podręcznej
+     * (np. wspólnej dla wszystkich połączeń puli).
+     * 
+     * @param transport Transport NIO lub null dla gniazda blokującego
+     * @param dispatchLanes Liczba równoległych torów dla komunikatów instrumentów
+     * @param marketDataCache Pamięć podręczna notowań
+     */
+    protected BossaApiClient(NioTransport transport, int dispatchLanes, MarketDataCache marketDataCache) {
+        this.marketDataCache = marketDataCache;
+        this.connection = new BossaApiConnection(transport);
+        this.instrumentLanes = new DispatchLanes(dispatchLanes, "BossaAPI-Dispatch");
+        this.controlLane = new DispatchLanes(1, "BossaAPI-Control");
+        this.reconnectSupervisor = new ReconnectSupervisor("BossaAPI-Reconnect", this::restoreSession);
+        connection.setConnectionLostListener(this::handleConnectionLost);
+    }
+    
+    /**
+     * Tworzy klienta bez połączenia z serwerem, np. symulator giełdy w teście wstecznym,
+     * który sam obsługuje zlecenia i subskrypcje. Klient nie tworzy połączenia, torów
+     * obsługi komunikatów ani nadzorcy ponownego łączenia; próba połączenia lub wysłania
+     * wiadomości kończy się {@link IOException}.
+     * 
+     * @param marketDataCache Pamięć podręczna notowań
+     */
+    protected BossaApiClient(MarketDataCache marketDataCache) {
+        this.marketDataCache = marketDataCache;
+        this.connection = null;
+        this.instrumentLanes = null;
+        this.controlLane = null;
+        this.reconnectSupervisor = null;
     }
     
     /**
@@ -55,20 +143,30 @@ public class BossaApiClient {
      * @throws IOException Jeśli wystąpi błąd połączenia
      */
     public void connect(String host, int port) throws IOException {
+        BossaApiConnection connection = connection();
         // Don't reconnect if already connected
-        if (isConnected()) {
+        if (connection.isConnected()) {
             System.out.println("Already connected to " + host + ":" + port);
             return;
         }
         
         connection.connect(host, port);
-        connection.startReceivingAsync(this::handleMessage);
+        this.host = host;
+        this.port = port;
+        // Parsowanie (z bufora ramki) odbywa się w wątku odbierającym, obsługa - w torach
+        connection.startReceivingFrames(this::handleMessage, Runnable::run);
     }
     
     /**
      * Zamyka połączenie z serwerem.
      */
     public void disconnect() {
+        // Zamknięcie na żądanie użytkownika kończy sesję - bez ponownego łączenia
+        sessionActive = false;
+        if (reconnectSupervisor != null) {
+            reconnectSupervisor.stop();
+        }
+        
         if (isLoggedIn()) {
             try {
                 logout();
@@ -77,7 +175,14 @@ public class BossaApiClient {
             }
         }
         
-        connection.disconnect();
+        if (connection != null) {
+            connection.disconnect();
+        }
+        loggedIn = false;
+        activeSubscriptions.clear();
+        openOrders.clear();
+        openOrderIds.clear();
+        pendingRequests.failAll(new IOException("Połączenie z serwerem zostało zamknięte"));
     }
     
     /**
@@ -90,39 +195,96 @@ public class BossaApiClient {
      * @throws JAXBException Jeśli wystąpi błąd generowania XML
      */
     public CompletableFuture<UserResponse> loginAsync(String username, String password) throws IOException, JAXBException {
+        return sendLogin(username, password);
+    }
+    
+    /**
+     * Wysyła żądanie logowania przez połączenie tego klienta.
+     */
+    private CompletableFuture<UserResponse> sendLogin(String username, String password) throws IOException, JAXBException {
         String requestId = generateRequestId();
         
         UserRequest request = new UserRequest(requestId, username, password);
-        CompletableFuture<UserResponse> future = new CompletableFuture<>();
-        loginResponses.put(requestId, future);
+        CompletableFuture<UserResponse> future = pendingRequests.register(
+                PendingRequests.Type.USER, requestId, requestTimeoutMillis);
         
         this.username = username;
+        this.password = password;
         
-        sendMessage(request);
+        sendTracked(request, PendingRequests.Type.USER, requestId);
         return future;
     }
 
 
+    /**
+     * Loguje użytkownika i czeka na odpowiedź serwera.
+     * <p>
+     * Metody {@code *Sync} wysyłają żądanie tak jak ich asynchroniczne odpowiedniki
+     * i czekają na Future z tablicy korelacji - odpowiedź odbiera zwykły wątek
+     * odbierający, więc wywołania synchroniczne i strumień notowań mogą działać
+     * jednocześnie. Nie należy ich wywoływać z obsługi komunikatów klienta
+     * (tory obsługi czekałyby same na siebie).
+     * 
+     * @param username Nazwa użytkownika
+     * @param password Hasło
+     * @return Odpowiedź serwera (także przy odrzuconym logowaniu)
+     * @throws IOException Jeśli wystąpi błąd połączenia lub serwer nie odpowie w czasie
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     * @throws InterruptedException Jeśli wątek zostanie przerwany podczas oczekiwania
+     */
     public UserResponse loginSync(String username, String password) throws IOException, JAXBException, InterruptedException {
-        String requestId = generateRequestId();
-        UserRequest request = new UserRequest(requestId, username, password);
-        String requestXml = FixmlGenerator.generateXml(request);
-        String response = connection.sendAndReceive(requestXml);
-        // System.out.println("Odpowiedz: " + response);
-
-        if (response != null) {
-            FixmlMessage fixmlMessage = FixmlParser.parse(response);
-            if (fixmlMessage != null && fixmlMessage.getMessage() instanceof UserResponse) {
-                UserResponse userResp = (UserResponse) fixmlMessage.getMessage();
-                if (userResp.getUserStatus().equals(UserResponse.LOGGED_IN)) {
-                    loggedIn = true;
-                } else if (userResp.getUserStatus().equals(UserResponse.LOGGED_OUT)) {
-                    loggedIn = false;
-                }
-                return userResp;
-            }
-        }
-        return null;
+        return await(loginAsync(username, password));
+    }
+    
+    /**
+     * Wylogowuje użytkownika i czeka na odpowiedź serwera.
+     * 
+     * @return Odpowiedź serwera
+     * @throws IOException Jeśli wystąpi błąd połączenia lub serwer nie odpowie w czasie
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     * @throws InterruptedException Jeśli wątek zostanie przerwany podczas oczekiwania
+     */
+    public UserResponse logoutSync() throws IOException, JAXBException, InterruptedException {
+        return await(logout());
+    }
+    
+    /**
+     * Wysyła zlecenie i czeka na pierwszy raport wykonania.
+     * 
+     * @param order Zlecenie do wysłania
+     * @return Pierwszy raport wykonania zlecenia
+     * @throws IOException Jeśli wystąpi błąd połączenia lub serwer nie odpowie w czasie
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     * @throws InterruptedException Jeśli wątek zostanie przerwany podczas oczekiwania
+     */
+    public ExecutionReport sendOrderSync(OrderRequest order) throws IOException, JAXBException, InterruptedException {
+        return await(sendOrder(order));
+    }
+    
+    /**
+     * Subskrybuje dane rynkowe i czeka na pierwszą odpowiedź.
+     * 
+     * @param request Żądanie danych rynkowych
+     * @return Pierwsza odpowiedź na żądanie
+     * @throws IOException Jeśli wystąpi błąd połączenia lub serwer nie odpowie w czasie
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     * @throws InterruptedException Jeśli wątek zostanie przerwany podczas oczekiwania
+     */
+    public MarketDataResponse subscribeMarketDataSync(MarketDataRequest request) throws IOException, JAXBException, InterruptedException {
+        return await(subscribeMarketData(request));
+    }
+    
+    /**
+     * Pobiera listę instrumentów i czeka na odpowiedź.
+     * 
+     * @param request Żądanie listy instrumentów
+     * @return Lista instrumentów
+     * @throws IOException Jeśli wystąpi błąd połączenia lub serwer nie odpowie w czasie
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     * @throws InterruptedException Jeśli wątek zostanie przerwany podczas oczekiwania
+     */
+    public SecurityList requestSecurityListSync(SecurityListRequest request) throws IOException, JAXBException, InterruptedException {
+        return await(requestSecurityList(request));
     }
     
     /**
@@ -142,10 +304,10 @@ public class BossaApiClient {
         String requestId = generateRequestId();
         
         UserRequest request = UserRequest.createLogoutRequest(requestId, username);
-        CompletableFuture<UserResponse> future = new CompletableFuture<>();
-        loginResponses.put(requestId, future);
+        CompletableFuture<UserResponse> future = pendingRequests.register(
+                PendingRequests.Type.USER, requestId, requestTimeoutMillis);
         
-        sendMessage(request);
+        sendTracked(request, PendingRequests.Type.USER, requestId);
         return future;
     }
     
@@ -153,7 +315,7 @@ public class BossaApiClient {
      * Wysyła zlecenie do systemu bossaAPI.
      * 
      * @param order Obiekt zlecenia do wysłania
-     * @return Future z raportem wykonania zlecenia
+     * @return Future kończony pierwszym raportem wykonania dla zlecenia (ClOrdID)
      * @throws IOException Jeśli wystąpi błąd połączenia
      * @throws JAXBException Jeśli wystąpi błąd generowania XML
      */
@@ -163,6 +325,9 @@ public class BossaApiClient {
             future.completeExceptionally(new IllegalStateException("Użytkownik nie jest zalogowany"));
             return future;
         }
+        if (!acquireOrderPermit()) {
+            return throttledOrder();
+        }
         
         String clientOrderId = order.getClientOrderId();
         if (clientOrderId == null || clientOrderId.isEmpty()) {
@@ -170,15 +335,91 @@ public class BossaApiClient {
             order.setClientOrderId(clientOrderId);
         }
         
-        CompletableFuture<ExecutionReport> future = new CompletableFuture<>();
-        orderFutures.put(clientOrderId, future);
+        CompletableFuture<ExecutionReport> future = pendingRequests.register(
+                PendingRequests.Type.ORDER, clientOrderId, requestTimeoutMillis);
         
-        sendMessage(order);
+        openOrders.put(clientOrderId, order);
+        try {
+            sendTracked(order, PendingRequests.Type.ORDER, clientOrderId);
+        } catch (IOException | JAXBException | RuntimeException e) {
+            openOrders.remove(clientOrderId);
+            throw e;
+        }
         return future;
     }
 
 
 
+    /**
+     * Wysyła kilka zleceń jednym zapisem do gniazda. Limit częstotliwości jest
+     * sprawdzany dla każdego zlecenia osobno - zlecenia ponad limit dostają Future
+     * zakończony {@link RejectedExecutionException} i nie są wysyłane.
+     * 
+     * @param orders Zlecenia do wysłania
+     * @return Future dla każdego zlecenia, w kolejności listy
+     * @throws IOException Jeśli wystąpi błąd połączenia
+     * @throws JAXBException Jeśli wystąpi błąd generowania XML
+     */
+    public List<CompletableFuture<ExecutionReport>> sendOrders(List<OrderRequest> orders) throws IOException, JAXBException {
+        List<CompletableFuture<ExecutionReport>> futures = new ArrayList<>(orders.size());
+        if (!isLoggedIn()) {
+            for (int i = 0; i < orders.size(); i++) {
+                futures.add(CompletableFuture.failedFuture(new IllegalStateException("Użytkownik nie jest zalogowany")));
+            }
+            return futures;
+        }
+        
+        List<String> sent = new ArrayList<>(orders.size());
+        List<String> batch = new ArrayList<>(orders.size());
+        try {
+            for (OrderRequest order : orders) {
+                if (!acquireOrderPermit()) {
+                    futures.add(throttledOrder());
+                    continue;
+                }
+                String clientOrderId = order.getClientOrderId();
+                if (clientOrderId == null || clientOrderId.isEmpty()) {
+                    clientOrderId = generateRequestId();
+                    order.setClientOrderId(clientOrderId);
+                }
+                futures.add(pendingRequests.register(PendingRequests.Type.ORDER, clientOrderId, requestTimeoutMillis));
+                openOrders.put(clientOrderId, order);
+                sent.add(clientOrderId);
+                batch.add(FixmlGenerator.generateXml(order));
+            }
+            if (!batch.isEmpty()) {
+                connection().sendMessages(batch);
+            }
+        } catch (IOException | JAXBException | RuntimeException e) {
+            for (String clientOrderId : sent) {
+                openOrders.remove(clientOrderId);
+                pendingRequests.fail(PendingRequests.Type.ORDER, clientOrderId, e);
+            }
+            throw e;
+        }
+        return futures;
+    }
+
+    /**
+     * Ustawia limit częstotliwości zleceń dla całego klienta. Zlecenia ponad limit
+     * nie są wysyłane - ich Future kończy się od razu {@link RejectedExecutionException},
+     * więc wątek obsługi notowań nigdy nie czeka na wolny żeton.
+     * 
+     * @param orderThrottle Kubełek żetonów lub null, aby wyłączyć limit
+     */
+    public void setOrderThrottle(TokenBucket orderThrottle) {
+        this.orderThrottle = orderThrottle;
+    }
+    
+    /**
+     * Zwraca limit częstotliwości zleceń klienta.
+     * 
+     * @return Kubełek żetonów lub null, jeśli limit jest wyłączony
+     */
+    public TokenBucket getOrderThrottle() {
+        return orderThrottle;
+    }
+
      /**
      * Subskrybuje dane rynkowe asynchronicznie.
      * 
@@ -200,11 +441,14 @@ public class BossaApiClient {
             request.setRequestId(requestId);
         }
 
-        CompletableFuture<MarketDataResponse> future = new CompletableFuture<>();
-        marketDataFutures.put(requestId, future);
+        CompletableFuture<MarketDataResponse> future = pendingRequests.register(
+                PendingRequests.Type.MARKET_DATA, requestId, requestTimeoutMillis);
         
         // System.out.println("Wysyłanie żądania subskrypcji danych rynkowych: " + requestId);
-        sendMessage(request);
+        sendTracked(request, PendingRequests.Type.MARKET_DATA, requestId);
+        if (MarketDataRequest.SUBSCRIBE.equals(request.getSubscriptionRequestType())) {
+            activeSubscriptions.put(requestId, request);
+        }
         
         return future;
     }
@@ -230,11 +474,12 @@ public class BossaApiClient {
             request.setRequestId(requestId);
         }
 
-        CompletableFuture<MarketDataResponse> future = new CompletableFuture<>();
-        marketDataFutures.put(requestId, future);
+        CompletableFuture<MarketDataResponse> future = pendingRequests.register(
+                PendingRequests.Type.MARKET_DATA, requestId, requestTimeoutMillis);
         
         System.out.println("Wysyłanie żądania anulowania subskrypcji danych rynkowych: " + requestId);
-        sendMessage(request);
+        sendTracked(request, PendingRequests.Type.MARKET_DATA, requestId);
+        activeSubscriptions.remove(requestId);
         
         return future;
     }
@@ -252,10 +497,10 @@ public class BossaApiClient {
             request.setRequestId(requestId);
         }
 
-        CompletableFuture<SecurityList> future = new CompletableFuture<>();
-        securityListFutures.put(requestId, future);
+        CompletableFuture<SecurityList> future = pendingRequests.register(
+                PendingRequests.Type.SECURITY_LIST, requestId, requestTimeoutMillis);
 
-        sendMessage(request);
+        sendTracked(request, PendingRequests.Type.SECURITY_LIST, requestId);
 
  
         return future;
@@ -279,6 +524,177 @@ public class BossaApiClient {
         marketDataHandlers.put(key, handler);
     }
 
+    /**
+     * Ustawia czas oczekiwania na odpowiedź dla kolejnych żądań.
+     * 
+     * @param requestTimeoutMillis Czas w milisekundach
+     */
+    public void setRequestTimeout(long requestTimeoutMillis) {
+        if (requestTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Czas oczekiwania musi być dodatni: " + requestTimeoutMillis);
+        }
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+    
+    /**
+     * Zwraca wspólną pamięć podręczną notowań klienta.
+     * 
+     * @return Pamięć podręczna notowań
+     */
+    public MarketDataCache getMarketDataCache() {
+        return marketDataCache;
+    }
+    
+    /**
+     * Włącza lub wyłącza automatyczne odtwarzanie sesji po utracie połączenia. Domyślnie włączone.
+     * 
+     * @param autoReconnect true aby po utracie połączenia łączyć się ponownie
+     */
+    public void setAutoReconnect(boolean autoReconnect) {
+        this.autoReconnect = autoReconnect;
+        if (!autoReconnect && reconnectSupervisor != null) {
+            reconnectSupervisor.stop();
+        }
+    }
+    
+    /**
+     * Rejestruje obserwatora wywoływanego po odtworzeniu sesji (połączenie, logowanie,
+     * subskrypcje i zapytania o status otwartych zleceń zostały wysłane).
+     * 
+     * @param listener Obserwator
+     */
+    public void setReconnectListener(Runnable listener) {
+        if (reconnectSupervisor != null) {
+            reconnectSupervisor.setReconnectListener(listener);
+        }
+    }
+    
+    /**
+     * Sprawdza, czy trwa odtwarzanie sesji po utracie połączenia.
+     * 
+     * @return true jeśli trwa ponowne łączenie
+     */
+    public boolean isReconnecting() {
+        return reconnectSupervisor != null && reconnectSupervisor.isReconnecting();
+    }
+    
+    /**
+     * Zwraca liczbę aktywnych subskrypcji danych rynkowych.
+     * 
+     * @return Liczba subskrypcji
+     */
+    public int getActiveSubscriptionCount() {
+        return activeSubscriptions.size();
+    }
+    
+    /**
+     * Zwraca liczbę zleceń, dla których nie otrzymano jeszcze raportu końcowego.
+     * 
+     * @return Liczba otwartych zleceń
+     */
+    public int getOpenOrderCount() {
+        return openOrders.size();
+    }
+    
+    /**
+     * Zwraca liczbę żądań oczekujących na odpowiedź.
+     * 
+     * @return Liczba oczekujących żądań
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+    
+    /**
+     * Obsługuje utratę połączenia zgłoszoną przez wątek odbierający.
+     */
+    private void handleConnectionLost() {
+        loggedIn = false;
+        pendingRequests.failAll(new IOException("Utracono połączenie z serwerem"));
+        if (autoReconnect && sessionActive) {
+            reconnectSupervisor.trigger();
+        }
+    }
+    
+    /**
+     * Odtwarza sesję: łączy się ponownie, loguje, wysyła jednym zapisem wszystkie
+     * aktywne subskrypcje i pyta o status zleceń otwartych w chwili utraty połączenia.
+     * Nie czeka na potwierdzenia subskrypcji - dane rynkowe płyną zaraz po zalogowaniu.
+     */
+    private void restoreSession() throws Exception {
+        connection.disconnect();
+        connection.connect(host, port);
+        connection.startReceivingFrames(this::handleMessage, Runnable::run);
+        
+        UserResponse response = sendLogin(username, password).get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (!UserResponse.LOGGED_IN.equals(response.getUserStatus())) {
+            connection.disconnect();
+            throw new IOException("Ponowne logowanie odrzucone: " + response.getUserStatusText());
+        }
+        
+        List<String> batch = new ArrayList<>(activeSubscriptions.size() + openOrders.size());
+        for (MarketDataRequest subscription : activeSubscriptions.values()) {
+            batch.add(FixmlGenerator.generateXml(subscription));
+        }
+        // Raporty statusu trafiają do obserwatorów jak zwykłe raporty wykonania,
+        // więc strategie uzupełniają wykonania z czasu przerwy
+        for (OrderRequest order : openOrders.values()) {
+            String symbol = order.getInstrument() != null ? order.getInstrument().getSymbol() : null;
+            OrderStatusRequest request = new OrderStatusRequest(generateRequestId(), order.getClientOrderId(), symbol);
+            // Zlecenie zakończone w czasie przerwy serwer znajdzie już tylko po OrdID
+            request.setOrderId(openOrderIds.get(order.getClientOrderId()));
+            batch.add(FixmlGenerator.generateXml(request));
+        }
+        connection.sendMessages(batch);
+        System.out.println("Odtworzono sesję: " + activeSubscriptions.size() + " subskrypcji, "
+                + openOrders.size() + " zapytań o status zleceń");
+    }
+    
+    private boolean acquireOrderPermit() {
+        TokenBucket throttle = orderThrottle;
+        return throttle == null || throttle.tryAcquire();
+    }
+    
+    private static CompletableFuture<ExecutionReport> throttledOrder() {
+        return CompletableFuture.failedFuture(
+                new RejectedExecutionException("Przekroczono limit częstotliwości zleceń klienta"));
+    }
+    
+    /**
+     * Czeka na wynik żądania. Termin pilnuje tablica korelacji; tu czekamy chwilę dłużej
+     * (dokładność koła czasowego), żeby błąd pochodził z tablicy, a nie z oczekiwania.
+     */
+    private <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get(requestTimeoutMillis + SYNC_WAIT_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new IOException("Brak odpowiedzi serwera w ciągu " + requestTimeoutMillis + " ms", e);
+        }
+    }
+    
+    /**
+     * Wysyła żądanie zarejestrowane w tablicy korelacji. Jeśli wysłanie się nie powiedzie,
+     * wpis jest zwalniany od razu, a błąd przekazywany dalej.
+     */
+    private void sendTracked(BaseMessage message, PendingRequests.Type type, String id)
+            throws IOException, JAXBException {
+        try {
+            sendMessage(message);
+        } catch (IOException | JAXBException | RuntimeException e) {
+            pendingRequests.fail(type, id, e);
+            throw e;
+        }
+    }
+    
     /**
      * Wysyła wiadomość do serwera.
      * 
@@ -289,40 +705,65 @@ public class BossaApiClient {
     private void sendMessage(BaseMessage message) throws IOException, JAXBException {
         String xml = FixmlGenerator.generateXml(message);
         // System.out.println("Wysyłanie wiadomości: " + xml);
-        connection.sendMessage(xml);
+        connection().sendMessage(xml);
+    }
+    
+    /**
+     * Zwraca połączenie z serwerem.
+     * 
+     * @return Połączenie
+     * @throws IOException Jeśli klient działa bez połączenia
+     */
+    private BossaApiConnection connection() throws IOException {
+        if (connection == null) {
+            throw new IOException("Klient działa bez połączenia z serwerem");
+        }
+        return connection;
     }
     
     /**
-     * Obsługuje otrzymaną wiadomość od serwera.
+     * Obsługuje otrzymaną wiadomość od serwera: parsuje ją z bufora ramki w wątku
+     * odbierającym i przekazuje do toru właściwego dla instrumentu. Bufor wraca do puli
+     * zaraz po przekazaniu - tory dostają już obiekty komunikatów. Komunikaty jednego
+     * instrumentu są obsługiwane w kolejności nadejścia, różnych instrumentów - równolegle.
      * 
-     * @param xml Treść wiadomości XML
+     * @param frame Ramka z treścią wiadomości XML
      */
-    private void handleMessage(String xml) {
-        // System.out.println("Odebrano wiadomość:" + xml);
+    private void handleMessage(BufferPool.Buffer frame) {
+        // System.out.println("Odebrano wiadomość:" + frame);
 
         try {
-            FixmlMessage message = FixmlParser.parse(xml);
+            FixmlMessage message = FixmlParser.parse(frame);
             BaseMessage baseMessage = message.getMessage();
             // System.out.println("Typ wiadomości: " + baseMessage.getMessageType());
             
             if (baseMessage instanceof UserResponse) {
-                handleUserResponse((UserResponse) baseMessage);
-            } else if (baseMessage instanceof ExecutionReport) {
-                handleExecutionReport((ExecutionReport) baseMessage);
-            } else if (baseMessage instanceof MarketDataResponse) {
-                handleMarketDataResponse((MarketDataResponse) baseMessage);
+                controlLane.execute(0, () -> handleUserResponse((UserResponse) baseMessage));
+            } else if (baseMessage instanceof ExecutionReport report) {
+                instrumentLanes.execute(symbolOf(report), () -> handleExecutionReport(report));
+            } else if (baseMessage instanceof MarketDataResponse response) {
+                instrumentLanes.execute(symbolOf(response), () -> handleMarketDataResponse(response));
             } else if (baseMessage instanceof SecurityList) {
-                handleSecurityListResponse((SecurityList) baseMessage);
+                controlLane.execute(0, () -> handleSecurityListResponse((SecurityList) baseMessage));
             } else if (baseMessage instanceof BusinessMessageReject) {
-            handleBusinessMessageReject((BusinessMessageReject) baseMessage);
-
-        }
+                controlLane.execute(0, () -> handleBusinessMessageReject((BusinessMessageReject) baseMessage));
+            }
         } catch (JAXBException e) {
             System.err.println("Błąd podczas parsowania wiadomości FIXML: " + e);
             e.printStackTrace();
+        } finally {
+            frame.release();
         }
     }
     
+    private static String symbolOf(ExecutionReport report) {
+        return report.getInstrument() != null ? report.getInstrument().getSymbol() : null;
+    }
+    
+    private static String symbolOf(MarketDataResponse response) {
+        return response.getInstrument() != null ? response.getInstrument().getSymbol() : null;
+    }
+    
     /**
      * Obsługuje odpowiedź na żądanie użytkownika.
      * 
@@ -330,18 +771,20 @@ public class BossaApiClient {
      */
     private void handleUserResponse(UserResponse response) {
         String requestId = response.getUserReqID();
-        CompletableFuture<UserResponse> future = loginResponses.remove(requestId);
         
-        if (future != null) {
+        if (pendingRequests.isPending(PendingRequests.Type.USER, requestId)) {
             // Aktualizacja stanu zalogowania
             if (response.getUserStatus().equals(UserResponse.LOGGED_IN)) {
                 loggedIn = true;
+                sessionActive = true;
             } else if (response.getUserStatus().equals(UserResponse.LOGGED_OUT)) {
                 loggedIn = false;
+                sessionActive = false;
                 username = null;
+                password = null;
             }
             
-            future.complete(response);
+            pendingRequests.complete(PendingRequests.Type.USER, requestId, response);
         }
     }
     
@@ -353,18 +796,28 @@ public class BossaApiClient {
     private void handleExecutionReport(ExecutionReport report) {
         String clientOrderId = report.getClientOrderId();
         
-        // Powiadamiamy o raporcie wykonania dla konkretnego zlecenia
-        CompletableFuture<ExecutionReport> future = orderResponses.get(clientOrderId);
-        if (future != null) {
-            future.complete(report);
-            System.out.println("Future completed for order: " + clientOrderId);
-            
-            // Usuwamy tylko dla zakończonych zleceń
-            String execType = report.getExecutionType();
-            if (execType.equals(ExecutionReport.CANCELING) || 
-                execType.equals(ExecutionReport.REJECTED)) {
-                orderResponses.remove(clientOrderId);
-            }
+        // Raport statusu zamienia się u obserwatorów w wykonanie, więc przyjmujemy tylko
+        // odpowiedzi dotyczące zleceń wysłanych przez tego klienta
+        if (ExecutionReport.ORDER_STATUS.equals(report.getExecutionType()) && !isOwnOrderStatus(report)) {
+            System.err.println("Pominięto raport statusu obcego zlecenia: " + clientOrderId
+                    + " (OrdID " + report.getOrderId() + ")");
+            return;
+        }
+        if (clientOrderId != null && report.getOrderId() != null && openOrders.containsKey(clientOrderId)) {
+            openOrderIds.putIfAbsent(clientOrderId, report.getOrderId());
+        }
+        
+        // Future zlecenia kończy pierwszy raport wykonania (zwykle potwierdzenie NEW);
+        // kolejne raporty trafiają tylko do obserwatorów
+        pendingRequests.complete(PendingRequests.Type.ORDER, clientOrderId, report);
+        
+        // Zlecenie bez dalszych raportów nie wymaga uzgadniania po ponownym połączeniu
+        String orderStatus = report.getOrderStatus();
+        if (clientOrderId != null && (ExecutionReport.DONE.equals(orderStatus)
+                || ExecutionReport.CANCELED.equals(orderStatus)
+                || ExecutionReport.REJECTED_ORDER.equals(orderStatus))) {
+            openOrders.remove(clientOrderId);
+            openOrderIds.remove(clientOrderId);
         }
         
         // Powiadamiamy ogólnych obserwatorów raportów wykonania
@@ -372,6 +825,26 @@ public class BossaApiClient {
         // System.out.println("Execution report handled for order: " + clientOrderId);
     }
     
+    /**
+     * Sprawdza, czy raport statusu odpowiada na zapytanie o zlecenie tego klienta:
+     * zlecenie musi być otwarte, należeć do zalogowanego użytkownika i mieć OrdID
+     * z wcześniejszych raportów (jeśli serwer zdążył go nadać).
+     * 
+     * @param report Raport statusu zlecenia
+     * @return true jeśli raport dotyczy zlecenia wysłanego przez klienta
+     */
+    private boolean isOwnOrderStatus(ExecutionReport report) {
+        String clientOrderId = report.getClientOrderId();
+        if (clientOrderId == null || !openOrders.containsKey(clientOrderId)) {
+            return false;
+        }
+        if (report.getAccount() != null && !report.getAccount().equals(username)) {
+            return false;
+        }
+        String orderId = openOrderIds.get(clientOrderId);
+        return orderId == null || orderId.equals(report.getOrderId());
+    }
+    
     /**
      * Obsługuje odpowiedź z danymi rynkowymi.
      * 
@@ -388,10 +861,10 @@ public class BossaApiClient {
         // }
 
         //New code
-        CompletableFuture<MarketDataResponse> future = marketDataFutures.remove(requestId);
-        if (future != null) {
-            future.complete(response);
-        }
+        pendingRequests.complete(PendingRequests.Type.MARKET_DATA, requestId, response);
+        
+        // Notowania są aktualizowane przed powiadomieniem obserwatorów, którzy czytają je z pamięci podręcznej
+        marketDataCache.apply(response);
         
         // Notify all handlers (including the default one)
         marketDataHandlers.values().forEach(handler -> {
@@ -408,11 +881,7 @@ public class BossaApiClient {
      */
     private void handleSecurityListResponse(SecurityList response) {
         String requestId = response.getRequestId();
-        CompletableFuture<SecurityList> future = securityListFutures.remove(requestId);
-        
-        if (future != null) {
-            future.complete(response);
-        } else {
+        if (!pendingRequests.complete(PendingRequests.Type.SECURITY_LIST, requestId, response)) {
             System.err.println("Brak oczekującego Future dla SecurityList z requestId: " + requestId);
         }
     }
@@ -444,7 +913,7 @@ public class BossaApiClient {
      * @return true jeśli połączenie jest aktywne
      */
     public boolean isConnected() {
-        return connection.isConnected();
+        return connection != null && connection.isConnected();
     }
     
     /**
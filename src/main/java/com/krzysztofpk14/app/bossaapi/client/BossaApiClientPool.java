@@ -0,0 +1,285 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.model.response.UserResponse;
+
+import jakarta.xml.bind.JAXBException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Klient bossaAPI korzystający z kilku połączeń z serwerem.
+ * <p>
+ * Zlecenia, logowanie i lista instrumentów idą dedykowanym połączeniem (odziedziczonym
+ * z {@link BossaApiClient}), którego nie spowalnia strumień notowań. Subskrypcje danych
+ * rynkowych są rozdzielane między osobne połączenia według identyfikatora instrumentu,
+ * więc zator na jednym połączeniu wstrzymuje tylko część instrumentów. Wszystkie
+ * połączenia zapisują notowania do wspólnej {@link MarketDataCache}, a API jest takie
+ * samo jak dla pojedynczego klienta - strategie nie muszą wiedzieć o puli.
+ */
+public class BossaApiClientPool extends BossaApiClient {
+
+    // Części subskrypcji wysłane poszczególnymi połączeniami
+    private record ShardRequest(int shard, MarketDataRequest request) {
+    }
+
+    private final BossaApiClient[] marketDataClients;
+    private final Map<String, List<ShardRequest>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Tworzy pulę z podaną liczbą połączeń dla danych rynkowych.
+     *
+     * @param marketDataConnections Liczba połączeń dla danych rynkowych
+     */
+    public BossaApiClientPool(int marketDataConnections) {
+        this(null, marketDataConnections, DispatchLanes.defaultLaneCount());
+    }
+
+    /**
+     * Tworzy pulę.
+     *
+     * @param transport Transport NIO lub null dla gniazd blokujących
+     * @param marketDataConnections Liczba połączeń dla danych rynkowych
+     * @param dispatchLanes Liczba torów obsługi komunikatów w każdym połączeniu
+     */
+    public BossaApiClientPool(NioTransport transport, int marketDataConnections, int dispatchLanes) {
+        super(transport, dispatchLanes, new MarketDataCache());
+        if (marketDataConnections <= 0) {
+            throw new IllegalArgumentException("Liczba połączeń musi być dodatnia: " + marketDataConnections);
+        }
+        marketDataClients = new BossaApiClient[marketDataConnections];
+        for (int i = 0; i < marketDataConnections; i++) {
+            marketDataClients[i] = new BossaApiClient(transport, dispatchLanes, getMarketDataCache());
+        }
+    }
+
+    /**
+     * Zwraca liczbę połączeń dla danych rynkowych.
+     *
+     * @return Liczba połączeń
+     */
+    public int getMarketDataConnectionCount() {
+        return marketDataClients.length;
+    }
+
+    /**
+     * Zwraca indeks połączenia, którym płyną notowania instrumentu.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Indeks połączenia
+     */
+    public int getMarketDataConnectionIndex(String symbol) {
+        // Identyfikatory są gęste, więc kolejne instrumenty trafiają do kolejnych połączeń
+        int id = getMarketDataCache().getRegistry().register(symbol);
+        return Math.floorMod(id, marketDataClients.length);
+    }
+
+    @Override
+    public void connect(String host, int port) throws IOException {
+        super.connect(host, port);
+        for (BossaApiClient client : marketDataClients) {
+            client.connect(host, port);
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        for (BossaApiClient client : marketDataClients) {
+            client.disconnect();
+        }
+        subscriptions.clear();
+        super.disconnect();
+    }
+
+    /**
+     * Loguje użytkownika we wszystkich połączeniach puli.
+     *
+     * @return Future z odpowiedzią połączenia zleceń, kończony po zalogowaniu wszystkich połączeń
+     */
+    @Override
+    public CompletableFuture<UserResponse> loginAsync(String username, String password) throws IOException, JAXBException {
+        List<CompletableFuture<UserResponse>> shardLogins = new ArrayList<>();
+        for (BossaApiClient client : marketDataClients) {
+            shardLogins.add(client.loginAsync(username, password));
+        }
+        CompletableFuture<UserResponse> orderLogin = super.loginAsync(username, password);
+        return orderLogin.thenCombine(CompletableFuture.allOf(shardLogins.toArray(new CompletableFuture<?>[0])),
+                (response, ignored) -> response);
+    }
+
+    @Override
+    public CompletableFuture<UserResponse> logout() throws IOException, JAXBException {
+        for (BossaApiClient client : marketDataClients) {
+            if (client.isLoggedIn()) {
+                client.logout();
+            }
+        }
+        return super.logout();
+    }
+
+    /**
+     * Subskrybuje dane rynkowe. Instrumenty z różnych połączeń są wysyłane jako osobne
+     * żądania; Future kończy się po potwierdzeniu wszystkich części.
+     */
+    @Override
+    public CompletableFuture<MarketDataResponse> subscribeMarketData(MarketDataRequest request) throws IOException, JAXBException {
+        if (!isLoggedIn()) {
+            CompletableFuture<MarketDataResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Użytkownik nie jest zalogowany"));
+            return future;
+        }
+        String requestId = request.getRequestId();
+        if (requestId == null || requestId.isEmpty()) {
+            requestId = UUID.randomUUID().toString();
+            request.setRequestId(requestId);
+        }
+
+        List<ShardRequest> parts = split(request);
+        List<CompletableFuture<MarketDataResponse>> futures = new ArrayList<>(parts.size());
+        for (ShardRequest part : parts) {
+            futures.add(marketDataClients[part.shard()].subscribeMarketData(part.request()));
+        }
+        if (MarketDataRequest.SUBSCRIBE.equals(request.getSubscriptionRequestType())) {
+            subscriptions.put(requestId, parts);
+        }
+        return combine(futures);
+    }
+
+    @Override
+    public CompletableFuture<MarketDataResponse> unsubscribeMarketData(MarketDataRequest request) throws IOException, JAXBException {
+        if (!isLoggedIn()) {
+            CompletableFuture<MarketDataResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Użytkownik nie jest zalogowany"));
+            return future;
+        }
+        List<ShardRequest> parts = subscriptions.remove(request.getRequestId());
+        if (parts == null) {
+            parts = split(request);
+        }
+        List<CompletableFuture<MarketDataResponse>> futures = new ArrayList<>(parts.size());
+        for (ShardRequest part : parts) {
+            MarketDataRequest unsubscribe = copy(part.request(), part.request().getRequestId(),
+                    request.getSubscriptionRequestType());
+            unsubscribe.setInstruments(part.request().getInstruments());
+            futures.add(marketDataClients[part.shard()].unsubscribeMarketData(unsubscribe));
+        }
+        return combine(futures);
+    }
+
+    @Override
+    public void registerMarketDataHandler(String key, Consumer<MarketDataResponse> handler) {
+        for (BossaApiClient client : marketDataClients) {
+            client.registerMarketDataHandler(key, handler);
+        }
+    }
+
+    @Override
+    public void setRequestTimeout(long requestTimeoutMillis) {
+        super.setRequestTimeout(requestTimeoutMillis);
+        for (BossaApiClient client : marketDataClients) {
+            client.setRequestTimeout(requestTimeoutMillis);
+        }
+    }
+
+    @Override
+    public void setAutoReconnect(boolean autoReconnect) {
+        super.setAutoReconnect(autoReconnect);
+        for (BossaApiClient client : marketDataClients) {
+            client.setAutoReconnect(autoReconnect);
+        }
+    }
+
+    @Override
+    public int getActiveSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public int getPendingRequestCount() {
+        int pending = super.getPendingRequestCount();
+        for (BossaApiClient client : marketDataClients) {
+            pending += client.getPendingRequestCount();
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isReconnecting() {
+        if (super.isReconnecting()) {
+            return true;
+        }
+        for (BossaApiClient client : marketDataClients) {
+            if (client.isReconnecting()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sprawdza, czy połączenie zleceń i wszystkie połączenia danych rynkowych są aktywne.
+     */
+    @Override
+    public boolean isConnected() {
+        if (!super.isConnected()) {
+            return false;
+        }
+        for (BossaApiClient client : marketDataClients) {
+            if (!client.isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dzieli żądanie według połączeń. Żądanie dotyczące jednego połączenia jest przekazywane bez zmian.
+     */
+    private List<ShardRequest> split(MarketDataRequest request) {
+        Map<Integer, List<MarketDataRequest.InstrumentMarketDataRequest>> byShard = new LinkedHashMap<>();
+        for (MarketDataRequest.InstrumentMarketDataRequest instrument : request.getInstruments()) {
+            String symbol = instrument.getInstrument() != null ? instrument.getInstrument().getSymbol() : null;
+            int shard = symbol != null ? getMarketDataConnectionIndex(symbol) : 0;
+            byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(instrument);
+        }
+
+        List<ShardRequest> parts = new ArrayList<>(byShard.size());
+        if (byShard.size() <= 1) {
+            int shard = byShard.isEmpty() ? 0 : byShard.keySet().iterator().next();
+            parts.add(new ShardRequest(shard, request));
+            return parts;
+        }
+        for (Map.Entry<Integer, List<MarketDataRequest.InstrumentMarketDataRequest>> entry : byShard.entrySet()) {
+            MarketDataRequest part = copy(request, request.getRequestId() + "-" + entry.getKey(),
+                    request.getSubscriptionRequestType());
+            part.setInstruments(entry.getValue());
+            parts.add(new ShardRequest(entry.getKey(), part));
+        }
+        return parts;
+    }
+
+    private static MarketDataRequest copy(MarketDataRequest source, String requestId, String type) {
+        MarketDataRequest copy = new MarketDataRequest();
+        copy.setRequestId(requestId);
+        copy.setSubscriptionRequestType(type);
+        copy.setMarketDepth(source.getMarketDepth());
+        return copy;
+    }
+
+    private static CompletableFuture<MarketDataResponse> combine(List<CompletableFuture<MarketDataResponse>> futures) {
+        if (futures.size() == 1) {
+            return futures.get(0);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.get(0).join());
+    }
+}
@@ -1,30 +1,142 @@
 package com.krzysztofpk14.app.bossaapi.client;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
-import java.nio.charset.StandardCharsets;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
+
 /**
  * Klasa do obsługi połączenia z serwerem bossaAPI.
+ * <p>
+ * Domyślnie używa blokującego gniazda i własnego wątku odbierającego. Połączenie
+ * utworzone z {@link NioTransport} jest nieblokujące i obsługiwane przez wspólny
+ * wątek selektora transportu.
  */
 public class BossaApiConnection {
+    private static final long RECEIVE_TIMEOUT_MILLIS = 30000;
+    
+    private final NioTransport transport;
+    private volatile NioChannel nioChannel;
     private Socket socket;
     private InputStream input;
     private OutputStream output;
-    private boolean connected = false;
+    private volatile boolean connected = false;
     private ExecutorService executorService;
     private Thread receiveThread;
-    private boolean receiveRunning = false;
-    private Consumer<String> messageHandler;
-
-
+    private volatile boolean receiveRunning = false;
+    private Consumer<BufferPool.Buffer> frameHandler;
+    private FrameWriter frameWriter;
+    private volatile Runnable connectionLostListener;
+    
+    // Odebrane ramki trafiają do buforów z puli (dla NIO - wspólnej puli transportu)
+    private final BufferPool bufferPool;
+    private final byte[] lengthBuffer = new byte[4];
+    
+    /**
+     * Tworzy połączenie korzystające z blokującego gniazda.
+     */
+    public BossaApiConnection() {
+        this(null);
+    }
+    
+    /**
+     * Tworzy połączenie obsługiwane przez nieblokujący transport.
+     * 
+     * @param transport Transport NIO współdzielony przez wiele połączeń lub null dla gniazda blokującego
+     */
+    public BossaApiConnection(NioTransport transport) {
+        this.transport = transport;
+        this.bufferPool = transport != null ? transport.getBufferPool() : new BufferPool();
+    }
+    
+    // Ustawienia gniazda i buforów (stosowane przy kolejnym połączeniu)
+    private boolean tcpNoDelay = true;
+    private boolean writeCoalescing = true;
+    private int sendBufferSize = 64 * 1024;
+    private int receiveBufferSize = 64 * 1024;
+    private int socketSendBufferSize = 0;
+    private int socketReceiveBufferSize = 0;
+    
+    /**
+     * Włącza lub wyłącza algorytm Nagle'a (TCP_NODELAY). Domyślnie włączone, bo każda
+     * ramka jest wysyłana jednym zapisem.
+     * 
+     * @param tcpNoDelay true aby wyłączyć opóźnianie małych segmentów
+     */
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+    
+    /**
+     * Włącza lub wyłącza łączenie ramek wysyłanych równocześnie przez kilka wątków.
+     * 
+     * @param writeCoalescing true aby łączyć zapisy
+     */
+    public void setWriteCoalescing(boolean writeCoalescing) {
+        this.writeCoalescing = writeCoalescing;
+    }
+    
+    /**
+     * Ustawia rozmiary buforów aplikacji używanych do wysyłania i odbioru ramek.
+     * 
+     * @param sendBufferSize Rozmiar bufora wysyłania w bajtach
+     * @param receiveBufferSize Rozmiar bufora odbioru w bajtach
+     */
+    public void setBufferSizes(int sendBufferSize, int receiveBufferSize) {
+        if (sendBufferSize <= 0 || receiveBufferSize <= 0) {
+            throw new IllegalArgumentException("Rozmiary buforów muszą być dodatnie");
+        }
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+    }
+    
+    /**
+     * Ustawia rozmiary buforów gniazda w systemie operacyjnym (SO_SNDBUF, SO_RCVBUF).
+     * Wartość 0 pozostawia ustawienia domyślne systemu.
+     * 
+     * @param socketSendBufferSize Rozmiar bufora wysyłania gniazda w bajtach
+     * @param socketReceiveBufferSize Rozmiar bufora odbioru gniazda w bajtach
+     */
+    public void setSocketBufferSizes(int socketSendBufferSize, int socketReceiveBufferSize) {
+        if (socketSendBufferSize < 0 || socketReceiveBufferSize < 0) {
+            throw new IllegalArgumentException("Rozmiary buforów gniazda nie mogą być ujemne");
+        }
+        this.socketSendBufferSize = socketSendBufferSize;
+        this.socketReceiveBufferSize = socketReceiveBufferSize;
+    }
+    
+    /**
+     * Zwraca pulę buforów, do których odczytywane są ramki.
+     * 
+     * @return Pula buforów
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
     
+    /**
+     * Ustawia obserwatora utraty połączenia. Jest wywoływany z wątku odbierającego,
+     * gdy serwer zamknie połączenie lub odczyt się nie powiedzie - nie przy
+     * zamknięciu połączenia metodą {@link #disconnect()}.
+     * 
+     * @param connectionLostListener Obserwator utraty połączenia
+     */
+    public void setConnectionLostListener(Runnable connectionLostListener) {
+        this.connectionLostListener = connectionLostListener;
+    }
+
     /**
      * Nawiązuje połączenie z serwerem bossaAPI.
      * 
@@ -33,13 +145,31 @@ public class BossaApiConnection {
      * @throws IOException Jeśli wystąpi błąd połączenia
      */
     public void connect(String host, int port) throws IOException {
-        socket = new Socket(host, port);
+        if (transport != null) {
+            NioChannel channel = transport.connect(host, port, tcpNoDelay, receiveBufferSize,
+                    socketSendBufferSize, socketReceiveBufferSize);
+            channel.setCloseListener(this::handleConnectionLost);
+            nioChannel = channel;
+            connected = true;
+            return;
+        }
+        
+        socket = new Socket();
+        if (socketReceiveBufferSize > 0) {
+            // SO_RCVBUF musi być ustawiony przed połączeniem, aby wpłynął na okno TCP
+            socket.setReceiveBufferSize(socketReceiveBufferSize);
+        }
+        socket.connect(new InetSocketAddress(host, port));
         socket.setKeepAlive(true);
-        input = socket.getInputStream();
+        socket.setTcpNoDelay(tcpNoDelay);
+        if (socketSendBufferSize > 0) {
+            socket.setSendBufferSize(socketSendBufferSize);
+        }
+        input = new BufferedInputStream(socket.getInputStream(), receiveBufferSize);
         output = socket.getOutputStream();
+        frameWriter = new FrameWriter(output, sendBufferSize, writeCoalescing);
         connected = true;
-        executorService = Executors.newSingleThreadExecutor();
-        socket.setSoTimeout(30000); // Timeout na 30 sekund
+        socket.setSoTimeout((int) RECEIVE_TIMEOUT_MILLIS); // Timeout na 30 sekund
     }
     
     /**
@@ -50,6 +180,12 @@ public class BossaApiConnection {
         
         connected = false;
         
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            channel.close();
+            nioChannel = null;
+        }
+        
         try {
             if (input != null) input.close();
             if (output != null) output.close();
@@ -60,18 +196,24 @@ public class BossaApiConnection {
         
         if (executorService != null) {
             executorService.shutdown();
+            executorService = null;
         }
     }
 
     /**
      * Wysyła komunikat do serwera i czeka na odpowiedź synchronicznie.
+     * Odczytuje następną ramkę bez korelacji z żądaniem, dlatego nie może działać razem
+     * z odbiorem asynchronicznym - klient korzysta z metod {@code *Sync} {@link BossaApiClient}.
      * 
      * @param xmlMessage Komunikat XML do wysłania
-     * @param timeout Maksymalny czas oczekiwania na odpowiedź (w milisekundach)
      * @return Odebrana odpowiedź lub null jeśli timeout
      * @throws IOException Jeśli wystąpi błąd podczas komunikacji
+     * @throws IllegalStateException Jeśli działa odbiór asynchroniczny
      */
     public String sendAndReceive(String xmlMessage) throws IOException, SocketException {
+        if (receiveRunning) {
+            throw new IllegalStateException("Odbiór asynchroniczny jest aktywny - odpowiedź odebrałby wątek odbierający");
+        }
         sendMessage(xmlMessage);
         String response = receiveMessage();
         // System.out.println("Wiadomosc przez socket synchroniczny");
@@ -90,21 +232,34 @@ public class BossaApiConnection {
             throw new IOException("Nie nawiązano połączenia z serwerem");
         }
             
-        // Wyślij wiadomość
-        byte[] messageBytes = xmlMessage.getBytes(StandardCharsets.UTF_8);
-        int messageLength = messageBytes.length;
-
-        // Wyślij długość jako 4 bajty (big-endian)
-        output.write((messageLength >> 24) & 0xFF);
-        output.write((messageLength >> 16) & 0xFF);
-        output.write((messageLength >> 8) & 0xFF);
-        output.write(messageLength & 0xFF);
-
-        // System.out.println("Wysłano wiadomość o długości: " + messageLength);
-        output.write(messageBytes);
-        output.flush();
-
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            channel.writeFrame(xmlMessage);
+            return;
+        }
+        // Długość (4 bajty big-endian) i treść trafiają do gniazda jednym zapisem
+        frameWriter.writeFrame(xmlMessage);
+    }
 
+    /**
+     * Wysyła kilka komunikatów XML jednym zapisem do gniazda.
+     * 
+     * @param xmlMessages Komunikaty XML do wysłania
+     * @throws IOException Jeśli wystąpi błąd podczas wysyłania
+     */
+    public void sendMessages(List<String> xmlMessages) throws IOException {
+        if (!connected) {
+            throw new IOException("Nie nawiązano połączenia z serwerem");
+        }
+        if (xmlMessages.isEmpty()) {
+            return;
+        }
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            channel.writeFrames(xmlMessages);
+            return;
+        }
+        frameWriter.writeFrames(xmlMessages);
     }
 
     /**
@@ -114,35 +269,70 @@ public class BossaApiConnection {
      * @return Odebrana odpowiedź lub null jeśli wystąpił błąd
      */
     public String receiveMessage() {
-        try{
-            // Najpierw odczytaj 4 bajty długości
-            byte[] lengthBuffer = new byte[4];
-            int bytesRead = 0;
-            
-            // Czekaj na odczyt całego nagłówka długości (4 bajty)
-            while (bytesRead < 4) {
-                int read = input.read(lengthBuffer, bytesRead, 4 - bytesRead);
-                if (read == -1) {
-                    throw new IOException("Połączenie zamknięte podczas odczytu długości wiadomości");
-                }
-                bytesRead += read;
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            try {
+                // Transport NIO odkłada ramki do kolejki, dopóki nie uruchomiono odbioru asynchronicznego
+                BufferPool.Buffer frame = channel.inbox().poll(RECEIVE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                return frame != null ? toMessage(frame) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
             }
-            
-            // Oblicz długość wiadomości z 4 bajtów
-            int responseLength = ((lengthBuffer[0] & 0xFF) << 24) |
-                                ((lengthBuffer[1] & 0xFF) << 16) |
-                                ((lengthBuffer[2] & 0xFF) << 8) |
-                                (lengthBuffer[3] & 0xFF);
-            
-            
-            // Sprawdź czy długość ma sens
-            if (responseLength <= 0 || responseLength > 10_000_000) { // 10MB jako rozsądny limit
-                throw new IOException("Nieprawidłowa długość odpowiedzi: " + responseLength);
+        }
+        try {
+            return readFrame();
+        } catch (IOException e) {
+            System.err.println("BossaApiConnection: Blad podczas odbierania wiadomosci: " + e.getMessage());
+            return null; // lub można rzucić 
+        }    
+    }
+    
+    /**
+     * Odczytuje jedną ramkę (4 bajty długości + treść UTF-8).
+     * 
+     * @return Treść komunikatu
+     * @throws IOException Jeśli odczyt się nie powiedzie lub połączenie zostało zamknięte
+     */
+    private String readFrame() throws IOException {
+        return toMessage(readPooledFrame());
+    }
+    
+    /**
+     * Odczytuje jedną ramkę do bufora z puli. Wywołujący przejmuje bufor i musi go zwolnić.
+     * 
+     * @return Ramka w buforze z puli
+     * @throws IOException Jeśli odczyt się nie powiedzie lub połączenie zostało zamknięte
+     */
+    private BufferPool.Buffer readPooledFrame() throws IOException {
+        int bytesRead = 0;
+        
+        // Czekaj na odczyt całego nagłówka długości (4 bajty)
+        while (bytesRead < 4) {
+            int read = input.read(lengthBuffer, bytesRead, 4 - bytesRead);
+            if (read == -1) {
+                throw new IOException("Połączenie zamknięte podczas odczytu długości wiadomości");
             }
-            byte[] responseBuffer = new byte[responseLength];
-            bytesRead = 0;
-            
-            // Czekaj na odczyt całej wiadomości
+            bytesRead += read;
+        }
+        
+        // Oblicz długość wiadomości z 4 bajtów
+        int responseLength = ((lengthBuffer[0] & 0xFF) << 24) |
+                            ((lengthBuffer[1] & 0xFF) << 16) |
+                            ((lengthBuffer[2] & 0xFF) << 8) |
+                            (lengthBuffer[3] & 0xFF);
+        
+        
+        // Sprawdź czy długość ma sens
+        if (responseLength <= 0 || responseLength > 10_000_000) { // 10MB jako rozsądny limit
+            throw new IOException("Nieprawidłowa długość odpowiedzi: " + responseLength);
+        }
+        BufferPool.Buffer frame = bufferPool.acquire(responseLength);
+        byte[] responseBuffer = frame.array();
+        bytesRead = 0;
+        
+        // Czekaj na odczyt całej wiadomości
+        try {
             while (bytesRead < responseLength) {
                 int read = input.read(responseBuffer, bytesRead, responseLength - bytesRead);
                 if (read == -1) {
@@ -150,16 +340,20 @@ public class BossaApiConnection {
                 }
                 bytesRead += read;
             }
-            
-            // Konwertuj odpowiedź na string
-            String response = new String(responseBuffer, StandardCharsets.UTF_8);
-            // System.out.println("Odebrano odpowiedź o długości: " + bytesRead + " bajtów");
-            
-            return response;
         } catch (IOException e) {
-            System.err.println("BossaApiConnection: Blad podczas odbierania wiadomosci: " + e.getMessage());
-            return null; // lub można rzucić 
-        }    
+            frame.release();
+            throw e;
+        }
+        
+        return frame;
+    }
+    
+    private static String toMessage(BufferPool.Buffer frame) {
+        try {
+            return frame.toString();
+        } finally {
+            frame.release();
+        }
     }
     
     /**
@@ -168,66 +362,134 @@ public class BossaApiConnection {
      * @param handler Funkcja przetwarzająca odebrane komunikaty
      */
     public void startReceivingAsync(Consumer<String> handler) {
+        // Połączenie NIO nie ma własnego wykonawcy - obsługa w wątku selektora; gniazdo blokujące
+        // dostaje wątek obsługi dopiero tutaj, więc połączenia z własnym wykonawcą go nie tworzą
+        if (transport != null) {
+            startReceivingAsync(handler, Runnable::run);
+            return;
+        }
+        if (executorService == null && connected) {
+            executorService = Executors.newSingleThreadExecutor();
+        }
+        startReceivingAsync(handler, executorService);
+    }
+    
+    /**
+     * Rozpoczyna asynchroniczny odbiór komunikatów z serwera, przekazując je do podanego wykonawcy.
+     * Wykonawca {@code Runnable::run} obsługuje komunikaty bezpośrednio w wątku odbierającym.
+     * 
+     * @param handler Funkcja przetwarzająca odebrane komunikaty
+     * @param dispatchExecutor Wykonawca, w którym wywoływana jest funkcja przetwarzająca
+     */
+    public void startReceivingAsync(Consumer<String> handler, Executor dispatchExecutor) {
+        startReceivingFrames(frame -> handler.accept(toMessage(frame)), dispatchExecutor);
+    }
+    
+    /**
+     * Rozpoczyna asynchroniczny odbiór ramek bez zamiany na String. Ramka jest czytana do
+     * bufora z puli i przekazywana funkcji przetwarzającej, która przejmuje bufor
+     * i musi go zwolnić ({@link BufferPool.Buffer#release()}) po obsłużeniu.
+     * 
+     * @param handler Funkcja przetwarzająca odebrane ramki
+     * @param dispatchExecutor Wykonawca, w którym wywoływana jest funkcja przetwarzająca
+     */
+    public void startReceivingFrames(Consumer<BufferPool.Buffer> handler, Executor dispatchExecutor) {
         System.out.println("Rozpoczeto odbieranie wiadomosci...");
         if (!connected || receiveRunning) {
             return;
         }
         
-        messageHandler = handler;
+        frameHandler = handler;
         receiveRunning = true;
         
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            // Bez własnego wątku - ramki przekazuje wątek selektora transportu
+            channel.setFrameHandler(frame -> dispatchExecutor.execute(() -> frameHandler.accept(frame)));
+            return;
+        }
+        
         receiveThread = new Thread(() -> {
+            boolean connectionLost = false;
             try {
                 while (receiveRunning) {
-                    // Użyj istniejącej metody receiveMessage() do odczytania wiadomości
-                    String message = receiveMessage();
+                    BufferPool.Buffer frame;
+                    try {
+                        frame = readPooledFrame();
+                    } catch (SocketTimeoutException e) {
+                        // Brak ruchu w ciągu limitu czasu gniazda - połączenie nadal istnieje
+                        continue;
+                    }
                     // System.out.println("Wiadomość przez socket asynchroniczny");
                     
-                    // Jeśli odczytano kompletną wiadomość, przekaż ją do handlera
-                    if (message != null && messageHandler != null) {
-                        // Użyj puli wątków do przetworzenia wiadomości
-                        final String finalMessage = message;
-                        executorService.submit(() -> messageHandler.accept(finalMessage));
-                    } else if (message == null) {
-                        // Jeśli receiveMessage zwraca null, to wystąpił błąd odczytu
-                        // Wstrzymaj chwilę pętlę przed ponowną próbą
-                        Thread.sleep(1000);
-                        
-                        // Sprawdź czy połączenie nadal istnieje
-                        if (!isConnected()) {
-                            System.out.println("Połączenie zostało zamknięte - przerywam odbiór");
-                            break;
-                        }
+                    // Przekaż ramkę do wykonawcy wskazanego przy starcie odbioru
+                    Consumer<BufferPool.Buffer> currentHandler = frameHandler;
+                    if (currentHandler != null) {
+                        dispatchExecutor.execute(() -> currentHandler.accept(frame));
+                    } else {
+                        frame.release();
                     }
                 }
-            } catch (InterruptedException e) {
-                // Wątek został przerwany, zakończ działanie
-                Thread.currentThread().interrupt();
-                System.out.println("Wątek odbierania został przerwany");
+            } catch (IOException e) {
+                // Zamknięcie gniazda przez disconnect() kończy odczyt wyjątkiem - to nie jest utrata połączenia
+                if (receiveRunning) {
+                    System.err.println("Utracono połączenie z serwerem: " + e.getMessage());
+                    connectionLost = true;
+                }
             } catch (Exception e) {
                 // Obsługa innych wyjątków, które mogą się pojawić
                 System.err.println("Błąd w wątku odbierania: " + e.getMessage());
+                connectionLost = receiveRunning;
             } finally {
                 // Jeśli pętla została przerwana z powodu błędu, a nie celowego zatrzymania:
                 if (receiveRunning) {
                     receiveRunning = false;
                     System.out.println("Odbiór wiadomości został przerwany nieoczekiwanie");
-                    // Tutaj można dodać kod do powiadamiania klienta o utracie połączenia
                 }
                 System.out.println("Zakończono wątek odbierania");
             }
+            
+            if (connectionLost) {
+                handleConnectionLost();
+            }
         });
 
         receiveThread.setName("BossaAPI-Receiver");
         receiveThread.start();
     }
     
+    /**
+     * Zamyka gniazdo po utracie połączenia i powiadamia obserwatora.
+     */
+    private void handleConnectionLost() {
+        connected = false;
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException e) {
+            // Ignorujemy błędy przy zamykaniu
+        }
+        
+        Runnable listener = connectionLostListener;
+        if (listener != null) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                System.err.println("Błąd w obsłudze utraty połączenia: " + e.getMessage());
+            }
+        }
+    }
+    
     /**
      * Zatrzymuje odbiór komunikatów z serwera.
      */
     public void stopReceiving() {
         receiveRunning = false;
         
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            channel.setFrameHandler(null);
+        }
+        
         if (receiveThread != null) {
             receiveThread.interrupt();
             try {
@@ -246,6 +508,10 @@ public class BossaApiConnection {
      * @return true jeśli połączenie jest aktywne
      */
     public boolean isConnected() {
+        NioChannel channel = nioChannel;
+        if (channel != null) {
+            return connected && channel.isOpen();
+        }
         return connected && socket != null && socket.isConnected() && !socket.isClosed();
     }
 
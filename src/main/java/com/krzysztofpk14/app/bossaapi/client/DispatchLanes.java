@@ -0,0 +1,138 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zestaw szeregowych torów przetwarzania komunikatów.
+ * <p>
+ * Komunikaty z tym samym kluczem (np. symbolem instrumentu) trafiają zawsze
+ * do tego samego toru i są przetwarzane w kolejności nadejścia, a komunikaty
+ * różnych instrumentów mogą być przetwarzane równolegle. Wolna obsługa jednego
+ * instrumentu blokuje tylko jego tor.
+ */
+public class DispatchLanes implements AutoCloseable {
+
+    private final ThreadPoolExecutor[] lanes;
+
+    /**
+     * Tworzy tory przetwarzania.
+     *
+     * @param laneCount Liczba torów (wątków)
+     * @param namePrefix Prefiks nazw wątków
+     */
+    public DispatchLanes(int laneCount, String namePrefix) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("Liczba torów musi być dodatnia: " + laneCount);
+        }
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = namePrefix + "-" + i;
+            // Jeden wątek na tor gwarantuje kolejność w obrębie toru
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Zwraca domyślną liczbę torów dla bieżącej maszyny.
+     *
+     * @return Liczba torów
+     */
+    public static int defaultLaneCount() {
+        return Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Zwraca indeks toru dla klucza. Klucz null trafia do toru 0.
+     *
+     * @param key Klucz porządkujący
+     * @return Indeks toru
+     */
+    public int laneFor(String key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Przekazuje zadanie do toru wyznaczonego przez klucz.
+     *
+     * @param key Klucz porządkujący (np. symbol instrumentu)
+     * @param task Zadanie
+     */
+    public void execute(String key, Runnable task) {
+        executeOnLane(laneFor(key), task);
+    }
+
+    /**
+     * Przekazuje zadanie do toru wyznaczonego przez liczbowy identyfikator partycji.
+     *
+     * @param partition Identyfikator partycji (np. identyfikator instrumentu)
+     * @param task Zadanie
+     */
+    public void execute(int partition, Runnable task) {
+        executeOnLane(Math.floorMod(partition, lanes.length), task);
+    }
+
+    private void executeOnLane(int lane, Runnable task) {
+        try {
+            lanes[lane].execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    System.err.println("Błąd podczas przetwarzania komunikatu w torze " + lane + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("Tor " + lane + " jest zamknięty - komunikat pominięty");
+        }
+    }
+
+    /**
+     * Zwraca liczbę torów.
+     *
+     * @return Liczba torów
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Zwraca liczbę komunikatów oczekujących we wszystkich torach.
+     *
+     * @return Liczba oczekujących komunikatów
+     */
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Zamyka tory, pozwalając dokończyć zadania już przyjęte.
+     */
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                lane.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
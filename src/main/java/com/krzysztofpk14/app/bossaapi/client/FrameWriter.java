@@ -0,0 +1,148 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Zapisuje ramki protokołu (4 bajty długości big-endian + treść UTF-8) przez
+ * jeden bufor wielokrotnego użytku, tak aby nagłówek i treść trafiały do gniazda
+ * jednym zapisem.
+ * <p>
+ * Przy włączonym łączeniu zapisów ramki wysyłane jednocześnie przez kilka wątków
+ * (np. strategia składająca zlecenia na wielu instrumentach) są zbierane w buforze
+ * i wysyłane razem przez ostatni oczekujący wątek. Pojedyncza ramka bez konkurencji
+ * jest wysyłana od razu, więc łączenie nie dodaje opóźnienia.
+ */
+class FrameWriter {
+    private static final int HEADER_SIZE = 4;
+
+    private final OutputStream output;
+    private final boolean coalesce;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // Liczba wątków czekających na zapis - ostatni z nich wysyła zebrane ramki
+    private final AtomicInteger waitingWriters = new AtomicInteger();
+
+    private ByteBuffer buffer;
+    private long framesWritten;
+    private long flushes;
+
+    /**
+     * Tworzy zapis ramek.
+     *
+     * @param output Strumień wyjściowy gniazda
+     * @param bufferSize Początkowy rozmiar bufora w bajtach
+     * @param coalesce Czy łączyć ramki wysyłane równocześnie
+     */
+    FrameWriter(OutputStream output, int bufferSize, boolean coalesce) {
+        if (bufferSize < HEADER_SIZE) {
+            throw new IllegalArgumentException("Zbyt mały bufor wysyłania: " + bufferSize);
+        }
+        this.output = output;
+        this.coalesce = coalesce;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Zapisuje ramkę z komunikatem.
+     *
+     * @param message Treść komunikatu
+     * @throws IOException Jeśli zapis do gniazda się nie powiedzie
+     */
+    void writeFrame(CharSequence message) throws IOException {
+        waitingWriters.incrementAndGet();
+        synchronized (this) {
+            waitingWriters.decrementAndGet();
+            appendFrame(message);
+            framesWritten++;
+            if (!coalesce || waitingWriters.get() == 0) {
+                flushBuffer();
+            }
+        }
+    }
+
+    /**
+     * Zapisuje kilka ramek jednym zapisem do gniazda (o ile mieszczą się w buforze).
+     *
+     * @param messages Treści komunikatów
+     * @throws IOException Jeśli zapis do gniazda się nie powiedzie
+     */
+    void writeFrames(List<? extends CharSequence> messages) throws IOException {
+        synchronized (this) {
+            for (CharSequence message : messages) {
+                appendFrame(message);
+                framesWritten++;
+            }
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Dopisuje ramkę do bufora, wysyłając wcześniej zebrane ramki, jeśli brakuje miejsca.
+     */
+    private void appendFrame(CharSequence message) throws IOException {
+        // UTF-8 zajmuje najwyżej 3 bajty na znak UTF-16 (pary zastępcze: 4 bajty na 2 znaki)
+        int maxFrameSize = HEADER_SIZE + message.length() * 3;
+        if (buffer.remaining() < maxFrameSize && buffer.position() > 0) {
+            flushBuffer();
+        }
+        if (buffer.capacity() < maxFrameSize) {
+            buffer = ByteBuffer.allocate(maxFrameSize);
+        }
+
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(message), buffer, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(buffer);
+        }
+        if (!result.isUnderflow()) {
+            buffer.position(start);
+            throw new IOException("Nie udało się zakodować komunikatu: " + result);
+        }
+        buffer.putInt(start, buffer.position() - start - HEADER_SIZE);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        try {
+            output.write(buffer.array(), 0, buffer.position());
+            output.flush();
+            flushes++;
+        } finally {
+            // Po błędzie zapisu połączenie jest nieużywalne - nie wysyłamy resztek ramek
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Zwraca liczbę zapisanych ramek.
+     *
+     * @return Liczba ramek
+     */
+    synchronized long getFramesWritten() {
+        return framesWritten;
+    }
+
+    /**
+     * Zwraca liczbę zapisów do gniazda (przy łączeniu może być mniejsza od liczby ramek).
+     *
+     * @return Liczba zapisów
+     */
+    synchronized long getFlushes() {
+        return flushes;
+    }
+}
@@ -0,0 +1,313 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+/**
+ * Wspólna pamięć podręczna notowań po stronie klienta.
+ * <p>
+ * Dla każdego instrumentu (według identyfikatora z {@link InstrumentRegistry})
+ * przechowuje niezmienną migawkę {@link Quote}: ostatnią transakcję, najlepszą
+ * ofertę sprzedaży oraz OHLC. Migawka jest budowana raz na komunikat (lub wpis
+ * stałoprzecinkowy, {@link #apply(String, byte, long, long, String)})
+ * i publikowana atomowo, więc strategie i kontrolery GUI czytają ją bez blokad
+ * i bez ponownego parsowania komunikatów. Ceny są stałoprzecinkowe ({@link Price}).
+ * <p>
+ * Zastosowany komunikat dostaje numer aktualizacji instrumentu
+ * ({@link MarketDataResponse#getSequenceNumber()}). Ponowne zastosowanie komunikatu
+ * nie zmienia notowań, więc strategia przetwarzająca zaległe komunikaty (np. ze skrzynki
+ * zdarzeń) nie cofa migawki do starszej ceny.
+ * <p>
+ * Symulator oznacza transakcje typem wpisu {@link MarketDataResponse#TRADE} ("0"),
+ * który w FIX oznacza ofertę kupna, dlatego "0" i "2" są traktowane jako transakcja,
+ * a najlepsza oferta kupna nie jest rozpoznawana.
+ */
+public class MarketDataCache {
+
+    /**
+     * Migawka notowań instrumentu. Ceny niedostępne mają wartość {@link Price#NONE}.
+     *
+     * @param symbolId Identyfikator instrumentu
+     * @param symbol Symbol instrumentu
+     * @param lastPrice Cena ostatniej transakcji
+     * @param lastSize Wolumen ostatniej transakcji
+     * @param lastTime Czas ostatniej transakcji w formacie FIXML
+     * @param askPrice Najlepsza cena sprzedaży
+     * @param askSize Wolumen najlepszej oferty sprzedaży
+     * @param open Cena otwarcia
+     * @param high Najwyższa cena
+     * @param low Najniższa cena
+     * @param close Cena zamknięcia
+     * @param updates Liczba zastosowanych komunikatów
+     * @param newTrade Czy komunikat, z którego powstała migawka, zawierał transakcję
+     */
+    public record Quote(int symbolId, String symbol,
+                        long lastPrice, long lastSize, String lastTime,
+                        long askPrice, long askSize,
+                        long open, long high, long low, long close,
+                        long updates, boolean newTrade) {
+
+        private static Quote empty(int symbolId, String symbol) {
+            return new Quote(symbolId, symbol, Price.NONE, 0, null,
+                    Price.NONE, 0,
+                    Price.NONE, Price.NONE, Price.NONE, Price.NONE, 0, false);
+        }
+
+        /**
+         * Sprawdza, czy znana jest cena ostatniej transakcji.
+         *
+         * @return true jeśli cena jest dostępna
+         */
+        public boolean hasLastPrice() {
+            return lastPrice != Price.NONE;
+        }
+    }
+
+    private final InstrumentRegistry registry;
+    private volatile AtomicReferenceArray<Quote> entries = new AtomicReferenceArray<>(16);
+
+    /**
+     * Tworzy pamięć podręczną z własnym rejestrem instrumentów.
+     */
+    public MarketDataCache() {
+        this(new InstrumentRegistry());
+    }
+
+    /**
+     * Tworzy pamięć podręczną korzystającą ze wskazanego rejestru instrumentów.
+     *
+     * @param registry Rejestr instrumentów
+     */
+    public MarketDataCache(InstrumentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Zwraca rejestr instrumentów, według którego indeksowane są notowania.
+     *
+     * @return Rejestr instrumentów
+     */
+    public InstrumentRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Stosuje komunikat z danymi rynkowymi i zwraca nową migawkę instrumentu.
+     * Komunikat zastosowany wcześniej (np. przez klienta przed przekazaniem go strategii)
+     * nie zmienia notowań - zwracana jest bieżąca migawka, nawet jeśli od tego czasu
+     * przyszły nowsze komunikaty.
+     *
+     * @param response Komunikat z danymi rynkowymi
+     * @return Migawka po aktualizacji lub null, jeśli komunikat nie dotyczy instrumentu
+     */
+    public Quote apply(MarketDataResponse response) {
+        if (response == null || response.getInstrument() == null || response.getInstrument().getSymbol() == null) {
+            return null;
+        }
+        String symbol = response.getInstrument().getSymbol();
+        int id = registry.register(symbol);
+        if (response.getSequenceNumber() != 0) {
+            return get(id);
+        }
+        Quote updated = update(id, symbol, response.getMarketDataGroups(), (byte) 0, Price.NONE, 0, null);
+        response.setSequenceNumber(updated.updates());
+        return updated;
+    }
+
+    /**
+     * Stosuje pojedynczy wpis o cenie stałoprzecinkowej (np. notowanie z pliku w teście
+     * wstecznym) i zwraca nową migawkę instrumentu. Wpis jest traktowany jak komunikat
+     * z jedną grupą, ale bez formatowania i parsowania cen.
+     *
+     * @param symbol Symbol instrumentu
+     * @param entryType Typ wpisu (kod znaku MDEntryTyp)
+     * @param price Cena stałoprzecinkowa
+     * @param size Wolumen
+     * @param time Czas wpisu w formacie FIXML lub null
+     * @return Migawka po aktualizacji
+     */
+    public Quote apply(String symbol, byte entryType, long price, long size, String time) {
+        int id = registry.register(symbol);
+        return update(id, symbol, null, entryType, price, size, time);
+    }
+
+    /**
+     * Zwraca migawkę notowań instrumentu.
+     *
+     * @param symbolId Identyfikator instrumentu
+     * @return Migawka lub null, jeśli nie otrzymano jeszcze danych
+     */
+    public Quote get(int symbolId) {
+        AtomicReferenceArray<Quote> current = entries;
+        if (symbolId < 0 || symbolId >= current.length()) {
+            return null;
+        }
+        return current.get(symbolId);
+    }
+
+    /**
+     * Zwraca migawkę notowań instrumentu.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Migawka lub null, jeśli nie otrzymano jeszcze danych
+     */
+    public Quote get(String symbol) {
+        return get(registry.getId(symbol));
+    }
+
+    /**
+     * Zwraca cenę ostatniej transakcji.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Cena stałoprzecinkowa lub {@link Price#NONE}
+     */
+    public long getLastPrice(String symbol) {
+        Quote quote = get(symbol);
+        return quote != null ? quote.lastPrice() : Price.NONE;
+    }
+
+    /**
+     * Usuwa wszystkie notowania (identyfikatory instrumentów pozostają).
+     */
+    public synchronized void clear() {
+        entries = new AtomicReferenceArray<>(entries.length());
+    }
+
+    /**
+     * Publikuje migawkę zbudowaną z wpisów komunikatu albo z pojedynczego wpisu
+     * (gdy groups jest null).
+     */
+    private Quote update(int id, String symbol, List<MarketDataResponse.MarketDataGroup> groups,
+                         byte entryType, long price, long size, String time) {
+        ensureCapacity(id);
+
+        // Komunikaty jednego instrumentu przychodzą z jednego toru, więc pętla zwykle wykonuje się raz
+        while (true) {
+            AtomicReferenceArray<Quote> current = entries;
+            Quote previous = current.get(id);
+            Quote base = previous != null ? previous : Quote.empty(id, symbol);
+            QuoteBuilder builder = new QuoteBuilder(base);
+            if (groups != null) {
+                for (MarketDataResponse.MarketDataGroup group : groups) {
+                    String type = group.getMarketDataEntryType();
+                    if (type != null && type.length() == 1) {
+                        builder.add((byte) type.charAt(0), Price.parse(group.getPrice(), Price.NONE),
+                                parseSize(group.getSize()), group.getTime());
+                    }
+                }
+            } else {
+                builder.add(entryType, price, size, time);
+            }
+            Quote updated = builder.build();
+            // Po powiększeniu tablicy w trakcie zapisu powtarzamy go na nowej tablicy
+            if (current.compareAndSet(id, previous, updated) && entries == current) {
+                return updated;
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < entries.length()) {
+            return;
+        }
+        synchronized (this) {
+            AtomicReferenceArray<Quote> current = entries;
+            if (id < current.length()) {
+                return;
+            }
+            AtomicReferenceArray<Quote> grown = new AtomicReferenceArray<>(Math.max(current.length() * 2, id + 1));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            entries = grown;
+        }
+    }
+
+    /**
+     * Buduje nową migawkę z poprzedniej i kolejnych wpisów.
+     */
+    private static final class QuoteBuilder {
+        private final Quote quote;
+        private long lastPrice;
+        private long lastSize;
+        private String lastTime;
+        private long askPrice;
+        private long askSize;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+        private boolean newTrade;
+
+        QuoteBuilder(Quote quote) {
+            this.quote = quote;
+            lastPrice = quote.lastPrice();
+            lastSize = quote.lastSize();
+            lastTime = quote.lastTime();
+            askPrice = quote.askPrice();
+            askSize = quote.askSize();
+            open = quote.open();
+            high = quote.high();
+            low = quote.low();
+            close = quote.close();
+        }
+
+        void add(byte type, long price, long size, String time) {
+            if (price == Price.NONE) {
+                return;
+            }
+            switch (type) {
+                case '0': // MarketDataResponse.TRADE
+                case '2': // MarketDataGroup.TRADE
+                    lastPrice = price;
+                    lastSize = size;
+                    lastTime = time;
+                    newTrade = true;
+                    if (open == Price.NONE) {
+                        open = price;
+                    }
+                    high = high == Price.NONE ? price : Math.max(high, price);
+                    low = low == Price.NONE ? price : Math.min(low, price);
+                    break;
+                case '1': // MarketDataGroup.OFFER
+                    askPrice = price;
+                    askSize = size;
+                    break;
+                case '4': // MarketDataGroup.OPEN_PRICE
+                    open = price;
+                    break;
+                case '7': // MarketDataGroup.HIGH_PRICE
+                    high = price;
+                    break;
+                case '8': // MarketDataGroup.LOW_PRICE
+                    low = price;
+                    break;
+                case '5': // MarketDataGroup.CLOSE_PRICE
+                    close = price;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Quote build() {
+            return new Quote(quote.symbolId(), quote.symbol(), lastPrice, lastSize, lastTime,
+                    askPrice, askSize, open, high, low, close, quote.updates() + 1, newTrade);
+        }
+    }
+
+    private static long parseSize(String size) {
+        if (size == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(size);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
+
+/**
+ * Nieblokujące połączenie obsługiwane przez wątek {@link NioTransport}.
+ * <p>
+ * Zapis próbuje wysłać ramkę od razu z wątku wywołującego; to, czego gniazdo nie
+ * przyjęło, czeka w kolejce i jest dosyłane przez wątek selektora po zgłoszeniu
+ * gotowości (OP_WRITE). Dzięki temu wiele żądań może oczekiwać na odpowiedź
+ * jednocześnie, a wolny odbiorca nie blokuje wątków wysyłających. Odczyt składa
+ * ramki z kolejnych porcji danych; brak ruchu na połączeniu nie jest błędem.
+ */
+class NioChannel {
+    private static final int HEADER_SIZE = 4;
+    private static final int MAX_FRAME_SIZE = 10_000_000;
+
+    private final NioTransport transport;
+    private final SocketChannel channel;
+    private final long maxPendingBytes;
+    private final BufferPool bufferPool;
+    private volatile SelectionKey key;
+
+    // Ramki czekające na wysłanie (dostęp pod blokadą writeQueue)
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
+    private long pendingBytes;
+
+    // Odczyt - używany wyłącznie przez wątek selektora
+    private ByteBuffer readBuffer;
+
+    // Ramki odebrane przed ustawieniem obsługi (np. dla odbioru synchronicznego)
+    private final BlockingQueue<BufferPool.Buffer> inbox = new LinkedBlockingQueue<>();
+    private Consumer<BufferPool.Buffer> frameHandler;
+
+    private volatile Runnable closeListener;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    NioChannel(NioTransport transport, SocketChannel channel, int receiveBufferSize, long maxPendingBytes,
+            BufferPool bufferPool) {
+        this.transport = transport;
+        this.bufferPool = bufferPool;
+        this.channel = channel;
+        this.readBuffer = ByteBuffer.allocate(Math.max(receiveBufferSize, HEADER_SIZE));
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+        synchronized (writeQueue) {
+            if (!writeQueue.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Ustawia obsługę odebranych ramek. Ramki odebrane wcześniej są przekazywane od razu.
+     * Obsługa przejmuje bufor ramki i musi go zwolnić.
+     *
+     * @param handler Obsługa ramek (wywoływana w wątku selektora)
+     */
+    synchronized void setFrameHandler(Consumer<BufferPool.Buffer> handler) {
+        if (handler != null) {
+            BufferPool.Buffer frame;
+            while ((frame = inbox.poll()) != null) {
+                handler.accept(frame);
+            }
+        }
+        this.frameHandler = handler;
+    }
+
+    /**
+     * Ustawia obserwatora zamknięcia połączenia przez drugą stronę lub błąd.
+     *
+     * @param closeListener Obserwator
+     */
+    void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * Zwraca kolejkę ramek odebranych, gdy nie ustawiono obsługi.
+     *
+     * @return Kolejka ramek
+     */
+    BlockingQueue<BufferPool.Buffer> inbox() {
+        return inbox;
+    }
+
+    boolean isOpen() {
+        return open.get() && channel.isOpen();
+    }
+
+    /**
+     * Wysyła ramkę z komunikatem.
+     *
+     * @param message Treść komunikatu
+     * @throws IOException Jeśli połączenie jest zamknięte lub kolejka wysyłania jest pełna
+     */
+    void writeFrame(String message) throws IOException {
+        enqueue(List.of(encode(message)));
+    }
+
+    /**
+     * Wysyła kilka ramek jako jedną porcję danych.
+     *
+     * @param messages Treści komunikatów
+     * @throws IOException Jeśli połączenie jest zamknięte lub kolejka wysyłania jest pełna
+     */
+    void writeFrames(List<String> messages) throws IOException {
+        byte[][] bodies = new byte[messages.size()][];
+        int total = 0;
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = messages.get(i).getBytes(StandardCharsets.UTF_8);
+            total += HEADER_SIZE + bodies[i].length;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(total);
+        for (byte[] body : bodies) {
+            batch.putInt(body.length).put(body);
+        }
+        batch.flip();
+        enqueue(List.of(batch));
+    }
+
+    private static ByteBuffer encode(String message) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        frame.putInt(body.length).put(body).flip();
+        return frame;
+    }
+
+    private void enqueue(List<ByteBuffer> frames) throws IOException {
+        if (!isOpen()) {
+            throw new IOException("Połączenie zostało zamknięte");
+        }
+        boolean needsSelector = false;
+        synchronized (writeQueue) {
+            long size = 0;
+            for (ByteBuffer frame : frames) {
+                size += frame.remaining();
+            }
+            if (pendingBytes + size > maxPendingBytes) {
+                throw new IOException("Przepełniona kolejka wysyłania: " + pendingBytes + " bajtów oczekuje");
+            }
+            boolean wasIdle = writeQueue.isEmpty();
+            writeQueue.addAll(frames);
+            pendingBytes += size;
+            if (wasIdle) {
+                // Kolejka była pusta - próbujemy wysłać od razu, bez udziału wątku selektora
+                try {
+                    flushQueue();
+                } catch (IOException e) {
+                    transport.execute(() -> closeOnError(e));
+                    throw e;
+                }
+                needsSelector = !writeQueue.isEmpty();
+            }
+        }
+        if (needsSelector) {
+            transport.interestWrite(this);
+        }
+    }
+
+    /**
+     * Wysyła zakolejkowane ramki, dopóki gniazdo je przyjmuje. Wywoływane pod blokadą writeQueue.
+     */
+    private void flushQueue() throws IOException {
+        while (!writeQueue.isEmpty()) {
+            ByteBuffer[] buffers = writeQueue.toArray(new ByteBuffer[0]);
+            long written = channel.write(buffers);
+            pendingBytes -= written;
+            while (!writeQueue.isEmpty() && !writeQueue.peekFirst().hasRemaining()) {
+                writeQueue.pollFirst();
+            }
+            if (written == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obsługuje gotowość do zapisu. Wywoływane w wątku selektora.
+     */
+    void onWritable() {
+        try {
+            synchronized (writeQueue) {
+                flushQueue();
+                if (writeQueue.isEmpty() && key != null && key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        } catch (IOException e) {
+            closeOnError(e);
+        }
+    }
+
+    /**
+     * Zgłasza gotowość do zapisu selektorowi, jeśli w kolejce pozostały dane. Wywoływane w wątku selektora.
+     */
+    void enableWriteInterest() {
+        SelectionKey selectionKey = key;
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        synchronized (writeQueue) {
+            if (!writeQueue.isEmpty()) {
+                selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Odczytuje dostępne dane i przekazuje kompletne ramki. Wywoływane w wątku selektora.
+     */
+    void onReadable() {
+        try {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                closeOnError(new IOException("Serwer zamknął połączenie"));
+                return;
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length <= 0 || length > MAX_FRAME_SIZE) {
+                    throw new IOException("Nieprawidłowa długość odpowiedzi: " + length);
+                }
+                if (readBuffer.remaining() < HEADER_SIZE + length) {
+                    break;
+                }
+                readBuffer.position(readBuffer.position() + HEADER_SIZE);
+                // Treść trafia do bufora z puli - bufor odczytu jest za chwilę kompaktowany
+                BufferPool.Buffer frame = bufferPool.acquire(length);
+                readBuffer.get(frame.array(), 0, length);
+                deliver(frame);
+            }
+            readBuffer.compact();
+            ensureReadCapacity();
+        } catch (IOException e) {
+            closeOnError(e);
+        }
+    }
+
+    /**
+     * Powiększa bufor odczytu, jeśli nie mieści nagłówka i treści oczekiwanej ramki.
+     */
+    private void ensureReadCapacity() {
+        if (readBuffer.position() < HEADER_SIZE) {
+            return;
+        }
+        int needed = HEADER_SIZE + readBuffer.getInt(0);
+        if (needed > readBuffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(needed);
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+    }
+
+    private synchronized void deliver(BufferPool.Buffer frame) {
+        Consumer<BufferPool.Buffer> handler = frameHandler;
+        if (handler == null) {
+            inbox.add(frame);
+            return;
+        }
+        try {
+            handler.accept(frame);
+        } catch (Exception e) {
+            System.err.println("Błąd podczas obsługi odebranej wiadomości: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Zamyka połączenie na żądanie użytkownika (bez powiadamiania obserwatora).
+     */
+    void close() {
+        closeListener = null;
+        closeChannel();
+    }
+
+    private void closeOnError(IOException cause) {
+        if (!closeChannel()) {
+            return;
+        }
+        System.err.println("Utracono połączenie z serwerem: " + cause.getMessage());
+        Runnable listener = closeListener;
+        if (listener != null) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                System.err.println("Błąd w obsłudze utraty połączenia: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Zamyka kanał. Zwraca false, jeśli był już zamknięty.
+     */
+    private boolean closeChannel() {
+        if (!open.compareAndSet(true, false)) {
+            return false;
+        }
+        SelectionKey selectionKey = key;
+        if (selectionKey != null) {
+            selectionKey.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignorujemy błędy przy zamykaniu
+        }
+        synchronized (writeQueue) {
+            writeQueue.clear();
+            pendingBytes = 0;
+        }
+        transport.unregister(this);
+        return true;
+    }
+}
@@ -0,0 +1,213 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
+
+/**
+ * Nieblokujący transport obsługujący wiele połączeń z serwerem jednym wątkiem selektora.
+ * <p>
+ * Połączenia tworzone przez {@link BossaApiConnection#BossaApiConnection(NioTransport)}
+ * nie mają własnych wątków odbierających, więc jedna maszyna wirtualna może
+ * utrzymywać setki klientów (np. przy generowaniu obciążenia). Odebrane ramki
+ * są przekazywane w wątku selektora - ich obsługa powinna być krótka lub
+ * przekazana dalej do innego wykonawcy.
+ */
+public class NioTransport implements AutoCloseable {
+
+    /**
+     * Domyślny limit danych oczekujących na wysłanie w jednym połączeniu (w bajtach).
+     */
+    public static final long DEFAULT_MAX_PENDING_BYTES = 16L * 1024 * 1024;
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Set<NioChannel> channels = ConcurrentHashMap.newKeySet();
+    // Bufory odebranych ramek wspólne dla wszystkich połączeń transportu
+    private final BufferPool bufferPool = new BufferPool();
+    private volatile long maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Tworzy transport. Wątek selektora jest uruchamiany przy pierwszym połączeniu.
+     *
+     * @param name Nazwa wątku selektora
+     * @throws IOException Jeśli nie można otworzyć selektora
+     */
+    public NioTransport(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Ustawia limit danych oczekujących na wysłanie w jednym połączeniu.
+     * Po jego przekroczeniu wysyłanie kończy się wyjątkiem zamiast gromadzić dane w pamięci.
+     *
+     * @param maxPendingBytes Limit w bajtach
+     */
+    public void setMaxPendingBytes(long maxPendingBytes) {
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("Limit danych musi być dodatni: " + maxPendingBytes);
+        }
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Zwraca liczbę otwartych połączeń.
+     *
+     * @return Liczba połączeń
+     */
+    public int getConnectionCount() {
+        return channels.size();
+    }
+
+    /**
+     * Zwraca pulę buforów, do których odczytywane są ramki.
+     *
+     * @return Pula buforów
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Nawiązuje połączenie (blokująco) i rejestruje je w selektorze.
+     */
+    NioChannel connect(String host, int port, boolean tcpNoDelay, int receiveBufferSize,
+            int socketSendBufferSize, int socketReceiveBufferSize) throws IOException {
+        if (!selector.isOpen()) {
+            throw new IOException("Transport został zamknięty");
+        }
+        SocketChannel socketChannel = SocketChannel.open();
+        try {
+            if (socketReceiveBufferSize > 0) {
+                socketChannel.setOption(StandardSocketOptions.SO_RCVBUF, socketReceiveBufferSize);
+            }
+            socketChannel.connect(new InetSocketAddress(host, port));
+            socketChannel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+            if (socketSendBufferSize > 0) {
+                socketChannel.setOption(StandardSocketOptions.SO_SNDBUF, socketSendBufferSize);
+            }
+            socketChannel.configureBlocking(false);
+        } catch (IOException e) {
+            socketChannel.close();
+            throw e;
+        }
+
+        NioChannel channel = new NioChannel(this, socketChannel, receiveBufferSize, maxPendingBytes, bufferPool);
+        channels.add(channel);
+        execute(() -> {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                channel.attach(socketChannel.register(selector, SelectionKey.OP_READ, channel));
+            } catch (IOException e) {
+                System.err.println("Nie udało się zarejestrować połączenia: " + e.getMessage());
+                channel.close();
+            }
+        });
+        return channel;
+    }
+
+    /**
+     * Zleca zadanie do wykonania w wątku selektora.
+     */
+    void execute(Runnable task) {
+        ensureStarted();
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Zgłasza, że połączenie ma dane czekające na gotowość gniazda do zapisu.
+     */
+    void interestWrite(NioChannel channel) {
+        execute(channel::enableWriteInterest);
+    }
+
+    void unregister(NioChannel channel) {
+        channels.remove(channel);
+    }
+
+    /**
+     * Zamyka wszystkie połączenia i zatrzymuje wątek selektora.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+        }
+        for (NioChannel channel : channels) {
+            channel.close();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Ignorujemy błędy przy zamykaniu
+        }
+    }
+
+    private synchronized void ensureStarted() {
+        if (running || !selector.isOpen()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Główna pętla selektora: zadania zlecone z innych wątków, potem gotowe kanały.
+     */
+    private void run() {
+        try {
+            while (running) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.err.println("Błąd w zadaniu transportu: " + e.getMessage());
+                    }
+                }
+
+                // Brak ruchu na połączeniach nie jest błędem - selektor czeka bez limitu czasu
+                selector.select();
+
+                Set<SelectionKey> selected = selector.selectedKeys();
+                for (SelectionKey key : selected) {
+                    NioChannel channel = (NioChannel) key.attachment();
+                    if (key.isValid() && key.isWritable()) {
+                        channel.onWritable();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        channel.onReadable();
+                    }
+                }
+                selected.clear();
+            }
+        } catch (ClosedSelectorException e) {
+            // Transport został zamknięty
+        } catch (IOException e) {
+            System.err.println("Błąd selektora transportu " + name + ": " + e.getMessage());
+        } finally {
+            System.out.println("Zakończono wątek transportu " + name);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.krzysztofpk14.app.bossaapi.util.TimerWheel;
+
+/**
+ * Tablica korelacji żądań oczekujących na odpowiedź serwera.
+ * <p>
+ * Każde żądanie jest identyfikowane typem i identyfikatorem (UserReqID, ClOrdID,
+ * MDReqID, SecReqID) i ma termin, po którym jego Future kończy się wyjątkiem
+ * {@link TimeoutException}. Wpis jest usuwany przy każdym zakończeniu Future -
+ * odpowiedzią, upływem terminu, błędem lub anulowaniem przez wywołującego -
+ * więc tablica nie gromadzi martwych wpisów. Liczba oczekujących żądań jest ograniczona.
+ */
+public class PendingRequests {
+
+    /**
+     * Rodzaj żądania - wyznacza przestrzeń identyfikatorów.
+     */
+    public enum Type {
+        USER, ORDER, MARKET_DATA, SECURITY_LIST
+    }
+
+    /**
+     * Domyślny czas oczekiwania na odpowiedź w milisekundach.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * Domyślny limit oczekujących żądań.
+     */
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    private record Key(Type type, String id) {
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile TimerWheel.Timeout timeout;
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final TimerWheel timerWheel;
+    private final int maxPending;
+
+    /**
+     * Tworzy tablicę korelacji.
+     *
+     * @param timerWheel Koło czasowe pilnujące terminów
+     * @param maxPending Maksymalna liczba oczekujących żądań
+     */
+    public PendingRequests(TimerWheel timerWheel, int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Limit żądań musi być dodatni: " + maxPending);
+        }
+        this.timerWheel = timerWheel;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Rejestruje żądanie i zwraca Future kończone pierwszą pasującą odpowiedzią.
+     * Wcześniejsze oczekujące żądanie o tym samym kluczu kończy się wyjątkiem.
+     * Po przekroczeniu limitu zwracany jest Future zakończony {@link RejectedExecutionException}.
+     *
+     * @param type Rodzaj żądania
+     * @param id Identyfikator żądania
+     * @param timeoutMillis Czas oczekiwania na odpowiedź w milisekundach
+     * @return Future z odpowiedzią
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> register(Type type, String id, long timeoutMillis) {
+        if (size.incrementAndGet() > maxPending) {
+            size.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Przekroczono limit oczekujących żądań: " + maxPending));
+        }
+
+        Key key = new Key(type, id);
+        Entry entry = new Entry();
+        // Każde zakończenie Future zwalnia wpis i jego termin
+        entry.future.whenComplete((result, error) -> release(key, entry));
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            // Zwolnienie poprzedniego wpisu nie może usunąć nowego (remove z wartością)
+            previous.future.completeExceptionally(new IllegalStateException(
+                    "Żądanie " + type + " " + id + " zastąpione nowym o tym samym identyfikatorze"));
+        }
+
+        entry.timeout = timerWheel.schedule(timeoutMillis, () -> entry.future.completeExceptionally(
+                new TimeoutException("Brak odpowiedzi na żądanie " + type + " " + id
+                        + " w ciągu " + timeoutMillis + " ms")));
+        if (entry.future.isDone()) {
+            entry.timeout.cancel();
+        }
+        return (CompletableFuture<T>) entry.future;
+    }
+
+    /**
+     * Kończy oczekujące żądanie odpowiedzią.
+     *
+     * @param type Rodzaj żądania
+     * @param id Identyfikator żądania
+     * @param response Odpowiedź
+     * @return true jeśli znaleziono oczekujące żądanie
+     */
+    public boolean complete(Type type, String id, Object response) {
+        if (id == null) {
+            return false;
+        }
+        Entry entry = entries.get(new Key(type, id));
+        return entry != null && entry.future.complete(response);
+    }
+
+    /**
+     * Kończy oczekujące żądanie wyjątkiem.
+     *
+     * @param type Rodzaj żądania
+     * @param id Identyfikator żądania
+     * @param error Przyczyna
+     * @return true jeśli znaleziono oczekujące żądanie
+     */
+    public boolean fail(Type type, String id, Throwable error) {
+        if (id == null) {
+            return false;
+        }
+        Entry entry = entries.get(new Key(type, id));
+        return entry != null && entry.future.completeExceptionally(error);
+    }
+
+    /**
+     * Kończy wszystkie oczekujące żądania wyjątkiem (np. po utracie połączenia).
+     *
+     * @param error Przyczyna
+     */
+    public void failAll(Throwable error) {
+        List<Entry> snapshot = new ArrayList<>(entries.values());
+        for (Entry entry : snapshot) {
+            entry.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Sprawdza, czy żądanie oczekuje na odpowiedź.
+     *
+     * @param type Rodzaj żądania
+     * @param id Identyfikator żądania
+     * @return true jeśli żądanie oczekuje
+     */
+    public boolean isPending(Type type, String id) {
+        return id != null && entries.containsKey(new Key(type, id));
+    }
+
+    /**
+     * Zwraca liczbę oczekujących żądań.
+     *
+     * @return Liczba żądań
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void release(Key key, Entry entry) {
+        entries.remove(key, entry);
+        size.decrementAndGet();
+        TimerWheel.Timeout timeout = entry.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
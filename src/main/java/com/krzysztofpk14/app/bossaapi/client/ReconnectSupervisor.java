@@ -0,0 +1,198 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nadzoruje ponowne nawiązywanie połączenia po jego utracie.
+ * <p>
+ * Pierwsza próba wykonywana jest od razu, kolejne - z wykładniczo rosnącym
+ * odstępem (ograniczonym z góry), aż do skutku lub zatrzymania. Próby wykonuje
+ * jeden wątek w tle; zgłoszenie utraty połączenia w trakcie odtwarzania
+ * powoduje ponowienie po zakończeniu bieżącej serii.
+ */
+public class ReconnectSupervisor {
+
+    /**
+     * Czynność odtwarzająca sesję (połączenie, logowanie, subskrypcje).
+     */
+    @FunctionalInterface
+    public interface ReconnectAction {
+        /**
+         * Wykonuje jedną próbę odtworzenia sesji.
+         *
+         * @throws Exception Jeśli próba się nie powiodła
+         */
+        void reconnect() throws Exception;
+    }
+
+    /**
+     * Domyślny odstęp po pierwszej nieudanej próbie w milisekundach.
+     */
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 100;
+
+    /**
+     * Domyślny maksymalny odstęp między próbami w milisekundach.
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30_000;
+
+    private final String name;
+    private final ReconnectAction action;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final AtomicLong attempts = new AtomicLong();
+
+    private volatile Runnable reconnectListener;
+    private Thread worker;
+    private boolean requested;
+
+    /**
+     * Tworzy nadzorcę z domyślnymi odstępami.
+     *
+     * @param name Nazwa wątku wykonującego próby
+     * @param action Czynność odtwarzająca sesję
+     */
+    public ReconnectSupervisor(String name, ReconnectAction action) {
+        this(name, action, DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Tworzy nadzorcę.
+     *
+     * @param name Nazwa wątku wykonującego próby
+     * @param action Czynność odtwarzająca sesję
+     * @param initialDelayMillis Odstęp po pierwszej nieudanej próbie w milisekundach
+     * @param maxDelayMillis Maksymalny odstęp między próbami w milisekundach
+     */
+    public ReconnectSupervisor(String name, ReconnectAction action, long initialDelayMillis, long maxDelayMillis) {
+        if (initialDelayMillis <= 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Nieprawidłowe odstępy ponawiania: "
+                    + initialDelayMillis + ", " + maxDelayMillis);
+        }
+        this.name = name;
+        this.action = action;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Ustawia obserwatora wywoływanego po udanym odtworzeniu sesji.
+     *
+     * @param reconnectListener Obserwator
+     */
+    public void setReconnectListener(Runnable reconnectListener) {
+        this.reconnectListener = reconnectListener;
+    }
+
+    /**
+     * Zgłasza utratę połączenia i uruchamia próby jego odtworzenia.
+     */
+    public synchronized void trigger() {
+        requested = true;
+        if (worker != null) {
+            return;
+        }
+        worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Przerywa trwające próby odtworzenia połączenia.
+     */
+    public synchronized void stop() {
+        requested = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    /**
+     * Sprawdza, czy trwa odtwarzanie połączenia.
+     *
+     * @return true jeśli trwają próby
+     */
+    public synchronized boolean isReconnecting() {
+        return worker != null;
+    }
+
+    /**
+     * Zwraca łączną liczbę wykonanych prób.
+     *
+     * @return Liczba prób
+     */
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    /**
+     * Zwraca odstęp przed kolejną próbą po podanej liczbie nieudanych prób.
+     *
+     * @param failedAttempts Liczba kolejnych nieudanych prób (od 1)
+     * @return Odstęp w milisekundach
+     */
+    public long delayAfter(int failedAttempts) {
+        int shift = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        long delay = initialDelayMillis << shift;
+        return delay <= 0 || delay > maxDelayMillis ? maxDelayMillis : delay;
+    }
+
+    /**
+     * Pętla wątku: ponawia próby do skutku, dopóki są zgłoszenia i nadzorca nie został zatrzymany.
+     */
+    private void run() {
+        Thread self = Thread.currentThread();
+        try {
+            while (takeRequest(self)) {
+                int failures = 0;
+                while (true) {
+                    attempts.incrementAndGet();
+                    try {
+                        action.reconnect();
+                        break;
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Exception e) {
+                        failures++;
+                        long delay = delayAfter(failures);
+                        System.err.println("Próba odtworzenia połączenia nr " + failures + " nieudana: "
+                                + e.getMessage() + " - ponowienie za " + delay + " ms");
+                        Thread.sleep(delay);
+                    }
+                    if (self.isInterrupted()) {
+                        return;
+                    }
+                }
+                System.out.println("Odtworzono połączenie z serwerem");
+                Runnable listener = reconnectListener;
+                if (listener != null) {
+                    listener.run();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Nadzorca został zatrzymany
+        } finally {
+            synchronized (this) {
+                if (worker == self) {
+                    worker = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pobiera zgłoszenie do obsłużenia lub kończy pracę wątku, jeśli go nie ma.
+     */
+    private synchronized boolean takeRequest(Thread self) {
+        if (worker != self) {
+            return false;
+        }
+        if (!requested) {
+            // Zwolnienie wątku pod tą samą blokadą co trigger() - żadne zgłoszenie nie przepadnie
+            worker = null;
+            return false;
+        }
+        requested = false;
+        return true;
+    }
+}
@@ -21,6 +21,7 @@ public class FixmlMessage {
         @XmlElement(name = "UserReq", type = com.krzysztofpk14.app.bossaapi.model.request.UserRequest.class),
         @XmlElement(name = "UserRsp", type = com.krzysztofpk14.app.bossaapi.model.response.UserResponse.class),
         @XmlElement(name = "Order", type = com.krzysztofpk14.app.bossaapi.model.request.OrderRequest.class),
+        @XmlElement(name = "OrdStatReq", type = com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest.class),
         @XmlElement(name = "ExecRpt", type = com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport.class),
         @XmlElement(name = "MktDataReq", type = com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest.class),
         @XmlElement(name = "MktDataSnap", type = com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse.class),
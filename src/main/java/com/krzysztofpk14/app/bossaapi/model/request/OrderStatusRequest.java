@@ -0,0 +1,120 @@
+package com.krzysztofpk14.app.bossaapi.model.request;
+
+import com.krzysztofpk14.app.bossaapi.model.base.BaseMessage;
+import jakarta.xml.bind.annotation.*;
+
+/**
+ * Klasa reprezentująca żądanie statusu zlecenia.
+ * Odpowiada tagowi OrdStatReq w FIXML; odpowiedzią jest raport wykonania
+ * z typem {@code ExecTyp="I"} (status zlecenia).
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class OrderStatusRequest extends BaseMessage {
+    
+    @XmlAttribute(name = "StatReqID")
+    private String statusRequestId;
+    
+    @XmlAttribute(name = "OrdID")
+    private String orderId;
+    
+    @XmlAttribute(name = "ClOrdID")
+    private String clientOrderId;
+    
+    @XmlAttribute(name = "Side")
+    private String side;
+    
+    @XmlElement(name = "Instrmt")
+    private Instrument instrument;
+    
+    /**
+     * Konstruktor domyślny.
+     */
+    public OrderStatusRequest() {
+    }
+    
+    /**
+     * Tworzy żądanie statusu dla zlecenia o podanym identyfikatorze klienta.
+     * 
+     * @param statusRequestId ID żądania
+     * @param clientOrderId Identyfikator zlecenia nadany przez klienta (ClOrdID)
+     * @param symbol Symbol instrumentu
+     */
+    public OrderStatusRequest(String statusRequestId, String clientOrderId, String symbol) {
+        this.statusRequestId = statusRequestId;
+        this.clientOrderId = clientOrderId;
+        if (symbol != null) {
+            this.instrument = new Instrument();
+            this.instrument.setSymbol(symbol);
+        }
+    }
+    
+    // Gettery i settery
+    
+    public String getStatusRequestId() {
+        return statusRequestId;
+    }
+    
+    public void setStatusRequestId(String statusRequestId) {
+        this.statusRequestId = statusRequestId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+    
+    public void setClientOrderId(String clientOrderId) {
+        this.clientOrderId = clientOrderId;
+    }
+    
+    public String getSide() {
+        return side;
+    }
+    
+    public void setSide(String side) {
+        this.side = side;
+    }
+    
+    public Instrument getInstrument() {
+        return instrument;
+    }
+    
+    public void setInstrument(Instrument instrument) {
+        this.instrument = instrument;
+    }
+    
+    @Override
+    public String getMessageType() {
+        return "OrdStatReq";
+    }
+    
+    @Override
+    public String getMessageId() {
+        return statusRequestId;
+    }
+    
+    /**
+     * Klasa wewnętrzna reprezentująca instrument.
+     */
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlType(name = "OrdStatReqInstrument", namespace = "com.krzysztofpk14.app.bossaapi.model.request")
+    public static class Instrument {
+        @XmlAttribute(name = "Sym")
+        private String symbol;
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+}
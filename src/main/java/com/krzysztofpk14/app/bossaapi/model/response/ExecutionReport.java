@@ -19,6 +19,9 @@ public class ExecutionReport extends BaseMessage {
     @XmlAttribute(name = "ClOrdID")
     private String clientOrderId;
     
+    @XmlAttribute(name = "Acct")
+    private String account;  // Użytkownik, do którego należy zlecenie
+    
     @XmlAttribute(name = "ExecTyp")
     private String executionType;
     
@@ -61,6 +64,9 @@ public class ExecutionReport extends BaseMessage {
     @XmlElement(name = "OrdQty")
     private OrderQuantity orderQuantity;
     
+    @XmlElement(name = "Comm")
+    private Commission commission;  // Prowizja od wykonania opisanego raportem
+    
     // Stałe dla typów wykonania ExecType
     public static final String NEW = "0";
     public static final String TRANSACTION = "F";
@@ -198,6 +204,14 @@ public class ExecutionReport extends BaseMessage {
         this.transactionTime = transactionTime;
     }
     
+    public String getAccount() {
+        return account;
+    }
+    
+    public void setAccount(String account) {
+        this.account = account;
+    }
+    
     public String getText() {
         return text;
     }
@@ -222,6 +236,14 @@ public class ExecutionReport extends BaseMessage {
         this.orderQuantity = orderQuantity;
     }
     
+    public Commission getCommission() {
+        return commission;
+    }
+    
+    public void setCommission(Commission commission) {
+        this.commission = commission;
+    }
+    
     @Override
     public String getMessageType() {
         return "ExecRpt";
@@ -284,4 +306,30 @@ public class ExecutionReport extends BaseMessage {
             this.quantity = quantity;
         }
     }
+    
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlType(name = "ExecRptCommissionType", namespace = "com.krzysztofpk14.app.bossaapi.model.response")
+    public static class Commission {
+        @XmlAttribute(name = "Comm")
+        private String amount;
+        
+        @XmlAttribute(name = "Ccy")
+        private String currency;
+        
+        public String getAmount() {
+            return amount;
+        }
+        
+        public void setAmount(String amount) {
+            this.amount = amount;
+        }
+        
+        public String getCurrency() {
+            return currency;
+        }
+        
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+    }
 }
\ No newline at end of file
@@ -23,6 +23,10 @@ public class MarketDataResponse extends BaseMessage {
     @XmlElement(name = "RespType")
     private String responseType;  // Typ odpowiedzi, np. "0" dla pełnego odświeżenia
 
+    // Numer aktualizacji nadany przez pamięć notowań klienta (0 - jeszcze nie zastosowany); nie należy do FIXML
+    @XmlTransient
+    private volatile long sequenceNumber;
+
 
     // Stałe dla typów danych rynkowych
     public static final String TRADE = "0";
@@ -66,6 +70,19 @@ public class MarketDataResponse extends BaseMessage {
         this.responseType = responseType;
     }
     
+    /**
+     * Zwraca numer aktualizacji notowań instrumentu, który powstał z tego komunikatu.
+     * 
+     * @return Numer aktualizacji lub 0, jeśli komunikat nie został jeszcze zastosowany
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+    
     @Override
     public String getMessageType() {
         return "MktDataSnap";
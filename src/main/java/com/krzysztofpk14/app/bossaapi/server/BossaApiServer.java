@@ -3,9 +3,13 @@ package com.krzysztofpk14.app.bossaapi.server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import com.krzysztofpk14.app.bossaapi.tick.TickRecorder;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+
 /**
  * Serwer bossaAPI obsługujący połączenia z klientami.
  */
@@ -18,6 +22,8 @@ public class BossaApiServer {
     private OrderManager orderManager;
     private MarketDataManager marketDataManager;
     private SecurityManager securityManager;
+    private InstrumentRegistry instrumentRegistry;
+    private TickRecorder tickRecorder;
 
     /**
      * Tworzy nowy serwer bossaAPI.
@@ -27,9 +33,11 @@ public class BossaApiServer {
     public BossaApiServer(int port) {
         this.port = port;
         this.sessionManager = new SessionManager();
-        this.orderManager = new OrderManager();
-        this.marketDataManager = new MarketDataManager();
-        this.securityManager = new SecurityManager();
+        // Wspólny rejestr instrumentów, zasilany listą instrumentów z SecurityManager
+        this.instrumentRegistry = new InstrumentRegistry();
+        this.securityManager = new SecurityManager(instrumentRegistry);
+        this.orderManager = new OrderManager(instrumentRegistry);
+        this.marketDataManager = new MarketDataManager(instrumentRegistry);
         this.orderManager.setMarketDataManager(this.marketDataManager);
     }
 
@@ -54,6 +62,45 @@ public class BossaApiServer {
         marketDataManager.startMarketSimulation();
     }
     
+    /**
+     * Zastępuje symulację rynku odtwarzaniem notowań z pliku.
+     * 
+     * @param file Plik z notowaniami (.csv lub binarny)
+     * @param pacing Tryb taktowania
+     * @param speed Krotność przyspieszenia dla trybu ACCELERATED
+     * @return Uruchomione odtwarzanie
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public MarketDataReplay replayMarketData(Path file, MarketDataReplay.Pacing pacing, double speed) throws IOException {
+        return marketDataManager.startReplay(file, pacing, speed);
+    }
+    
+    /**
+     * Włącza zapis wszystkich publikowanych notowań do magazynu kolumnowego.
+     * Zapisane dane można później odtworzyć przez {@link #replayMarketData}.
+     * 
+     * @param directory Katalog główny magazynu
+     * @return Uruchomiony rejestrator
+     * @throws IOException Jeśli katalogu nie da się utworzyć
+     */
+    public synchronized TickRecorder startTickRecording(Path directory) throws IOException {
+        stopTickRecording();
+        tickRecorder = new TickRecorder(directory, instrumentRegistry).start();
+        marketDataManager.setTickRecorder(tickRecorder);
+        return tickRecorder;
+    }
+    
+    /**
+     * Wyłącza zapis notowań, zapisując oczekujące ticki na dysk.
+     */
+    public synchronized void stopTickRecording() {
+        if (tickRecorder != null) {
+            marketDataManager.setTickRecorder(null);
+            tickRecorder.close();
+            tickRecorder = null;
+        }
+    }
+    
     /**
      * Akceptuje połączenia od klientów.
      */
@@ -88,6 +135,8 @@ public class BossaApiServer {
         
         // Zatrzymaj symulację rynku
         marketDataManager.stopMarketSimulation();
+        marketDataManager.stopReplay();
+        stopTickRecording();
         
         // Zamknij wszystkie sesje
         sessionManager.closeAllSessions();
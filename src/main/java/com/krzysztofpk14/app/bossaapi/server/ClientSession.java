@@ -13,6 +13,7 @@ import com.krzysztofpk14.app.bossaapi.model.base.BaseMessage;
 import com.krzysztofpk14.app.bossaapi.model.base.FixmlMessage;
 import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.SecurityListRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.UserRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.BusinessMessageReject;
@@ -20,6 +21,7 @@ import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
 import com.krzysztofpk14.app.bossaapi.model.response.SecurityList;
 import com.krzysztofpk14.app.bossaapi.model.response.UserResponse;
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
 import com.krzysztofpk14.app.bossaapi.util.FixmlGenerator;
 import com.krzysztofpk14.app.bossaapi.util.FixmlParser;
 
@@ -29,6 +31,9 @@ import jakarta.xml.bind.JAXBException;
  * Klasa reprezentująca sesję klienta bossaAPI.
  */
 public class ClientSession {
+    // Bufory odbieranych ramek wspólne dla wszystkich sesji
+    private static final BufferPool RECEIVE_BUFFERS = new BufferPool();
+    
     private final String sessionId;
     private final Socket socket;
     private InputStream input;
@@ -105,7 +110,7 @@ public class ClientSession {
         try {
             while (running.get()) {
                 // Odczytaj długość wiadomości (4 bajty)
-                if (readFully(lengthBuffer) != 4) {
+                if (readFully(lengthBuffer, 4) != 4) {
                     break;
                 }
                 
@@ -119,17 +124,19 @@ public class ClientSession {
                     System.err.println("Otrzymano nieprawidłową długość wiadomości: " + length);
                     continue;
                 }
-                // Odczytaj treść wiadomości
-                byte[] messageBuffer = new byte[length];
-                if (readFully(messageBuffer) != length) {
-                    break;
+                // Odczytaj treść wiadomości do bufora z puli - bez kopii w obiekcie String
+                BufferPool.Buffer frame = RECEIVE_BUFFERS.acquire(length);
+                try {
+                    if (readFully(frame.array(), length) != length) {
+                        break;
+                    }
+                    // System.out.println("Sesja " + sessionId + " otrzymała: " + frame);
+                    
+                    // Przetwórz wiadomość
+                    processMessage(frame);
+                } finally {
+                    frame.release();
                 }
-                
-                String message = new String(messageBuffer, StandardCharsets.UTF_8);
-                // System.out.println("Sesja " + sessionId + " otrzymała: " + message);
-                
-                // Przetwórz wiadomość
-                processMessage(message);
             }
         } catch (IOException e) {
             if (running.get()) {
@@ -144,15 +151,16 @@ public class ClientSession {
      * Czyta dokładnie określoną ilość bajtów z wejścia.
      * 
      * @param buffer Bufor do zapisu danych
+     * @param length Liczba bajtów do odczytania
      * @return Liczba odczytanych bajtów
      * @throws IOException Jeśli wystąpi błąd podczas odczytu
      */
-    private int readFully(byte[] buffer) throws IOException {
+    private int readFully(byte[] buffer, int length) throws IOException {
         int totalRead = 0;
         int bytesRead;
         
-        while (totalRead < buffer.length) {
-            bytesRead = input.read(buffer, totalRead, buffer.length - totalRead);
+        while (totalRead < length) {
+            bytesRead = input.read(buffer, totalRead, length - totalRead);
             
             if (bytesRead == -1) {
                 return totalRead;
@@ -244,11 +252,11 @@ public class ClientSession {
     /**
      * Przetwarza otrzymaną wiadomość.
      * 
-     * @param messageXml Treść wiadomości XML
+     * @param frame Ramka z treścią wiadomości XML
      */
-    private void processMessage(String messageXml) {
+    private void processMessage(BufferPool.Buffer frame) {
         try {
-            FixmlMessage fixmlMessage = FixmlParser.parse(messageXml);
+            FixmlMessage fixmlMessage = FixmlParser.parse(frame);
             
             if (fixmlMessage == null || fixmlMessage.getMessage() == null) {
                 System.err.println("Nieprawidłowa wiadomość FIXML");
@@ -273,6 +281,9 @@ public class ClientSession {
                 case "Order":
                     handleOrderRequest((OrderRequest) baseMessage);
                     break;
+                case "OrdStatReq":
+                    handleOrderStatusRequest((OrderStatusRequest) baseMessage);
+                    break;
                 case "MktDataReq":
                     handleMarketDataRequest((MarketDataRequest) baseMessage);
                     break;
@@ -371,6 +382,20 @@ public class ClientSession {
         sendMessage(report);
     }
     
+    /**
+     * Obsługuje żądanie statusu zlecenia.
+     * 
+     * @param request Obiekt żądania statusu
+     */
+    private void handleOrderStatusRequest(OrderStatusRequest request) {
+        ExecutionReport report = orderManager.getOrderStatus(request, username);
+        if (report == null) {
+            sendReject("Nieznane zlecenie: " + request.getClientOrderId(), "OrdStatReq");
+            return;
+        }
+        sendMessage(report);
+    }
+    
     /**
      * Obsługuje żądanie danych rynkowych.
      * 
@@ -385,7 +410,10 @@ public class ClientSession {
             sendMessage(response);
         } else if (MarketDataRequest.SUBSCRIBE.equals(requestType)) {
             // Subskrypcja - rejestruje żądanie i odsyła potwierdzenie
-            marketDataManager.subscribeMarketData(request, this);
+            if (!marketDataManager.subscribeMarketData(request, this)) {
+                sendReject("Nieznane instrumenty w żądaniu danych rynkowych: " + request.getRequestId(), "MktDataReq");
+                return;
+            }
             
             // Wyślij potwierdzenie subskrypcji
             MarketDataResponse confirmation = marketDataManager.createSubscriptionConfirmation(request);
@@ -1,10 +1,11 @@
 package com.krzysztofpk14.app.bossaapi.server;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -12,23 +13,67 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.tick.TickCursor;
+import com.krzysztofpk14.app.bossaapi.tick.TickFormat;
+import com.krzysztofpk14.app.bossaapi.tick.TickRecorder;
+import com.krzysztofpk14.app.bossaapi.util.FixmlTimeFormatter;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 
 /**
  * Manager obsługujący dane rynkowe.
  */
 public class MarketDataManager {
-    // Mapa subskrypcji: ID żądania -> lista subskrybujących sesji
-    private final Map<String, List<ClientSession>> subscriptions = new ConcurrentHashMap<>();
+    // Symbol oznaczający subskrypcję wszystkich instrumentów
+    public static final String ALL_SYMBOLS = "ALL";
     
-    // Mapa symulowanych cen: symbol -> cena
-    private final Map<String, Double> instrumentPrices = new HashMap<>();
+    // Format czasu FIXML dla bieżących i odtwarzanych ticków
+    private static final FixmlTimeFormatter TIME_FORMATTER = new FixmlTimeFormatter();
+
+    // Tekstowe typy wpisów indeksowane kodem znaku, aby nie tworzyć ich dla każdego ticka
+    private static final String[] ENTRY_TYPES = new String[128];
+    static {
+        for (int i = 0; i < ENTRY_TYPES.length; i++) {
+            ENTRY_TYPES[i] = String.valueOf((char) i);
+        }
+    }
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    /**
+     * Subskrypcja danych rynkowych zarejestrowana pod jednym ID żądania.
+     */
+    private static class Subscription {
+        private final String requestId;
+        private final List<ClientSession> sessions = new CopyOnWriteArrayList<>();
+        // Identyfikatory subskrybowanych instrumentów lub null dla wszystkich
+        private volatile int[] symbolIds;
+        
+        Subscription(String requestId) {
+            this.requestId = requestId;
+        }
+    }
+    
+    // Rejestr instrumentów - symbole są zamieniane na identyfikatory na granicy FIXML
+    private final InstrumentRegistry instrumentRegistry;
+    
+    // Mapa subskrypcji: ID żądania -> subskrypcja
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
     
-    // Map to track symbols per request ID
-    private final Map<String, Set<String>> requestSymbols = new ConcurrentHashMap<>();
+    // Subskrypcje indeksowane identyfikatorem instrumentu (kopiowane przy zmianie, odczyt bez blokad)
+    private volatile Subscription[][] subscriptionsBySymbol = new Subscription[0][];
+    
+    // Subskrypcje wszystkich instrumentów
+    private volatile Subscription[] wildcardSubscriptions = NO_SUBSCRIPTIONS;
+    
+    // Bieżące ceny stałoprzecinkowe indeksowane identyfikatorem instrumentu (Price.NONE - brak notowań)
+    private volatile long[] prices = new long[0];
     
     // Słuchacze zdarzeń rynkowych
     private final List<Consumer<MarketDataResponse>> marketDataListeners = new ArrayList<>();
@@ -36,21 +81,74 @@ public class MarketDataManager {
     // Timer do symulacji rynku
     private Timer marketSimulationTimer;
     
+    // Bieżące odtwarzanie zapisanych notowań
+    private MarketDataReplay replay;
+    
+    // Opcjonalny rejestrator publikowanych ticków
+    private volatile TickRecorder tickRecorder;
+    
     /**
-     * Tworzy nowy manager danych rynkowych.
+     * Tworzy nowy manager danych rynkowych z własnym rejestrem instrumentów.
      */
     public MarketDataManager() {
+        this(new InstrumentRegistry());
+    }
+    
+    /**
+     * Tworzy nowy manager danych rynkowych.
+     * 
+     * @param instrumentRegistry Rejestr instrumentów współdzielony z innymi managerami
+     */
+    public MarketDataManager(InstrumentRegistry instrumentRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
+        
         // Inicjalizacja cen startowych dla popularnych spółek
-        instrumentPrices.put("KGHM", 150.0);
-        instrumentPrices.put("PKO", 47.2);
-        instrumentPrices.put("PKN", 78.5);
-        instrumentPrices.put("PZU", 33.8);
-        instrumentPrices.put("CDR", 331.5);
-        instrumentPrices.put("LPP", 912.0);
-        instrumentPrices.put("PGE", 8.35);
-        instrumentPrices.put("SPL", 216.8);
-        instrumentPrices.put("DNP", 420.0);
-        instrumentPrices.put("CPS", 28.7);
+        setPrice("KGHM", "150.00");
+        setPrice("PKO", "47.20");
+        setPrice("PKN", "78.50");
+        setPrice("PZU", "33.80");
+        setPrice("CDR", "331.50");
+        setPrice("LPP", "912.00");
+        setPrice("PGE", "8.35");
+        setPrice("SPL", "216.80");
+        setPrice("DNP", "420.00");
+        setPrice("CPS", "28.70");
+    }
+    
+    /**
+     * Zwraca rejestr instrumentów używany przez managera.
+     * 
+     * @return Rejestr instrumentów
+     */
+    public InstrumentRegistry getInstrumentRegistry() {
+        return instrumentRegistry;
+    }
+    
+    private void setPrice(String symbol, String price) {
+        int symbolId = instrumentRegistry.register(symbol);
+        if (symbolId >= prices.length) {
+            ensureCapacity(symbolId);
+        }
+        prices[symbolId] = Price.parse(price);
+    }
+    
+    /**
+     * Powiększa tablice indeksowane identyfikatorem tak, aby mieściły podany identyfikator.
+     */
+    private synchronized void ensureCapacity(int symbolId) {
+        if (symbolId < prices.length) {
+            return;
+        }
+        int length = Math.max(symbolId + 1, Math.max(16, prices.length * 2));
+        long[] grownPrices = Arrays.copyOf(prices, length);
+        Arrays.fill(grownPrices, prices.length, length, Price.NONE);
+        prices = grownPrices;
+        
+        Subscription[][] grownSubscriptions = Arrays.copyOf(subscriptionsBySymbol, length);
+        for (int i = subscriptionsBySymbol.length; i < length; i++) {
+            grownSubscriptions[i] = NO_SUBSCRIPTIONS;
+        }
+        subscriptionsBySymbol = grownSubscriptions;
     }
     
     /**
@@ -76,44 +174,168 @@ public class MarketDataManager {
         }
     }
     
+    /**
+     * Ustawia rejestrator, do którego trafia każde publikowane notowanie.
+     * 
+     * @param tickRecorder Rejestrator ticków lub null, aby wyłączyć rejestrację
+     */
+    public void setTickRecorder(TickRecorder tickRecorder) {
+        this.tickRecorder = tickRecorder;
+    }
+    
+    /**
+     * Rozpoczyna odtwarzanie notowań z pliku zamiast symulacji losowej.
+     * Format pliku jest dobierany na podstawie rozszerzenia (.csv lub binarny).
+     * 
+     * @param file Plik z notowaniami
+     * @param pacing Tryb taktowania
+     * @param speed Krotność przyspieszenia dla trybu ACCELERATED
+     * @return Uruchomione odtwarzanie
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public MarketDataReplay startReplay(Path file, MarketDataReplay.Pacing pacing, double speed) throws IOException {
+        return startReplay(TickCursor.open(file), pacing, speed);
+    }
+    
+    /**
+     * Rozpoczyna odtwarzanie notowań z kursora zamiast symulacji losowej.
+     * 
+     * @param cursor Źródło ticków
+     * @param pacing Tryb taktowania
+     * @param speed Krotność przyspieszenia dla trybu ACCELERATED
+     * @return Uruchomione odtwarzanie
+     */
+    public synchronized MarketDataReplay startReplay(TickCursor cursor, MarketDataReplay.Pacing pacing, double speed) {
+        stopMarketSimulation();
+        stopReplay();
+        
+        replay = new MarketDataReplay(this, cursor, pacing, speed);
+        replay.start();
+        return replay;
+    }
+    
+    /**
+     * Zatrzymuje bieżące odtwarzanie notowań.
+     */
+    public synchronized void stopReplay() {
+        if (replay != null) {
+            replay.stop();
+            replay = null;
+        }
+    }
+    
+    /**
+     * Publikuje pojedynczy tick (np. z odtwarzanych danych) do subskrybentów.
+     * 
+     * @param symbol Symbol instrumentu
+     * @param price Cena stałoprzecinkowa (skala {@link Price#SCALE})
+     * @param size Wolumen
+     * @param entryType Typ wpisu (kod znaku MDEntryTyp)
+     * @param timestampNanos Czas ticka w nanosekundach od epoki
+     */
+    public void publishTick(String symbol, long price, long size, byte entryType, long timestampNanos) {
+        publishTick(instrumentRegistry.register(symbol), price, size, entryType, timestampNanos);
+    }
+    
+    /**
+     * Publikuje pojedynczy tick instrumentu o podanym identyfikatorze.
+     * 
+     * @param symbolId Identyfikator instrumentu z rejestru
+     * @param price Cena stałoprzecinkowa (skala {@link Price#SCALE})
+     * @param size Wolumen
+     * @param entryType Typ wpisu (kod znaku MDEntryTyp)
+     * @param timestampNanos Czas ticka w nanosekundach od epoki
+     */
+    public void publishTick(int symbolId, long price, long size, byte entryType, long timestampNanos) {
+        if (symbolId >= prices.length) {
+            ensureCapacity(symbolId);
+        }
+        prices[symbolId] = price;
+        record(symbolId, timestampNanos, price, size, entryType);
+        
+        if (!hasSubscribers(symbolId)) {
+            return;
+        }
+        String time = TIME_FORMATTER.formatNanos(timestampNanos);
+        String type = entryType >= 0 ? ENTRY_TYPES[entryType] : MarketDataResponse.TRADE;
+        
+        publish(symbolId, Price.format(price), Long.toString(size), type, time);
+    }
+    
     /**
      * Generuje losowe zmiany cen i powiadamia subskrybentów.
      */
     private void generateMarketDataUpdates() {
         Random random = new Random();
+        long[] currentPrices = prices;
         
-        for (Map.Entry<String, Double> entry : instrumentPrices.entrySet()) {
-            String symbol = entry.getKey();
+        for (int symbolId = 0; symbolId < currentPrices.length; symbolId++) {
+            long price = currentPrices[symbolId];
+            if (price == Price.NONE) {
+                continue;
+            }
             
             // Losowa zmiana procentowa w zakresie -1.0% do +1.0%
             double changePercent = (random.nextDouble() - 0.5) * 0.02;
-            double newPrice = entry.getValue() * (1 + changePercent);
             
-            // Zaokrąglenie do 2 miejsc po przecinku
-            newPrice = Math.round(newPrice * 100.0) / 100.0;
-            instrumentPrices.put(symbol, newPrice);
+            // Zaokrąglenie do kroku notowań instrumentu
+            long tickSize = instrumentRegistry.getTickSize(symbolId);
+            long newPrice = Price.roundToTick(price + Math.round(price * changePercent), tickSize);
+            newPrice = Math.max(newPrice, tickSize);
+            currentPrices[symbolId] = newPrice;
+            record(symbolId, TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()),
+                   newPrice, 100, TickFormat.DEFAULT_ENTRY_TYPE);
             
-            // Find subscriptions for this symbol
-            for (Map.Entry<String, Set<String>> symbolEntry : requestSymbols.entrySet()) {
-                String requestId = symbolEntry.getKey();
-                Set<String> symbols = symbolEntry.getValue();
+            if (hasSubscribers(symbolId)) {
+                publish(symbolId, Price.format(newPrice), "100", MarketDataResponse.TRADE, getCurrentTimeFormatted());
+            }
+        }
+    }
+    
+    /**
+     * Przekazuje tick do rejestratora, jeśli jest ustawiony. Nie blokuje publikacji.
+     */
+    private void record(int symbolId, long timestampNanos, long price, long size, byte entryType) {
+        TickRecorder recorder = tickRecorder;
+        if (recorder != null) {
+            recorder.record(symbolId, timestampNanos, price, size, entryType);
+        }
+    }
+    
+    private boolean hasSubscribers(int symbolId) {
+        Subscription[][] bySymbol = subscriptionsBySymbol;
+        return wildcardSubscriptions.length > 0
+                || (symbolId < bySymbol.length && bySymbol[symbolId].length > 0);
+    }
+    
+    /**
+     * Przekazuje notowanie do wszystkich subskrypcji obejmujących dany instrument.
+     * 
+     * @param symbolId Identyfikator instrumentu
+     * @param price Cena
+     * @param size Wolumen
+     * @param entryType Typ wpisu
+     * @param time Czas notowania w formacie FIXML
+     */
+    private void publish(int symbolId, String price, String size, String entryType, String time) {
+        String symbol = instrumentRegistry.getSymbol(symbolId);
+        Subscription[][] bySymbol = subscriptionsBySymbol;
+        if (symbolId < bySymbol.length) {
+            publish(bySymbol[symbolId], symbol, price, size, entryType, time);
+        }
+        publish(wildcardSubscriptions, symbol, price, size, entryType, time);
+    }
+    
+    private void publish(Subscription[] targets, String symbol, String price, String size,
+                         String entryType, String time) {
+        for (Subscription subscription : targets) {
+            if (!subscription.sessions.isEmpty()) {
+                // Create market data response
+                MarketDataResponse response = createMarketDataResponse(symbol, price, size,
+                                                                    entryType, time, subscription.requestId);
                 
-                // Check if this request has subscribed to this symbol or to all symbols
-                if (symbols.contains(symbol) || symbols.contains("ALL")) {
-                    List<ClientSession> sessions = subscriptions.get(requestId);
-                    
-                    if (sessions != null && !sessions.isEmpty()) {
-                        // Create market data response
-                        MarketDataResponse response = createMarketDataResponse(symbol, 
-                                                                            String.valueOf(newPrice),
-                                                                            requestId);
-                        
-                        // Notify listeners
-                        notifyMarketDataListeners(response);
-                        
-
-                    }
-                }
+                // Notify listeners
+                notifyMarketDataListeners(response);
             }
         }
     }
@@ -159,8 +381,8 @@ public class MarketDataManager {
      * @return true jeśli klient ma subskrypcję
      */
     public boolean hasSubscription(String requestId, ClientSession session) {
-        List<ClientSession> subscribers = subscriptions.get(requestId);
-        return subscribers != null && subscribers.contains(session);
+        Subscription subscription = requestId != null ? subscriptions.get(requestId) : null;
+        return subscription != null && subscription.sessions.contains(session);
     }
     
     /**
@@ -189,8 +411,10 @@ public class MarketDataManager {
         
         // Pobierz cenę instrumentu
         String price = "0.00";
-        if (instrumentPrices.containsKey(symbol)) {
-            price = String.valueOf(instrumentPrices.get(symbol));
+        int symbolId = instrumentRegistry.getId(symbol);
+        long[] currentPrices = prices;
+        if (symbolId >= 0 && symbolId < currentPrices.length && currentPrices[symbolId] != Price.NONE) {
+            price = Price.format(currentPrices[symbolId]);
         }
         
         return createMarketDataResponse(symbol, price, request.getRequestId());
@@ -205,6 +429,23 @@ public class MarketDataManager {
      * @return Odpowiedź z danymi rynkowymi
      */
     private MarketDataResponse createMarketDataResponse(String symbol, String price, String requestId) {
+        return createMarketDataResponse(symbol, price, "100", MarketDataResponse.TRADE,
+                                        getCurrentTimeFormatted(), requestId);
+    }
+    
+    /**
+     * Tworzy odpowiedź z danymi rynkowymi.
+     * 
+     * @param symbol Symbol instrumentu
+     * @param price Cena
+     * @param size Wolumen
+     * @param entryType Typ wpisu
+     * @param time Czas notowania w formacie FIXML
+     * @param requestId ID żądania
+     * @return Odpowiedź z danymi rynkowymi
+     */
+    private MarketDataResponse createMarketDataResponse(String symbol, String price, String size,
+                                                        String entryType, String time, String requestId) {
         MarketDataResponse response = new MarketDataResponse();
         response.setRequestId(requestId);
         
@@ -215,10 +456,10 @@ public class MarketDataManager {
         
         // Utwórz grupę danych rynkowych
         MarketDataResponse.MarketDataGroup group = new MarketDataResponse.MarketDataGroup();
-        group.setMarketDataEntryType(MarketDataResponse.TRADE); // Transakcja
+        group.setMarketDataEntryType(entryType);
         group.setPrice(price);
-        group.setSize("100"); // Przykładowy wolumen
-        group.setTime(getCurrentTimeFormatted());
+        group.setSize(size);
+        group.setTime(time);
         
         List<MarketDataResponse.MarketDataGroup> groups = new ArrayList<>();
         groups.add(group);
@@ -233,24 +474,23 @@ public class MarketDataManager {
      * @return Sformatowany czas
      */
     private String getCurrentTimeFormatted() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS");
-        return LocalDateTime.now().format(formatter);
+        return TIME_FORMATTER.now();
     }
     
     /**
-     * Subskrybuje dane rynkowe.
+     * Subskrybuje dane rynkowe. Żądanie bez instrumentów lub z symbolem {@link #ALL_SYMBOLS}
+     * obejmuje wszystkie instrumenty. Symbole nieznane rejestrowi instrumentów są odrzucane,
+     * żeby klient nie mógł powiększać rejestru i tablic indeksowanych identyfikatorem.
      * 
      * @param request Żądanie subskrypcji
      * @param session Sesja klienta
+     * @return true jeśli subskrypcja została zapisana, false jeśli żaden z symboli nie jest znany
      */
-    public void subscribeMarketData(MarketDataRequest request, ClientSession session) {
+    public boolean subscribeMarketData(MarketDataRequest request, ClientSession session) {
         String requestId = request.getRequestId();
         
-        // Add session to subscriptions
-        subscriptions.computeIfAbsent(requestId, k -> new ArrayList<>()).add(session);
-        
-        // Parse and store subscribed symbols
-        Set<String> symbols = new HashSet<>();
+        // Parse subscribed symbols
+        Set<String> symbols = new LinkedHashSet<>();
         
         if (request.getInstruments() != null) {
             for (MarketDataRequest.InstrumentMarketDataRequest instr : request.getInstruments()) {
@@ -260,15 +500,39 @@ public class MarketDataManager {
             }
         }
         
-        // If no specific symbols, assume ALL
-        if (symbols.isEmpty()) {
-            symbols.add("ALL");
+        // If no specific symbols (or ALL), subscribe to all instruments
+        int[] symbolIds = null;
+        if (!symbols.isEmpty() && !symbols.contains(ALL_SYMBOLS)) {
+            symbolIds = new int[symbols.size()];
+            int count = 0;
+            Iterator<String> iterator = symbols.iterator();
+            while (iterator.hasNext()) {
+                String symbol = iterator.next();
+                int symbolId = instrumentRegistry.getId(symbol);
+                if (symbolId == InstrumentRegistry.UNKNOWN) {
+                    System.err.println("Odrzucono subskrypcję nieznanego instrumentu: " + symbol
+                                       + " (requestId: " + requestId + ")");
+                    iterator.remove();
+                    continue;
+                }
+                symbolIds[count++] = symbolId;
+            }
+            if (count == 0) {
+                return false;
+            }
+            symbolIds = Arrays.copyOf(symbolIds, count);
         }
         
-        // Store symbols for this request
-        requestSymbols.put(requestId, symbols);
+        synchronized (this) {
+            Subscription subscription = subscriptions.computeIfAbsent(requestId, Subscription::new);
+            subscription.sessions.add(session);
+            subscription.symbolIds = symbolIds;
+            rebuildSubscriptionIndex();
+        }
         
-        System.out.println("Added market data subscription for requestId: " + requestId + ", symbols: " + symbols);
+        System.out.println("Added market data subscription for requestId: " + requestId + ", symbols: " 
+                           + (symbolIds == null ? "[ALL]" : symbols));
+        return true;
     }
     
     /**
@@ -276,9 +540,10 @@ public class MarketDataManager {
      * 
      * @param requestId ID żądania
      */
-    public void unsubscribeMarketData(String requestId) {
-        subscriptions.remove(requestId);
-        requestSymbols.remove(requestId);
+    public synchronized void unsubscribeMarketData(String requestId) {
+        if (subscriptions.remove(requestId) != null) {
+            rebuildSubscriptionIndex();
+        }
         System.out.println("Removed market data subscription for requestId: " + requestId);
     }
     
@@ -287,20 +552,50 @@ public class MarketDataManager {
      * 
      * @param session Sesja klienta
      */
-    public void unsubscribeAllMarketData(ClientSession session) {
-        // Remove session from all subscription lists
-        for (Map.Entry<String, List<ClientSession>> entry : subscriptions.entrySet()) {
-            List<ClientSession> sessions = entry.getValue();
-            boolean removed = sessions.remove(session);
-            
-            // If this was the last session for this request, clean up request symbols too
-            if (removed && sessions.isEmpty()) {
-                requestSymbols.remove(entry.getKey());
+    public synchronized void unsubscribeAllMarketData(ClientSession session) {
+        boolean changed = false;
+        for (Subscription subscription : subscriptions.values()) {
+            // If this was the last session for this request, drop the subscription
+            if (subscription.sessions.remove(session) && subscription.sessions.isEmpty()) {
+                subscriptions.remove(subscription.requestId);
+                changed = true;
             }
         }
+        if (changed) {
+            rebuildSubscriptionIndex();
+        }
+    }
+    
+    /**
+     * Odbudowuje indeksy subskrypcji po identyfikatorze instrumentu.
+     * Wątki publikujące widzą stare albo nowe tablice, nigdy stan pośredni.
+     */
+    private synchronized void rebuildSubscriptionIndex() {
+        ensureCapacity(instrumentRegistry.size() - 1);
         
-        // Clean up empty subscription entries
-        subscriptions.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+        List<List<Subscription>> bySymbol = new ArrayList<>();
+        for (int i = 0; i < subscriptionsBySymbol.length; i++) {
+            bySymbol.add(new ArrayList<>());
+        }
+        List<Subscription> wildcard = new ArrayList<>();
+        
+        for (Subscription subscription : subscriptions.values()) {
+            int[] symbolIds = subscription.symbolIds;
+            if (symbolIds == null) {
+                wildcard.add(subscription);
+                continue;
+            }
+            for (int symbolId : symbolIds) {
+                bySymbol.get(symbolId).add(subscription);
+            }
+        }
+        
+        Subscription[][] index = new Subscription[bySymbol.size()][];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = bySymbol.get(i).isEmpty() ? NO_SUBSCRIPTIONS : bySymbol.get(i).toArray(NO_SUBSCRIPTIONS);
+        }
+        subscriptionsBySymbol = index;
+        wildcardSubscriptions = wildcard.toArray(NO_SUBSCRIPTIONS);
     }
     
     /**
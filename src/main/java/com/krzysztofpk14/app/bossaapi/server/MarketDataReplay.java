@@ -0,0 +1,184 @@
+package com.krzysztofpk14.app.bossaapi.server;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.krzysztofpk14.app.bossaapi.tick.TickCursor;
+
+/**
+ * Odtwarza zapisane notowania i przekazuje je do managera danych rynkowych
+ * tą samą ścieżką, co symulacja rynku.
+ */
+public class MarketDataReplay {
+
+    /**
+     * Tryb taktowania odtwarzania.
+     */
+    public enum Pacing {
+        /** Odstępy między tickami takie jak w oryginalnych danych */
+        WALL_CLOCK,
+        /** Odstępy skrócone N-krotnie */
+        ACCELERATED,
+        /** Bez oczekiwania - tak szybko, jak to możliwe */
+        AS_FAST_AS_POSSIBLE
+    }
+
+    private final MarketDataManager marketDataManager;
+    private final TickCursor cursor;
+    private final Pacing pacing;
+    private final double speed;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong replayedTicks = new AtomicLong();
+    // Zakończenie i rejestracja funkcji zwrotnej pod jedną blokadą - funkcja dodana
+    // po zakończeniu odtwarzania jest wywoływana od razu
+    private final Object completionLock = new Object();
+    private Runnable completionListener;
+    private boolean completed;
+    private Thread thread;
+
+    /**
+     * Tworzy nowe odtwarzanie.
+     *
+     * @param marketDataManager Manager, do którego trafiają ticki
+     * @param cursor Źródło ticków (zamykane po zakończeniu odtwarzania)
+     * @param pacing Tryb taktowania
+     * @param speed Krotność przyspieszenia dla trybu {@link Pacing#ACCELERATED}
+     */
+    public MarketDataReplay(MarketDataManager marketDataManager, TickCursor cursor, Pacing pacing, double speed) {
+        if (pacing == Pacing.ACCELERATED && speed <= 0) {
+            throw new IllegalArgumentException("Przyspieszenie musi być dodatnie: " + speed);
+        }
+        this.marketDataManager = marketDataManager;
+        this.cursor = cursor;
+        this.pacing = pacing;
+        this.speed = pacing == Pacing.WALL_CLOCK ? 1.0 : speed;
+    }
+
+    /**
+     * Ustawia funkcję wywoływaną po zakończeniu lub przerwaniu odtwarzania.
+     * Jeśli odtwarzanie już się zakończyło, funkcja jest wywoływana od razu.
+     *
+     * @param completionListener Funkcja zwrotna
+     * @return this
+     */
+    public MarketDataReplay setCompletionListener(Runnable completionListener) {
+        synchronized (completionLock) {
+            if (!completed) {
+                this.completionListener = completionListener;
+                return this;
+            }
+        }
+        if (completionListener != null) {
+            completionListener.run();
+        }
+        return this;
+    }
+
+    /**
+     * Uruchamia odtwarzanie w osobnym wątku.
+     */
+    public synchronized void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        thread = new Thread(this::replayLoop, "MarketDataReplay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Zatrzymuje odtwarzanie i czeka na zakończenie wątku.
+     */
+    public synchronized void stop() {
+        running.set(false);
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sprawdza, czy odtwarzanie trwa.
+     *
+     * @return true jeśli odtwarzanie trwa
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Zwraca liczbę odtworzonych ticków.
+     *
+     * @return Liczba ticków
+     */
+    public long getReplayedTicks() {
+        return replayedTicks.get();
+    }
+
+    /**
+     * Główna pętla odtwarzania.
+     */
+    private void replayLoop() {
+        long firstTickNanos = 0;
+        long startNanos = 0;
+        boolean first = true;
+
+        try {
+            while (running.get() && cursor.next()) {
+                if (pacing != Pacing.AS_FAST_AS_POSSIBLE) {
+                    if (first) {
+                        firstTickNanos = cursor.timestampNanos();
+                        startNanos = System.nanoTime();
+                        first = false;
+                    } else {
+                        long offset = (long) ((cursor.timestampNanos() - firstTickNanos) / speed);
+                        awaitUntil(startNanos + offset);
+                        if (!running.get()) {
+                            break;
+                        }
+                    }
+                }
+
+                marketDataManager.publishTick(cursor.symbol(), cursor.price(), cursor.size(),
+                        cursor.entryType(), cursor.timestampNanos());
+                replayedTicks.incrementAndGet();
+            }
+        } catch (IOException e) {
+            System.err.println("Błąd podczas odtwarzania notowań: " + e.getMessage());
+        } finally {
+            running.set(false);
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                System.err.println("Błąd podczas zamykania pliku z notowaniami: " + e.getMessage());
+            }
+            System.out.println("Zakończono odtwarzanie notowań, ticków: " + replayedTicks.get());
+
+            Runnable listener;
+            synchronized (completionLock) {
+                completed = true;
+                listener = completionListener;
+            }
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Czeka do podanego momentu względem {@link System#nanoTime()}.
+     */
+    private void awaitUntil(long deadlineNanos) {
+        long remaining;
+        while (running.get() && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.krzysztofpk14.app.bossaapi.server;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -12,19 +10,36 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.FixmlTimeFormatter;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 
 /**
  * Manager obsługujący zlecenia.
  */
 public class OrderManager {
+    private static final FixmlTimeFormatter TIME_FORMATTER = new FixmlTimeFormatter();
+    
     private final Map<String, OrderInfo> activeOrders = new ConcurrentHashMap<>();
     private final Map<String, OrderInfo> orderHistory = new ConcurrentHashMap<>();
+    // Aktywne zlecenia według użytkownika i identyfikatora nadanego przez klienta -
+    // ClOrdID jest unikalny tylko w obrębie jednego klienta
+    private final Map<OrderKey, OrderInfo> ordersByClientOrderId = new ConcurrentHashMap<>();
     private final AtomicInteger orderCounter = new AtomicInteger(1000);
     private final List<Consumer<ExecutionReport>> executionListeners = new CopyOnWriteArrayList<>();
+    private final InstrumentRegistry instrumentRegistry;
+    
+    // Aktywne zlecenia indeksowane identyfikatorem instrumentu
+    private volatile List<OrderInfo>[] activeOrdersBySymbol = newOrderLists(16);
+    
     private MarketDataManager marketDataManager;
     
+    private record OrderKey(String username, String clientOrderId) {
+    }
+    
     /**
      * Inner class to store order information with execution state
      */
@@ -32,28 +47,33 @@ public class OrderManager {
         private final OrderRequest order;
         private final String orderId;
         private final String username;
-        private String orderStatus;
-        private double price;
+        private final int symbolId;
+        private volatile String orderStatus;
+        private long price; // cena stałoprzecinkowa (Price)
         private int quantity;
-        private int executedQuantity;
+        private volatile int executedQuantity;
         private String side; // "1" for Buy, "2" for Sell
-        private List<ExecutionReport> reports = new ArrayList<>();
+        // Raporty dopisuje wątek danych rynkowych, a czyta wątek sesji (zapytania o status)
+        private final List<ExecutionReport> reports = new CopyOnWriteArrayList<>();
         
-        public OrderInfo(OrderRequest order, String orderId, String username) {
+        public OrderInfo(OrderRequest order, String orderId, String username, int symbolId, long tickSize) {
             this.order = order;
             this.orderId = orderId;
             this.username = username;
+            this.symbolId = symbolId;
             this.orderStatus = ExecutionReport.NEW_ORDER;
             
+            this.side = order.getSide();
+            
             // Parse order details
-            if (order.getOrderType() == OrderRequest.MARKET) {
-                this.price = 0.0; // Market orders are executed at current market price
-            } else if (order.getOrderType() == OrderRequest.LIMIT) {
-                try {
-                    this.price = Double.parseDouble(order.getPrice());
-                } catch (NumberFormatException e) {
-                    this.price = 0.0;
-                }
+            if (OrderRequest.MARKET.equals(order.getOrderType())) {
+                this.price = 0; // Market orders are executed at current market price
+            } else if (OrderRequest.LIMIT.equals(order.getOrderType())) {
+                long limit = Price.parse(order.getPrice(), 0);
+                // Limit spoza siatki notowań zaokrąglany na niekorzyść składającego
+                this.price = OrderRequest.SELL.equals(side)
+                        ? Price.ceilToTick(limit, tickSize)
+                        : Price.floorToTick(limit, tickSize);
             }
 
             // Set quantity, default to 0 if parsing fails
@@ -64,7 +84,6 @@ public class OrderManager {
             }
             
             this.executedQuantity = 0;
-            this.side = order.getSide();
         }
         
         public boolean isComplete() {
@@ -86,6 +105,42 @@ public class OrderManager {
         }
     }
 
+    /**
+     * Tworzy nowy manager zleceń z własnym rejestrem instrumentów.
+     */
+    public OrderManager() {
+        this(new InstrumentRegistry());
+    }
+    
+    /**
+     * Tworzy nowy manager zleceń.
+     * 
+     * @param instrumentRegistry Rejestr instrumentów współdzielony z innymi managerami
+     */
+    public OrderManager(InstrumentRegistry instrumentRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<OrderInfo>[] newOrderLists(int length) {
+        return new List[length];
+    }
+    
+    /**
+     * Zwraca listę aktywnych zleceń instrumentu, tworząc ją w razie potrzeby.
+     */
+    private synchronized List<OrderInfo> activeOrdersFor(int symbolId) {
+        List<OrderInfo>[] bySymbol = activeOrdersBySymbol;
+        if (symbolId >= bySymbol.length) {
+            bySymbol = Arrays.copyOf(bySymbol, Math.max(symbolId + 1, bySymbol.length * 2));
+        }
+        if (bySymbol[symbolId] == null) {
+            bySymbol[symbolId] = new CopyOnWriteArrayList<>();
+        }
+        activeOrdersBySymbol = bySymbol;
+        return bySymbol[symbolId];
+    }
+    
     /**
      * Sets the MarketDataManager to monitor prices.
      *
@@ -101,24 +156,41 @@ public class OrderManager {
     }
 
     /**
-     * Przetwarza nowe zlecenie.
+     * Przetwarza nowe zlecenie. Zlecenie na instrument spoza rejestru (lub bez
+     * instrumentu) jest odrzucane - symbol pochodzi od klienta, więc nie może
+     * rozszerzać rejestru ani tablic indeksowanych identyfikatorem instrumentu.
      * 
      * @param order Zlecenie do przetworzenia
      * @param username Nazwa użytkownika składającego zlecenie
-     * @return Raport wykonania
+     * @return Raport wykonania (NEW lub REJECTED)
      */
     public ExecutionReport processOrder(OrderRequest order, String username) {
         // Generuj unikalny ID zlecenia w systemie
         String orderId = generateOrderId();
         
+        String symbol = order.getInstrument() != null ? order.getInstrument().getSymbol() : null;
+        int symbolId = instrumentRegistry.getId(symbol);
+        if (symbolId == InstrumentRegistry.UNKNOWN) {
+            // Odrzucenie trafia tylko do składającego zlecenie - nie jest zapisywane
+            ExecutionReport rejected = createExecutionReport(order, orderId, username,
+                    ExecutionReport.REJECTED, ExecutionReport.REJECTED_ORDER);
+            rejected.setText(symbol == null ? "Brak instrumentu w zleceniu" : "Nieznany instrument: " + symbol);
+            return rejected;
+        }
+        
         // Create and store order information
-        OrderInfo orderInfo = new OrderInfo(order, orderId, username);
+        OrderInfo orderInfo = new OrderInfo(order, orderId, username, symbolId,
+                instrumentRegistry.getTickSize(symbolId));
         
         // Utwórz raport wykonania (NEW)
         ExecutionReport report = createExecutionReport(order, orderId, username, ExecutionReport.NEW, orderInfo.orderStatus);
         orderInfo.reports.add(report);
 
         activeOrders.put(orderId, orderInfo);
+        activeOrdersFor(symbolId).add(orderInfo);
+        if (order.getClientOrderId() != null) {
+            ordersByClientOrderId.put(new OrderKey(username, order.getClientOrderId()), orderInfo);
+        }
         
         // Notyfikuj obserwatorów
         notifyExecutionListeners(report);
@@ -139,25 +211,31 @@ public class OrderManager {
             return;
         }
         
-        String symbol = marketData.getInstrument().getSymbol();
+        // Symbol jest zamieniany na identyfikator raz na komunikat
+        int symbolId = instrumentRegistry.getId(marketData.getInstrument().getSymbol());
+        List<OrderInfo>[] bySymbol = activeOrdersBySymbol;
+        if (symbolId < 0 || symbolId >= bySymbol.length || bySymbol[symbolId] == null) {
+            return;
+        }
+        List<OrderInfo> candidates = bySymbol[symbolId];
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
         String priceStr = marketData.getMarketDataGroups().get(0).getPrice();
         
         if (priceStr == null) return;
         
-        double currentPrice;
+        long currentPrice;
         try {
-            currentPrice = Double.parseDouble(priceStr);
+            currentPrice = Price.parse(priceStr);
         } catch (NumberFormatException e) {
             return;
         }
         
-        // Check all active orders for the given symbol
-        for (OrderInfo orderInfo : new ArrayList<>(activeOrders.values())) {
+        // Check active orders for the given symbol only
+        for (OrderInfo orderInfo : candidates) {
             try {
-                // Skip orders for different symbols
-                String orderSymbol = orderInfo.order.getInstrument().getSymbol();
-                if (!symbol.equals(orderSymbol)) continue;
-                
                 // Skip fully executed orders
                 if (orderInfo.isComplete()) continue;
                 
@@ -195,9 +273,9 @@ public class OrderManager {
      * Executes an order at the given price
      * 
      * @param orderInfo The order information
-     * @param executionPrice The price to execute at
+     * @param executionPrice The price to execute at (fixed-point)
      */
-    private void executeOrder(OrderInfo orderInfo, double executionPrice) {
+    private void executeOrder(OrderInfo orderInfo, long executionPrice) {
         // Calculate quantity to execute (for simplicity, executing full remaining quantity)
         int execQuantity = orderInfo.getRemainingQuantity();
         
@@ -214,9 +292,10 @@ public class OrderManager {
         );
         
         // Set executed price and quantity
-        report.setPrice(String.format("%.2f", executionPrice));
+        String formattedPrice = Price.format(executionPrice);
+        report.setPrice(formattedPrice);
 
-        report.setLastPrice(String.format("%.2f", executionPrice));
+        report.setLastPrice(formattedPrice);
         
         // Set cumulative quantity
         ExecutionReport.OrderQuantity cumQty = new ExecutionReport.OrderQuantity();
@@ -234,6 +313,10 @@ public class OrderManager {
         // If order is complete, move to history
         if (orderInfo.isComplete()) {
             activeOrders.remove(orderInfo.orderId);
+            activeOrdersFor(orderInfo.symbolId).remove(orderInfo);
+            if (orderInfo.order.getClientOrderId() != null) {
+                ordersByClientOrderId.remove(new OrderKey(orderInfo.username, orderInfo.order.getClientOrderId()), orderInfo);
+            }
             orderHistory.put(orderInfo.orderId, orderInfo);
         }
         
@@ -241,10 +324,72 @@ public class OrderManager {
         notifyExecutionListeners(report);
         System.out.println("Order executed: " + orderInfo.order.getClientOrderId() + 
                            ", Quantity: " + execQuantity + 
-                           ", Price: " + executionPrice + 
+                           ", Price: " + formattedPrice + 
                            ", Status: " + orderInfo.orderStatus);
     }
     
+    /**
+     * Zwraca bieżący status zlecenia jako raport wykonania typu {@link ExecutionReport#ORDER_STATUS}.
+     * Aktywne zlecenie można wskazać przez ClOrdID, zakończone - przez OrderID nadany
+     * w raporcie NEW. Użytkownik widzi tylko własne zlecenia.
+     * 
+     * @param request Żądanie statusu zlecenia
+     * @param username Nazwa użytkownika sesji, która pyta o status
+     * @return Raport ze statusem lub null, jeśli zlecenie nie jest znane lub należy do innego użytkownika
+     */
+    public ExecutionReport getOrderStatus(OrderStatusRequest request, String username) {
+        if (username == null) {
+            return null;
+        }
+        OrderInfo orderInfo = null;
+        if (request.getOrderId() != null) {
+            orderInfo = activeOrders.get(request.getOrderId());
+            if (orderInfo == null) {
+                orderInfo = orderHistory.get(request.getOrderId());
+            }
+        }
+        if (orderInfo == null && request.getClientOrderId() != null) {
+            orderInfo = ordersByClientOrderId.get(new OrderKey(username, request.getClientOrderId()));
+        }
+        if (orderInfo == null || !username.equals(orderInfo.username)) {
+            return null;
+        }
+        
+        ExecutionReport report = createExecutionReport(
+            orderInfo.order,
+            orderInfo.orderId,
+            orderInfo.username,
+            ExecutionReport.ORDER_STATUS,
+            orderInfo.orderStatus
+        );
+        report.setCumulativeQuantity(String.valueOf(orderInfo.executedQuantity));
+        report.setLeavesQuantity(String.valueOf(orderInfo.getRemainingQuantity()));
+        
+        // Cena ostatniego wykonania i średnia cena wszystkich wykonań - klient,
+        // który zgubił kilka raportów transakcji, wycenia brakującą ilość po AvgPx
+        ExecutionReport last = null;
+        long notional = 0;
+        long filled = 0;
+        for (ExecutionReport previous : orderInfo.reports) {
+            if (ExecutionReport.TRANSACTION.equals(previous.getExecutionType())) {
+                // Raporty transakcji tworzy executeOrder - LastPx i LastQty są zawsze wypełnione
+                long lastQuantity = Long.parseLong(previous.getLastQuantity());
+                notional += Price.notional(Price.parse(previous.getLastPrice()), lastQuantity);
+                filled += lastQuantity;
+                last = previous;
+            }
+        }
+        if (last != null) {
+            report.setPrice(last.getPrice());
+            report.setLastPrice(last.getLastPrice());
+            report.setLastQuantity(last.getLastQuantity());
+        }
+        if (filled > 0) {
+            report.setAveragePrice(Price.format(notional / filled));
+        }
+        return report;
+    }
+    
     /**
      * Generuje unikalny identyfikator zlecenia.
      * 
@@ -282,14 +427,16 @@ public class OrderManager {
         report.setSide(order.getSide());
         report.setOrderType(order.getOrderType());
         report.setPrice(order.getPrice());
-        // report.setUsername(username);
+        report.setAccount(username);
         
         // Dodaj instrument
-        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
-        instrument.setSymbol(order.getInstrument().getSymbol());
-        instrument.setId(order.getInstrument().getId());
-        instrument.setIdSource(order.getInstrument().getIdSource());
-        report.setInstrument(instrument);
+        if (order.getInstrument() != null) {
+            ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+            instrument.setSymbol(order.getInstrument().getSymbol());
+            instrument.setId(order.getInstrument().getId());
+            instrument.setIdSource(order.getInstrument().getIdSource());
+            report.setInstrument(instrument);
+        }
         
         // Dodaj ilość
         if (order.getOrderQuantity() != null) {
@@ -310,8 +457,7 @@ public class OrderManager {
      * @return Sformatowany czas
      */
     private String getCurrentTimeFormatted() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS");
-        return LocalDateTime.now().format(formatter);
+        return TIME_FORMATTER.now();
     }
     
     /**
@@ -7,12 +7,15 @@ import java.util.Map;
 
 import com.krzysztofpk14.app.bossaapi.model.request.SecurityListRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.SecurityList;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 
 /**
  * Manager obsługujący instrumenty finansowe.
  */
 public class SecurityManager {
     private final Map<String, SecurityDefinition> securities = new HashMap<>();
+    private final InstrumentRegistry instrumentRegistry;
     
     /**
      * Klasa pomocnicza do przechowywania definicji instrumentu.
@@ -23,45 +26,70 @@ public class SecurityManager {
         private String name;
         private String securityType;
         private String market;
+        private long tickSize;
         
-        public SecurityDefinition(String symbol, String isin, String name, String securityType, String market) {
+        public SecurityDefinition(String symbol, String isin, String name, String securityType, String market,
+                                  long tickSize) {
             this.symbol = symbol;
             this.isin = isin;
             this.name = name;
             this.securityType = securityType;
             this.market = market;
+            this.tickSize = tickSize;
         }
     }
     
     /**
-     * Tworzy nowy manager instrumentów.
+     * Tworzy nowy manager instrumentów z własnym rejestrem instrumentów.
      */
     public SecurityManager() {
+        this(new InstrumentRegistry());
+    }
+    
+    /**
+     * Tworzy nowy manager instrumentów i rejestruje instrumenty w podanym rejestrze.
+     * 
+     * @param instrumentRegistry Rejestr instrumentów nadający identyfikatory
+     */
+    public SecurityManager(InstrumentRegistry instrumentRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
         // Inicjalizuj przykładowe instrumenty
         initSampleSecurities();
     }
     
+    /**
+     * Zwraca rejestr instrumentów.
+     * 
+     * @return Rejestr instrumentów
+     */
+    public InstrumentRegistry getInstrumentRegistry() {
+        return instrumentRegistry;
+    }
+    
     /**
      * Inicjalizuje przykładowe instrumenty.
      */
     private void initSampleSecurities() {
-        addSecurity("KGHM", "PLKGHM000017", "KGHM Polska Miedź S.A.", "CS", "GPW");
-        addSecurity("PKO", "PLPKO0000016", "PKO Bank Polski S.A.", "CS", "GPW");
-        addSecurity("PKN", "PLPKN0000018", "PKN Orlen S.A.", "CS", "GPW");
-        addSecurity("PZU", "PLPZU0000011", "PZU S.A.", "CS", "GPW");
-        addSecurity("CDR", "PLOPTTC00011", "CD Projekt S.A.", "CS", "GPW");
-        addSecurity("LPP", "PLLPP0000011", "LPP S.A.", "CS", "GPW");
-        addSecurity("PGE", "PLPGER000010", "PGE S.A.", "CS", "GPW");
-        addSecurity("SPL", "PLBZ00000044", "Santander Bank Polska S.A.", "CS", "GPW");
-        addSecurity("DNP", "PLDINPL00011", "Dino Polska S.A.", "CS", "GPW");
-        addSecurity("CPS", "PLCFRPT00013", "Cyfrowy Polsat S.A.", "CS", "GPW");
+        addSecurity("KGHM", "PLKGHM000017", "KGHM Polska Miedź S.A.", "CS", "GPW", "0.05");
+        addSecurity("PKO", "PLPKO0000016", "PKO Bank Polski S.A.", "CS", "GPW", "0.01");
+        addSecurity("PKN", "PLPKN0000018", "PKN Orlen S.A.", "CS", "GPW", "0.01");
+        addSecurity("PZU", "PLPZU0000011", "PZU S.A.", "CS", "GPW", "0.01");
+        addSecurity("CDR", "PLOPTTC00011", "CD Projekt S.A.", "CS", "GPW", "0.10");
+        addSecurity("LPP", "PLLPP0000011", "LPP S.A.", "CS", "GPW", "0.50");
+        addSecurity("PGE", "PLPGER000010", "PGE S.A.", "CS", "GPW", "0.005");
+        addSecurity("SPL", "PLBZ00000044", "Santander Bank Polska S.A.", "CS", "GPW", "0.10");
+        addSecurity("DNP", "PLDINPL00011", "Dino Polska S.A.", "CS", "GPW", "0.10");
+        addSecurity("CPS", "PLCFRPT00013", "Cyfrowy Polsat S.A.", "CS", "GPW", "0.01");
     }
     
     /**
-     * Dodaje nowy instrument.
+     * Dodaje nowy instrument i rejestruje jego krok notowań.
      */
-    private void addSecurity(String symbol, String isin, String name, String securityType, String market) {
-        securities.put(symbol, new SecurityDefinition(symbol, isin, name, securityType, market));
+    private void addSecurity(String symbol, String isin, String name, String securityType, String market,
+                             String minPriceIncrement) {
+        long tickSize = Price.parse(minPriceIncrement);
+        securities.put(symbol, new SecurityDefinition(symbol, isin, name, securityType, market, tickSize));
+        instrumentRegistry.register(symbol, tickSize);
     }
     
     /**
@@ -128,6 +156,7 @@ public class SecurityManager {
         instrument.setIdSource("4"); // 4 = ISIN
         instrument.setSecurityType(definition.securityType);
         instrument.setDescription(definition.name);
+        instrument.setMinimumPriceIncrement(Price.format(definition.tickSize));
         
         secDef.setInstrument(instrument);
         
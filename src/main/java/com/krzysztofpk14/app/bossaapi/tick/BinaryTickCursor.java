@@ -0,0 +1,118 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Kursor czytający notowania z binarnego pliku rekordowego mapowanego w pamięci.
+ * Format pliku opisuje {@link BinaryTickWriter}.
+ */
+public class BinaryTickCursor extends MappedTickCursor {
+    private final String[] symbols;
+
+    // Pozycja następnego rekordu w bieżącym oknie
+    private int position;
+
+    // Pola bieżącego ticka
+    private String symbol;
+    private long timestampNanos;
+    private long price;
+    private long size;
+    private byte entryType;
+
+    /**
+     * Otwiera plik binarny.
+     *
+     * @param file Ścieżka do pliku
+     * @throws IOException Jeśli plik nie istnieje lub ma nieprawidłowy nagłówek
+     */
+    public BinaryTickCursor(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Otwiera plik binarny z podanym rozmiarem okna mapowania.
+     *
+     * @param file Ścieżka do pliku
+     * @param windowSize Rozmiar okna mapowania w bajtach
+     * @throws IOException Jeśli plik nie istnieje lub ma nieprawidłowy nagłówek
+     */
+    public BinaryTickCursor(Path file, long windowSize) throws IOException {
+        super(file, windowSize);
+
+        int pos = require(0, 12);
+        if (pos < 0 || window.getInt(0) != TickFormat.BINARY_MAGIC) {
+            throw new IOException("Nieprawidłowy nagłówek pliku z notowaniami: " + file);
+        }
+        if (window.getInt(4) != TickFormat.BINARY_VERSION) {
+            throw new IOException("Nieobsługiwana wersja pliku z notowaniami: " + window.getInt(4));
+        }
+
+        int count = window.getInt(8);
+        symbols = new String[count];
+        pos = 12;
+        for (int i = 0; i < count; i++) {
+            pos = require(pos, 2);
+            if (pos < 0) {
+                throw new IOException("Uszkodzony słownik symboli w pliku: " + file);
+            }
+            int length = window.getShort(pos) & 0xFFFF;
+            pos = require(pos + 2, length);
+            if (pos < 0) {
+                throw new IOException("Uszkodzony słownik symboli w pliku: " + file);
+            }
+            byte[] bytes = new byte[length];
+            window.get(pos, bytes);
+            symbols[i] = new String(bytes, StandardCharsets.ISO_8859_1);
+            pos += length;
+        }
+        position = pos;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        int pos = require(position, TickFormat.BINARY_RECORD_SIZE);
+        if (pos < 0) {
+            return false;
+        }
+
+        timestampNanos = window.getLong(pos);
+        int symbolIndex = window.getInt(pos + 8);
+        price = window.getLong(pos + 12);
+        size = window.getLong(pos + 20);
+        entryType = window.get(pos + 28);
+        if (symbolIndex < 0 || symbolIndex >= symbols.length) {
+            throw new IOException("Nieprawidłowy indeks symbolu: " + symbolIndex);
+        }
+        symbol = symbols[symbolIndex];
+
+        position = pos + TickFormat.BINARY_RECORD_SIZE;
+        return true;
+    }
+
+    @Override
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public long price() {
+        return price;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte entryType() {
+        return entryType;
+    }
+}
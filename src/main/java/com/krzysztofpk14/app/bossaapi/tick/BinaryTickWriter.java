@@ -0,0 +1,96 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zapisuje notowania w binarnym formacie rekordowym.
+ * <p>
+ * Nagłówek: magic "TICK" (int), wersja (int), liczba symboli (int),
+ * a następnie dla każdego symbolu długość (short) i bajty ASCII.
+ * Dalej rekordy o stałej długości 29 bajtów: czas w ns (long),
+ * indeks symbolu (int), cena stałoprzecinkowa (long), wolumen (long), typ wpisu (byte).
+ */
+public class BinaryTickWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final Map<String, Integer> symbolIndexes = new HashMap<>();
+
+    /**
+     * Tworzy plik i zapisuje nagłówek ze słownikiem symboli.
+     *
+     * @param file Ścieżka do pliku
+     * @param symbols Symbole, które wystąpią w pliku
+     * @throws IOException Jeśli pliku nie da się utworzyć
+     */
+    public BinaryTickWriter(Path file, List<String> symbols) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        buffer.putInt(TickFormat.BINARY_MAGIC);
+        buffer.putInt(TickFormat.BINARY_VERSION);
+        buffer.putInt(symbols.size());
+        for (String symbol : symbols) {
+            byte[] bytes = symbol.getBytes(StandardCharsets.ISO_8859_1);
+            ensureCapacity(2 + bytes.length);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+            symbolIndexes.put(symbol, symbolIndexes.size());
+        }
+    }
+
+    /**
+     * Dopisuje tick do pliku.
+     *
+     * @param symbol Symbol instrumentu (musi być w słowniku)
+     * @param timestampNanos Czas w nanosekundach od epoki
+     * @param price Cena stałoprzecinkowa
+     * @param size Wolumen
+     * @param entryType Typ wpisu
+     * @throws IOException Jeśli wystąpi błąd zapisu
+     */
+    public void write(String symbol, long timestampNanos, long price, long size, byte entryType) throws IOException {
+        Integer index = symbolIndexes.get(symbol);
+        if (index == null) {
+            throw new IllegalArgumentException("Symbol spoza słownika pliku: " + symbol);
+        }
+        ensureCapacity(TickFormat.BINARY_RECORD_SIZE);
+        buffer.putLong(timestampNanos);
+        buffer.putInt(index);
+        buffer.putLong(price);
+        buffer.putLong(size);
+        buffer.put(entryType);
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Zapisuje zbuforowane dane na dysk.
+     *
+     * @throws IOException Jeśli wystąpi błąd zapisu
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,158 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Kursor czytający plik kolumnowy jednego symbolu (format opisuje {@link ColumnarTickWriter}).
+ * Bloki są dekodowane z mapowanego pliku do wielokrotnie używanych tablic prymitywnych.
+ */
+public class ColumnarTickCursor extends MappedTickCursor {
+    private final String symbol;
+
+    // Pozycja następnego bloku w bieżącym oknie
+    private int position;
+
+    // Zdekodowany bieżący blok
+    private final long[] timestamps = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final long[] prices = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final long[] sizes = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final byte[] entryTypes = new byte[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private int blockCount;
+    private int index = -1;
+
+    // Pozycja odczytu podczas dekodowania bloku
+    private int readPosition;
+
+    /**
+     * Otwiera plik kolumnowy.
+     *
+     * @param file Ścieżka do pliku
+     * @throws IOException Jeśli plik nie istnieje lub ma nieprawidłowy nagłówek
+     */
+    public ColumnarTickCursor(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Otwiera plik kolumnowy z podanym rozmiarem okna mapowania.
+     *
+     * @param file Ścieżka do pliku
+     * @param windowSize Rozmiar okna mapowania w bajtach
+     * @throws IOException Jeśli plik nie istnieje lub ma nieprawidłowy nagłówek
+     */
+    public ColumnarTickCursor(Path file, long windowSize) throws IOException {
+        super(file, windowSize);
+
+        int pos = require(0, 10);
+        if (pos < 0 || window.getInt(0) != TickFormat.COLUMNAR_MAGIC) {
+            throw new IOException("Nieprawidłowy nagłówek pliku kolumnowego: " + file);
+        }
+        if (window.getInt(4) != TickFormat.COLUMNAR_VERSION) {
+            throw new IOException("Nieobsługiwana wersja pliku kolumnowego: " + window.getInt(4));
+        }
+        int length = window.getShort(8) & 0xFFFF;
+        pos = require(10, length);
+        if (pos < 0) {
+            throw new IOException("Uszkodzony nagłówek pliku kolumnowego: " + file);
+        }
+        byte[] bytes = new byte[length];
+        window.get(pos, bytes);
+        symbol = new String(bytes, StandardCharsets.ISO_8859_1);
+        position = pos + length;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        if (++index < blockCount) {
+            return true;
+        }
+        if (!readBlock()) {
+            index = blockCount;
+            return false;
+        }
+        index = 0;
+        return true;
+    }
+
+    /**
+     * Dekoduje kolejny blok.
+     *
+     * @return false na końcu pliku
+     */
+    private boolean readBlock() throws IOException {
+        int pos = require(position, TickFormat.COLUMNAR_BLOCK_HEADER);
+        if (pos < 0) {
+            return false;
+        }
+        int length = window.getInt(pos);
+        int count = window.getInt(pos + 4);
+        if (count <= 0 || count > TickFormat.COLUMNAR_BLOCK_TICKS || length < count) {
+            throw new IOException("Uszkodzony blok pliku kolumnowego: " + symbol);
+        }
+
+        pos = require(pos, TickFormat.COLUMNAR_BLOCK_HEADER + length);
+        if (pos < 0) {
+            // Niedokończony blok (np. przerwany zapis) - traktowany jak koniec danych
+            return false;
+        }
+
+        readPosition = pos + TickFormat.COLUMNAR_BLOCK_HEADER;
+        readDeltaColumn(timestamps, count);
+        readDeltaColumn(prices, count);
+        for (int i = 0; i < count; i++) {
+            sizes[i] = readVarLong();
+        }
+        window.get(readPosition, entryTypes, 0, count);
+
+        blockCount = count;
+        position = pos + TickFormat.COLUMNAR_BLOCK_HEADER + length;
+        return true;
+    }
+
+    private void readDeltaColumn(long[] column, int count) {
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += TickFormat.unZigZag(readVarLong());
+            column[i] = previous;
+        }
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = window.get(readPosition++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    @Override
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    public long timestampNanos() {
+        return timestamps[index];
+    }
+
+    @Override
+    public long price() {
+        return prices[index];
+    }
+
+    @Override
+    public long size() {
+        return sizes[index];
+    }
+
+    @Override
+    public byte entryType() {
+        return entryTypes[index];
+    }
+}
@@ -0,0 +1,175 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Układ katalogów magazynu kolumnowego: {@code root/yyyyMMdd/SYMBOL.ticks}.
+ * Udostępnia kursory czytające jeden dzień lub cały magazyn w kolejności czasowej.
+ */
+public final class ColumnarTickStore {
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private ColumnarTickStore() {
+    }
+
+    /**
+     * Zwraca katalog z plikami danego dnia.
+     *
+     * @param root Katalog główny magazynu
+     * @param day Dzień
+     * @return Ścieżka katalogu dnia
+     */
+    public static Path dayDirectory(Path root, LocalDate day) {
+        return root.resolve(DAY_FORMATTER.format(day));
+    }
+
+    /**
+     * Zwraca plik z tickami symbolu z danego dnia.
+     *
+     * @param root Katalog główny magazynu
+     * @param day Dzień
+     * @param symbol Symbol instrumentu
+     * @return Ścieżka pliku
+     */
+    public static Path symbolFile(Path root, LocalDate day, String symbol) {
+        return dayDirectory(root, day).resolve(symbol + TickFormat.COLUMNAR_EXTENSION);
+    }
+
+    /**
+     * Otwiera wszystkie pliki jednego dnia jako jeden strumień uporządkowany czasowo.
+     *
+     * @param root Katalog główny magazynu
+     * @param day Dzień
+     * @return Kursor ticków dnia
+     * @throws IOException Jeśli plików nie da się otworzyć
+     */
+    public static TickCursor openDay(Path root, LocalDate day) throws IOException {
+        return openDayDirectory(dayDirectory(root, day));
+    }
+
+    /**
+     * Otwiera katalog magazynu. Jeśli katalog zawiera pliki .ticks, jest traktowany
+     * jako katalog jednego dnia; w przeciwnym razie odtwarzane są kolejno wszystkie
+     * podkatalogi dni w porządku chronologicznym.
+     *
+     * @param directory Katalog główny magazynu lub katalog dnia
+     * @return Kursor ticków
+     * @throws IOException Jeśli katalogu nie da się odczytać
+     */
+    public static TickCursor open(Path directory) throws IOException {
+        if (!listFiles(directory).isEmpty()) {
+            return openDayDirectory(directory);
+        }
+
+        List<Path> days = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path day : stream) {
+                days.add(day);
+            }
+        }
+        // Nazwy yyyyMMdd sortują się chronologicznie
+        Collections.sort(days);
+        return new DayChainCursor(days);
+    }
+
+    private static TickCursor openDayDirectory(Path directory) throws IOException {
+        List<ColumnarTickCursor> cursors = new ArrayList<>();
+        try {
+            for (Path file : listFiles(directory)) {
+                cursors.add(new ColumnarTickCursor(file));
+            }
+        } catch (IOException e) {
+            for (ColumnarTickCursor cursor : cursors) {
+                cursor.close();
+            }
+            throw e;
+        }
+        return new MergingTickCursor(cursors);
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TickFormat.COLUMNAR_EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Kursor przechodzący kolejno po dniach; w danej chwili otwarty jest tylko jeden dzień.
+     */
+    private static class DayChainCursor implements TickCursor {
+        private final List<Path> days;
+        private int nextDay;
+        private TickCursor current;
+
+        DayChainCursor(List<Path> days) {
+            this.days = days;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            while (true) {
+                if (current != null && current.next()) {
+                    return true;
+                }
+                if (current != null) {
+                    current.close();
+                    current = null;
+                }
+                if (nextDay >= days.size()) {
+                    return false;
+                }
+                current = openDayDirectory(days.get(nextDay++));
+            }
+        }
+
+        @Override
+        public String symbol() {
+            return current.symbol();
+        }
+
+        @Override
+        public long timestampNanos() {
+            return current.timestampNanos();
+        }
+
+        @Override
+        public long price() {
+            return current.price();
+        }
+
+        @Override
+        public long size() {
+            return current.size();
+        }
+
+        @Override
+        public byte entryType() {
+            return current.entryType();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            nextDay = days.size();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Zapisuje ticki jednego symbolu w formacie kolumnowym.
+ * <p>
+ * Nagłówek pliku: magic "TCOL" (int), wersja (int), długość symbolu (short) i jego bajty.
+ * Dalej bloki po co najwyżej {@value TickFormat#COLUMNAR_BLOCK_TICKS} ticków:
+ * długość danych bloku (int), liczba ticków (int), a następnie kolumny:
+ * czasy (pierwszy bezwzględnie, kolejne jako różnice, zigzag + varint),
+ * ceny (jak czasy), wolumeny (varint) i typy wpisów (po jednym bajcie).
+ * Plik można dopisywać - istniejące bloki nie są modyfikowane.
+ */
+public class ColumnarTickWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final String symbol;
+
+    // Bufor bieżącego bloku w postaci kolumn
+    private final long[] timestamps = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final long[] prices = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final long[] sizes = new long[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private final byte[] entryTypes = new byte[TickFormat.COLUMNAR_BLOCK_TICKS];
+    private int count;
+
+    // Bufor zakodowanego bloku (najgorszy przypadek: 3 x 10 bajtów varint + 1 bajt typu)
+    private final ByteBuffer encoded = ByteBuffer.allocate(
+            TickFormat.COLUMNAR_BLOCK_HEADER + TickFormat.COLUMNAR_BLOCK_TICKS * 31);
+
+    /**
+     * Otwiera plik do dopisywania; nagłówek jest zapisywany dla nowego pliku.
+     *
+     * @param file Ścieżka do pliku
+     * @param symbol Symbol instrumentu
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public ColumnarTickWriter(Path file, String symbol) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.symbol = symbol;
+
+        if (channel.size() == 0) {
+            byte[] bytes = symbol.getBytes(StandardCharsets.ISO_8859_1);
+            ByteBuffer header = ByteBuffer.allocate(10 + bytes.length);
+            header.putInt(TickFormat.COLUMNAR_MAGIC);
+            header.putInt(TickFormat.COLUMNAR_VERSION);
+            header.putShort((short) bytes.length);
+            header.put(bytes);
+            header.flip();
+            writeFully(header);
+        }
+    }
+
+    /**
+     * Zwraca symbol zapisywany do pliku.
+     *
+     * @return Symbol instrumentu
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Dodaje tick do bieżącego bloku; pełny blok jest zapisywany na dysk.
+     *
+     * @param timestampNanos Czas w nanosekundach od epoki
+     * @param price Cena stałoprzecinkowa
+     * @param size Wolumen
+     * @param entryType Typ wpisu
+     * @throws IOException Jeśli wystąpi błąd zapisu
+     */
+    public void write(long timestampNanos, long price, long size, byte entryType) throws IOException {
+        timestamps[count] = timestampNanos;
+        prices[count] = price;
+        sizes[count] = size;
+        entryTypes[count] = entryType;
+        if (++count == TickFormat.COLUMNAR_BLOCK_TICKS) {
+            flush();
+        }
+    }
+
+    /**
+     * Zapisuje niepełny blok na dysk.
+     *
+     * @throws IOException Jeśli wystąpi błąd zapisu
+     */
+    public void flush() throws IOException {
+        if (count == 0) {
+            return;
+        }
+
+        encoded.clear();
+        encoded.position(TickFormat.COLUMNAR_BLOCK_HEADER);
+        putDeltaColumn(timestamps);
+        putDeltaColumn(prices);
+        for (int i = 0; i < count; i++) {
+            putVarLong(sizes[i]);
+        }
+        encoded.put(entryTypes, 0, count);
+
+        encoded.putInt(0, encoded.position() - TickFormat.COLUMNAR_BLOCK_HEADER);
+        encoded.putInt(4, count);
+        encoded.flip();
+        writeFully(encoded);
+        count = 0;
+    }
+
+    private void putDeltaColumn(long[] column) {
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            putVarLong(TickFormat.zigZag(column[i] - previous));
+            previous = column[i];
+        }
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            encoded.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        encoded.put((byte) value);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
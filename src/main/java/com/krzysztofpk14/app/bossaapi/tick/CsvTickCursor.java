@@ -0,0 +1,224 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+/**
+ * Kursor czytający notowania z pliku CSV mapowanego w pamięci.
+ * Oczekiwany format wiersza: {@code czas,symbol,cena,wolumen[,typWpisu]}.
+ * Wiersze nie zaczynające się od cyfry (np. nagłówek) są pomijane.
+ * Liczby są parsowane bezpośrednio z bajtów pliku, bez tworzenia obiektów String.
+ */
+public class CsvTickCursor extends MappedTickCursor {
+    private final TimeUnit timestampUnit;
+
+    // Pozycja następnego wiersza w bieżącym oknie
+    private int position;
+
+    // Pola bieżącego ticka
+    private String symbol;
+    private long timestampNanos;
+    private long price;
+    private long size;
+    private byte entryType;
+
+    /**
+     * Otwiera plik CSV.
+     *
+     * @param file Ścieżka do pliku
+     * @param timestampUnit Jednostka czasu w pierwszej kolumnie
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public CsvTickCursor(Path file, TimeUnit timestampUnit) throws IOException {
+        this(file, timestampUnit, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Otwiera plik CSV z podanym rozmiarem okna mapowania.
+     *
+     * @param file Ścieżka do pliku
+     * @param timestampUnit Jednostka czasu w pierwszej kolumnie
+     * @param windowSize Rozmiar okna mapowania w bajtach
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public CsvTickCursor(Path file, TimeUnit timestampUnit, long windowSize) throws IOException {
+        super(file, windowSize);
+        this.timestampUnit = timestampUnit;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (true) {
+            int lineEnd = findLineEnd(position);
+            if (lineEnd < 0) {
+                if (hasMoreWindows()) {
+                    // Wiersz przecina granicę okna - przesuń okno na jego początek
+                    if (position == 0) {
+                        throw new IOException("Wiersz dłuższy niż okno mapowania w pozycji " + windowStart);
+                    }
+                    map(windowStart + position);
+                    position = 0;
+                    continue;
+                }
+                if (position >= window.limit()) {
+                    return false;
+                }
+                lineEnd = window.limit();
+            }
+
+            int start = position;
+            position = lineEnd + 1;
+
+            int end = lineEnd;
+            if (end > start && window.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > start && isDigit(window.get(start)) && parseLine(start, end)) {
+                return true;
+            }
+        }
+    }
+
+    private int findLineEnd(int from) {
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parsuje pola wiersza.
+     *
+     * @return false jeśli wiersz jest niekompletny
+     */
+    private boolean parseLine(int start, int end) {
+        int fieldEnd = nextComma(start, end);
+        timestampNanos = timestampUnit.toNanos(parseLong(start, fieldEnd));
+        if (fieldEnd >= end) {
+            return false;
+        }
+
+        int symbolStart = fieldEnd + 1;
+        fieldEnd = nextComma(symbolStart, end);
+        if (fieldEnd >= end) {
+            return false;
+        }
+        symbol = internSymbol(symbolStart, fieldEnd);
+
+        int priceStart = fieldEnd + 1;
+        fieldEnd = nextComma(priceStart, end);
+        price = parsePrice(priceStart, fieldEnd);
+
+        size = 0;
+        entryType = TickFormat.DEFAULT_ENTRY_TYPE;
+        if (fieldEnd < end) {
+            int sizeStart = fieldEnd + 1;
+            fieldEnd = nextComma(sizeStart, end);
+            size = parseLong(sizeStart, fieldEnd);
+            if (fieldEnd + 1 < end) {
+                entryType = window.get(fieldEnd + 1);
+            }
+        }
+        return true;
+    }
+
+    private int nextComma(int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == ',') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private long parseLong(int from, int to) {
+        long value = 0;
+        boolean negative = false;
+        for (int i = from; i < to; i++) {
+            byte b = window.get(i);
+            if (b == '-') {
+                negative = true;
+            } else if (isDigit(b)) {
+                value = value * 10 + (b - '0');
+            } else if (b == '.') {
+                break;
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parsuje cenę dziesiętną do postaci stałoprzecinkowej.
+     * Cyfry poza skalą {@link Price#DECIMALS} są zaokrąglane tak samo jak w
+     * {@link Price#parse(CharSequence)} (połówki od zera).
+     */
+    private long parsePrice(int from, int to) {
+        long value = 0;
+        boolean negative = false;
+        boolean roundUp = false;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            byte b = window.get(i);
+            if (b == '-') {
+                negative = true;
+            } else if (b == '.') {
+                decimals = 0;
+            } else if (isDigit(b)) {
+                if (decimals >= Price.DECIMALS) {
+                    // Pierwsza odrzucona cyfra decyduje o zaokrągleniu
+                    if (decimals == Price.DECIMALS) {
+                        roundUp = b >= '5';
+                        decimals++;
+                    }
+                    continue;
+                }
+                value = value * 10 + (b - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            }
+        }
+        for (int i = Math.max(decimals, 0); i < Price.DECIMALS; i++) {
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    @Override
+    public String symbol() {
+        return symbol;
+    }
+
+    @Override
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public long price() {
+        return price;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte entryType() {
+        return entryType;
+    }
+}
@@ -0,0 +1,162 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Baza kursorów czytających pliki mapowane w pamięci.
+ * Plik jest mapowany oknami o stałej wielkości, więc pliki wielogigabajtowe
+ * nie są nigdy ładowane na stertę - system operacyjny stronicuje je na żądanie.
+ */
+abstract class MappedTickCursor implements TickCursor {
+    // Domyślny rozmiar okna mapowania: 64 MB
+    static final long DEFAULT_WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+
+    // Bieżące okno i jego przesunięcie w pliku
+    protected MappedByteBuffer window;
+    protected long windowStart;
+
+    // Tablica internowanych symboli (adresowanie otwarte)
+    private String[] symbols = new String[64];
+    private int symbolCount;
+
+    /**
+     * Otwiera plik i mapuje pierwsze okno.
+     *
+     * @param file Ścieżka do pliku
+     * @param windowSize Rozmiar okna mapowania w bajtach
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    MappedTickCursor(Path file, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = Math.max(1024, Math.min(windowSize, Integer.MAX_VALUE));
+        map(0);
+    }
+
+    /**
+     * Mapuje okno zaczynające się od podanego przesunięcia w pliku.
+     *
+     * @param offset Przesunięcie w pliku
+     * @throws IOException Jeśli mapowanie się nie powiedzie
+     */
+    protected final void map(long offset) throws IOException {
+        long length = Math.min(windowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        windowStart = offset;
+    }
+
+    /**
+     * Sprawdza, czy za bieżącym oknem są jeszcze dane w pliku.
+     *
+     * @return true jeśli okno nie sięga końca pliku
+     */
+    protected final boolean hasMoreWindows() {
+        return windowStart + window.limit() < fileSize;
+    }
+
+    /**
+     * Upewnia się, że od pozycji {@code pos} w oknie dostępne jest {@code bytes} bajtów,
+     * w razie potrzeby przesuwając okno.
+     *
+     * @param pos Pozycja w bieżącym oknie
+     * @param bytes Wymagana liczba bajtów
+     * @return Nowa pozycja w oknie lub -1 jeśli plik się skończył
+     * @throws IOException Jeśli mapowanie się nie powiedzie lub dane są większe niż okno
+     */
+    protected final int require(int pos, int bytes) throws IOException {
+        if (pos + bytes <= window.limit()) {
+            return pos;
+        }
+        if (windowStart + pos + bytes > fileSize) {
+            return -1;
+        }
+        if (bytes > windowSize) {
+            throw new IOException("Rekord większy niż okno mapowania: " + bytes + " B");
+        }
+        map(windowStart + pos);
+        return 0;
+    }
+
+    /**
+     * Zwraca symbol dla bajtów z okna bez tworzenia nowego obiektu,
+     * jeśli symbol był już widziany. Symbole są traktowane jako ASCII.
+     *
+     * @param from Początek symbolu w oknie
+     * @param to Koniec symbolu w oknie (wyłącznie)
+     * @return Internowany symbol
+     */
+    protected final String internSymbol(int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + window.get(i);
+        }
+        int mask = symbols.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (true) {
+            String candidate = symbols[slot];
+            if (candidate == null) {
+                break;
+            }
+            if (matches(candidate, from, to)) {
+                return candidate;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] bytes = new byte[to - from];
+        window.get(from, bytes);
+        String symbol = new String(bytes, StandardCharsets.ISO_8859_1);
+        symbols[slot] = symbol;
+        if (++symbolCount * 2 > symbols.length) {
+            rehash();
+        }
+        return symbol;
+    }
+
+    private boolean matches(String candidate, int from, int to) {
+        if (candidate.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (candidate.charAt(i - from) != (char) (window.get(i) & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        String[] old = symbols;
+        symbols = new String[old.length * 2];
+        int mask = symbols.length - 1;
+        for (String symbol : old) {
+            if (symbol == null) {
+                continue;
+            }
+            int hash = 1;
+            for (int i = 0; i < symbol.length(); i++) {
+                hash = 31 * hash + (byte) symbol.charAt(i);
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (symbols[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            symbols[slot] = symbol;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,142 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Łączy kilka kursorów uporządkowanych czasowo w jeden strumień
+ * uporządkowany według znacznika czasu (np. pliki kolumnowe wielu symboli z jednego dnia).
+ * Przy równych czasach pierwszeństwo ma kursor podany wcześniej.
+ */
+public class MergingTickCursor implements TickCursor {
+    private final TickCursor[] sources;
+
+    // Kopiec indeksów źródeł uporządkowany według czasu bieżącego ticka
+    private final int[] heap;
+    private int heapSize;
+
+    // Źródło bieżącego ticka lub null przed pierwszym wywołaniem next()
+    private TickCursor current;
+
+    /**
+     * Tworzy kursor łączący podane źródła.
+     *
+     * @param sources Kursory źródłowe (zamykane razem z tym kursorem)
+     */
+    public MergingTickCursor(List<? extends TickCursor> sources) {
+        this.sources = sources.toArray(new TickCursor[0]);
+        this.heap = new int[this.sources.length];
+        this.heapSize = -1;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        if (heapSize < 0) {
+            // Pierwsze wywołanie - ustaw każde źródło na pierwszym ticku
+            heapSize = 0;
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i].next()) {
+                    heap[heapSize++] = i;
+                    siftUp(heapSize - 1);
+                }
+            }
+        } else if (heapSize > 0) {
+            // Przesuń źródło poprzedniego ticka
+            if (sources[heap[0]].next()) {
+                siftDown(0);
+            } else {
+                heap[0] = heap[--heapSize];
+                siftDown(0);
+            }
+        }
+
+        if (heapSize == 0) {
+            current = null;
+            return false;
+        }
+        current = sources[heap[0]];
+        return true;
+    }
+
+    private boolean less(int a, int b) {
+        long ta = sources[a].timestampNanos();
+        long tb = sources[b].timestampNanos();
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[i], heap[parent])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < heapSize && less(heap[right], heap[left])) {
+                smallest = right;
+            }
+            if (!less(heap[smallest], heap[i])) {
+                break;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    @Override
+    public String symbol() {
+        return current.symbol();
+    }
+
+    @Override
+    public long timestampNanos() {
+        return current.timestampNanos();
+    }
+
+    @Override
+    public long price() {
+        return current.price();
+    }
+
+    @Override
+    public long size() {
+        return current.size();
+    }
+
+    @Override
+    public byte entryType() {
+        return current.entryType();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (TickCursor source : sources) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+/**
+ * Kursor przechodzący sekwencyjnie po zapisanych notowaniach (tickach).
+ * Wartości bieżącego ticka są dostępne przez akcesory prymitywne do kolejnego
+ * wywołania {@link #next()}, dzięki czemu odczyt nie tworzy obiektów na stercie.
+ */
+public interface TickCursor extends AutoCloseable {
+
+    /**
+     * Przechodzi do kolejnego ticka.
+     *
+     * @return true jeśli odczytano tick, false na końcu danych
+     * @throws IOException Jeśli wystąpi błąd odczytu
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Zwraca symbol instrumentu bieżącego ticka.
+     *
+     * @return Symbol instrumentu
+     */
+    String symbol();
+
+    /**
+     * Zwraca znacznik czasu bieżącego ticka.
+     *
+     * @return Czas w nanosekundach od epoki
+     */
+    long timestampNanos();
+
+    /**
+     * Zwraca cenę bieżącego ticka w postaci stałoprzecinkowej.
+     *
+     * @return Cena pomnożona przez {@link Price#SCALE}
+     */
+    long price();
+
+    /**
+     * Zwraca wolumen bieżącego ticka.
+     *
+     * @return Wolumen
+     */
+    long size();
+
+    /**
+     * Zwraca typ wpisu danych rynkowych (kod znaku MDEntryTyp).
+     *
+     * @return Typ wpisu
+     */
+    byte entryType();
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Otwiera plik z notowaniami, dobierając format na podstawie rozszerzenia.
+     * Pliki .csv są czytane jako tekst, pliki .ticks jako format kolumnowy,
+     * katalogi jako magazyn kolumnowy ({@link ColumnarTickStore}), pozostałe jako format binarny.
+     *
+     * @param file Ścieżka do pliku lub katalogu
+     * @return Kursor ustawiony przed pierwszym tickiem
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    static TickCursor open(Path file) throws IOException {
+        if (Files.isDirectory(file)) {
+            return ColumnarTickStore.open(file);
+        }
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return new CsvTickCursor(file, TimeUnit.MILLISECONDS);
+        }
+        if (name.endsWith(TickFormat.COLUMNAR_EXTENSION)) {
+            return new ColumnarTickCursor(file);
+        }
+        return new BinaryTickCursor(file);
+    }
+}
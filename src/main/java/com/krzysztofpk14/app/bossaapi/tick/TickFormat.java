@@ -0,0 +1,52 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+/**
+ * Stałe i funkcje pomocnicze wspólne dla formatów plików z notowaniami.
+ * Ceny są zapisywane w postaci stałoprzecinkowej {@link com.krzysztofpk14.app.bossaapi.util.Price}.
+ */
+public final class TickFormat {
+
+    /**
+     * Domyślny typ wpisu: transakcja (MarketDataResponse.TRADE).
+     */
+    public static final byte DEFAULT_ENTRY_TYPE = '0';
+
+    // Nagłówek binarnego formatu rekordowego: "TICK"
+    static final int BINARY_MAGIC = 0x5449434B;
+    static final int BINARY_VERSION = 1;
+
+    // Rekord: czas (8) + indeks symbolu (4) + cena (8) + wolumen (8) + typ (1)
+    static final int BINARY_RECORD_SIZE = 29;
+
+    /**
+     * Rozszerzenie plików kolumnowych (jeden plik na symbol i dzień).
+     */
+    public static final String COLUMNAR_EXTENSION = ".ticks";
+
+    // Nagłówek formatu kolumnowego: "TCOL"
+    static final int COLUMNAR_MAGIC = 0x54434F4C;
+    static final int COLUMNAR_VERSION = 1;
+
+    // Maksymalna liczba ticków w bloku kolumnowym
+    static final int COLUMNAR_BLOCK_TICKS = 4096;
+
+    // Nagłówek bloku: długość danych (4) + liczba ticków (4)
+    static final int COLUMNAR_BLOCK_HEADER = 8;
+
+    private TickFormat() {
+    }
+
+    /**
+     * Koduje liczbę ze znakiem tak, aby małe wartości bezwzględne miały mało bajtów w varint.
+     */
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Odwraca kodowanie {@link #zigZag(long)}.
+     */
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
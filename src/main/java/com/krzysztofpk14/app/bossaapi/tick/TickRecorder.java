@@ -0,0 +1,271 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+
+/**
+ * Asynchroniczny rejestrator ticków do magazynu kolumnowego ({@link ColumnarTickStore}).
+ * <p>
+ * Ticki są przekazywane z identyfikatorem instrumentu z {@link InstrumentRegistry};
+ * symbol jest potrzebny dopiero przy tworzeniu pliku.
+ * Wątki publikujące jedynie wstawiają tick do bezblokadowej kolejki - nigdy nie czekają
+ * na dysk. Gdy kolejka jest pełna, tick jest odrzucany i zliczany. Osobny wątek zapisujący
+ * pobiera ticki z kolejki i dopisuje je do plików {@code root/yyyyMMdd/SYMBOL.ticks}.
+ * Pojedynczy błędny tick jest pomijany; zapis zatrzymuje dopiero błąd pliku.
+ */
+public class TickRecorder implements AutoCloseable {
+    // Domyślna pojemność kolejki
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Maksymalna liczba ticków pobieranych naraz przez wątek zapisujący
+    private static final int DRAIN_BATCH = 1024;
+
+    // Czas uśpienia wątku zapisującego, gdy kolejka jest pusta
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Jak często niepełne bloki są zapisywane na dysk, gdy nie ma nowych ticków
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path root;
+    private final InstrumentRegistry instrumentRegistry;
+    private final ZoneId zone;
+    private final TickRingBuffer queue;
+    private final TickRingBuffer.TickSink sink = this::writeTick;
+
+    // Stan wątku zapisującego
+    private ColumnarTickWriter[] writers = new ColumnarTickWriter[16];
+    private LocalDate currentDay;
+    private long dayStartNanos = Long.MAX_VALUE;
+    private long dayEndNanos = Long.MIN_VALUE;
+    private boolean dirty;
+
+    private final AtomicLong recordedTicks = new AtomicLong();
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * Tworzy rejestrator z domyślną pojemnością kolejki i strefą czasową systemu.
+     *
+     * @param root Katalog główny magazynu
+     * @param instrumentRegistry Rejestr zamieniający identyfikatory na symbole
+     */
+    public TickRecorder(Path root, InstrumentRegistry instrumentRegistry) {
+        this(root, instrumentRegistry, DEFAULT_CAPACITY, ZoneId.systemDefault());
+    }
+
+    /**
+     * Tworzy rejestrator.
+     *
+     * @param root Katalog główny magazynu
+     * @param instrumentRegistry Rejestr zamieniający identyfikatory na symbole
+     * @param capacity Pojemność kolejki
+     * @param zone Strefa czasowa wyznaczająca granice dni
+     */
+    public TickRecorder(Path root, InstrumentRegistry instrumentRegistry, int capacity, ZoneId zone) {
+        this.root = root;
+        this.instrumentRegistry = instrumentRegistry;
+        this.zone = zone;
+        this.queue = new TickRingBuffer(capacity);
+    }
+
+    /**
+     * Uruchamia wątek zapisujący.
+     *
+     * @return this
+     * @throws IOException Jeśli katalogu magazynu nie da się utworzyć
+     */
+    public synchronized TickRecorder start() throws IOException {
+        if (running) {
+            return this;
+        }
+        Files.createDirectories(root);
+        running = true;
+        writerThread = new Thread(this::writerLoop, "TickRecorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        return this;
+    }
+
+    /**
+     * Rejestruje tick. Metoda nie blokuje; przy pełnej kolejce tick jest odrzucany.
+     *
+     * @param symbolId Identyfikator instrumentu
+     * @param timestampNanos Czas w nanosekundach od epoki
+     * @param price Cena stałoprzecinkowa
+     * @param size Wolumen
+     * @param entryType Typ wpisu
+     * @return true jeśli tick trafił do kolejki
+     */
+    public boolean record(int symbolId, long timestampNanos, long price, long size, byte entryType) {
+        if (!running) {
+            return false;
+        }
+        if (!queue.offer(symbolId, timestampNanos, price, size, entryType)) {
+            droppedTicks.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zwraca liczbę ticków zapisanych przez wątek zapisujący.
+     *
+     * @return Liczba ticków
+     */
+    public long getRecordedTicks() {
+        return recordedTicks.get();
+    }
+
+    /**
+     * Zwraca liczbę ticków odrzuconych z powodu pełnej kolejki lub nieznanego instrumentu.
+     *
+     * @return Liczba ticków
+     */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    /**
+     * Zwraca przybliżoną liczbę ticków oczekujących na zapis.
+     *
+     * @return Liczba ticków w kolejce
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Zwraca katalog główny magazynu.
+     *
+     * @return Katalog główny
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Główna pętla wątku zapisującego.
+     */
+    private void writerLoop() {
+        long lastFlush = System.nanoTime();
+        try {
+            while (running || queue.size() > 0) {
+                int drained = queue.drain(sink, DRAIN_BATCH);
+                if (drained > 0) {
+                    dirty = true;
+                    continue;
+                }
+                if (dirty && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    flushWriters();
+                    lastFlush = System.nanoTime();
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } catch (IOException e) {
+            running = false;
+            System.err.println("Błąd podczas zapisu ticków: " + e.getMessage());
+        } finally {
+            closeWriters();
+        }
+    }
+
+    /**
+     * Zapisuje tick do pliku instrumentu. Tick z nieznanym identyfikatorem instrumentu
+     * jest pomijany; wyjątek oznacza błąd pliku i zatrzymuje wątek zapisujący.
+     */
+    private void writeTick(int symbolId, long timestampNanos, long price, long size, byte entryType)
+            throws IOException {
+        String symbol = instrumentRegistry.getSymbol(symbolId);
+        if (symbol == null) {
+            droppedTicks.incrementAndGet();
+            System.err.println("Pominięto tick z nieznanym identyfikatorem instrumentu: " + symbolId);
+            return;
+        }
+        if (timestampNanos < dayStartNanos || timestampNanos >= dayEndNanos) {
+            switchDay(timestampNanos);
+        }
+
+        if (symbolId >= writers.length) {
+            writers = Arrays.copyOf(writers, Math.max(symbolId + 1, writers.length * 2));
+        }
+        ColumnarTickWriter writer = writers[symbolId];
+        if (writer == null) {
+            Path file = ColumnarTickStore.symbolFile(root, currentDay, symbol);
+            Files.createDirectories(file.getParent());
+            writer = new ColumnarTickWriter(file, symbol);
+            writers[symbolId] = writer;
+        }
+        writer.write(timestampNanos, price, size, entryType);
+        recordedTicks.incrementAndGet();
+    }
+
+    /**
+     * Zamyka pliki poprzedniego dnia i wyznacza granice dnia dla podanego czasu.
+     */
+    private void switchDay(long timestampNanos) {
+        closeWriters();
+
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(timestampNanos, 1_000_000_000L),
+                Math.floorMod(timestampNanos, 1_000_000_000L));
+        currentDay = LocalDate.ofInstant(instant, zone);
+        dayStartNanos = toNanos(currentDay.atStartOfDay(zone).toInstant());
+        dayEndNanos = toNanos(currentDay.plusDays(1).atStartOfDay(zone).toInstant());
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private void flushWriters() throws IOException {
+        for (ColumnarTickWriter writer : writers) {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+        dirty = false;
+    }
+
+    private void closeWriters() {
+        for (int i = 0; i < writers.length; i++) {
+            ColumnarTickWriter writer = writers[i];
+            if (writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Błąd podczas zamykania pliku ticków " + writer.getSymbol() + ": " + e.getMessage());
+            }
+            writers[i] = null;
+        }
+    }
+
+    /**
+     * Zatrzymuje rejestrator, zapisując wszystkie ticki z kolejki.
+     */
+    @Override
+    public synchronized void close() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+}
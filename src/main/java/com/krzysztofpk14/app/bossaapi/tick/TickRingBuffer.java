@@ -0,0 +1,130 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ograniczona, bezblokadowa kolejka ticków dla wielu producentów i jednego konsumenta.
+ * Pola ticka są przechowywane w tablicach prymitywnych, więc wstawienie nie tworzy obiektów.
+ * Każdy slot ma numer sekwencyjny, który mówi, czy slot jest wolny dla producenta
+ * czy gotowy do odczytu przez konsumenta.
+ */
+final class TickRingBuffer {
+
+    /**
+     * Odbiorca ticków pobieranych z kolejki.
+     */
+    interface TickSink {
+        void accept(int symbolId, long timestampNanos, long price, long size, byte entryType) throws IOException;
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] symbolIds;
+    private final long[] timestamps;
+    private final long[] prices;
+    private final long[] sizes;
+    private final byte[] entryTypes;
+
+    // Następna pozycja do zapisu (producenci)
+    private final AtomicLong tail = new AtomicLong();
+
+    // Następna pozycja do odczytu (tylko konsument)
+    private long head;
+
+    /**
+     * Tworzy kolejkę o pojemności zaokrąglonej w górę do potęgi dwójki.
+     *
+     * @param capacity Minimalna pojemność
+     */
+    TickRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.symbolIds = new int[size];
+        this.timestamps = new long[size];
+        this.prices = new long[size];
+        this.sizes = new long[size];
+        this.entryTypes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Wstawia tick do kolejki bez blokowania.
+     *
+     * @return false jeśli kolejka jest pełna
+     */
+    boolean offer(int symbolId, long timestampNanos, long price, long size, byte entryType) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    symbolIds[index] = symbolId;
+                    timestamps[index] = timestampNanos;
+                    prices[index] = price;
+                    sizes[index] = size;
+                    entryTypes[index] = entryType;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Pobiera z kolejki co najwyżej {@code limit} ticków. Wywoływane tylko z wątku konsumenta.
+     *
+     * @param sink Odbiorca ticków
+     * @param limit Maksymalna liczba ticków
+     * @return Liczba pobranych ticków
+     * @throws IOException Jeśli odbiorca zgłosi błąd
+     */
+    int drain(TickSink sink, int limit) throws IOException {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            int symbolId = symbolIds[index];
+            long timestampNanos = timestamps[index];
+            long price = prices[index];
+            long size = sizes[index];
+            byte entryType = entryTypes[index];
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+
+            sink.accept(symbolId, timestampNanos, price, size, entryType);
+        }
+        return drained;
+    }
+
+    /**
+     * Zwraca przybliżoną liczbę ticków w kolejce.
+     *
+     * @return Liczba ticków
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Zwraca pojemność kolejki.
+     *
+     * @return Pojemność
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,236 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pula buforów wielokrotnego użytku dla odbieranych ramek.
+ * <p>
+ * Ramka jest czytana wprost do pobranego z puli {@link Buffer} i parsowana z bajtów
+ * ({@link FixmlParser#parse(Buffer)}), bez tworzenia tablicy i obiektu String dla
+ * każdego komunikatu. Po obsłużeniu ramki bufor wraca do puli przez {@link Buffer#release()}.
+ * Ramki większe niż rozmiar bufora dostają jednorazową tablicę, która nie wraca do puli.
+ */
+public class BufferPool {
+
+    /**
+     * Domyślny rozmiar bufora - mieści typowe komunikaty FIXML.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Domyślna liczba buforów przechowywanych w puli.
+     */
+    public static final int DEFAULT_MAX_POOLED = 256;
+
+    /**
+     * Ramka w buforze z puli. Właścicielem jest jeden wątek naraz - ten, który ją
+     * odczytał, a potem ten, któremu ją przekazano.
+     */
+    public static final class Buffer {
+        private final BufferPool pool;
+        private final byte[] data;
+        private final FrameInputStream stream = new FrameInputStream();
+        private int length;
+        private boolean released;
+
+        private Buffer(BufferPool pool, byte[] data) {
+            this.pool = pool;
+            this.data = data;
+        }
+
+        /**
+         * Zwraca tablicę z treścią ramki (od indeksu 0, {@link #length()} bajtów).
+         *
+         * @return Tablica bufora
+         */
+        public byte[] array() {
+            return data;
+        }
+
+        /**
+         * Zwraca długość ramki w bajtach.
+         *
+         * @return Długość ramki
+         */
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Zwraca strumień czytający treść ramki. Strumień jest wspólny dla bufora
+         * i przewijany na początek przy każdym wywołaniu.
+         *
+         * @return Strumień z treścią ramki
+         */
+        public InputStream inputStream() {
+            return inputStream(0, length);
+        }
+
+        InputStream inputStream(int offset, int count) {
+            stream.reset(data, offset, offset + count);
+            return stream;
+        }
+
+        /**
+         * Oddaje bufor do puli. Kolejne wywołania są ignorowane.
+         */
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (pool != null) {
+                pool.recycle(this);
+            }
+        }
+
+        /**
+         * Dekoduje treść ramki (UTF-8). Tworzy nowy obiekt String - służy do logowania
+         * i odbioru synchronicznego, nie do ścieżki parsowania.
+         */
+        @Override
+        public String toString() {
+            return new String(data, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Strumień wielokrotnego użytku nad fragmentem tablicy (bez synchronizacji
+     * {@link java.io.ByteArrayInputStream}).
+     */
+    private static final class FrameInputStream extends InputStream {
+        private byte[] data;
+        private int position;
+        private int limit;
+
+        void reset(byte[] data, int from, int to) {
+            this.data = data;
+            this.position = from;
+            this.limit = to;
+        }
+
+        @Override
+        public int read() {
+            return position < limit ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int count) {
+            if (position >= limit) {
+                return -1;
+            }
+            int read = Math.min(count, limit - position);
+            System.arraycopy(data, position, target, offset, read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long count) {
+            long skipped = Math.max(0, Math.min(count, limit - position));
+            position += (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Strumień należy do bufora - zamknięcie przez parser niczego nie zwalnia
+        }
+    }
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<Buffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final AtomicLong allocations = new AtomicLong();
+
+    /**
+     * Tworzy pulę z domyślnymi ustawieniami.
+     */
+    public BufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+    }
+
+    /**
+     * Tworzy pulę.
+     *
+     * @param bufferSize Rozmiar pojedynczego bufora w bajtach
+     * @param maxPooled Maksymalna liczba buforów przechowywanych w puli
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Rozmiar bufora musi być dodatni: " + bufferSize);
+        }
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("Rozmiar puli nie może być ujemny: " + maxPooled);
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Pobiera bufor na ramkę o podanej długości.
+     *
+     * @param length Długość ramki w bajtach
+     * @return Bufor z ustawioną długością ramki
+     */
+    public Buffer acquire(int length) {
+        Buffer buffer;
+        if (length > bufferSize) {
+            buffer = new Buffer(null, new byte[length]);
+            allocations.incrementAndGet();
+        } else {
+            buffer = free.poll();
+            if (buffer != null) {
+                freeCount.decrementAndGet();
+            } else {
+                buffer = new Buffer(this, new byte[bufferSize]);
+                allocations.incrementAndGet();
+            }
+        }
+        buffer.length = length;
+        buffer.released = false;
+        return buffer;
+    }
+
+    /**
+     * Zwraca liczbę buforów utworzonych od początku działania puli.
+     *
+     * @return Liczba alokacji
+     */
+    public long getAllocationCount() {
+        return allocations.get();
+    }
+
+    /**
+     * Zwraca liczbę wolnych buforów w puli.
+     *
+     * @return Liczba wolnych buforów
+     */
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private void recycle(Buffer buffer) {
+        if (freeCount.incrementAndGet() > maxPooled) {
+            freeCount.decrementAndGet();
+            return;
+        }
+        free.add(buffer);
+    }
+}
@@ -21,6 +21,7 @@ public class FixmlGenerator {
             com.krzysztofpk14.app.bossaapi.model.request.UserRequest.class,
             com.krzysztofpk14.app.bossaapi.model.response.UserResponse.class,
             com.krzysztofpk14.app.bossaapi.model.request.OrderRequest.class,
+            com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest.class,
             com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport.class,
             com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest.class,
             com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse.class,
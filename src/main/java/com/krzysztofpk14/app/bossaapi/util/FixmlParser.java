@@ -14,6 +14,15 @@ import java.io.StringReader;
 public class FixmlParser {
     private static JAXBContext jaxbContext;
     
+    // Unmarshaller nie jest bezpieczny wątkowo, ale jego tworzenie kosztuje - jeden na wątek
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = ThreadLocal.withInitial(() -> {
+        try {
+            return jaxbContext.createUnmarshaller();
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Nie można utworzyć obiektu Unmarshaller", e);
+        }
+    });
+    
     static {
         try {
             jaxbContext = JAXBContext.newInstance(FixmlMessage.class);
@@ -37,8 +46,7 @@ public class FixmlParser {
         // System.out.println("Pierwszy znak: " + cleanedString.charAt(0) + " Kod: " + firstCharCode);
 
 
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        return (FixmlMessage) unmarshaller.unmarshal(new StringReader(cleanedString));
+        return (FixmlMessage) UNMARSHALLER.get().unmarshal(new StringReader(cleanedString));
     }
     
     /**
@@ -49,7 +57,28 @@ public class FixmlParser {
      * @throws JAXBException Jeśli wystąpi błąd parsowania
      */
     public static FixmlMessage parse(InputStream inputStream) throws JAXBException {
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        return (FixmlMessage) unmarshaller.unmarshal(inputStream);
+        return (FixmlMessage) UNMARSHALLER.get().unmarshal(inputStream);
+    }
+    
+    /**
+     * Parsuje komunikat FIXML wprost z bajtów ramki, bez tworzenia obiektu String.
+     * Bufor nie jest zwalniany - robi to wywołujący po obsłużeniu ramki.
+     * 
+     * @param frame Ramka w buforze z puli
+     * @return Obiekt FixmlMessage reprezentujący komunikat
+     * @throws JAXBException Jeśli wystąpi błąd parsowania
+     */
+    public static FixmlMessage parse(BufferPool.Buffer frame) throws JAXBException {
+        // Jak w parse(String): znaki NUL dopisywane przez niektórych nadawców są pomijane
+        byte[] data = frame.array();
+        int from = 0;
+        int to = frame.length();
+        while (from < to && data[from] == 0) {
+            from++;
+        }
+        while (to > from && data[to - 1] == 0) {
+            to--;
+        }
+        return parse(frame.inputStream(from, to - from));
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatuje znaczniki czasu FIXML w postaci "yyyyMMdd-HH:mm:ss.SSS" bez tworzenia
+ * obiektów pośrednich.
+ * <p>
+ * Część z datą jest wyliczana raz na dzień (lub do najbliższej zmiany czasu
+ * w strefie) i zapamiętywana; dla kolejnych znaczników liczona jest tylko
+ * godzina i milisekundy. Klasa jest bezpieczna wątkowo.
+ */
+public class FixmlTimeFormatter {
+
+    /**
+     * Długość sformatowanego znacznika czasu w znakach.
+     */
+    public static final int LENGTH = 21;
+
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int DATE_LENGTH = 9;
+
+    /**
+     * Zapamiętana część z datą ważna w przedziale [startMillis, endMillis),
+     * w którym przesunięcie strefy jest stałe.
+     */
+    private record DateWindow(long startMillis, long endMillis, long localDayStartMillis, byte[] prefix) {
+        boolean contains(long epochMillis) {
+            return epochMillis >= startMillis && epochMillis < endMillis;
+        }
+    }
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private volatile DateWindow window;
+
+    /**
+     * Tworzy formater dla domyślnej strefy czasowej systemu.
+     */
+    public FixmlTimeFormatter() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Tworzy formater dla podanej strefy czasowej.
+     *
+     * @param zone Strefa czasowa
+     */
+    public FixmlTimeFormatter(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.window = computeWindow(System.currentTimeMillis());
+    }
+
+    /**
+     * Zwraca bieżący czas w formacie FIXML.
+     *
+     * @return Sformatowany czas
+     */
+    public String now() {
+        return format(System.currentTimeMillis());
+    }
+
+    /**
+     * Formatuje czas podany w milisekundach od epoki.
+     *
+     * @param epochMillis Czas w milisekundach
+     * @return Sformatowany czas
+     */
+    public String format(long epochMillis) {
+        byte[] buffer = new byte[LENGTH];
+        write(epochMillis, buffer, 0);
+        return new String(buffer, 0, LENGTH, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Formatuje czas podany w nanosekundach od epoki (z dokładnością do milisekund).
+     *
+     * @param epochNanos Czas w nanosekundach
+     * @return Sformatowany czas
+     */
+    public String formatNanos(long epochNanos) {
+        return format(Math.floorDiv(epochNanos, 1_000_000L));
+    }
+
+    /**
+     * Zapisuje czas jako tekst ASCII do tablicy bajtów.
+     *
+     * @param epochMillis Czas w milisekundach od epoki
+     * @param target Tablica docelowa (co najmniej {@link #LENGTH} wolnych bajtów)
+     * @param offset Pozycja początkowa
+     * @return Pozycja za ostatnim zapisanym bajtem
+     */
+    public int write(long epochMillis, byte[] target, int offset) {
+        DateWindow current = window;
+        if (!current.contains(epochMillis)) {
+            current = computeWindow(epochMillis);
+            window = current;
+        }
+        System.arraycopy(current.prefix, 0, target, offset, DATE_LENGTH);
+
+        int millisOfDay = (int) (epochMillis - current.localDayStartMillis);
+        int pos = offset + DATE_LENGTH;
+        pos = writeTwoDigits(millisOfDay / 3_600_000, target, pos);
+        target[pos++] = ':';
+        pos = writeTwoDigits(millisOfDay / 60_000 % 60, target, pos);
+        target[pos++] = ':';
+        pos = writeTwoDigits(millisOfDay / 1000 % 60, target, pos);
+        target[pos++] = '.';
+        int millis = millisOfDay % 1000;
+        target[pos++] = (byte) ('0' + millis / 100);
+        target[pos++] = (byte) ('0' + millis / 10 % 10);
+        target[pos++] = (byte) ('0' + millis % 10);
+        return pos;
+    }
+
+    private static int writeTwoDigits(int value, byte[] target, int pos) {
+        target[pos] = (byte) ('0' + value / 10);
+        target[pos + 1] = (byte) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    /**
+     * Wylicza część z datą i przedział, w którym pozostaje ona ważna.
+     */
+    private DateWindow computeWindow(long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        long offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        LocalDate date = LocalDate.ofInstant(instant, zone);
+
+        // Granice doby lokalnej wyznaczone przy bieżącym przesunięciu strefy
+        long localDayStart = date.toEpochDay() * MILLIS_PER_DAY;
+        long start = localDayStart - offsetMillis;
+        long end = start + MILLIS_PER_DAY;
+
+        // Zmiana czasu w trakcie doby skraca przedział ważności
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+        if (previous != null) {
+            start = Math.max(start, previous.getInstant().toEpochMilli());
+        }
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        if (next != null) {
+            end = Math.min(end, next.getInstant().toEpochMilli());
+        }
+
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        byte[] prefix = new byte[DATE_LENGTH];
+        prefix[0] = (byte) ('0' + year / 1000 % 10);
+        prefix[1] = (byte) ('0' + year / 100 % 10);
+        prefix[2] = (byte) ('0' + year / 10 % 10);
+        prefix[3] = (byte) ('0' + year % 10);
+        writeTwoDigits(month, prefix, 4);
+        writeTwoDigits(day, prefix, 6);
+        prefix[8] = '-';
+        return new DateWindow(start, end, localDayStart - offsetMillis, prefix);
+    }
+}
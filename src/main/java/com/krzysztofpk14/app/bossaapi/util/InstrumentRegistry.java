@@ -0,0 +1,176 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.krzysztofpk14.app.bossaapi.model.response.SecurityList;
+
+/**
+ * Rejestr instrumentów nadający symbolom gęste identyfikatory liczbowe (0, 1, 2, ...).
+ * <p>
+ * Symbol jest zamieniany na identyfikator raz, na granicy komunikatów FIXML; dalej
+ * dane instrumentu (ceny, zlecenia, subskrypcje) mogą być przechowywane w tablicach
+ * indeksowanych identyfikatorem. Identyfikatory nie są nigdy zwalniane ani zmieniane.
+ * Odczyty są bez blokad, rejestracja nowego symbolu jest synchronizowana.
+ * <p>
+ * Dla każdego instrumentu przechowywany jest też krok notowań (MinPxIncr z listy
+ * instrumentów) w postaci stałoprzecinkowej {@link Price}.
+ */
+public class InstrumentRegistry {
+    /**
+     * Identyfikator zwracany dla nieznanego symbolu.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Krok notowań instrumentu bez określonych reguł - najmniejsza reprezentowalna zmiana ceny.
+     */
+    public static final long DEFAULT_TICK_SIZE = 1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[16];
+    private volatile long[] tickSizes = newTickSizes(16);
+    private volatile int size;
+
+    /**
+     * Zwraca identyfikator symbolu, rejestrując go, jeśli nie był jeszcze znany.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Identyfikator instrumentu
+     */
+    public int register(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            int newId = size;
+            String[] current = symbols;
+            if (newId == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                long[] grownTickSizes = newTickSizes(current.length);
+                System.arraycopy(tickSizes, 0, grownTickSizes, 0, newId);
+                tickSizes = grownTickSizes;
+            }
+            current[newId] = symbol;
+            symbols = current;
+            size = newId + 1;
+            ids.put(symbol, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Rejestruje symbol wraz z krokiem notowań.
+     *
+     * @param symbol Symbol instrumentu
+     * @param tickSize Krok notowań (stałoprzecinkowy)
+     * @return Identyfikator instrumentu
+     */
+    public int register(String symbol, long tickSize) {
+        int id = register(symbol);
+        setTickSize(id, tickSize);
+        return id;
+    }
+
+    /**
+     * Rejestruje wszystkie instrumenty z listy instrumentów wraz z ich krokiem notowań (MinPxIncr).
+     *
+     * @param securityList Lista instrumentów
+     */
+    public void registerAll(SecurityList securityList) {
+        if (securityList == null || securityList.getSecurities() == null) {
+            return;
+        }
+        for (SecurityList.SecurityDefinition definition : securityList.getSecurities()) {
+            SecurityList.Instrument instrument = definition.getInstrument();
+            if (instrument == null || instrument.getSymbol() == null) {
+                continue;
+            }
+            int id = register(instrument.getSymbol());
+            long tickSize = Price.parse(instrument.getMinimumPriceIncrement(), 0);
+            if (tickSize > 0) {
+                setTickSize(id, tickSize);
+            }
+        }
+    }
+
+    /**
+     * Ustawia krok notowań instrumentu.
+     *
+     * @param id Identyfikator instrumentu
+     * @param tickSize Krok notowań (stałoprzecinkowy, dodatni)
+     */
+    public synchronized void setTickSize(int id, long tickSize) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Nieznany identyfikator instrumentu: " + id);
+        }
+        if (tickSize <= 0) {
+            throw new IllegalArgumentException("Krok notowań musi być dodatni: " + tickSize);
+        }
+        tickSizes[id] = tickSize;
+        // Zapis pola volatile publikuje zmianę dla wątków czytających bez blokad
+        tickSizes = tickSizes;
+    }
+
+    /**
+     * Zwraca krok notowań instrumentu.
+     *
+     * @param id Identyfikator instrumentu
+     * @return Krok notowań lub {@link #DEFAULT_TICK_SIZE} dla nieznanego instrumentu
+     */
+    public long getTickSize(int id) {
+        long[] current = tickSizes;
+        if (id < 0 || id >= current.length) {
+            return DEFAULT_TICK_SIZE;
+        }
+        return current[id];
+    }
+
+    private static long[] newTickSizes(int length) {
+        long[] array = new long[length];
+        Arrays.fill(array, DEFAULT_TICK_SIZE);
+        return array;
+    }
+
+    /**
+     * Zwraca identyfikator symbolu bez rejestrowania go.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Identyfikator lub {@link #UNKNOWN}
+     */
+    public int getId(String symbol) {
+        if (symbol == null) {
+            return UNKNOWN;
+        }
+        Integer id = ids.get(symbol);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Zwraca symbol o podanym identyfikatorze.
+     *
+     * @param id Identyfikator instrumentu
+     * @return Symbol lub null dla nieznanego identyfikatora
+     */
+    public String getSymbol(int id) {
+        if (id < 0 || id >= size) {
+            return null;
+        }
+        return symbols[id];
+    }
+
+    /**
+     * Zwraca liczbę zarejestrowanych instrumentów (identyfikatory to 0..size-1).
+     *
+     * @return Liczba instrumentów
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,302 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Operacje na cenach stałoprzecinkowych.
+ * <p>
+ * Cena jest przechowywana jako {@code long} pomnożony przez {@link #SCALE}
+ * (4 miejsca po przecinku), np. 150.25 to 1502500. Dzięki temu porównania,
+ * sumy i zaokrąglanie do kroku notowań są dokładne, a zamiana na tekst
+ * odbywa się tylko na granicy komunikatów FIXML.
+ */
+public final class Price {
+
+    /**
+     * Skala cen stałoprzecinkowych.
+     */
+    public static final long SCALE = 10_000L;
+
+    /**
+     * Liczba miejsc po przecinku odpowiadająca {@link #SCALE}.
+     */
+    public static final int DECIMALS = 4;
+
+    /**
+     * Wartość oznaczająca brak ceny.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    // Minimalna liczba miejsc po przecinku przy formatowaniu
+    private static final int MIN_FORMAT_DECIMALS = 2;
+
+    // Maksymalna długość tekstu ceny: znak + 15 cyfr części całkowitej + kropka + 4 cyfry
+    private static final int MAX_LENGTH = 21;
+
+    private Price() {
+    }
+
+    /**
+     * Parsuje cenę dziesiętną bez tworzenia obiektów pośrednich.
+     * Cyfry poza skalą są zaokrąglane (połówki od zera).
+     *
+     * @param text Tekst ceny, np. "150.25"
+     * @return Cena stałoprzecinkowa
+     * @throws NumberFormatException Jeśli tekst nie jest poprawną liczbą
+     */
+    public static long parse(CharSequence text) {
+        if (text == null) {
+            throw new NumberFormatException("Brak ceny");
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length && text.charAt(i) == ' ') {
+            i++;
+        }
+        while (length > i && text.charAt(length - 1) == ' ') {
+            length--;
+        }
+        if (i == length) {
+            throw new NumberFormatException("Pusta cena");
+        }
+
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long value = 0;
+        int decimals = -1;
+        boolean digits = false;
+        boolean roundUp = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (decimals >= DECIMALS) {
+                    // Pierwsza odrzucona cyfra decyduje o zaokrągleniu
+                    if (decimals == DECIMALS) {
+                        roundUp = c >= '5';
+                        decimals++;
+                    }
+                    continue;
+                }
+                value = value * 10 + (c - '0');
+                if (value < 0) {
+                    throw new NumberFormatException("Cena poza zakresem: " + text);
+                }
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c == 'e' || c == 'E') {
+                // Notacja wykładnicza (np. z Double.toString) - rzadki przypadek
+                return fromDouble(Double.parseDouble(text.toString().trim()));
+            } else {
+                throw new NumberFormatException("Nieprawidłowa cena: " + text);
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Nieprawidłowa cena: " + text);
+        }
+
+        for (int d = Math.max(decimals, 0); d < DECIMALS; d++) {
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parsuje cenę, zwracając wartość domyślną dla pustego lub niepoprawnego tekstu.
+     *
+     * @param text Tekst ceny
+     * @param defaultValue Wartość domyślna
+     * @return Cena stałoprzecinkowa lub wartość domyślna
+     */
+    public static long parse(CharSequence text, long defaultValue) {
+        try {
+            return parse(text);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Zamienia cenę zmiennoprzecinkową na stałoprzecinkową.
+     *
+     * @param price Cena
+     * @return Cena stałoprzecinkowa
+     */
+    public static long fromDouble(double price) {
+        return Math.round(price * SCALE);
+    }
+
+    /**
+     * Zamienia cenę stałoprzecinkową na zmiennoprzecinkową.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @return Cena
+     */
+    public static double toDouble(long price) {
+        return (double) price / SCALE;
+    }
+
+    /**
+     * Zaokrągla cenę do najbliższej wielokrotności kroku notowań.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param tickSize Krok notowań (stałoprzecinkowy, dodatni)
+     * @return Cena na siatce kroku notowań
+     */
+    public static long roundToTick(long price, long tickSize) {
+        if (tickSize <= 1) {
+            return price;
+        }
+        long remainder = Math.floorMod(price, tickSize);
+        long floor = price - remainder;
+        return remainder * 2 >= tickSize ? floor + tickSize : floor;
+    }
+
+    /**
+     * Zaokrągla cenę w dół do wielokrotności kroku notowań.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param tickSize Krok notowań
+     * @return Cena na siatce kroku notowań
+     */
+    public static long floorToTick(long price, long tickSize) {
+        if (tickSize <= 1) {
+            return price;
+        }
+        return price - Math.floorMod(price, tickSize);
+    }
+
+    /**
+     * Zaokrągla cenę w górę do wielokrotności kroku notowań.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param tickSize Krok notowań
+     * @return Cena na siatce kroku notowań
+     */
+    public static long ceilToTick(long price, long tickSize) {
+        if (tickSize <= 1) {
+            return price;
+        }
+        long remainder = Math.floorMod(price, tickSize);
+        return remainder == 0 ? price : price - remainder + tickSize;
+    }
+
+    /**
+     * Sprawdza, czy cena leży na siatce kroku notowań.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param tickSize Krok notowań
+     * @return true jeśli cena jest wielokrotnością kroku
+     */
+    public static boolean isOnTick(long price, long tickSize) {
+        return tickSize <= 1 || Math.floorMod(price, tickSize) == 0;
+    }
+
+    /**
+     * Zwraca wartość transakcji (cena x ilość) w tej samej skali co cena.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param quantity Ilość
+     * @return Wartość stałoprzecinkowa
+     */
+    public static long notional(long price, long quantity) {
+        return Math.multiplyExact(price, quantity);
+    }
+
+    /**
+     * Formatuje cenę z co najmniej dwoma miejscami po przecinku, np. "150.50", "47.2125".
+     *
+     * @param price Cena stałoprzecinkowa
+     * @return Tekst ceny
+     */
+    public static String format(long price) {
+        byte[] buffer = new byte[MAX_LENGTH];
+        int length = write(price, buffer, 0);
+        return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Dopisuje cenę do bufora znakowego bez tworzenia obiektów pośrednich.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param target Bufor docelowy
+     * @return Bufor docelowy
+     */
+    public static StringBuilder appendTo(long price, StringBuilder target) {
+        if (price < 0) {
+            target.append('-');
+        }
+        long integerPart = Math.abs(price / SCALE);
+        long fraction = Math.abs(price % SCALE);
+        target.append(integerPart).append('.');
+
+        int decimals = significantDecimals(fraction);
+        long divisor = SCALE / 10;
+        for (int d = 0; d < decimals; d++) {
+            target.append((char) ('0' + (fraction / divisor) % 10));
+            divisor /= 10;
+        }
+        return target;
+    }
+
+    /**
+     * Zapisuje cenę jako tekst ASCII do tablicy bajtów bez tworzenia obiektów.
+     *
+     * @param price Cena stałoprzecinkowa
+     * @param target Tablica docelowa (co najmniej 21 wolnych bajtów)
+     * @param offset Pozycja początkowa
+     * @return Pozycja za ostatnim zapisanym bajtem
+     */
+    public static int write(long price, byte[] target, int offset) {
+        int pos = offset;
+        if (price < 0) {
+            target[pos++] = '-';
+        }
+        long integerPart = Math.abs(price / SCALE);
+        long fraction = Math.abs(price % SCALE);
+
+        // Część całkowita - cyfry zapisywane od końca
+        int digits = 1;
+        for (long v = integerPart / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        long v = integerPart;
+        for (int d = digits - 1; d >= 0; d--) {
+            target[pos + d] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos += digits;
+        target[pos++] = '.';
+
+        int decimals = significantDecimals(fraction);
+        long divisor = SCALE / 10;
+        for (int d = 0; d < decimals; d++) {
+            target[pos++] = (byte) ('0' + (fraction / divisor) % 10);
+            divisor /= 10;
+        }
+        return pos;
+    }
+
+    /**
+     * Zwraca liczbę miejsc po przecinku do wypisania (co najmniej dwa, bez końcowych zer).
+     */
+    private static int significantDecimals(long fraction) {
+        int decimals = DECIMALS;
+        while (decimals > MIN_FORMAT_DECIMALS && fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        return decimals;
+    }
+}
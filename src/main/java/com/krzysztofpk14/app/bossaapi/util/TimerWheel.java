@@ -0,0 +1,228 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Koło czasowe (hashed timer wheel) obsługujące wiele terminów jednym wątkiem.
+ * <p>
+ * Czas jest dzielony na takty o stałej długości, a terminy trafiają do
+ * kubełków według taktu, w którym upływają. Dodanie i anulowanie terminu
+ * kosztuje O(1); anulowane terminy są usuwane przy najbliższym przejściu
+ * przez ich kubełek, więc pamięć jest zwalniana najpóźniej po jednym obrocie koła.
+ * Zadania wykonywane są w wątku koła i powinny być krótkie.
+ */
+public class TimerWheel implements AutoCloseable {
+
+    /**
+     * Zaplanowany termin.
+     */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final TimerWheel wheel;
+        private long remainingRounds;
+
+        private Timeout(TimerWheel wheel, Runnable task, long deadlineNanos) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Anuluje termin, jeśli jeszcze nie upłynął.
+         *
+         * @return true jeśli termin został anulowany przez to wywołanie
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                wheel.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Sprawdza, czy termin został anulowany.
+         *
+         * @return true jeśli termin anulowano
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Sprawdza, czy termin upłynął (zadanie zostało uruchomione).
+         *
+         * @return true jeśli termin upłynął
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            wheel.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println("Błąd w zadaniu koła czasowego: " + e.getMessage());
+            }
+        }
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread thread;
+    private long startNanos;
+    private long currentTick;
+
+    /**
+     * Tworzy koło czasowe.
+     *
+     * @param name Nazwa wątku koła
+     * @param tickMillis Długość taktu w milisekundach (dokładność terminów)
+     * @param wheelSize Liczba kubełków (zaokrąglana w górę do potęgi dwójki)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(String name, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Długość taktu musi być dodatnia: " + tickMillis);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("Nieprawidłowa liczba kubełków: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (wheelSize == 1) {
+            size = 1;
+        }
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Planuje zadanie do wykonania po upływie podanego czasu.
+     * Wątek koła jest uruchamiany przy pierwszym wywołaniu.
+     *
+     * @param delayMillis Opóźnienie w milisekundach
+     * @param task Zadanie
+     * @return Termin, który można anulować
+     */
+    public Timeout schedule(long delayMillis, Runnable task) {
+        ensureStarted();
+        Timeout timeout = new Timeout(this, task,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Zwraca liczbę oczekujących (nieanulowanych i nieupłyniętych) terminów.
+     *
+     * @return Liczba terminów
+     */
+    public int getPendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Zatrzymuje wątek koła. Oczekujące terminy nie zostaną wykonane.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    private synchronized void ensureStarted() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        currentTick = 0;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Główna pętla wątku koła.
+     */
+    private void run() {
+        while (running) {
+            long tickDeadline = startNanos + (currentTick + 1) * tickNanos;
+            long remaining;
+            while (running && (remaining = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (!running) {
+                break;
+            }
+            transferIncoming();
+            expireBucket(buckets[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+    }
+
+    /**
+     * Przenosi nowe terminy do kubełków. Wywoływane tylko z wątku koła.
+     */
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.state.get() != Timeout.PENDING) {
+                continue;
+            }
+            long targetTick = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, currentTick);
+            timeout.remainingRounds = (targetTick - currentTick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Wykonuje terminy z kubełka, które przypadają na bieżący obrót koła.
+     */
+    private void expireBucket(List<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.state.get() != Timeout.PENDING) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                timeout.expire();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Ogranicznik częstotliwości w postaci kubełka żetonów.
+ * <p>
+ * Kubełek mieści {@code burst} żetonów i uzupełnia się w tempie {@code ratePerSecond}.
+ * Każda operacja zużywa jeden żeton; gdy kubełek jest pusty, {@link #tryAcquire()}
+ * zwraca false od razu - wywołujący nigdy nie jest blokowany.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Tworzy pełny kubełek.
+     *
+     * @param ratePerSecond Liczba żetonów dodawanych na sekundę
+     * @param burst Pojemność kubełka (maksymalna liczba operacji naraz)
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * Tworzy pełny kubełek korzystający ze wskazanego zegara (w nanosekundach).
+     *
+     * @param ratePerSecond Liczba żetonów dodawanych na sekundę
+     * @param burst Pojemność kubełka
+     * @param clock Źródło czasu w nanosekundach
+     */
+    public TokenBucket(double ratePerSecond, int burst, LongSupplier clock) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Częstotliwość musi być dodatnia: " + ratePerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Pojemność kubełka musi być dodatnia: " + burst);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.clock = clock;
+        this.tokens = burst;
+        this.lastRefillNanos = clock.getAsLong();
+    }
+
+    /**
+     * Pobiera jeden żeton, jeśli jest dostępny.
+     *
+     * @return true jeśli operacja mieści się w limicie
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Zwraca żeton pobrany dla operacji, która ostatecznie nie została wykonana.
+     */
+    public synchronized void release() {
+        tokens = Math.min(burst, tokens + 1.0);
+    }
+
+    /**
+     * Zwraca liczbę dostępnych żetonów.
+     *
+     * @return Liczba pełnych żetonów
+     */
+    public synchronized int getAvailableTokens() {
+        refill();
+        return (int) tokens;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * ratePerSecond / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -192,7 +192,7 @@ public class BossaApiService {
      * Initializes the strategy manager and adds predefined strategies.
      */
     private void initializeStrategyManager() {
-        strategyManager = new StrategyManager(client);
+        strategyManager = new StrategyManager(client, true);
         
         // Add strategies
         StrategyParameters maParams = new StrategyParameters();
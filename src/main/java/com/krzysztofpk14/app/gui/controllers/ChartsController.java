@@ -1,6 +1,8 @@
 package com.krzysztofpk14.app.gui.controllers;
 
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 import com.krzysztofpk14.app.gui.model.TradingAppModel;
 
 import javafx.collections.FXCollections;
@@ -148,17 +150,18 @@ public class ChartsController {
      * Updates the chart with new market data.
      */
     public void updateChart(MarketDataResponse data) {
-        if (data.getInstrument() == null || data.getMarketDataGroups() == null || 
-            data.getMarketDataGroups().isEmpty()) {
+        if (data.getInstrument() == null || model.getClient() == null) {
             return;
         }
         
-        String symbol = data.getInstrument().getSymbol();
-        String priceStr = data.getMarketDataGroups().get(0).getPrice();
-        
-        if (priceStr == null) return;
+        // Plot the latest price from the client quote cache at refresh time
+        MarketDataCache.Quote quote = model.getClient().getMarketDataCache().get(data.getInstrument().getSymbol());
+        if (quote == null || !quote.hasLastPrice()) {
+            return;
+        }
         
-        double price = Double.parseDouble(priceStr);
+        String symbol = quote.symbol();
+        double price = Price.toDouble(quote.lastPrice());
 
         // Update available symbols list if needed
         if (!availableSymbols.contains(symbol)) {
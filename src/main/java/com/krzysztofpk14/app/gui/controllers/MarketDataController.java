@@ -1,6 +1,8 @@
 package com.krzysztofpk14.app.gui.controllers;
 
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 import com.krzysztofpk14.app.gui.model.MarketDataModel;
 import com.krzysztofpk14.app.gui.model.TradingAppModel;
 
@@ -10,12 +12,17 @@ import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Controller for Market Data tab.
  */
 public class MarketDataController {
     private TradingAppModel model;
     private TableView<MarketDataModel> marketDataTable;
+    // Table rows by instrument ID (accessed on the JavaFX thread only)
+    private final Map<Integer, MarketDataModel> rowsBySymbolId = new HashMap<>();
     
     public MarketDataController(TradingAppModel model) {
         this.model = model;
@@ -97,34 +104,26 @@ public class MarketDataController {
      * Updates the market data display with new data.
      */
     public void updateMarketData(MarketDataResponse data) {
-        if (data.getInstrument() == null || data.getMarketDataGroups() == null || 
-            data.getMarketDataGroups().isEmpty()) {
+        if (data.getInstrument() == null || model.getClient() == null) {
             return;
         }
         
-        String symbol = data.getInstrument().getSymbol();
-        String price = data.getMarketDataGroups().get(0).getPrice();
-        String timestamp = data.getMarketDataGroups().get(0).getTime();
-        
-        if (price == null) return;
-        
-        // Update or add market data entry
-        boolean found = false;
-        for (MarketDataModel entry : model.getMarketData()) {
-            if (entry.getSymbol().equals(symbol)) {
-                entry.setPrice(price);
-                entry.setTimestamp(timestamp);
-                found = true;
-                break;
-            }
+        // Quotes are already parsed by the client - lock-free read of the latest snapshot
+        MarketDataCache.Quote quote = model.getClient().getMarketDataCache().get(data.getInstrument().getSymbol());
+        if (quote == null || !quote.hasLastPrice()) {
+            return;
         }
         
-        if (!found) {
-            model.getMarketData().add(new MarketDataModel(symbol, price, timestamp));
+        String price = Price.format(quote.lastPrice());
+        MarketDataModel row = rowsBySymbolId.get(quote.symbolId());
+        if (row != null) {
+            row.setPrice(price);
+            row.setTimestamp(quote.lastTime());
+        } else {
+            row = new MarketDataModel(quote.symbol(), price, quote.lastTime());
+            rowsBySymbolId.put(quote.symbolId(), row);
+            model.getMarketData().add(row);
         }
-        
-        // Update price data in the model
-        model.addPriceDataPoint(symbol, Double.parseDouble(price), System.currentTimeMillis());
     }
     
     /**
@@ -3,6 +3,8 @@ package com.krzysztofpk14.app.gui.controllers;
 import com.krzysztofpk14.app.gui.model.StrategyModel;
 import com.krzysztofpk14.app.gui.model.TradingAppModel;
 import com.krzysztofpk14.app.strategy.InvestmentStrategy;
+import com.krzysztofpk14.app.strategy.Portfolio;
+import com.krzysztofpk14.app.strategy.RiskMetrics;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -192,6 +194,23 @@ public class StrategiesController {
         details.append("Total Buy Value: ").append(String.format("%.2f", strategy.getStatistics().getTotalBuyValue())).append("\n");
         details.append("Total Sell Value: ").append(String.format("%.2f", strategy.getStatistics().getTotalSellValue())).append("\n");
         
+        // Risk metrics from a single consistent snapshot
+        RiskMetrics risk = strategy.getStatistics().getRiskMetrics();
+        details.append("Max Drawdown: ").append(String.format("%.2f", risk.maxDrawdown())).append("\n");
+        details.append("Sharpe Ratio: ").append(String.format("%.2f", risk.sharpeRatio())).append("\n");
+        details.append("Sortino Ratio: ").append(String.format("%.2f", risk.sortinoRatio())).append("\n");
+        details.append("Avg Holding Time: ").append(risk.averageHoldingTime().toSeconds()).append(" s\n");
+        details.append("Exposure: ").append(String.format("%.2f", risk.exposure()))
+                .append(" (max ").append(String.format("%.2f", risk.maxExposure())).append(")\n");
+        
+        // Mark-to-market P/L from the client portfolio, partial fills included
+        if (model.getStrategyManager() != null) {
+            Portfolio portfolio = model.getStrategyManager().getPortfolio();
+            details.append("Realized P/L (portfolio): ").append(String.format("%.2f", portfolio.getRealizedPnL(strategy.getName()))).append("\n");
+            details.append("Unrealized P/L: ").append(String.format("%.2f", portfolio.getUnrealizedPnL(strategy.getName()))).append("\n");
+            details.append("Portfolio P/L (all strategies): ").append(String.format("%.2f", portfolio.getTotalPnL())).append("\n");
+        }
+        
         // Add timing information if available
         if (strategy.getStatistics().getStartTime() != null) {
             details.append("\nStarted: ").append(strategy.getStatistics().getStartTime()).append("\n");
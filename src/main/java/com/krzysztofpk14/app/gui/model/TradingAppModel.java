@@ -8,9 +8,7 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Model class for the Trading Application.
@@ -26,10 +24,6 @@ public class TradingAppModel {
     private final ObservableList<StrategyModel> strategies = FXCollections.observableArrayList();
     private final SimpleObjectProperty<List<String>> availableSymbols = 
             new SimpleObjectProperty<>(FXCollections.observableArrayList());
-           
-    
-    // Price data for charting
-    private final Map<String, List<PriceDataPoint>> priceData = new HashMap<>();
     
     public BossaApiClient getClient() {
         return client;
@@ -71,30 +65,6 @@ public class TradingAppModel {
         this.availableSymbols.set(FXCollections.observableArrayList(symbols));
     }
     
-    public Map<String, List<PriceDataPoint>> getPriceData() {
-        return priceData;
-    }
-    
-    /**
-     * Add price data point for a symbol.
-     */
-    public void addPriceDataPoint(String symbol, double price, long timestamp) {
-        if (!priceData.containsKey(symbol)) {
-            priceData.put(symbol, FXCollections.observableArrayList());
-        }
-        
-        List<PriceDataPoint> symbolData = priceData.get(symbol);
-
-        // Use static counter for index if needed
-        int index = symbolData.size();
-        symbolData.add(new PriceDataPoint(timestamp, price, index));
-        
-        // Keep a limited number of points
-        if (symbolData.size() > 1000) {
-            symbolData.remove(0);
-        }
-    }
-
     /**
      * Gets the API communication logger.
      * 
@@ -1,18 +1,29 @@
 package com.krzysztofpk14.app.strategy;
 
 import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
 import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+import com.krzysztofpk14.app.bossaapi.util.TokenBucket;
 import com.krzysztofpk14.app.gui.TradingAppGUI;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.UUID;
 
@@ -22,6 +33,21 @@ import java.util.UUID;
  */
 public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
     
+    /**
+     * Parametr: maksymalna liczba zleceń strategii na sekundę (0 - bez limitu).
+     */
+    public static final String PARAM_MAX_ORDERS_PER_SECOND = "maxOrdersPerSecond";
+    
+    /**
+     * Parametr: liczba zleceń, które strategia może wysłać naraz mimo limitu.
+     */
+    public static final String PARAM_ORDER_BURST = "orderBurst";
+    
+    /**
+     * Parametr: czy zlecenia z jednego komunikatu rynkowego wysyłać razem jednym zapisem.
+     */
+    public static final String PARAM_BATCH_ORDERS = "batchOrders";
+    
     // Klient API
     protected BossaApiClient apiClient;
     
@@ -34,17 +60,31 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
     // Statystyki
     protected StrategyStatistics statistics = new StrategyStatistics();
     
-    // Lista identyfikatorów zleceń wysłanych przez strategię
-    protected final List<String> orderIds = new ArrayList<>();
+    // Otwarte zlecenia strategii (zdarzenia różnych instrumentów mogą przychodzić
+    // równolegle z kilku torów klienta)
+    protected final OrderRegistry orders = new OrderRegistry();
+    
+    // Wspólny rejestr zleceń managera strategii
+    private volatile OrderRegistry sharedOrders;
     
-    // Mapa przechowująca ostatnie dane rynkowe dla każdego instrumentu
-    protected final Map<String, MarketDataResponse> lastMarketData = new ConcurrentHashMap<>();
+    // Instrumenty strategii jako zbiór - sprawdzane przy każdym komunikacie rynkowym
+    private volatile Set<String> instruments = Collections.emptySet();
+    
+    // Notowania współdzielone z klientem API (i innymi strategiami)
+    protected final MarketDataCache marketDataCache;
     
     // Mapa przechowująca pozycje otwarte przez strategię
     protected final Map<String, Position> positions = new ConcurrentHashMap<>();
     
     // Licznik wygenerowanych ID zleceń
     protected final AtomicLong orderIdCounter = new AtomicLong(1);
+    
+    // Limit częstotliwości zleceń strategii (null - bez limitu)
+    private volatile TokenBucket orderThrottle;
+    
+    // Zlecenia czekające na wysłanie razem po obsłużeniu komunikatu
+    private volatile boolean batchOrders;
+    private final Queue<OrderRequest> queuedOrders = new ConcurrentLinkedQueue<>();
 
     private TradingAppGUI gui;
     
@@ -55,6 +95,7 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
      */
     public AbstractInvestmentStrategy(BossaApiClient apiClient) {
         this.apiClient = apiClient;
+        this.marketDataCache = apiClient != null ? apiClient.getMarketDataCache() : new MarketDataCache();
     }
     
     @Override
@@ -63,10 +104,19 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
         this.status = StrategyStatus.INITIALIZED;
         
         // Wyczyszczenie stanu strategii
-        this.orderIds.clear();
-        this.lastMarketData.clear();
+        this.orders.clear();
         this.positions.clear();
+        this.queuedOrders.clear();
         this.statistics = new StrategyStatistics();
+        this.instruments = parameters.getInstruments() != null
+                ? new HashSet<>(parameters.getInstruments())
+                : Collections.emptySet();
+        
+        double maxOrdersPerSecond = parameters.getDoubleParam(PARAM_MAX_ORDERS_PER_SECOND, 0);
+        this.orderThrottle = maxOrdersPerSecond > 0
+                ? new TokenBucket(maxOrdersPerSecond, Math.max(1, parameters.getIntParam(PARAM_ORDER_BURST, 1)))
+                : null;
+        this.batchOrders = parameters.getBooleanParam(PARAM_BATCH_ORDERS, false);
         
         // Wywołanie inicjalizacji specyficznej dla konkretnej strategii
         doInitialize(parameters);
@@ -89,6 +139,7 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
             
             // Wywołanie metody startującej specyficznej dla konkretnej strategii
             doStart();
+            flushOrders();
             
             statistics.setStartTime(LocalDateTime.now());
         }
@@ -114,6 +165,8 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
             
             // Wywołanie metody zatrzymującej specyficznej dla konkretnej strategii
             doStop();
+            // Zlecenia zebrane podczas zatrzymywania nie mogą zostać w kolejce
+            flushOrders();
             
             status = StrategyStatus.STOPPED;
             statistics.setEndTime(LocalDateTime.now());
@@ -194,12 +247,12 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
                 closeOrder.setOrderType(OrderRequest.MARKET);
                 closeOrder.setTimeInForce(OrderRequest.DAY);
                 
+                // Zapisanie ID zlecenia przed wysłaniem - raport może przyjść zanim sendOrder wróci
+                trackOrder(closeOrder.getClientOrderId());
+                
                 // Wysłanie zlecenia
                 apiClient.sendOrder(closeOrder);
                 
-                // Zapisanie ID zlecenia
-                orderIds.add(closeOrder.getClientOrderId());
-                
             } catch (Exception e) {
                 System.err.println("Błąd podczas zamykania pozycji " + position.getSymbol() + ": " + e.getMessage());
             }
@@ -212,14 +265,17 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
         if (marketData.getInstrument() != null) {
             String symbol = marketData.getInstrument().getSymbol();
             // Sprawdzenie czy dane rynkowe dotyczą instrumentu skonfigurowanego w strategii
-            if (!parameters.getInstruments().contains(symbol)) {
+            if (!instruments.contains(symbol)) {
                 return; // Ignorowanie danych rynkowych dla nieobsługiwanych instrumentów
             }
-            lastMarketData.put(symbol, marketData);
+            // Klient zastosował już komunikat - pamięć zwraca bieżącą migawkę, a zaległy komunikat jej nie cofa
+            MarketDataCache.Quote quote = marketDataCache.apply(marketData);
             
             // Wywołanie metody przetwarzającej dane rynkowe specyficznej dla konkretnej strategii
             if (status == StrategyStatus.RUNNING) {
-                processMarketData(marketData);
+                processMarketData(marketData, quote);
+                // Zlecenia wygenerowane przez komunikat idą do serwera jednym zapisem
+                flushOrders();
             }
         }
     }
@@ -228,22 +284,39 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
      * Metoda przetwarzająca dane rynkowe specyficzna dla konkretnej strategii.
      * 
      * @param marketData Dane rynkowe
+     * @param quote Migawka notowań instrumentu po zastosowaniu komunikatu
      */
-    protected abstract void processMarketData(MarketDataResponse marketData);
+    protected abstract void processMarketData(MarketDataResponse marketData, MarketDataCache.Quote quote);
+    
+    /**
+     * Pobiera cenę ostatniej transakcji z migawki notowań.
+     * 
+     * @param quote Migawka notowań przekazana do {@link #processMarketData}
+     * @return Cena transakcji lub 0, jeśli ostatnia aktualizacja nie była transakcją
+     */
+    protected double getLastPrice(MarketDataCache.Quote quote) {
+        if (quote == null || !quote.newTrade()) {
+            return 0;
+        }
+        return Price.toDouble(quote.lastPrice());
+    }
     
     @Override
     public void onExecutionReport(ExecutionReport report) {
         // Sprawdzenie czy raport dotyczy zlecenia wysłanego przez tę strategię
-        if (orderIds.contains(report.getClientOrderId())) {
+        // (zlecenie zakończone raportem jest usuwane z rejestru)
+        OrderRegistry.OrderUpdate update = orders.onExecutionReport(report);
+        if (update != null) {
             // Aktualizacja statystyk
-            updateStatisticsFromReport(report);
+            updateStatisticsFromFill(update.fill());
             
             // Aktualizacja pozycji
-            updatePositionFromReport(report);
+            updatePositionFromFill(update.fill(), getEventTime(report));
             
             // Wywołanie metody przetwarzającej raport wykonania specyficznej dla konkretnej strategii
             if (status == StrategyStatus.RUNNING) {
                 processExecutionReport(report);
+                flushOrders();
             }
         }
     }
@@ -256,75 +329,118 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
     protected abstract void processExecutionReport(ExecutionReport report);
     
     /**
-     * Aktualizuje statystyki na podstawie raportu wykonania.
+     * Aktualizuje statystyki na podstawie wykonania odczytanego z raportu. Każde
+     * wykonanie, również częściowe, jest liczone osobno (zob. {@link OrderRegistry#onExecutionReport}).
      * 
-     * @param report Raport wykonania
+     * @param fill Wykonanie lub null, jeśli raport go nie zawierał
      */
-    protected void updateStatisticsFromReport(ExecutionReport report) {
-        if (ExecutionReport.DONE.equals(report.getOrderStatus())) {
-            
-            // Pobranie ceny i ilości
-            double price = Double.parseDouble(report.getPrice());
-            double quantity = Double.parseDouble(report.getOrderQuantity().getQuantity());
-            
-            // Aktualizacja statystyk w zależności od kierunku
-            if (OrderRequest.BUY.equals(report.getSide())) {
-                statistics.incrementTotalBuys();
-                statistics.addTotalBuyVolume(quantity);
-                statistics.addTotalBuyValue(price * quantity);
-            } else if (OrderRequest.SELL.equals(report.getSide())) {
-                statistics.incrementTotalSells();
-                statistics.addTotalSellVolume(quantity);
-                statistics.addTotalSellValue(price * quantity);
-            }
+    protected void updateStatisticsFromFill(Fill fill) {
+        if (fill == null) {
+            return;
         }
+        
+        // Aktualizacja statystyk w zależności od kierunku
+        if (fill.isBuy()) {
+            statistics.incrementTotalBuys();
+            statistics.addTotalBuyVolume(fill.quantity());
+            statistics.addTotalBuyValue(fill.getValue());
+        } else if (fill.isSell()) {
+            statistics.incrementTotalSells();
+            statistics.addTotalSellVolume(fill.quantity());
+            statistics.addTotalSellValue(fill.getValue());
+        }
+        statistics.addTotalCommission(fill.getCommissionValue());
     }
     
     /**
-     * Aktualizuje pozycje na podstawie raportu wykonania.
+     * Aktualizuje pozycje na podstawie wykonania odczytanego z raportu. Pozycja
+     * zmienia się o ilość każdego wykonania, również częściowego, a jej wynik
+     * pomniejsza prowizja od wykonania.
      * 
-     * @param report Raport wykonania
+     * @param fill Wykonanie lub null, jeśli raport go nie zawierał
+     * @param time Czas zdarzenia (ms)
      */
-    protected void updatePositionFromReport(ExecutionReport report) {
-        if (ExecutionReport.DONE.equals(report.getOrderStatus())) {
-            
-            String symbol = report.getInstrument().getSymbol();
-            double price = Double.parseDouble(report.getPrice());
-            double quantity = Double.parseDouble(report.getOrderQuantity().getQuantity());
-            
-            Position position = positions.getOrDefault(symbol, new Position(symbol));
+    protected void updatePositionFromFill(Fill fill, long time) {
+        if (fill == null) {
+            return;
+        }
+        
+        String symbol = fill.symbol();
+        Position position = positions.get(symbol);
+        if (position == null) {
+            position = new Position(symbol);
+            position.setOpenTime(time);
+        }
+        
+        if (fill.isBuy()) {
+            position.addBuyFixed(fill.quantity(), fill.price());
+        } else if (fill.isSell()) {
+            position.addSellFixed(fill.quantity(), fill.price());
+        }
+        // Prowizja pomniejsza wynik pozycji, więc wynik transakcji i miary ryzyka uwzględniają koszty
+        position.addCommissionFixed(fill.commission());
+        
+        if (position.isFlat()) {
+            // Pozycja została zamknięta
+            positions.remove(symbol);
             
-            if (OrderRequest.BUY.equals(report.getSide())) {
-                position.addBuy(quantity, price);
-            } else if (OrderRequest.SELL.equals(report.getSide())) {
-                position.addSell(quantity, price);
+            // Aktualizacja statystyk P&L
+            double pnl = position.getRealizedPnL();
+            if (pnl > 0) {
+                statistics.incrementWinningTrades();
+            } else if (pnl < 0) {
+                statistics.incrementLosingTrades();
             }
+            statistics.addTotalPnL(pnl, time);
+            statistics.recordHoldingTime(Duration.ofMillis(Math.max(0, time - position.getOpenTime())));
             
-            if (position.getQuantity().equals("0")) {
-                // Pozycja została zamknięta
-                positions.remove(symbol);
-                
-                // Aktualizacja statystyk P&L
-                double pnl = position.getRealizedPnL();
-                if (pnl > 0) {
-                    statistics.incrementWinningTrades();
-                } else if (pnl < 0) {
-                    statistics.incrementLosingTrades();
-                }
-                statistics.addTotalPnL(pnl);
-                
-            } else {
-                // Aktualizacja lub dodanie pozycji
-                positions.put(symbol, position);
+        } else {
+            // Aktualizacja lub dodanie pozycji
+            positions.put(symbol, position);
+        }
+        statistics.updateExposure(calculateExposure());
+    }
+    
+    /**
+     * Zwraca łączną wartość otwartych pozycji po cenach otwarcia.
+     * 
+     * @return Suma wartości bezwzględnych pozycji
+     */
+    protected double calculateExposure() {
+        double exposure = 0;
+        for (Position position : positions.values()) {
+            exposure += position.getOpenValue();
+        }
+        return exposure;
+    }
+    
+    /**
+     * Zwraca czas zdarzenia z raportu wykonania. Symulator testów wstecznych podaje czas
+     * transakcji w milisekundach; dla raportów serwera używany jest bieżący czas.
+     * 
+     * @param report Raport wykonania
+     * @return Czas w milisekundach epoki
+     */
+    private static long getEventTime(ExecutionReport report) {
+        String time = report.getTransactionTime();
+        if (time != null && !time.isEmpty() && time.chars().allMatch(Character::isDigit)) {
+            try {
+                return Long.parseLong(time);
+            } catch (NumberFormatException e) {
+                // Czas poza zakresem long - używamy bieżącego
             }
         }
+        return System.currentTimeMillis();
     }
     
     /**
-     * Wysyła zlecenie.
+     * Wysyła zlecenie. Zlecenie ponad limit częstotliwości strategii lub klienta nie jest
+     * wysyłane, tylko zgłaszane przez {@link #onOrderThrottled(OrderRequest)} - wątek
+     * obsługi notowań nigdy nie czeka na wolny żeton. W trybie wsadowym
+     * ({@link #PARAM_BATCH_ORDERS}) zlecenie trafia do kolejki wysyłanej po obsłużeniu komunikatu.
      * 
      * @param order Zlecenie do wysłania
-     * @return ID zlecenia lub null w przypadku błędu
+     * @return ID zlecenia lub null w przypadku błędu albo przekroczenia limitu
      */
     protected String sendOrder(OrderRequest order) {
         try {
@@ -333,24 +449,138 @@ public abstract class AbstractInvestmentStrategy implements InvestmentStrategy {
                 order.setClientOrderId("StrategyORD" + getUUID());
             }
             
+            TokenBucket throttle = orderThrottle;
+            if (throttle != null && !throttle.tryAcquire()) {
+                onOrderThrottled(order);
+                return null;
+            }
+            
+            // Zapisanie ID zlecenia przed wysłaniem - raport może przyjść zanim sendOrder wróci
+            trackOrder(order.getClientOrderId());
+            if (batchOrders) {
+                queuedOrders.add(order);
+                return order.getClientOrderId();
+            }
+            
             // Wysłanie zlecenia
-            apiClient.sendOrder(order);
+            CompletableFuture<ExecutionReport> future = apiClient.sendOrder(order);
+            if (isThrottled(future)) {
+                releaseRejectedOrder(order);
+                return null;
+            }
             // Logowanie zlecenia (opcjonalnie)
             if (gui != null) {
                 gui.apiService.logRequest(order);
             }
             // System.out.println("Zlecenie wysłane: " + order.getClientOrderId() + " - " + order.getInstrument().getSymbol() + " - " + order.getSide() + " " + order.getOrderQuantity().getQuantity() + " @ " + order.getPrice());
             
-            // Zapisanie ID zlecenia
-            orderIds.add(order.getClientOrderId());
-            
             return order.getClientOrderId();
         } catch (Exception e) {
+            untrackOrder(order.getClientOrderId());
             System.err.println("Błąd podczas wysyłania zlecenia: " + e.getMessage());
             return null;
         }
     }
     
+    /**
+     * Wysyła jednym zapisem zlecenia zebrane w trybie wsadowym.
+     * Wywoływane automatycznie na końcu każdego wywołania, które może wysyłać zlecenia
+     * (dane rynkowe, raport wykonania, start i zatrzymanie strategii). Strategia wysyłająca
+     * zlecenia z własnych wątków (np. zegara) powinna wywołać ją sama.
+     */
+    protected void flushOrders() {
+        if (queuedOrders.isEmpty()) {
+            return;
+        }
+        List<OrderRequest> batch = new ArrayList<>();
+        OrderRequest order;
+        while ((order = queuedOrders.poll()) != null) {
+            batch.add(order);
+        }
+        
+        try {
+            List<CompletableFuture<ExecutionReport>> futures = apiClient.sendOrders(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                if (isThrottled(futures.get(i))) {
+                    releaseRejectedOrder(batch.get(i));
+                } else if (gui != null) {
+                    gui.apiService.logRequest(batch.get(i));
+                }
+            }
+        } catch (Exception e) {
+            for (OrderRequest failed : batch) {
+                untrackOrder(failed.getClientOrderId());
+            }
+            System.err.println("Błąd podczas wysyłania " + batch.size() + " zleceń: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Wywoływana, gdy zlecenie nie zostało wysłane z powodu limitu częstotliwości
+     * (strategii lub klienta). Domyślnie zlicza takie zlecenia w statystykach.
+     * 
+     * @param order Odrzucone zlecenie
+     */
+    protected void onOrderThrottled(OrderRequest order) {
+        statistics.incrementThrottledOrders();
+        System.err.println("Zlecenie " + order.getClientOrderId() + " przekracza limit częstotliwości - pominięte");
+    }
+    
+    /**
+     * Zwraca liczbę zleceń oczekujących na wysłanie w trybie wsadowym.
+     * 
+     * @return Liczba zleceń w kolejce
+     */
+    public int getQueuedOrderCount() {
+        return queuedOrders.size();
+    }
+    
+    @Override
+    public void setOrderRegistry(OrderRegistry registry) {
+        this.sharedOrders = registry;
+    }
+    
+    /**
+     * Zapisuje zlecenie strategii we własnym rejestrze i we wspólnym rejestrze managera.
+     * 
+     * @param clientOrderId Identyfikator zlecenia
+     */
+    protected void trackOrder(String clientOrderId) {
+        orders.register(clientOrderId, this);
+        OrderRegistry shared = sharedOrders;
+        if (shared != null) {
+            shared.register(clientOrderId, this);
+        }
+    }
+    
+    /**
+     * Usuwa z rejestrów zlecenie, które nie opuściło klienta.
+     * 
+     * @param clientOrderId Identyfikator zlecenia
+     */
+    private void untrackOrder(String clientOrderId) {
+        orders.remove(clientOrderId);
+        OrderRegistry shared = sharedOrders;
+        if (shared != null) {
+            shared.remove(clientOrderId);
+        }
+    }
+    
+    private static boolean isThrottled(CompletableFuture<ExecutionReport> future) {
+        return future != null && future.isCompletedExceptionally()
+                && future.exceptionNow() instanceof RejectedExecutionException;
+    }
+    
+    private void releaseRejectedOrder(OrderRequest order) {
+        untrackOrder(order.getClientOrderId());
+        // Żeton strategii wraca - zlecenie nie opuściło klienta
+        TokenBucket throttle = orderThrottle;
+        if (throttle != null) {
+            throttle.release();
+        }
+        onOrderThrottled(order);
+    }
+    
     @Override
     public StrategyStatus getStatus() {
         return status;
@@ -0,0 +1,154 @@
+package com.krzysztofpk14.app.strategy;
+
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+/**
+ * Pojedyncze wykonanie (całkowite lub częściowe) odczytane z raportu wykonania.
+ *
+ * @param clientOrderId Identyfikator zlecenia klienta
+ * @param symbol Symbol instrumentu
+ * @param side Strona transakcji ({@link OrderRequest#BUY} lub {@link OrderRequest#SELL})
+ * @param quantity Ilość wykonana w tym raporcie
+ * @param price Cena wykonania (stałoprzecinkowa)
+ * @param commission Prowizja od wykonania (stałoprzecinkowa, 0 jeśli nieznana)
+ */
+public record Fill(String clientOrderId, String symbol, String side, long quantity, long price, long commission) {
+
+    /**
+     * Tworzy wykonanie bez prowizji.
+     */
+    public Fill(String clientOrderId, String symbol, String side, long quantity, long price) {
+        this(clientOrderId, symbol, side, quantity, price, 0);
+    }
+
+    /**
+     * Odczytuje wykonanie z raportu. Wykonaniem jest raport typu
+     * {@link ExecutionReport#TRANSACTION} - ilość i cena pochodzą z LastQty i LastPx
+     * (z ilości i ceny zlecenia, jeśli ich brak), a prowizja z elementu Comm.
+     * Raport bez typu ze statusem {@link ExecutionReport#DONE} jest traktowany jak
+     * wykonanie całego zlecenia. Raporty statusu ({@link ExecutionReport#ORDER_STATUS}) wymagają znajomości
+     * ilości już rozliczonej - zob. {@link #from(ExecutionReport, long)}.
+     *
+     * @param report Raport wykonania
+     * @return Wykonanie lub null, jeśli raport nie dotyczy transakcji
+     */
+    public static Fill from(ExecutionReport report) {
+        if (report != null && ExecutionReport.ORDER_STATUS.equals(report.getExecutionType())) {
+            return null;
+        }
+        return from(report, 0);
+    }
+
+    /**
+     * Odczytuje wykonanie z raportu zlecenia, z którego rozliczono już część ilości.
+     * Raport statusu ({@link ExecutionReport#ORDER_STATUS}, np. odpowiedź na zapytanie
+     * po ponownym połączeniu) zawiera łączną ilość wykonaną (CumQty) - wykonaniem jest
+     * różnica między nią a ilością rozliczoną lokalnie. Jeśli brakuje dokładnie
+     * ostatniej transakcji (różnica równa LastQty), wykonanie jest wyceniane po LastPx;
+     * jeśli zginęło kilka transakcji - po średniej cenie AvgPx, bo LastPx opisuje tylko
+     * ostatnią z nich. W braku obu cen używana jest cena zlecenia. Dzięki temu transakcje, których raporty zginęły podczas
+     * przerwy w połączeniu, trafiają do pozycji dokładnie raz. Prowizja utraconych
+     * transakcji nie jest znana, więc takie wykonanie ma prowizję 0.
+     *
+     * @param report Raport wykonania
+     * @param executedQuantity Ilość zlecenia rozliczona z wcześniejszych raportów
+     * @return Wykonanie lub null, jeśli raport nie wnosi nowej wykonanej ilości
+     */
+    public static Fill from(ExecutionReport report, long executedQuantity) {
+        if (report == null || report.getInstrument() == null || report.getInstrument().getSymbol() == null) {
+            return null;
+        }
+        String executionType = report.getExecutionType();
+        long quantity;
+        long price;
+        long commission = 0;
+        if (ExecutionReport.TRANSACTION.equals(executionType)) {
+            quantity = parseQuantity(report.getLastQuantity());
+            if (quantity <= 0) {
+                quantity = orderQuantity(report) - executedQuantity;
+            }
+            price = firstPrice(report.getLastPrice(), report.getPrice());
+            commission = commission(report);
+        } else if (ExecutionReport.ORDER_STATUS.equals(executionType)) {
+            quantity = parseQuantity(report.getCumulativeQuantity()) - executedQuantity;
+            if (quantity == parseQuantity(report.getLastQuantity())) {
+                price = firstPrice(report.getLastPrice(), report.getAveragePrice(), report.getPrice());
+            } else {
+                price = firstPrice(report.getAveragePrice(), report.getLastPrice(), report.getPrice());
+            }
+        } else if (executionType == null && ExecutionReport.DONE.equals(report.getOrderStatus())) {
+            quantity = orderQuantity(report) - executedQuantity;
+            price = firstPrice(report.getPrice());
+            commission = commission(report);
+        } else {
+            return null;
+        }
+
+        if (quantity <= 0 || price == Price.NONE) {
+            return null;
+        }
+        return new Fill(report.getClientOrderId(), report.getInstrument().getSymbol(),
+                report.getSide(), quantity, price, commission);
+    }
+
+    public boolean isBuy() {
+        return OrderRequest.BUY.equals(side);
+    }
+
+    public boolean isSell() {
+        return OrderRequest.SELL.equals(side);
+    }
+
+    /**
+     * Zwraca wartość wykonania.
+     *
+     * @return Cena razy ilość
+     */
+    public double getValue() {
+        return Price.toDouble(Price.notional(price, quantity));
+    }
+
+    /**
+     * Zwraca prowizję od wykonania.
+     *
+     * @return Prowizja
+     */
+    public double getCommissionValue() {
+        return Price.toDouble(commission);
+    }
+
+    private static long commission(ExecutionReport report) {
+        if (report.getCommission() == null) {
+            return 0;
+        }
+        long commission = Price.parse(report.getCommission().getAmount(), Price.NONE);
+        return commission != Price.NONE ? commission : 0;
+    }
+
+    private static long firstPrice(String... prices) {
+        for (String price : prices) {
+            long parsed = Price.parse(price, Price.NONE);
+            if (parsed != Price.NONE) {
+                return parsed;
+            }
+        }
+        return Price.NONE;
+    }
+
+    private static long orderQuantity(ExecutionReport report) {
+        return report.getOrderQuantity() != null ? parseQuantity(report.getOrderQuantity().getQuantity()) : 0;
+    }
+
+    private static long parseQuantity(String quantity) {
+        if (quantity == null || quantity.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(quantity);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
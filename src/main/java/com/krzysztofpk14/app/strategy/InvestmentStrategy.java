@@ -102,5 +102,16 @@ public interface InvestmentStrategy {
      */
     void setGui(TradingAppGUI gui);
 
+    /**
+     * Ustawia wspólny rejestr zleceń managera strategii. Strategia zapisuje w nim
+     * wysyłane zlecenia (ClOrdID), dzięki czemu manager kieruje raporty wykonania
+     * wprost do właściciela zlecenia. Strategie, które nie zapisują swoich zleceń,
+     * otrzymują wszystkie raporty bez właściciela.
+     * 
+     * @param registry Rejestr zleceń lub null, aby odłączyć strategię
+     */
+    default void setOrderRegistry(OrderRegistry registry) {
+    }
+
 
 }
\ No newline at end of file
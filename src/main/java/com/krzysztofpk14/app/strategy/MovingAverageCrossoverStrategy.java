@@ -1,14 +1,16 @@
 package com.krzysztofpk14.app.strategy;
 
 import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 import com.krzysztofpk14.app.gui.TradingAppGUI;
+import com.krzysztofpk14.app.strategy.indicator.SimpleMovingAverage;
 
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Strategia inwestycyjna bazująca na przecięciu średnich kroczących.
@@ -22,15 +24,14 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
     private int longSMAPeriod;
     private double tradeSize;
     
-    // Bufory cenowe dla obliczania średnich kroczących
-    private final Map<String, LinkedList<Double>> priceBuffers = new HashMap<>();
-    
-    // Ostatnie średnie kroczące
-    private final Map<String, Double> lastShortSMA = new HashMap<>();
-    private final Map<String, Double> lastLongSMA = new HashMap<>();
+    // Średnie kroczące aktualizowane w O(1) na każdą transakcję
+    // Stan per instrument - zdarzenia jednego instrumentu przychodzą z jednego toru klienta,
+    // ale różne instrumenty mogą być przetwarzane równolegle
+    private final Map<String, SimpleMovingAverage> shortSMAs = new ConcurrentHashMap<>();
+    private final Map<String, SimpleMovingAverage> longSMAs = new ConcurrentHashMap<>();
     
     // Ostatni sygnał
-    private final Map<String, Signal> lastSignals = new HashMap<>();
+    private final Map<String, Signal> lastSignals = new ConcurrentHashMap<>();
     
     // Typ sygnału
     private enum Signal {
@@ -58,9 +59,8 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
         // Inicjalizacja buforów i sygnałów dla każdego instrumentu
         if (parameters.getInstruments() != null) {
             for (String symbol : parameters.getInstruments()) {
-                priceBuffers.put(symbol, new LinkedList<>());
-                lastShortSMA.put(symbol, 0.0);
-                lastLongSMA.put(symbol, 0.0);
+                shortSMAs.put(symbol, new SimpleMovingAverage(shortSMAPeriod));
+                longSMAs.put(symbol, new SimpleMovingAverage(longSMAPeriod));
                 lastSignals.put(symbol, Signal.NONE);
             }
         }
@@ -79,40 +79,23 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
     }
     
     @Override
-    protected void processMarketData(MarketDataResponse marketData) {
+    protected void processMarketData(MarketDataResponse marketData, MarketDataCache.Quote quote) {
         String symbol = marketData.getInstrument().getSymbol();
         
         // Pobierz cenę z danych rynkowych (zakładamy że jest dostępna)
-        double price = getLastPrice(marketData);
+        double price = getLastPrice(quote);
         
         if (price <= 0) {
             return;  // Brak poprawnej ceny
         }
         
-        // Dodaj cenę do bufora
-        LinkedList<Double> buffer = priceBuffers.get(symbol);
-        if (buffer == null) {
-            buffer = new LinkedList<>();
-            priceBuffers.put(symbol, buffer);
-        }
-        
-        buffer.add(price);
+        // Zaktualizuj średnie kroczące
+        double shortSMA = shortSMAs.computeIfAbsent(symbol, key -> new SimpleMovingAverage(shortSMAPeriod)).update(price);
+        SimpleMovingAverage longAverage = longSMAs.computeIfAbsent(symbol, key -> new SimpleMovingAverage(longSMAPeriod));
+        double longSMA = longAverage.update(price);
         
-        // Ogranicz rozmiar bufora do maksymalnego okresu
-        while (buffer.size() > longSMAPeriod) {
-            buffer.removeFirst();
-        }
-        
-        // Jeśli mamy wystarczająco danych, oblicz średnie kroczące
-        if (buffer.size() >= longSMAPeriod) {
-            // Oblicz krótkoterminowe SMA
-            double shortSMA = calculateSMA(buffer, shortSMAPeriod);
-            lastShortSMA.put(symbol, shortSMA);
-            
-            // Oblicz długoterminowe SMA
-            double longSMA = calculateSMA(buffer, longSMAPeriod);
-            lastLongSMA.put(symbol, longSMA);
-            
+        // Jeśli mamy wystarczająco danych, porównaj średnie kroczące
+        if (longAverage.isReady()) {
             // Generuj sygnał
             Signal currentSignal = Signal.NONE;
             
@@ -131,24 +114,6 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
         }
     }
     
-    /**
-     * Oblicza średnią kroczącą dla podanego okresu.
-     * 
-     * @param buffer Bufor cenowy
-     * @param period Okres średniej
-     * @return Wartość średniej kroczącej
-     */
-    private double calculateSMA(LinkedList<Double> buffer, int period) {
-        int startIndex = Math.max(0, buffer.size() - period);
-        double sum = 0;
-        
-        for (int i = startIndex; i < buffer.size(); i++) {
-            sum += buffer.get(i);
-        }
-        
-        return sum / (buffer.size() - startIndex);
-    }
-    
     /**
      * Obsługuje zmianę sygnału.
      * 
@@ -250,7 +215,7 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
         OrderRequest.OrderQuantity orderQuantity = new OrderRequest.OrderQuantity();
         orderQuantity.setQuantity(String.valueOf(quantity));
         order.setOrderQuantity(orderQuantity);
-        order.setPrice(String.valueOf(price));
+        order.setPrice(Price.format(Price.fromDouble(price)));
         
         // Ustawienie typu zlecenia (rynkowe)
         order.setOrderType(OrderRequest.MARKET);
@@ -323,27 +288,6 @@ public class MovingAverageCrossoverStrategy extends AbstractInvestmentStrategy {
         return Math.max(1, quantity);
     }
     
-    /**
-     * Pobiera ostatnią cenę z danych rynkowych.
-     * 
-     * @param marketData Dane rynkowe
-     * @return Ostatnia cena lub 0 jeśli niedostępna
-     */
-    private double getLastPrice(MarketDataResponse marketData) {
-        if (marketData.getMarketDataGroups() != null && !marketData.getMarketDataGroups().isEmpty()) {
-            for (MarketDataResponse.MarketDataGroup group : marketData.getMarketDataGroups()) {
-                if (MarketDataResponse.TRADE.equals(group.getMarketDataEntryType())) {
-                    try {
-                        return Double.parseDouble(group.getPrice());
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                }
-            }
-        }
-        return 0;
-    }
-    
     @Override
     protected void processExecutionReport(ExecutionReport report) {
         // Logowanie informacji o wykonaniu zlecenia
@@ -0,0 +1,235 @@
+package com.krzysztofpk14.app.strategy;
+
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejestr zleceń: identyfikator zlecenia klienta (ClOrdID) → strategia i stan zlecenia.
+ * <p>
+ * Wyszukiwanie właściciela raportu wykonania kosztuje jedno odwołanie do mapy,
+ * niezależnie od liczby zleceń i strategii. Zlecenia w stanie końcowym (zrealizowane,
+ * anulowane, odrzucone, zarchiwizowane) są usuwane przy obsłudze raportu, więc rejestr
+ * zawiera tylko zlecenia otwarte. Rejestr jest bezpieczny dla wielu wątków - raporty
+ * różnych instrumentów przychodzą z różnych torów klienta.
+ * <p>
+ * Dla każdego zlecenia rejestr pamięta ilość już rozliczoną. Raport statusu wysłany
+ * przez serwer po ponownym połączeniu zamienia się w wykonanie obejmujące tylko
+ * transakcje, których raporty zginęły podczas przerwy (zob. {@link Fill#from(ExecutionReport, long)}).
+ * Rejestr zapamiętuje też identyfikator nadany zleceniu przez serwer (OrdID) i ignoruje
+ * raporty statusu z innym OrdID - nie są odpowiedzią dotyczącą tego zlecenia.
+ */
+public class OrderRegistry {
+
+    /**
+     * Stan zlecenia.
+     */
+    public enum OrderState {
+        PENDING,
+        ACTIVE,
+        PARTIALLY_FILLED,
+        FILLED,
+        CANCELED,
+        REJECTED,
+        ARCHIVED;
+
+        /**
+         * Sprawdza, czy stan jest końcowy - kolejne raporty zlecenia już nie przyjdą.
+         *
+         * @return true dla zleceń zrealizowanych, anulowanych, odrzuconych i zarchiwizowanych
+         */
+        public boolean isTerminal() {
+            return this == FILLED || this == CANCELED || this == REJECTED || this == ARCHIVED;
+        }
+    }
+
+    /**
+     * Wynik obsługi raportu wykonania.
+     *
+     * @param owner Strategia, która wysłała zlecenie
+     * @param state Stan zlecenia po raporcie
+     * @param fill Nowo wykonana ilość lub null, jeśli raport jej nie wnosi
+     */
+    public record OrderUpdate(InvestmentStrategy owner, OrderState state, Fill fill) {
+    }
+
+    // Zlecenie w rejestrze - stan zmienia wątek obsługujący raporty zlecenia
+    private static final class Entry {
+        private final InvestmentStrategy owner;
+        private volatile OrderState state = OrderState.PENDING;
+        private volatile long executedQuantity;
+        private volatile String orderId;
+
+        Entry(InvestmentStrategy owner) {
+            this.owner = owner;
+        }
+    }
+
+    private final Map<String, Entry> orders = new ConcurrentHashMap<>();
+
+    /**
+     * Zapisuje zlecenie wysłane przez strategię.
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @param owner Strategia, która wysłała zlecenie
+     */
+    public void register(String clientOrderId, InvestmentStrategy owner) {
+        if (clientOrderId != null && owner != null) {
+            orders.put(clientOrderId, new Entry(owner));
+        }
+    }
+
+    /**
+     * Aktualizuje stan zlecenia na podstawie raportu wykonania i odczytuje z niego
+     * nowo wykonaną ilość. Zlecenie, które osiągnęło stan końcowy, jest usuwane z rejestru.
+     *
+     * @param report Raport wykonania
+     * @return Właściciel, stan i wykonanie lub null, jeśli zlecenie nie jest znane
+     *         albo raport statusu dotyczy innego zlecenia (inny OrdID)
+     */
+    public OrderUpdate onExecutionReport(ExecutionReport report) {
+        String clientOrderId = report.getClientOrderId();
+        Entry entry = clientOrderId != null ? orders.get(clientOrderId) : null;
+        if (entry == null) {
+            return null;
+        }
+        String orderId = report.getOrderId();
+        if (orderId != null) {
+            if (entry.orderId == null) {
+                entry.orderId = orderId;
+            } else if (!entry.orderId.equals(orderId)
+                    && ExecutionReport.ORDER_STATUS.equals(report.getExecutionType())) {
+                return null;
+            }
+        }
+        Fill fill = Fill.from(report, entry.executedQuantity);
+        if (fill != null) {
+            entry.executedQuantity += fill.quantity();
+        }
+        OrderState state = nextState(entry.state, report);
+        entry.state = state;
+        if (state.isTerminal()) {
+            orders.remove(clientOrderId, entry);
+        }
+        return new OrderUpdate(entry.owner, state, fill);
+    }
+
+    /**
+     * Zwraca strategię, która wysłała zlecenie.
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @return Strategia lub null, jeśli zlecenie nie jest znane lub zostało zakończone
+     */
+    public InvestmentStrategy getOwner(String clientOrderId) {
+        Entry entry = clientOrderId != null ? orders.get(clientOrderId) : null;
+        return entry != null ? entry.owner : null;
+    }
+
+    /**
+     * Zwraca stan otwartego zlecenia.
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @return Stan lub null, jeśli zlecenie nie jest znane lub zostało zakończone
+     */
+    public OrderState getState(String clientOrderId) {
+        Entry entry = clientOrderId != null ? orders.get(clientOrderId) : null;
+        return entry != null ? entry.state : null;
+    }
+
+    /**
+     * Zwraca ilość otwartego zlecenia rozliczoną z dotychczasowych raportów.
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @return Wykonana ilość lub 0, jeśli zlecenie nie jest znane lub zostało zakończone
+     */
+    public long getExecutedQuantity(String clientOrderId) {
+        Entry entry = clientOrderId != null ? orders.get(clientOrderId) : null;
+        return entry != null ? entry.executedQuantity : 0;
+    }
+
+    /**
+     * Sprawdza, czy zlecenie jest otwarte.
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @return true jeśli zlecenie jest w rejestrze
+     */
+    public boolean contains(String clientOrderId) {
+        return clientOrderId != null && orders.containsKey(clientOrderId);
+    }
+
+    /**
+     * Usuwa zlecenie, które nie opuściło klienta (np. odrzucone przez limit częstotliwości).
+     *
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     */
+    public void remove(String clientOrderId) {
+        if (clientOrderId != null) {
+            orders.remove(clientOrderId);
+        }
+    }
+
+    /**
+     * Usuwa wszystkie zlecenia strategii.
+     *
+     * @param owner Strategia
+     */
+    public void removeOwner(InvestmentStrategy owner) {
+        orders.values().removeIf(entry -> entry.owner == owner);
+    }
+
+    /**
+     * Zwraca liczbę otwartych zleceń strategii.
+     *
+     * @param owner Strategia
+     * @return Liczba zleceń
+     */
+    public int getOpenOrderCount(InvestmentStrategy owner) {
+        int count = 0;
+        for (Entry entry : orders.values()) {
+            if (entry.owner == owner) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    public void clear() {
+        orders.clear();
+    }
+
+    private static OrderState nextState(OrderState current, ExecutionReport report) {
+        String orderStatus = report.getOrderStatus();
+        if (orderStatus == null) {
+            return current;
+        }
+        switch (orderStatus) {
+            case ExecutionReport.DONE:
+                return OrderState.FILLED;
+            case ExecutionReport.CANCELED:
+                return OrderState.CANCELED;
+            case ExecutionReport.REJECTED_ORDER:
+                return OrderState.REJECTED;
+            case ExecutionReport.ARCHIVED:
+                return OrderState.ARCHIVED;
+            case ExecutionReport.NEW_ORDER:
+            case ExecutionReport.ACTIVE:
+                if (current == OrderState.PARTIALLY_FILLED
+                        || ExecutionReport.TRANSACTION.equals(report.getExecutionType())) {
+                    return OrderState.PARTIALLY_FILLED;
+                }
+                return OrderState.ACTIVE;
+            default:
+                // Zlecenie w trakcie modyfikacji lub anulowania - stan bez zmian
+                return current;
+        }
+    }
+}
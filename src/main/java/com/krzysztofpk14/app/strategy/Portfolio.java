@@ -0,0 +1,306 @@
+package com.krzysztofpk14.app.strategy;
+
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Centralny rejestr pozycji i P&L wszystkich strategii klienta.
+ * <p>
+ * Pozycje są przechowywane w księgach strategii, w tablicach indeksowanych
+ * identyfikatorem instrumentu z {@link InstrumentRegistry}. Każde wykonanie
+ * (również częściowe) zmienia pozycję, a każda transakcja rynkowa wycenia
+ * otwarte pozycje instrumentu po ostatniej cenie. Zapis do pozycji jest
+ * synchronizowany na jej własnym obiekcie, więc strategie i tory danych
+ * rynkowych nie blokują się wzajemnie; wyniki są publikowane w polach volatile
+ * i odczytywane bez blokad.
+ */
+public class Portfolio {
+
+    /**
+     * Nazwa księgi dla wykonań zleceń, których właściciel nie jest znany.
+     */
+    public static final String UNASSIGNED = "(nieprzypisane)";
+
+    // Pozycja strategii w jednym instrumencie
+    private static final class Slot {
+        private final Position position;
+        private long markPrice = Price.NONE;
+        private volatile long quantity;
+        private volatile long realizedPnL;
+        private volatile long unrealizedPnL;
+
+        Slot(String symbol) {
+            this.position = new Position(symbol);
+        }
+
+        synchronized void apply(Fill fill) {
+            if (fill.isBuy()) {
+                position.addBuyFixed(fill.quantity(), fill.price());
+            } else if (fill.isSell()) {
+                position.addSellFixed(fill.quantity(), fill.price());
+            } else {
+                return;
+            }
+            position.addCommissionFixed(fill.commission());
+            if (markPrice == Price.NONE) {
+                markPrice = fill.price();
+            }
+            quantity = position.getNetQuantity();
+            realizedPnL = position.getRealizedPnLFixed();
+            unrealizedPnL = position.getUnrealizedPnLFixed(markPrice);
+        }
+
+        void mark(long price) {
+            // Zamknięta pozycja nie wymaga wyceny - zapamiętujemy tylko cenę
+            synchronized (this) {
+                markPrice = price;
+                if (quantity != 0) {
+                    unrealizedPnL = position.getUnrealizedPnLFixed(price);
+                }
+            }
+        }
+    }
+
+    // Księga strategii - tablica pozycji indeksowana identyfikatorem instrumentu
+    private static final class Book {
+        private final String strategy;
+        private volatile Slot[] slots = new Slot[16];
+
+        Book(String strategy) {
+            this.strategy = strategy;
+        }
+
+        Slot get(int symbolId) {
+            Slot[] current = slots;
+            return symbolId >= 0 && symbolId < current.length ? current[symbolId] : null;
+        }
+
+        synchronized Slot getOrCreate(int symbolId, String symbol) {
+            Slot[] current = slots;
+            if (symbolId >= current.length) {
+                current = Arrays.copyOf(current, Math.max(symbolId + 1, current.length * 2));
+            }
+            Slot slot = current[symbolId];
+            if (slot == null) {
+                slot = new Slot(symbol);
+                current[symbolId] = slot;
+                slots = current;
+            } else if (current != slots) {
+                slots = current;
+            }
+            return slot;
+        }
+    }
+
+    private final InstrumentRegistry registry;
+    private final Map<String, Book> booksByName = new ConcurrentHashMap<>();
+    private volatile Book[] books = new Book[0];
+    private final LongAdder fillCount = new LongAdder();
+
+    /**
+     * Tworzy portfel korzystający ze wskazanego rejestru instrumentów.
+     *
+     * @param registry Rejestr instrumentów
+     */
+    public Portfolio(InstrumentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Zapisuje wykonanie w księdze strategii.
+     *
+     * @param strategy Nazwa strategii
+     * @param fill Wykonanie
+     */
+    public void applyFill(String strategy, Fill fill) {
+        if (fill == null) {
+            return;
+        }
+        int symbolId = registry.register(fill.symbol());
+        book(strategy).getOrCreate(symbolId, fill.symbol()).apply(fill);
+        fillCount.increment();
+    }
+
+    /**
+     * Wycenia otwarte pozycje instrumentu po cenie ostatniej transakcji z migawki.
+     *
+     * @param quote Migawka notowań
+     */
+    public void markToMarket(MarketDataCache.Quote quote) {
+        if (quote != null && quote.hasLastPrice()) {
+            markToMarket(quote.symbolId(), quote.lastPrice());
+        }
+    }
+
+    /**
+     * Wycenia otwarte pozycje instrumentu we wszystkich księgach.
+     *
+     * @param symbolId Identyfikator instrumentu
+     * @param price Cena rynkowa (stałoprzecinkowa)
+     */
+    public void markToMarket(int symbolId, long price) {
+        for (Book book : books) {
+            Slot slot = book.get(symbolId);
+            if (slot != null) {
+                slot.mark(price);
+            }
+        }
+    }
+
+    /**
+     * Zwraca pozycję strategii w instrumencie.
+     *
+     * @param strategy Nazwa strategii
+     * @param symbol Symbol instrumentu
+     * @return Ilość ze znakiem (ujemna dla pozycji krótkiej)
+     */
+    public long getNetQuantity(String strategy, String symbol) {
+        Slot slot = slot(strategy, symbol);
+        return slot != null ? slot.quantity : 0;
+    }
+
+    /**
+     * Zwraca niezrealizowany P&L strategii w instrumencie.
+     *
+     * @param strategy Nazwa strategii
+     * @param symbol Symbol instrumentu
+     * @return Niezrealizowany P&L
+     */
+    public double getUnrealizedPnL(String strategy, String symbol) {
+        Slot slot = slot(strategy, symbol);
+        return slot != null ? Price.toDouble(slot.unrealizedPnL) : 0;
+    }
+
+    /**
+     * Zwraca zrealizowany P&L strategii.
+     *
+     * @param strategy Nazwa strategii
+     * @return Suma zrealizowanego P&L ze wszystkich instrumentów
+     */
+    public double getRealizedPnL(String strategy) {
+        Book book = booksByName.get(strategy);
+        return book != null ? Price.toDouble(sum(book, true)) : 0;
+    }
+
+    /**
+     * Zwraca niezrealizowany P&L strategii.
+     *
+     * @param strategy Nazwa strategii
+     * @return Suma wyceny otwartych pozycji ze wszystkich instrumentów
+     */
+    public double getUnrealizedPnL(String strategy) {
+        Book book = booksByName.get(strategy);
+        return book != null ? Price.toDouble(sum(book, false)) : 0;
+    }
+
+    /**
+     * Zwraca łączny P&L strategii.
+     *
+     * @param strategy Nazwa strategii
+     * @return Zrealizowany i niezrealizowany P&L
+     */
+    public double getTotalPnL(String strategy) {
+        return getRealizedPnL(strategy) + getUnrealizedPnL(strategy);
+    }
+
+    /**
+     * Zwraca zrealizowany P&L wszystkich strategii.
+     *
+     * @return Suma zrealizowanego P&L
+     */
+    public double getTotalRealizedPnL() {
+        long total = 0;
+        for (Book book : books) {
+            total += sum(book, true);
+        }
+        return Price.toDouble(total);
+    }
+
+    /**
+     * Zwraca niezrealizowany P&L wszystkich strategii.
+     *
+     * @return Suma wyceny otwartych pozycji
+     */
+    public double getTotalUnrealizedPnL() {
+        long total = 0;
+        for (Book book : books) {
+            total += sum(book, false);
+        }
+        return Price.toDouble(total);
+    }
+
+    /**
+     * Zwraca łączny P&L wszystkich strategii.
+     *
+     * @return Zrealizowany i niezrealizowany P&L
+     */
+    public double getTotalPnL() {
+        return getTotalRealizedPnL() + getTotalUnrealizedPnL();
+    }
+
+    /**
+     * Zwraca nazwy strategii, które mają księgę w portfelu.
+     *
+     * @return Nazwy strategii w kolejności utworzenia ksiąg
+     */
+    public List<String> getStrategies() {
+        List<String> names = new ArrayList<>();
+        for (Book book : books) {
+            names.add(book.strategy);
+        }
+        return names;
+    }
+
+    /**
+     * Zwraca liczbę zapisanych wykonań.
+     *
+     * @return Liczba wykonań
+     */
+    public long getFillCount() {
+        return fillCount.sum();
+    }
+
+    private Book book(String strategy) {
+        String name = strategy != null ? strategy : UNASSIGNED;
+        Book book = booksByName.get(name);
+        if (book != null) {
+            return book;
+        }
+        synchronized (this) {
+            book = booksByName.get(name);
+            if (book == null) {
+                book = new Book(name);
+                Book[] current = books;
+                Book[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = book;
+                books = updated;
+                booksByName.put(name, book);
+            }
+            return book;
+        }
+    }
+
+    private Slot slot(String strategy, String symbol) {
+        Book book = booksByName.get(strategy);
+        int symbolId = registry.getId(symbol);
+        return book != null && symbolId != InstrumentRegistry.UNKNOWN ? book.get(symbolId) : null;
+    }
+
+    private static long sum(Book book, boolean realized) {
+        long total = 0;
+        for (Slot slot : book.slots) {
+            if (slot != null) {
+                total += realized ? slot.realizedPnL : slot.unrealizedPnL;
+            }
+        }
+        return total;
+    }
+}
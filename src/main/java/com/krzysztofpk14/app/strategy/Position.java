@@ -1,7 +1,14 @@
 package com.krzysztofpk14.app.strategy;
 
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
 /**
  * Klasa reprezentująca pozycję inwestycyjną.
+ * <p>
+ * Koszt otwarcia i zrealizowany P&L są liczone na cenach stałoprzecinkowych ({@link Price}),
+ * więc wielokrotne otwieranie i zamykanie pozycji nie kumuluje błędów zaokrągleń.
+ * Prowizje od wykonań pomniejszają zrealizowany P&L, więc wynik zamkniętej pozycji
+ * uwzględnia koszty jej otwarcia i zamknięcia.
  */
 public class Position {
     /**
@@ -12,9 +19,14 @@ public class Position {
     }
     
     private final String symbol;
-    private double quantity;
-    private double avgPrice;
-    private double realizedPnL;
+    // Ilość ze znakiem (dodatnia - pozycja długa, ujemna - krótka)
+    private long quantity;
+    // Koszt otwarcia pozostałej części pozycji (cena stałoprzecinkowa x ilość)
+    private long openCost;
+    // Zrealizowany P&L w skali Price
+    private long realizedPnL;
+    // Czas otwarcia pozycji (milisekundy epoki)
+    private long openTime;
     
     /**
      * Tworzy nową pozycję dla danego instrumentu.
@@ -24,7 +36,7 @@ public class Position {
     public Position(String symbol) {
         this.symbol = symbol;
         this.quantity = 0;
-        this.avgPrice = 0;
+        this.openCost = 0;
         this.realizedPnL = 0;
     }
     
@@ -35,52 +47,65 @@ public class Position {
      * @param price Cena
      */
     public void addBuy(double quantity, double price) {
+        addBuyFixed(Math.round(quantity), Price.fromDouble(price));
+    }
+    
+    /**
+     * Dodaje transakcję sprzedaży do pozycji.
+     * 
+     * @param quantity Ilość
+     * @param price Cena
+     */
+    public void addSell(double quantity, double price) {
+        addSellFixed(Math.round(quantity), Price.fromDouble(price));
+    }
+    
+    /**
+     * Dodaje transakcję kupna do pozycji (cena stałoprzecinkowa).
+     * 
+     * @param quantity Ilość
+     * @param price Cena stałoprzecinkowa ({@link Price})
+     */
+    public void addBuyFixed(long quantity, long price) {
         if (this.quantity < 0) {
             // Jeśli mamy pozycję krótką, zamykamy część lub całość
-            double closeQuantity = Math.min(Math.abs(this.quantity), quantity);
-            double remainingQuantity = quantity - closeQuantity;
+            long closeQuantity = Math.min(-this.quantity, quantity);
+            long remainingQuantity = quantity - closeQuantity;
             
             // Oblicz zysk/stratę na zamkniętej części
-            double pnl = closeQuantity * (this.avgPrice - price);
-            this.realizedPnL += pnl;
+            long releasedCost = releaseCost(closeQuantity);
+            this.realizedPnL += releasedCost - Price.notional(price, closeQuantity);
             
             // Aktualizuj pozostałą ilość
             this.quantity += closeQuantity;
             
             // Jeśli pozostała ilość kupna, dodaj jako nową pozycję długą
             if (remainingQuantity > 0) {
-                this.quantity += remainingQuantity;
-                this.avgPrice = price;
+                this.quantity = remainingQuantity;
+                this.openCost = Price.notional(price, remainingQuantity);
             }
         } else {
             // Mamy pozycję długą lub brak pozycji, dodajemy do długiej
-            if (this.quantity == 0) {
-                this.avgPrice = price;
-                this.quantity = quantity;
-            } else {
-                // Uśrednij cenę
-                double totalValue = this.quantity * this.avgPrice + quantity * price;
-                this.quantity += quantity;
-                this.avgPrice = totalValue / this.quantity;
-            }
+            this.quantity += quantity;
+            this.openCost += Price.notional(price, quantity);
         }
     }
     
     /**
-     * Dodaje transakcję sprzedaży do pozycji.
+     * Dodaje transakcję sprzedaży do pozycji (cena stałoprzecinkowa).
      * 
      * @param quantity Ilość
-     * @param price Cena
+     * @param price Cena stałoprzecinkowa ({@link Price})
      */
-    public void addSell(double quantity, double price) {
+    public void addSellFixed(long quantity, long price) {
         if (this.quantity > 0) {
             // Jeśli mamy pozycję długą, zamykamy część lub całość
-            double closeQuantity = Math.min(this.quantity, quantity);
-            double remainingQuantity = quantity - closeQuantity;
+            long closeQuantity = Math.min(this.quantity, quantity);
+            long remainingQuantity = quantity - closeQuantity;
             
             // Oblicz zysk/stratę na zamkniętej części
-            double pnl = closeQuantity * (price - this.avgPrice);
-            this.realizedPnL += pnl;
+            long releasedCost = releaseCost(closeQuantity);
+            this.realizedPnL += Price.notional(price, closeQuantity) - releasedCost;
             
             // Aktualizuj pozostałą ilość
             this.quantity -= closeQuantity;
@@ -88,22 +113,37 @@ public class Position {
             // Jeśli pozostała ilość sprzedaży, dodaj jako nową pozycję krótką
             if (remainingQuantity > 0) {
                 this.quantity = -remainingQuantity;
-                this.avgPrice = price;
+                this.openCost = Price.notional(price, remainingQuantity);
             }
         } else {
             // Mamy pozycję krótką lub brak pozycji, dodajemy do krótkiej
-            if (this.quantity == 0) {
-                this.avgPrice = price;
-                this.quantity = -quantity;
-            } else {
-                // Uśrednij cenę
-                double totalValue = Math.abs(this.quantity) * this.avgPrice + quantity * price;
-                this.quantity -= quantity;
-                this.avgPrice = totalValue / Math.abs(this.quantity);
-            }
+            this.quantity -= quantity;
+            this.openCost += Price.notional(price, quantity);
         }
     }
     
+    /**
+     * Odejmuje od zrealizowanego P&L prowizję zapłaconą za wykonanie.
+     * 
+     * @param commission Prowizja stałoprzecinkowa ({@link Price})
+     */
+    public void addCommissionFixed(long commission) {
+        this.realizedPnL -= commission;
+    }
+    
+    /**
+     * Zdejmuje z kosztu otwarcia część przypadającą na zamykaną ilość.
+     * Przy zamknięciu całej pozycji zdejmowany jest cały koszt, więc nie zostają reszty z dzielenia.
+     */
+    private long releaseCost(long closeQuantity) {
+        long openQuantity = Math.abs(this.quantity);
+        long released = closeQuantity == openQuantity
+                ? openCost
+                : Math.multiplyExact(openCost, closeQuantity) / openQuantity;
+        openCost -= released;
+        return released;
+    }
+    
     /**
      * Zwraca symbol instrumentu.
      * 
@@ -119,7 +159,7 @@ public class Position {
      * @return Ilość instrumentu
      */
     public String getQuantity() {
-        return String.valueOf((int)Math.abs(this.quantity));
+        return String.valueOf(Math.abs(this.quantity));
     }
     
     /**
@@ -128,7 +168,10 @@ public class Position {
      * @return Cena średnia
      */
     public double getAvgPrice() {
-        return avgPrice;
+        if (quantity == 0) {
+            return 0.0;
+        }
+        return Price.toDouble(openCost) / Math.abs(quantity);
     }
     
     /**
@@ -137,8 +180,67 @@ public class Position {
      * @return Zrealizowany P&L
      */
     public double getRealizedPnL() {
+        return Price.toDouble(realizedPnL);
+    }
+
+    /**
+     * Zwraca wartość otwartej części pozycji po cenach otwarcia.
+     * 
+     * @return Koszt otwarcia pozostałej pozycji
+     */
+    public double getOpenValue() {
+        return Price.toDouble(openCost);
+    }
+    
+    public long getOpenTime() {
+        return openTime;
+    }
+    
+    public void setOpenTime(long openTime) {
+        this.openTime = openTime;
+    }
+
+    /**
+     * Zwraca ilość ze znakiem: dodatnią dla pozycji długiej, ujemną dla krótkiej.
+     * 
+     * @return Ilość ze znakiem
+     */
+    public long getNetQuantity() {
+        return quantity;
+    }
+    
+    /**
+     * Sprawdza, czy pozycja jest zamknięta.
+     * 
+     * @return true jeśli ilość wynosi zero
+     */
+    public boolean isFlat() {
+        return quantity == 0;
+    }
+    
+    /**
+     * Zwraca zrealizowany P&L w postaci stałoprzecinkowej.
+     * 
+     * @return Zrealizowany P&L w skali {@link Price}
+     */
+    public long getRealizedPnLFixed() {
         return realizedPnL;
     }
+    
+    /**
+     * Wycenia otwartą część pozycji po cenie rynkowej.
+     * 
+     * @param markPrice Cena rynkowa (stałoprzecinkowa)
+     * @return Niezrealizowany P&L w skali {@link Price}
+     */
+    public long getUnrealizedPnLFixed(long markPrice) {
+        if (quantity > 0) {
+            return Price.notional(markPrice, quantity) - openCost;
+        } else if (quantity < 0) {
+            return openCost - Price.notional(markPrice, -quantity);
+        }
+        return 0;
+    }
 
     public Direction getDirection() {
         if (this.quantity > 0) {
@@ -1,14 +1,16 @@
 package com.krzysztofpk14.app.strategy;
 
 import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 import com.krzysztofpk14.app.gui.TradingAppGUI;
+import com.krzysztofpk14.app.strategy.indicator.RelativeStrengthIndex;
 
-import java.util.HashMap; 
-import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Strategia inwestycyjna bazująca na wskaźniku RSI (Relative Strength Index).
@@ -23,12 +25,14 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
     private double overboughtThreshold;
     private double tradeSize; 
     
-    // Bufory cenowe i danych RSI
-    private final Map<String, LinkedList<Double>> priceBuffers = new HashMap<>();
-    private final Map<String, Double> lastRSI = new HashMap<>();
+    // Wskaźniki RSI (wygładzanie Wildera, aktualizacja w O(1)) i ostatnie wartości
+    // Stan per instrument - zdarzenia jednego instrumentu przychodzą z jednego toru klienta,
+    // ale różne instrumenty mogą być przetwarzane równolegle
+    private final Map<String, RelativeStrengthIndex> indicators = new ConcurrentHashMap<>();
+    private final Map<String, Double> lastRSI = new ConcurrentHashMap<>();
     
     // Status pozycji
-    private final Map<String, Boolean> inPosition = new HashMap<>();
+    private final Map<String, Boolean> inPosition = new ConcurrentHashMap<>();
     
     /**
      * Konstruktor.
@@ -50,7 +54,7 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
         // Inicjalizacja buforów i statusów dla każdego instrumentu
         if (parameters.getInstruments() != null) {
             for (String symbol : parameters.getInstruments()) {
-                priceBuffers.put(symbol, new LinkedList<>());
+                indicators.put(symbol, new RelativeStrengthIndex(rsiPeriod));
                 lastRSI.put(symbol, 50.0); // Neutralna wartość początkowa
                 inPosition.put(symbol, false);
             }
@@ -71,29 +75,23 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
     }
     
     @Override
-    protected void processMarketData(MarketDataResponse marketData) {
+    protected void processMarketData(MarketDataResponse marketData, MarketDataCache.Quote quote) {
         String symbol = marketData.getInstrument().getSymbol();
         
         // Pobierz cenę z danych rynkowych
-        double price = getLastPrice(marketData);    
+        double price = getLastPrice(quote);    
         
-        // Dodaj cenę do bufora
-        LinkedList<Double> buffer = priceBuffers.get(symbol);
-        if (buffer == null) {
-            buffer = new LinkedList<>();
-            priceBuffers.put(symbol, buffer);
+        if (price <= 0) {
+            return;  // Komunikat bez transakcji
         }
         
-        buffer.add(price);
-        
-        // Ogranicz rozmiar bufora do okresu RSI + 1 (potrzebujemy zmiany ceny)
-        while (buffer.size() > rsiPeriod + 1) {
-            buffer.removeFirst();
-        }
+        // Zaktualizuj RSI
+        RelativeStrengthIndex indicator = indicators.computeIfAbsent(symbol, key -> new RelativeStrengthIndex(rsiPeriod));
+        indicator.update(price);
         
-        // Jeśli mamy wystarczająco danych, oblicz RSI
-        if (buffer.size() > rsiPeriod) {
-            double rsi = calculateRSI(buffer);
+        // Jeśli mamy wystarczająco danych, sprawdź progi RSI
+        if (indicator.isReady()) {
+            double rsi = indicator.getValue();
             lastRSI.put(symbol, rsi);
             
             
@@ -112,41 +110,6 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
         }
     }
     
-    /**
-     * Oblicza wskaźnik RSI.
-     * 
-     * @param prices Lista cen
-     * @return Wartość RSI (0-100)
-     */
-    private double calculateRSI(LinkedList<Double> prices) {
-        if (prices.size() <= 1) {
-            return 50.0;
-        }
-        
-        double sumGain = 0.0;
-        double sumLoss = 0.0;
-        
-        // Oblicz początkowe sumy zysków i strat
-        for (int i = 1; i < prices.size() && i <= rsiPeriod; i++) {
-            double change = prices.get(i) - prices.get(i - 1);
-            if (change > 0) {
-                sumGain += change;
-            } else {
-                sumLoss -= change;
-            }
-        }
-        
-        // Oblicz średnie zyski i straty
-        double avgGain = sumGain / rsiPeriod;
-        double avgLoss = sumLoss / rsiPeriod;
-        
-        // Oblicz RS (Relative Strength)
-        double rs = avgLoss > 0 ? avgGain / avgLoss : 100.0;
-        
-        // Oblicz RSI
-        return 100.0 - (100.0 / (1.0 + rs));
-    }
-    
     /**
      * Otwiera długą pozycję.
      * 
@@ -177,7 +140,7 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
         OrderRequest.OrderQuantity orderQuantity = new OrderRequest.OrderQuantity();
         orderQuantity.setQuantity(String.valueOf(quantity));
         order.setOrderQuantity(orderQuantity);
-        order.setPrice(String.valueOf(price));
+        order.setPrice(Price.format(Price.fromDouble(price)));
         
         // Ustawienie typu zlecenia (rynkowe)
         order.setOrderType(OrderRequest.MARKET);
@@ -249,27 +212,6 @@ public class RSIStrategy extends AbstractInvestmentStrategy {
         return Math.max(1, quantity);
     }
     
-    /**
-     * Pobiera ostatnią cenę z danych rynkowych.
-     * 
-     * @param marketData Dane rynkowe
-     * @return Ostatnia cena lub 0 jeśli niedostępna
-     */
-    private double getLastPrice(MarketDataResponse marketData) {
-        if (marketData.getMarketDataGroups() != null && !marketData.getMarketDataGroups().isEmpty()) {
-            for (MarketDataResponse.MarketDataGroup group : marketData.getMarketDataGroups()) {
-                if (MarketDataResponse.TRADE.equals(group.getMarketDataEntryType())) {
-                    try {
-                        return Double.parseDouble(group.getPrice());
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                }
-            }
-        }
-        return 0;
-    }
-    
     @Override
     protected void processExecutionReport(ExecutionReport report) {
         System.out.println("Otrzymano raport wykonania: " + report.getExecutionType() + 
@@ -0,0 +1,44 @@
+package com.krzysztofpk14.app.strategy;
+
+import java.time.Duration;
+
+/**
+ * Niezmienny, spójny obraz metryk ryzyka strategii w jednej chwili.
+ *
+ * @param closedTrades Liczba zamkniętych pozycji
+ * @param equity Zrealizowany P&L po ostatnim zamknięciu
+ * @param peakEquity Najwyższy dotychczasowy zrealizowany P&L
+ * @param maxDrawdown Największy spadek zrealizowanego P&L od szczytu
+ * @param sharpeRatio Średni wynik zamknięcia podzielony przez odchylenie standardowe wyników
+ * @param sortinoRatio Średni wynik zamknięcia podzielony przez odchylenie strat
+ * @param averageHoldingMillis Średni czas utrzymywania pozycji w milisekundach
+ * @param exposure Bieżąca wartość otwartych pozycji (suma wartości bezwzględnych)
+ * @param maxExposure Największa wartość otwartych pozycji
+ */
+public record RiskMetrics(long closedTrades, double equity, double peakEquity, double maxDrawdown,
+                          double sharpeRatio, double sortinoRatio, double averageHoldingMillis,
+                          double exposure, double maxExposure) {
+
+    /**
+     * Metryki strategii bez zamkniętych pozycji.
+     */
+    public static final RiskMetrics EMPTY = new RiskMetrics(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Zwraca bieżące obsunięcie od szczytu.
+     *
+     * @return Obsunięcie
+     */
+    public double drawdown() {
+        return peakEquity - equity;
+    }
+
+    /**
+     * Zwraca średni czas utrzymywania pozycji.
+     *
+     * @return Średni czas
+     */
+    public Duration averageHoldingTime() {
+        return Duration.ofMillis(Math.round(averageHoldingMillis));
+    }
+}
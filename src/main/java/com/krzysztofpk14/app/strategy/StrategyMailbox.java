@@ -0,0 +1,319 @@
+package com.krzysztofpk14.app.strategy;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Skrzynka zdarzeń strategii (model aktora).
+ * <p>
+ * Wiele wątków klienta wrzuca zdarzenia do kolejki, a opróżnia ją zawsze jeden wątek
+ * naraz - domyślnie wątek wirtualny uruchamiany, gdy w pustej skrzynce pojawi się
+ * zdarzenie. Strategia przetwarza więc zdarzenia po kolei, jak w jednym wątku, a różne
+ * strategie działają równolegle; wolna lub rzucająca wyjątki strategia wstrzymuje tylko
+ * własną skrzynkę. Skrzynka mierzy liczbę oczekujących zdarzeń i czas od wrzucenia
+ * zdarzenia do końca jego obsługi.
+ * <p>
+ * Skrzynka ma ograniczoną pojemność. Gdy strategia nie nadąża i w skrzynce czeka
+ * {@code capacity} zdarzeń, nowe dane rynkowe ({@link #postMarketData}) zastępują
+ * oczekujące jeszcze dane tego samego instrumentu - strategia dostaje najnowsze notowanie,
+ * a kolejka rośnie najwyżej o jedno zdarzenie na instrument. Pozostałe zdarzenia
+ * ({@link #post}), w tym raporty wykonania, nigdy nie są pomijane.
+ */
+public class StrategyMailbox implements AutoCloseable {
+
+    // Maksymalna liczba zdarzeń obsłużonych w jednym przebiegu - potem wątek oddaje nośnik
+    private static final int DRAIN_BATCH = 256;
+
+    /** Domyślna liczba oczekujących zdarzeń, powyżej której dane rynkowe są łączone. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private record Envelope(Runnable task, long enqueuedNanos) {
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final int capacity;
+    // Oczekujące dane rynkowe według symbolu - tylko w czasie przepełnienia
+    private final Map<String, LatestMarketData> pendingMarketData = new ConcurrentHashMap<>();
+    private final AtomicBoolean overloaded = new AtomicBoolean();
+    private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Dane rynkowe instrumentu czekające w skrzynce, które nowsze dane mogą zastąpić.
+     */
+    private final class LatestMarketData implements Runnable {
+        private final String symbol;
+        private final AtomicReference<Runnable> task;
+
+        LatestMarketData(String symbol, Runnable task) {
+            this.symbol = symbol;
+            this.task = new AtomicReference<>(task);
+        }
+
+        // Zastępuje oczekujące zdarzenie; false jeśli zostało już pobrane do obsługi
+        boolean replace(Runnable latest) {
+            Runnable previous = task.get();
+            while (previous != null) {
+                if (task.compareAndSet(previous, latest)) {
+                    return true;
+                }
+                previous = task.get();
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            Runnable latest = task.getAndSet(null);
+            pendingMarketData.remove(symbol, this);
+            if (latest != null) {
+                latest.run();
+            }
+        }
+    }
+
+    /**
+     * Tworzy skrzynkę opróżnianą przez wątki wirtualne.
+     *
+     * @param name Nazwa skrzynki (nazwa strategii)
+     */
+    public StrategyMailbox(String name) {
+        this(name, task -> Thread.ofVirtual().name("strategy-" + name).start(task));
+    }
+
+    /**
+     * Tworzy skrzynkę opróżnianą przez wskazany wykonawca (np. pulę wątków).
+     *
+     * @param name Nazwa skrzynki (nazwa strategii)
+     * @param executor Wykonawca uruchamiający opróżnianie skrzynki
+     */
+    public StrategyMailbox(String name, Executor executor) {
+        this(name, executor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Tworzy skrzynkę o wskazanej pojemności.
+     *
+     * @param name Nazwa skrzynki (nazwa strategii)
+     * @param executor Wykonawca uruchamiający opróżnianie skrzynki
+     * @param capacity Liczba oczekujących zdarzeń, powyżej której dane rynkowe są łączone
+     */
+    public StrategyMailbox(String name, Executor executor, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pojemność skrzynki musi być dodatnia: " + capacity);
+        }
+        this.name = name;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Wrzuca zdarzenie do skrzynki. Nie blokuje wywołującego.
+     *
+     * @param task Obsługa zdarzenia
+     * @return false jeśli skrzynka jest zamknięta i zdarzenie zostało pominięte
+     */
+    public boolean post(Runnable task) {
+        if (closed) {
+            return false;
+        }
+        enqueue(task);
+        return true;
+    }
+
+    /**
+     * Wrzuca do skrzynki dane rynkowe instrumentu. Jeśli skrzynka jest pełna, zdarzenie
+     * zastępuje oczekujące jeszcze dane tego samego instrumentu. Nie blokuje wywołującego.
+     *
+     * @param symbol Symbol instrumentu (null - zdarzenie nie jest łączone)
+     * @param task Obsługa zdarzenia
+     * @return false jeśli skrzynka jest zamknięta i zdarzenie zostało pominięte
+     */
+    public boolean postMarketData(String symbol, Runnable task) {
+        if (closed) {
+            return false;
+        }
+        if (symbol == null || depth.get() < capacity) {
+            enqueue(task);
+            return true;
+        }
+
+        if (overloaded.compareAndSet(false, true)) {
+            System.err.println("Skrzynka strategii " + name + " przepełniona (" + depth.get()
+                    + " zdarzeń) - dane rynkowe łączone według instrumentu");
+        }
+        LatestMarketData pending = pendingMarketData.get(symbol);
+        if (pending != null && pending.replace(task)) {
+            coalesced.incrementAndGet();
+            return true;
+        }
+        LatestMarketData latest = new LatestMarketData(symbol, task);
+        pendingMarketData.put(symbol, latest);
+        enqueue(latest);
+        return true;
+    }
+
+    private void enqueue(Runnable task) {
+        queue.add(new Envelope(task, System.nanoTime()));
+        depth.incrementAndGet();
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                System.err.println("Skrzynka strategii " + name + " nie może zostać opróżniona: " + e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        int handled = 0;
+        Envelope envelope;
+        while (handled < DRAIN_BATCH && (envelope = queue.poll()) != null) {
+            depth.decrementAndGet();
+            handled++;
+            try {
+                envelope.task().run();
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                System.err.println("Błąd podczas obsługi zdarzenia w strategii " + name + ": " + e.getMessage());
+            }
+            long latency = System.nanoTime() - envelope.enqueuedNanos();
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            processed.incrementAndGet();
+        }
+
+        if (depth.get() < capacity && overloaded.compareAndSet(true, false)) {
+            System.err.println("Skrzynka strategii " + name + " nadąża - połączono dotąd "
+                    + coalesced.get() + " komunikatów z danymi rynkowymi");
+        }
+
+        scheduled.set(false);
+        // Zdarzenie mogło dojść po ostatnim poll(), a przed zwolnieniem flagi
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Czeka, aż skrzynka zostanie opróżniona.
+     *
+     * @param timeout Maksymalny czas oczekiwania
+     * @param unit Jednostka czasu
+     * @return true jeśli skrzynka jest pusta i nic nie jest przetwarzane
+     * @throws InterruptedException gdy wątek zostanie przerwany
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (depth.get() > 0 || scheduled.get()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Zamyka skrzynkę. Zdarzenia już przyjęte zostaną obsłużone, nowe są pomijane.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Zwraca liczbę zdarzeń oczekujących na obsługę.
+     *
+     * @return Głębokość skrzynki
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Zwraca liczbę komunikatów z danymi rynkowymi zastąpionych nowszymi w czasie przepełnienia.
+     *
+     * @return Liczba połączonych komunikatów
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Zwraca liczbę zdarzeń, których obsługa zakończyła się wyjątkiem.
+     *
+     * @return Liczba błędów
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Zwraca średni czas od wrzucenia zdarzenia do końca jego obsługi.
+     *
+     * @return Średnie opóźnienie w nanosekundach
+     */
+    public long getAverageLatencyNanos() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count;
+    }
+
+    /**
+     * Zwraca najdłuższy czas od wrzucenia zdarzenia do końca jego obsługi.
+     *
+     * @return Maksymalne opóźnienie w nanosekundach
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Skrzynka " + name + ": oczekujące=" + getQueueDepth()
+                + ", obsłużone=" + getProcessedCount()
+                + ", błędy=" + getFailureCount()
+                + ", połączone=" + getCoalescedCount()
+                + ", średnie opóźnienie=" + TimeUnit.NANOSECONDS.toMicros(getAverageLatencyNanos()) + " µs"
+                + ", maks. opóźnienie=" + TimeUnit.NANOSECONDS.toMicros(getMaxLatencyNanos()) + " µs";
+    }
+}
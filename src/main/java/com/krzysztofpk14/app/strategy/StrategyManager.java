@@ -6,27 +6,72 @@ import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
 import com.krzysztofpk14.app.gui.TradingAppGUI;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Klasa zarządzająca strategiami inwestycyjnymi.
+ * <p>
+ * Dane rynkowe są kierowane według indeksu symbol → strategie budowanego przy dodawaniu
+ * i usuwaniu strategii, więc notowanie trafia tylko do strategii, które handlują
+ * instrumentem (oraz do strategii bez listy instrumentów). Raporty wykonania trafiają
+ * do strategii, która wysłała zlecenie; raporty zleceń bez znanego właściciela
+ * otrzymują wszystkie strategie.
+ * <p>
+ * W trybie izolowanym każda strategia ma własną {@link StrategyMailbox}: wątek klienta
+ * tylko wrzuca zdarzenie do skrzynki, a strategie przetwarzają swoje zdarzenia
+ * równolegle, każda po kolei we własnym wątku wirtualnym. Skrzynka nie nadążającej
+ * strategii łączy dane rynkowe według instrumentu, ale nie pomija raportów wykonania.
+ * <p>
+ * Wykonania wszystkich zleceń są zapisywane w {@link Portfolio} w księdze strategii,
+ * która wysłała zlecenie, a każde notowanie wycenia otwarte pozycje instrumentu.
  */
 public class StrategyManager {
     private static final Logger logger = Logger.getLogger(StrategyManager.class.getName());
     
     private final BossaApiClient client;
+    private final boolean isolatedExecution;
     private final List<InvestmentStrategy> strategies = new CopyOnWriteArrayList<>();
+    private final Map<InvestmentStrategy, List<String>> strategyInstruments = new ConcurrentHashMap<>();
     private TradingAppGUI gui;
     
+    // Indeks symbol → strategie, odbudowywany przy zmianie listy strategii i czytany bez blokad
+    private volatile Map<String, List<InvestmentStrategy>> routes = Collections.emptyMap();
+    
+    // Strategie bez listy instrumentów - otrzymują notowania wszystkich symboli
+    private volatile List<InvestmentStrategy> unfilteredStrategies = Collections.emptyList();
+    
+    // Otwarte zlecenia strategii według ClOrdID, wspólne dla wszystkich strategii
+    private final OrderRegistry orders = new OrderRegistry();
+    
+    // Skrzynki zdarzeń strategii w trybie izolowanym
+    private final Map<InvestmentStrategy, StrategyMailbox> mailboxes = new ConcurrentHashMap<>();
+    
+    // Pozycje i P&L wszystkich strategii
+    private final Portfolio portfolio;
+    
     /**
-     * Konstruktor.
+     * Konstruktor. Strategie obsługują zdarzenia w wątku klienta.
      * 
      * @param client Klient API Bossa
      */
     public StrategyManager(BossaApiClient client) {
+        this(client, false);
+    }
+    
+    /**
+     * Konstruktor.
+     * 
+     * @param client Klient API Bossa
+     * @param isolatedExecution Czy każda strategia ma obsługiwać zdarzenia we własnej skrzynce
+     */
+    public StrategyManager(BossaApiClient client, boolean isolatedExecution) {
         this.client = client;
+        this.isolatedExecution = isolatedExecution;
+        this.portfolio = new Portfolio(client.getMarketDataCache().getRegistry());
         
         // Rejestruj obserwatorów zdarzeń
         client.registerMarketDataHandler("strategyManager", this::distributeMarketData);
@@ -47,8 +92,16 @@ public class StrategyManager {
         // Inicjalizuj strategię
         strategy.initialize(parameters);
 
-        // Dodaj strategię do listy
+        // Dodaj strategię do listy i indeksu
+        strategy.setOrderRegistry(orders);
+        if (isolatedExecution) {
+            mailboxes.put(strategy, new StrategyMailbox(strategy.getName()));
+        }
         strategies.add(strategy);
+        strategyInstruments.put(strategy, parameters.getInstruments() != null
+                ? List.copyOf(parameters.getInstruments())
+                : Collections.emptyList());
+        rebuildRoutes();
         logger.info("Dodano strategię: " + strategy.getName());
         return true;
     }
@@ -105,6 +158,14 @@ public class StrategyManager {
             if (strategy.getName().equals(strategyName)) {
                 strategy.stop();
                 strategies.remove(strategy);
+                strategyInstruments.remove(strategy);
+                rebuildRoutes();
+                strategy.setOrderRegistry(null);
+                orders.removeOwner(strategy);
+                StrategyMailbox mailbox = mailboxes.remove(strategy);
+                if (mailbox != null) {
+                    mailbox.close();
+                }
                 logger.info("Usunięto strategię: " + strategyName);
                 return true;
             }
@@ -113,43 +174,210 @@ public class StrategyManager {
     }
     
     /**
-     * Rozpowszechnia dane rynkowe do wszystkich strategii.
+     * Zwraca strategie, do których trafiają notowania instrumentu.
      * 
-     * @param data Dane rynkowe
+     * @param symbol Symbol instrumentu
+     * @return Lista strategii
      */
-    private void distributeMarketData(MarketDataResponse data) {
+    public List<InvestmentStrategy> getStrategiesForSymbol(String symbol) {
+        if (symbol == null) {
+            return getStrategies();
+        }
+        return routes.getOrDefault(symbol, unfilteredStrategies);
+    }
+    
+    /**
+     * Zwraca skrzynkę zdarzeń strategii.
+     * 
+     * @param strategy Strategia
+     * @return Skrzynka lub null, jeśli manager nie działa w trybie izolowanym
+     */
+    public StrategyMailbox getMailbox(InvestmentStrategy strategy) {
+        return mailboxes.get(strategy);
+    }
+    
+    public boolean isIsolatedExecution() {
+        return isolatedExecution;
+    }
+    
+    /**
+     * Czeka, aż skrzynki wszystkich strategii zostaną opróżnione.
+     * 
+     * @param timeout Maksymalny czas oczekiwania
+     * @param unit Jednostka czasu
+     * @return true jeśli wszystkie skrzynki są puste
+     * @throws InterruptedException gdy wątek zostanie przerwany
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (StrategyMailbox mailbox : mailboxes.values()) {
+            long remaining = deadline - System.nanoTime();
+            if (!mailbox.awaitIdle(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Zwraca portfel z pozycjami i P&L wszystkich strategii.
+     * 
+     * @return Portfel
+     */
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+    
+    /**
+     * Zwraca strategię, która wysłała zlecenie.
+     * 
+     * @param clientOrderId Identyfikator zlecenia (ClOrdID)
+     * @return Strategia lub null, jeśli właściciel nie jest znany
+     */
+    public InvestmentStrategy getOrderOwner(String clientOrderId) {
+        return orders.getOwner(clientOrderId);
+    }
+    
+    /**
+     * Zwraca rejestr otwartych zleceń strategii.
+     * 
+     * @return Rejestr zleceń
+     */
+    public OrderRegistry getOrderRegistry() {
+        return orders;
+    }
+    
+    /**
+     * Odbudowuje indeks symbol → strategie. Każda lista zachowuje kolejność dodania strategii.
+     */
+    private synchronized void rebuildRoutes() {
+        List<InvestmentStrategy> unfiltered = new ArrayList<>();
+        Map<String, List<InvestmentStrategy>> index = new HashMap<>();
         for (InvestmentStrategy strategy : strategies) {
-            try {
-                strategy.onMarketData(data);
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Błąd podczas przetwarzania danych rynkowych w strategii: " + strategy.getName(), e);
+            List<String> instruments = strategyInstruments.get(strategy);
+            if (instruments == null || instruments.isEmpty()) {
+                unfiltered.add(strategy);
+                // Strategia bez instrumentów dostaje też notowania symboli innych strategii
+                for (List<InvestmentStrategy> routed : index.values()) {
+                    routed.add(strategy);
+                }
+                continue;
             }
+            for (String symbol : instruments) {
+                List<InvestmentStrategy> routed = index.computeIfAbsent(symbol, key -> new ArrayList<>(unfiltered));
+                if (!routed.contains(strategy)) {
+                    routed.add(strategy);
+                }
+            }
+        }
+        
+        Map<String, List<InvestmentStrategy>> snapshot = new HashMap<>();
+        for (Map.Entry<String, List<InvestmentStrategy>> entry : index.entrySet()) {
+            snapshot.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        unfilteredStrategies = List.copyOf(unfiltered);
+        routes = snapshot;
+    }
+    
+    /**
+     * Przekazuje dane rynkowe strategiom handlującym instrumentem.
+     * Komunikaty bez symbolu trafiają do wszystkich strategii.
+     * 
+     * @param data Dane rynkowe
+     */
+    private void distributeMarketData(MarketDataResponse data) {
+        // Klient zastosował już komunikat w pamięci notowań, więc otrzymujemy bieżącą migawkę (zaległy komunikat jej nie cofa)
+        portfolio.markToMarket(client.getMarketDataCache().apply(data));
+        
+        String symbol = data.getInstrument() != null ? data.getInstrument().getSymbol() : null;
+        for (InvestmentStrategy strategy : getStrategiesForSymbol(symbol)) {
+            dispatchMarketData(strategy, symbol, () -> deliverMarketData(strategy, data));
+        }
+    }
+    
+    private void deliverMarketData(InvestmentStrategy strategy, MarketDataResponse data) {
+        try {
+            strategy.onMarketData(data);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Błąd podczas przetwarzania danych rynkowych w strategii: " + strategy.getName(), e);
         }
     }
     
     /**
-     * Rozpowszechnia raporty wykonania do wszystkich strategii.
+     * Przekazuje raport wykonania strategii, która wysłała zlecenie.
+     * Raporty zleceń bez znanego właściciela trafiają do wszystkich strategii,
+     * z wyjątkiem raportów statusu - te dotyczą tylko zleceń z rejestru.
      * 
      * @param report Raport wykonania
      */
     private void distributeExecutionReport(ExecutionReport report) {
-        for (InvestmentStrategy strategy : strategies) {
-            try {
-                strategy.onExecutionReport(report);
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Błąd podczas przetwarzania raportu wykonania w strategii: " + strategy.getName(), e);
+        // Zlecenie zakończone raportem jest usuwane z rejestru - kolejne raporty już nie przyjdą
+        OrderRegistry.OrderUpdate update = orders.onExecutionReport(report);
+        if (update == null && ExecutionReport.ORDER_STATUS.equals(report.getExecutionType())) {
+            // Status zlecenia, którego nie wysłała żadna strategia - nie jest wykonaniem
+            return;
+        }
+        InvestmentStrategy owner = update != null ? update.owner() : null;
+        // Raport statusu znanego zlecenia uzupełnia transakcje utracone podczas przerwy w połączeniu
+        portfolio.applyFill(owner != null ? owner.getName() : Portfolio.UNASSIGNED,
+                update != null ? update.fill() : Fill.from(report));
+        if (owner == null) {
+            for (InvestmentStrategy strategy : strategies) {
+                dispatch(strategy, () -> deliverExecutionReport(strategy, report));
             }
+            return;
         }
+        dispatch(owner, () -> deliverExecutionReport(owner, report));
     }
-
+    
+    /**
+     * Przekazuje zdarzenie do skrzynki strategii albo obsługuje je od razu w wątku klienta.
+     */
+    private void dispatch(InvestmentStrategy strategy, Runnable event) {
+        StrategyMailbox mailbox = isolatedExecution ? mailboxes.get(strategy) : null;
+        if (mailbox != null) {
+            mailbox.post(event);
+        } else {
+            event.run();
+        }
+    }
+    
+    /**
+     * Jak {@link #dispatch}, ale przepełniona skrzynka zastępuje oczekujące dane instrumentu nowszymi.
+     */
+    private void dispatchMarketData(InvestmentStrategy strategy, String symbol, Runnable event) {
+        StrategyMailbox mailbox = isolatedExecution ? mailboxes.get(strategy) : null;
+        if (mailbox != null) {
+            mailbox.postMarketData(symbol, event);
+        } else {
+            event.run();
+        }
+    }
+    
+    private void deliverExecutionReport(InvestmentStrategy strategy, ExecutionReport report) {
+        try {
+            strategy.onExecutionReport(report);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Błąd podczas przetwarzania raportu wykonania w strategii: " + strategy.getName(), e);
+        }
+    }
+    
     public void displayStatistics(){
         System.out.println("\nStatystyki strategii:");
         for (InvestmentStrategy strategy : strategies) {
             System.out.println("Nazwa: " + strategy.getName() + ", Opis: " + strategy.getDescription() + ", Status: " + strategy.getStatus());
             System.out.println("Statystyki:");
             strategy.displayStatistics();
+            StrategyMailbox mailbox = mailboxes.get(strategy);
+            if (mailbox != null) {
+                System.out.println(mailbox);
+            }
+            System.out.println("Portfel: zrealizowany P&L=" + portfolio.getRealizedPnL(strategy.getName())
+                    + ", niezrealizowany P&L=" + portfolio.getUnrealizedPnL(strategy.getName()));
             System.out.println("--------------------------------------------------");
         }
+        System.out.println("Portfel łącznie: zrealizowany P&L=" + portfolio.getTotalRealizedPnL()
+                + ", niezrealizowany P&L=" + portfolio.getTotalUnrealizedPnL());
     }
 
     public void setGui(TradingAppGUI gui) {
@@ -1,5 +1,6 @@
 package com.krzysztofpk14.app.strategy;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -204,4 +205,17 @@ public class StrategyParameters {
     public Map<String, Object> getAllParameters() {
         return parameters;
     }
-}
\ No newline at end of file
+
+    /**
+     * Tworzy kopię parametrów (np. dla kolejnego uruchomienia testu wstecznego).
+     * 
+     * @return Nowy obiekt z tymi samymi instrumentami i parametrami
+     */
+    public StrategyParameters copy() {
+        StrategyParameters copy = new StrategyParameters();
+        copy.instruments = instruments != null ? new ArrayList<>(instruments) : null;
+        copy.closePositionsOnStop = closePositionsOnStop;
+        copy.parameters.putAll(parameters);
+        return copy;
+    }
+}
@@ -2,37 +2,66 @@ package com.krzysztofpk14.app.strategy;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Klasa przechowująca statystyki strategii inwestycyjnej.
+ * <p>
+ * Liczniki i sumy są prowadzone w {@link LongAdder} i {@link DoubleAdder}, więc zapis
+ * z wielu wątków nie blokuje i nie tworzy obiektów. Metryki ryzyka (krzywa kapitału,
+ * obsunięcie, wskaźniki Sharpe'a i Sortino, czas utrzymywania pozycji, zaangażowanie)
+ * są liczone przyrostowo przy każdym zamknięciu pozycji i publikowane jako niezmienny
+ * {@link RiskMetrics}. Czytelnicy (GUI, manager strategii) nigdy nie blokują pisarza.
  */
 public class StrategyStatistics {
-    private final AtomicInteger totalBuys = new AtomicInteger(0);
-    private final AtomicInteger totalSells = new AtomicInteger(0);
-    private final AtomicReference<Double> totalBuyVolume = new AtomicReference<>(0.0);
-    private final AtomicReference<Double> totalSellVolume = new AtomicReference<>(0.0);
-    private final AtomicReference<Double> totalBuyValue = new AtomicReference<>(0.0);
-    private final AtomicReference<Double> totalSellValue = new AtomicReference<>(0.0);
-    private final AtomicInteger winningTrades = new AtomicInteger(0);
-    private final AtomicInteger losingTrades = new AtomicInteger(0);
-    private final AtomicReference<Double> totalPnL = new AtomicReference<>(0.0);
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private final LongAdder totalBuys = new LongAdder();
+    private final LongAdder totalSells = new LongAdder();
+    private final DoubleAdder totalBuyVolume = new DoubleAdder();
+    private final DoubleAdder totalSellVolume = new DoubleAdder();
+    private final DoubleAdder totalBuyValue = new DoubleAdder();
+    private final DoubleAdder totalSellValue = new DoubleAdder();
+    private final LongAdder winningTrades = new LongAdder();
+    private final LongAdder losingTrades = new LongAdder();
+    private final DoubleAdder totalPnL = new DoubleAdder();
+    private final LongAdder throttledOrders = new LongAdder();
+    private final DoubleAdder totalCommission = new DoubleAdder();
+    private volatile LocalDateTime startTime;
+    private volatile LocalDateTime endTime;
+
+    // Stan metryk ryzyka - zmieniany tylko pod blokadą riskLock
+    private final Object riskLock = new Object();
+    private long returnCount;
+    private double returnMean;
+    private double returnM2;
+    private double downsideSquares;
+    private double equity;
+    private double peakEquity;
+    private double maxDrawdown;
+    private long holdingCount;
+    private double holdingMillis;
+    private double exposure;
+    private double maxExposure;
+    private volatile RiskMetrics riskMetrics = RiskMetrics.EMPTY;
+
+    // Krzywa kapitału: tablice tylko dopisywane, liczba punktów publikowana po zapisie elementu
+    private volatile long[] curveTimes = new long[64];
+    private volatile double[] curveReturns = new double[64];
+    private volatile int curveSize;
     
     /**
      * Zwiększa liczbę transakcji kupna.
      */
     public void incrementTotalBuys() {
-        totalBuys.incrementAndGet();
+        totalBuys.increment();
     }
     
     /**
      * Zwiększa liczbę transakcji sprzedaży.
      */
     public void incrementTotalSells() {
-        totalSells.incrementAndGet();
+        totalSells.increment();
     }
     
     /**
@@ -41,7 +70,7 @@ public class StrategyStatistics {
      * @param volume Ilość
      */
     public void addTotalBuyVolume(double volume) {
-        totalBuyVolume.updateAndGet(v -> v + volume);
+        totalBuyVolume.add(volume);
     }
     
     /**
@@ -50,7 +79,7 @@ public class StrategyStatistics {
      * @param volume Ilość
      */
     public void addTotalSellVolume(double volume) {
-        totalSellVolume.updateAndGet(v -> v + volume);
+        totalSellVolume.add(volume);
     }
     
     /**
@@ -59,7 +88,7 @@ public class StrategyStatistics {
      * @param value Wartość
      */
     public void addTotalBuyValue(double value) {
-        totalBuyValue.updateAndGet(v -> v + value);
+        totalBuyValue.add(value);
     }
     
     /**
@@ -68,30 +97,126 @@ public class StrategyStatistics {
      * @param value Wartość
      */
     public void addTotalSellValue(double value) {
-        totalSellValue.updateAndGet(v -> v + value);
+        totalSellValue.add(value);
     }
     
     /**
      * Zwiększa liczbę zyskownych transakcji.
      */
     public void incrementWinningTrades() {
-        winningTrades.incrementAndGet();
+        winningTrades.increment();
     }
     
     /**
      * Zwiększa liczbę stratnych transakcji.
      */
     public void incrementLosingTrades() {
-        losingTrades.incrementAndGet();
+        losingTrades.increment();
     }
     
     /**
-     * Dodaje wartość do całkowitego P&L.
+     * Dodaje wartość do całkowitego P&L jako wynik zamknięcia pozycji w bieżącej chwili.
      * 
      * @param pnl Wartość P&L
      */
     public void addTotalPnL(double pnl) {
-        totalPnL.updateAndGet(v -> v + pnl);
+        addTotalPnL(pnl, System.currentTimeMillis());
+    }
+    
+    /**
+     * Dodaje wartość do całkowitego P&L jako wynik zamknięcia pozycji i aktualizuje
+     * krzywą kapitału, obsunięcie oraz wskaźniki Sharpe'a i Sortino.
+     * 
+     * @param pnl Wartość P&L
+     * @param timeMillis Czas zamknięcia pozycji (milisekundy epoki)
+     */
+    public void addTotalPnL(double pnl, long timeMillis) {
+        totalPnL.add(pnl);
+        synchronized (riskLock) {
+            // Średnia i wariancja wyników algorytmem Welforda
+            returnCount++;
+            double delta = pnl - returnMean;
+            returnMean += delta / returnCount;
+            returnM2 += delta * (pnl - returnMean);
+            if (pnl < 0) {
+                downsideSquares += pnl * pnl;
+            }
+
+            equity += pnl;
+            peakEquity = Math.max(peakEquity, equity);
+            maxDrawdown = Math.max(maxDrawdown, peakEquity - equity);
+
+            appendCurvePoint(timeMillis, pnl);
+            publishRiskMetrics();
+        }
+    }
+    
+    /**
+     * Rejestruje czas utrzymywania zamkniętej pozycji.
+     * 
+     * @param holdingTime Czas od otwarcia do zamknięcia pozycji
+     */
+    public void recordHoldingTime(Duration holdingTime) {
+        synchronized (riskLock) {
+            holdingCount++;
+            holdingMillis += holdingTime.toMillis();
+            publishRiskMetrics();
+        }
+    }
+    
+    /**
+     * Ustawia bieżące zaangażowanie - łączną wartość otwartych pozycji.
+     * 
+     * @param value Suma wartości bezwzględnych otwartych pozycji
+     */
+    public void updateExposure(double value) {
+        synchronized (riskLock) {
+            exposure = value;
+            maxExposure = Math.max(maxExposure, value);
+            publishRiskMetrics();
+        }
+    }
+    
+    private void appendCurvePoint(long timeMillis, double pnl) {
+        int size = curveSize;
+        if (size == curveReturns.length) {
+            // Nowe tablice są publikowane przed zwiększeniem liczby punktów
+            curveTimes = Arrays.copyOf(curveTimes, size * 2);
+            curveReturns = Arrays.copyOf(curveReturns, size * 2);
+        }
+        curveTimes[size] = timeMillis;
+        curveReturns[size] = pnl;
+        curveSize = size + 1;
+    }
+    
+    private void publishRiskMetrics() {
+        double sharpe = 0;
+        double sortino = 0;
+        if (returnCount >= 2) {
+            double deviation = Math.sqrt(returnM2 / (returnCount - 1));
+            sharpe = deviation > 0 ? returnMean / deviation : 0;
+        }
+        if (returnCount > 0 && downsideSquares > 0) {
+            sortino = returnMean / Math.sqrt(downsideSquares / returnCount);
+        }
+        riskMetrics = new RiskMetrics(returnCount, equity, peakEquity, maxDrawdown, sharpe, sortino,
+                holdingCount > 0 ? holdingMillis / holdingCount : 0, exposure, maxExposure);
+    }
+    
+    /**
+     * Dodaje prowizję zapłaconą za transakcje.
+     * 
+     * @param commission Prowizja
+     */
+    public void addTotalCommission(double commission) {
+        totalCommission.add(commission);
+    }
+    
+    /**
+     * Zwiększa liczbę zleceń pominiętych z powodu limitu częstotliwości.
+     */
+    public void incrementThrottledOrders() {
+        throttledOrders.increment();
     }
     
     /**
@@ -118,7 +243,7 @@ public class StrategyStatistics {
      * @return Liczba transakcji kupna
      */
     public int getTotalBuys() {
-        return totalBuys.get();
+        return totalBuys.intValue();
     }
     
     /**
@@ -127,7 +252,7 @@ public class StrategyStatistics {
      * @return Liczba transakcji sprzedaży
      */
     public int getTotalSells() {
-        return totalSells.get();
+        return totalSells.intValue();
     }
     
     /**
@@ -136,7 +261,7 @@ public class StrategyStatistics {
      * @return Całkowita ilość kupna
      */
     public double getTotalBuyVolume() {
-        return totalBuyVolume.get();
+        return totalBuyVolume.sum();
     }
     
     /**
@@ -145,7 +270,7 @@ public class StrategyStatistics {
      * @return Całkowita ilość sprzedaży
      */
     public double getTotalSellVolume() {
-        return totalSellVolume.get();
+        return totalSellVolume.sum();
     }
 
     /**
@@ -154,7 +279,7 @@ public class StrategyStatistics {
      * @return Liczba wszystkich transakcji
      */
     public int getTradeCount() {
-        return totalBuys.get() + totalSells.get();
+        return getTotalBuys() + getTotalSells();
     }
     
     /**
@@ -163,7 +288,7 @@ public class StrategyStatistics {
      * @return Całkowita wartość kupna
      */
     public double getTotalBuyValue() {
-        return totalBuyValue.get();
+        return totalBuyValue.sum();
     }
     
     /**
@@ -172,7 +297,7 @@ public class StrategyStatistics {
      * @return Całkowita wartość sprzedaży
      */
     public double getTotalSellValue() {
-        return totalSellValue.get();
+        return totalSellValue.sum();
     }
     
     /**
@@ -181,7 +306,7 @@ public class StrategyStatistics {
      * @return Liczba zyskownych transakcji
      */
     public int getWinningTrades() {
-        return winningTrades.get();
+        return winningTrades.intValue();
     }
     
     /**
@@ -190,16 +315,135 @@ public class StrategyStatistics {
      * @return Liczba stratnych transakcji
      */
     public int getLosingTrades() {
-        return losingTrades.get();
+        return losingTrades.intValue();
     }
     
     /**
-     * Zwraca całkowity P&L (Profit and Loss).
+     * Zwraca całkowity P&L (Profit and Loss) zamkniętych pozycji, po odjęciu
+     * prowizji od ich wykonań.
      * 
      * @return Całkowity P&L
      */
     public double getTotalPnL() {
-        return totalPnL.get();
+        return totalPnL.sum();
+    }
+    
+    /**
+     * Zwraca sumę zapłaconych prowizji.
+     * 
+     * @return Suma prowizji
+     */
+    public double getTotalCommission() {
+        return totalCommission.sum();
+    }
+    
+    /**
+     * Zwraca P&L po odjęciu prowizji. Prowizje są odejmowane od wyniku pozycji przy
+     * każdym wykonaniu, więc jest to {@link #getTotalPnL()}; prowizja zapłacona za
+     * otwarcie pozycji trafia do wyniku przy jej zamknięciu.
+     * 
+     * @return P&L netto
+     */
+    public double getNetPnL() {
+        return getTotalPnL();
+    }
+    
+    /**
+     * Zwraca liczbę zleceń pominiętych z powodu limitu częstotliwości.
+     * 
+     * @return Liczba pominiętych zleceń
+     */
+    public int getThrottledOrders() {
+        return throttledOrders.intValue();
+    }
+    
+    /**
+     * Zwraca spójny obraz metryk ryzyka bez blokowania wątku strategii.
+     * 
+     * @return Metryki ryzyka z chwili ostatniej aktualizacji
+     */
+    public RiskMetrics getRiskMetrics() {
+        return riskMetrics;
+    }
+    
+    /**
+     * Zwraca największy spadek zrealizowanego P&L od szczytu.
+     * 
+     * @return Maksymalne obsunięcie
+     */
+    public double getMaxDrawdown() {
+        return riskMetrics.maxDrawdown();
+    }
+    
+    /**
+     * Zwraca wskaźnik Sharpe'a wyników zamknięć pozycji (bez annualizacji).
+     * 
+     * @return Wskaźnik Sharpe'a lub 0, gdy brak co najmniej dwóch wyników
+     */
+    public double getSharpeRatio() {
+        return riskMetrics.sharpeRatio();
+    }
+    
+    /**
+     * Zwraca wskaźnik Sortino wyników zamknięć pozycji (bez annualizacji).
+     * 
+     * @return Wskaźnik Sortino lub 0, gdy nie było stratnych zamknięć
+     */
+    public double getSortinoRatio() {
+        return riskMetrics.sortinoRatio();
+    }
+    
+    /**
+     * Zwraca średni czas utrzymywania pozycji.
+     * 
+     * @return Średni czas od otwarcia do zamknięcia pozycji
+     */
+    public Duration getAverageHoldingTime() {
+        return riskMetrics.averageHoldingTime();
+    }
+    
+    /**
+     * Zwraca bieżącą łączną wartość otwartych pozycji.
+     * 
+     * @return Zaangażowanie
+     */
+    public double getExposure() {
+        return riskMetrics.exposure();
+    }
+    
+    /**
+     * Zwraca wyniki kolejnych zamknięć pozycji.
+     * 
+     * @return Kopia wyników w kolejności zamknięć
+     */
+    public double[] getTradeReturns() {
+        int size = curveSize;
+        return Arrays.copyOf(curveReturns, size);
+    }
+    
+    /**
+     * Zwraca krzywą kapitału - zrealizowany P&L po kolejnych zamknięciach pozycji.
+     * 
+     * @return Kopia punktów krzywej
+     */
+    public double[] getEquityCurve() {
+        double[] curve = getTradeReturns();
+        double value = 0;
+        for (int i = 0; i < curve.length; i++) {
+            value += curve[i];
+            curve[i] = value;
+        }
+        return curve;
+    }
+    
+    /**
+     * Zwraca czasy punktów krzywej kapitału.
+     * 
+     * @return Kopia czasów zamknięć (milisekundy epoki)
+     */
+    public long[] getEquityCurveTimes() {
+        int size = curveSize;
+        return Arrays.copyOf(curveTimes, size);
     }
     
     /**
@@ -236,11 +480,13 @@ public class StrategyStatistics {
      * @return Win ratio (0.0-1.0)
      */
     public double getWinRatio() {
-        int total = winningTrades.get() + losingTrades.get();
-        return total > 0 ? (double) winningTrades.get() / total : 0.0;
+        int winning = getWinningTrades();
+        int total = winning + getLosingTrades();
+        return total > 0 ? (double) winning / total : 0.0;
     }
 
     public String toString() {
+        RiskMetrics risk = riskMetrics;
         return "StrategyStatistics{" +
                 "totalBuys=" + totalBuys +
                 ", totalSells=" + totalSells +
@@ -251,23 +497,34 @@ public class StrategyStatistics {
                 ", winningTrades=" + winningTrades +
                 ", losingTrades=" + losingTrades +
                 ", totalPnL=" + totalPnL +
+                ", totalCommission=" + totalCommission +
+                ", maxDrawdown=" + risk.maxDrawdown() +
+                ", sharpeRatio=" + risk.sharpeRatio() +
+                ", sortinoRatio=" + risk.sortinoRatio() +
                 ", startTime=" + startTime +
                 ", endTime=" + endTime +
                 '}';
     }
 
     public String displayStatistics() {
+        RiskMetrics risk = riskMetrics;
         return "Strategy Statistics:\n" +
-                "Total Buys: " + totalBuys.get() + "\n" +
-                "Total Sells: " + totalSells.get() + "\n" +
-                "Total Buy Volume: " + totalBuyVolume.get() + "\n" +
-                "Total Sell Volume: " + totalSellVolume.get() + "\n" +
-                "Total Buy Value: " + totalBuyValue.get() + "\n" +
-                "Total Sell Value: " + totalSellValue.get() + "\n" +
-                "Winning Trades: " + winningTrades.get() + "\n" +
-                "Losing Trades: " + losingTrades.get() + "\n" +
-                "Total P&L: " + totalPnL.get() + "\n" +
+                "Total Buys: " + getTotalBuys() + "\n" +
+                "Total Sells: " + getTotalSells() + "\n" +
+                "Total Buy Volume: " + getTotalBuyVolume() + "\n" +
+                "Total Sell Volume: " + getTotalSellVolume() + "\n" +
+                "Total Buy Value: " + getTotalBuyValue() + "\n" +
+                "Total Sell Value: " + getTotalSellValue() + "\n" +
+                "Winning Trades: " + getWinningTrades() + "\n" +
+                "Losing Trades: " + getLosingTrades() + "\n" +
+                "Total P&L: " + getTotalPnL() + "\n" +
+                "Total Commission: " + getTotalCommission() + "\n" +
+                "Max Drawdown: " + risk.maxDrawdown() + "\n" +
+                "Sharpe Ratio: " + risk.sharpeRatio() + "\n" +
+                "Sortino Ratio: " + risk.sortinoRatio() + "\n" +
+                "Average Holding Time: " + risk.averageHoldingTime().toSeconds() + " seconds\n" +
+                "Exposure: " + risk.exposure() + " (max " + risk.maxExposure() + ")\n" +
                 "Win Ratio: " + getWinRatio() * 100 + "%\n" +
                 "Running Time: " + getRunningTime().toMinutes() + " minutes";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
+import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Klient API symulujący giełdę w teście wstecznym.
+ * <p>
+ * Zlecenia strategii nie opuszczają procesu - są realizowane według {@link FillModel}
+ * po cenach z historycznych transakcji, z poślizgiem i prowizją. Raporty wykonania
+ * są zbierane i przekazywane strategii przez {@link BacktestRunner} po obsłużeniu
+ * bieżącej transakcji, tak jak raporty z serwera przychodzą po wysłaniu zlecenia.
+ * Klient nie otwiera gniazd i nie generuje XML; działa w jednym wątku i nie tworzy
+ * połączenia, torów obsługi komunikatów ani nadzorcy ponownego łączenia
+ * (lekki konstruktor {@link BossaApiClient#BossaApiClient(MarketDataCache)}).
+ */
+public class BacktestClient extends BossaApiClient {
+
+    // Zlecenie czekające na realizację
+    private record PendingOrder(OrderRequest order, CompletableFuture<ExecutionReport> future, long limit) {
+    }
+
+    // Ostatnie notowania instrumentu; ceny stałoprzecinkowe, Price.NONE jeśli nieznane
+    private static final class MarketState {
+        private long lastPrice = Price.NONE;
+        private long askPrice = Price.NONE;
+        private long timestampNanos;
+    }
+
+    private final FillModel fillModel;
+    private double slippageBps;
+    private double commissionRate;
+    private double minCommission;
+
+    private final Map<String, MarketState> markets = new HashMap<>();
+    private final Map<String, List<PendingOrder>> pendingOrders = new HashMap<>();
+    private final List<ExecutionReport> reports = new ArrayList<>();
+    private long orderCount;
+    private long fillCount;
+    private long reportCounter;
+    private double totalCommission;
+
+    /**
+     * Tworzy symulator giełdy.
+     *
+     * @param fillModel Sposób realizacji zleceń
+     */
+    public BacktestClient(FillModel fillModel) {
+        super(new MarketDataCache());
+        this.fillModel = fillModel;
+    }
+
+    /**
+     * Ustawia poślizg cenowy doliczany na niekorzyść strategii.
+     *
+     * @param slippageBps Poślizg w punktach bazowych (1 bp = 0,01%)
+     */
+    public void setSlippageBps(double slippageBps) {
+        this.slippageBps = slippageBps;
+    }
+
+    /**
+     * Ustawia prowizję od wartości transakcji.
+     *
+     * @param commissionRate Prowizja jako ułamek wartości (np. 0.0039 dla 0,39%)
+     * @param minCommission Minimalna prowizja od transakcji
+     */
+    public void setCommission(double commissionRate, double minCommission) {
+        this.commissionRate = commissionRate;
+        this.minCommission = minCommission;
+    }
+
+    public FillModel getFillModel() {
+        return fillModel;
+    }
+
+    /**
+     * Przyjmuje kolejne notowanie historyczne. Oferta sprzedaży aktualizuje arkusz,
+     * a transakcja - cenę ostatniej transakcji i realizuje oczekujące zlecenia instrumentu.
+     *
+     * @param symbol Symbol instrumentu
+     * @param timestampNanos Czas notowania w nanosekundach od epoki
+     * @param price Cena stałoprzecinkowa
+     * @param size Wolumen
+     * @param entryType Typ wpisu (kod znaku MDEntryTyp)
+     */
+    void onTick(String symbol, long timestampNanos, long price, long size, byte entryType) {
+        MarketState market = markets.computeIfAbsent(symbol, key -> new MarketState());
+        if (entryType == MarketDataResponse.MarketDataGroup.OFFER.charAt(0)) {
+            market.askPrice = price;
+            return;
+        }
+        if (!TickDataset.isTrade(entryType)) {
+            return;
+        }
+        market.lastPrice = price;
+        market.timestampNanos = timestampNanos;
+        List<PendingOrder> pending = pendingOrders.get(symbol);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        Iterator<PendingOrder> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingOrder order = iterator.next();
+            if (tryFill(order, market)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Realizuje zlecenia rynkowe pozostałe po ostatniej transakcji po ostatniej znanej cenie
+     * (np. zlecenia zamykające pozycje przy zatrzymaniu strategii).
+     */
+    void fillRemainingMarketOrders() {
+        for (Map.Entry<String, List<PendingOrder>> entry : pendingOrders.entrySet()) {
+            MarketState market = markets.get(entry.getKey());
+            if (market == null || market.lastPrice == Price.NONE) {
+                continue;
+            }
+            entry.getValue().removeIf(order -> order.limit() == Price.NONE && fill(order, market, market.lastPrice));
+        }
+    }
+
+    /**
+     * Zwraca raporty wykonania zebrane od ostatniego wywołania i czyści listę.
+     *
+     * @return Raporty wykonania w kolejności realizacji
+     */
+    List<ExecutionReport> drainReports() {
+        if (reports.isEmpty()) {
+            return List.of();
+        }
+        List<ExecutionReport> drained = new ArrayList<>(reports);
+        reports.clear();
+        return drained;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> sendOrder(OrderRequest order) {
+        orderCount++;
+        String clientOrderId = order.getClientOrderId();
+        if (clientOrderId == null || clientOrderId.isEmpty()) {
+            order.setClientOrderId("BT-" + orderCount);
+        }
+
+        long limit = OrderRequest.LIMIT.equals(order.getOrderType())
+                ? Price.parse(order.getPrice(), Price.NONE)
+                : Price.NONE;
+        PendingOrder pending = new PendingOrder(order, new CompletableFuture<>(), limit);
+        String symbol = order.getInstrument().getSymbol();
+        MarketState market = markets.get(symbol);
+
+        // Zlecenie z limitem lub w modelu następnej transakcji czeka na kolejną transakcję
+        boolean fillNow = fillModel != FillModel.NEXT_TICK && market != null && market.lastPrice != Price.NONE;
+        if (!fillNow || !tryFill(pending, market)) {
+            pendingOrders.computeIfAbsent(symbol, key -> new ArrayList<>()).add(pending);
+        }
+        return pending.future();
+    }
+
+    @Override
+    public List<CompletableFuture<ExecutionReport>> sendOrders(List<OrderRequest> orders) {
+        List<CompletableFuture<ExecutionReport>> futures = new ArrayList<>(orders.size());
+        for (OrderRequest order : orders) {
+            futures.add(sendOrder(order));
+        }
+        return futures;
+    }
+
+    @Override
+    public CompletableFuture<MarketDataResponse> subscribeMarketData(MarketDataRequest request) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<MarketDataResponse> unsubscribeMarketData(MarketDataRequest request) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private boolean tryFill(PendingOrder pending, MarketState market) {
+        boolean buy = OrderRequest.BUY.equals(pending.order().getSide());
+        long price = market.lastPrice;
+        if (fillModel == FillModel.BOOK && buy && market.askPrice != Price.NONE) {
+            price = market.askPrice;
+        }
+        price = applySlippage(price, buy);
+
+        long limit = pending.limit();
+        if (limit != Price.NONE && (buy ? price > limit : price < limit)) {
+            return false;
+        }
+        return fill(pending, market, price);
+    }
+
+    private long applySlippage(long price, boolean buy) {
+        if (slippageBps == 0) {
+            return price;
+        }
+        long slippage = Math.round(price * slippageBps / 10_000.0);
+        return buy ? price + slippage : price - slippage;
+    }
+
+    private boolean fill(PendingOrder pending, MarketState market, long price) {
+        OrderRequest order = pending.order();
+        String quantity = order.getOrderQuantity().getQuantity();
+
+        ExecutionReport report = new ExecutionReport();
+        report.setReportId("BT-EXEC-" + (++reportCounter));
+        report.setOrderId("BT-ORD-" + reportCounter);
+        report.setClientOrderId(order.getClientOrderId());
+        report.setExecutionType(ExecutionReport.TRANSACTION);
+        report.setOrderStatus(ExecutionReport.DONE);
+        report.setSide(order.getSide());
+        report.setOrderType(order.getOrderType());
+        String formattedPrice = Price.format(price);
+        report.setPrice(formattedPrice);
+        report.setLastPrice(formattedPrice);
+        report.setAveragePrice(formattedPrice);
+        report.setLastQuantity(quantity);
+        report.setCumulativeQuantity(quantity);
+        report.setLeavesQuantity("0");
+        report.setTransactionTime(Long.toString(TimeUnit.NANOSECONDS.toMillis(market.timestampNanos)));
+
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol(order.getInstrument().getSymbol());
+        report.setInstrument(instrument);
+        ExecutionReport.OrderQuantity orderQuantity = new ExecutionReport.OrderQuantity();
+        orderQuantity.setQuantity(quantity);
+        report.setOrderQuantity(orderQuantity);
+
+        double notional = Price.toDouble(Price.notional(price, Long.parseLong(quantity)));
+        if (commissionRate > 0 || minCommission > 0) {
+            // Prowizja w raporcie - strategia odejmuje ją od wyniku pozycji przy wykonaniu
+            long commission = Price.fromDouble(Math.max(minCommission, notional * commissionRate));
+            ExecutionReport.Commission commissionElement = new ExecutionReport.Commission();
+            commissionElement.setAmount(Price.format(commission));
+            report.setCommission(commissionElement);
+            totalCommission += Price.toDouble(commission);
+        }
+        fillCount++;
+        reports.add(report);
+        pending.future().complete(report);
+        return true;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getFillCount() {
+        return fillCount;
+    }
+
+    /**
+     * Zwraca sumę prowizji od zrealizowanych zleceń.
+     *
+     * @return Suma prowizji
+     */
+    public double getTotalCommission() {
+        return totalCommission;
+    }
+
+    /**
+     * Zwraca liczbę zleceń oczekujących na realizację.
+     *
+     * @return Liczba zleceń
+     */
+    public int getPendingOrderCount() {
+        int count = 0;
+        for (List<PendingOrder> orders : pendingOrders.values()) {
+            count += orders.size();
+        }
+        return count;
+    }
+}
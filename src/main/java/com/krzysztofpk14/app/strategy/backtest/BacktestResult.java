@@ -0,0 +1,42 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import com.krzysztofpk14.app.strategy.StrategyStatistics;
+
+/**
+ * Wynik testu wstecznego strategii.
+ *
+ * @param strategyName Nazwa strategii
+ * @param statistics Statystyki strategii po zakończeniu testu
+ * @param ticks Liczba przetworzonych notowań historycznych
+ * @param orders Liczba zleceń wysłanych przez strategię
+ * @param fills Liczba zrealizowanych zleceń
+ * @param maxDrawdown Największy spadek zrealizowanego P&L od szczytu
+ * @param sharpeRatio Średni wynik zamknięcia pozycji podzielony przez jego odchylenie standardowe
+ * @param tradePnL Wyniki kolejnych zamknięć pozycji (zmiany zrealizowanego P&L)
+ * @param elapsedNanos Czas trwania testu w nanosekundach
+ */
+public record BacktestResult(String strategyName, StrategyStatistics statistics,
+                             long ticks, long orders, long fills,
+                             double maxDrawdown, double sharpeRatio, double[] tradePnL,
+                             long elapsedNanos) {
+
+    /**
+     * Zwraca szybkość testu.
+     *
+     * @return Liczba notowań historycznych przetworzonych na sekundę
+     */
+    public double ticksPerSecond() {
+        return elapsedNanos > 0 ? ticks * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Test wsteczny " + strategyName + ": transakcje=" + ticks
+                + ", zlecenia=" + orders + ", realizacje=" + fills
+                + ", P&L=" + statistics.getTotalPnL()
+                + ", prowizje=" + statistics.getTotalCommission()
+                + ", obsunięcie=" + maxDrawdown
+                + ", Sharpe=" + sharpeRatio
+                + ", szybkość=" + Math.round(ticksPerSecond()) + " transakcji/s";
+    }
+}
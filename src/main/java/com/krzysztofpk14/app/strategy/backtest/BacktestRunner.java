@@ -0,0 +1,144 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.tick.TickCursor;
+import com.krzysztofpk14.app.strategy.InvestmentStrategy;
+import com.krzysztofpk14.app.strategy.StrategyParameters;
+import com.krzysztofpk14.app.strategy.StrategyStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Test wsteczny strategii na notowaniach historycznych.
+ * <p>
+ * Notowania ze {@link TickDataset} trafiają w postaci stałoprzecinkowej do pamięci notowań
+ * klienta ({@link MarketDataCache#apply(String, byte, long, long, String)}), bez formatowania
+ * i parsowania cen, a zlecenia strategii realizuje {@link BacktestClient}. Dla każdego notowania:
+ * <ol>
+ *     <li>symulator realizuje oczekujące zlecenia instrumentu i przekazuje raporty strategii,</li>
+ *     <li>notowanie aktualizuje pamięć notowań, a strategia otrzymuje komunikat
+ *     wskazujący instrument ({@link InvestmentStrategy#onMarketData}),</li>
+ *     <li>strategia otrzymuje raporty zleceń zrealizowanych od razu.</li>
+ * </ol>
+ * Test działa w jednym wątku, bez gniazd i XML, więc kolejne uruchomienia dają te same wyniki.
+ */
+public class BacktestRunner {
+
+    private final FillModel fillModel;
+    private double slippageBps;
+    private double commissionRate;
+    private double minCommission;
+
+    /**
+     * Tworzy test wsteczny.
+     *
+     * @param fillModel Sposób realizacji zleceń
+     */
+    public BacktestRunner(FillModel fillModel) {
+        this.fillModel = fillModel;
+    }
+
+    /**
+     * Ustawia poślizg cenowy doliczany na niekorzyść strategii.
+     *
+     * @param slippageBps Poślizg w punktach bazowych
+     */
+    public void setSlippageBps(double slippageBps) {
+        this.slippageBps = slippageBps;
+    }
+
+    /**
+     * Ustawia prowizję od wartości transakcji.
+     *
+     * @param commissionRate Prowizja jako ułamek wartości
+     * @param minCommission Minimalna prowizja od transakcji
+     */
+    public void setCommission(double commissionRate, double minCommission) {
+        this.commissionRate = commissionRate;
+        this.minCommission = minCommission;
+    }
+
+    /**
+     * Uruchamia test wsteczny.
+     *
+     * @param strategyFactory Tworzy strategię korzystającą z podanego klienta API
+     * @param parameters Parametry strategii
+     * @param ticks Notowania historyczne w kolejności czasu
+     * @return Wynik testu
+     * @throws IOException Jeśli wystąpi błąd odczytu notowań
+     */
+    public BacktestResult run(Function<BossaApiClient, InvestmentStrategy> strategyFactory,
+                              StrategyParameters parameters, TickDataset ticks) throws IOException {
+        BacktestClient client = new BacktestClient(fillModel);
+        client.setSlippageBps(slippageBps);
+        client.setCommission(commissionRate, minCommission);
+
+        InvestmentStrategy strategy = strategyFactory.apply(client);
+        strategy.initialize(parameters);
+        strategy.start();
+
+        MarketDataCache cache = client.getMarketDataCache();
+        Map<String, MarketDataResponse> notifications = new HashMap<>();
+        long count = 0;
+        long started = System.nanoTime();
+        try (TickCursor cursor = ticks.open()) {
+            while (cursor.next()) {
+                client.onTick(cursor.symbol(), cursor.timestampNanos(), cursor.price(), cursor.size(),
+                        cursor.entryType());
+                deliver(strategy, client.drainReports());
+
+                MarketDataCache.Quote quote = cache.apply(cursor.symbol(), cursor.entryType(),
+                        cursor.price(), cursor.size(), null);
+                strategy.onMarketData(notification(notifications, quote));
+                deliver(strategy, client.drainReports());
+                count++;
+            }
+        }
+
+        // Zlecenia wysłane przy zatrzymaniu (np. zamknięcie pozycji) realizowane po ostatniej cenie
+        strategy.stop();
+        client.fillRemainingMarketOrders();
+        deliver(strategy, client.drainReports());
+        long elapsed = System.nanoTime() - started;
+
+        // Prowizje zostały naliczone przy każdym wykonaniu, z raportów symulatora
+        StrategyStatistics statistics = strategy.getStatistics();
+        return new BacktestResult(strategy.getName(), statistics,
+                count, client.getOrderCount(), client.getFillCount(),
+                statistics.getMaxDrawdown(), statistics.getSharpeRatio(), statistics.getTradeReturns(), elapsed);
+    }
+
+    private static void deliver(InvestmentStrategy strategy, List<ExecutionReport> reports) {
+        for (ExecutionReport report : reports) {
+            strategy.onExecutionReport(report);
+        }
+    }
+
+    /**
+     * Zwraca komunikat instrumentu oznaczony numerem aktualizacji migawki. Komunikat nie ma
+     * wpisów - pamięć notowań rozpoznaje po numerze aktualizacji, że został już zastosowany,
+     * i przekazuje strategii bieżącą migawkę. Jeden komunikat na instrument jest używany
+     * ponownie, bo test działa w jednym wątku.
+     */
+    private static MarketDataResponse notification(Map<String, MarketDataResponse> notifications,
+                                                   MarketDataCache.Quote quote) {
+        MarketDataResponse response = notifications.computeIfAbsent(quote.symbol(), symbol -> {
+            MarketDataResponse.Instrument instrument = new MarketDataResponse.Instrument();
+            instrument.setSymbol(symbol);
+            MarketDataResponse notification = new MarketDataResponse();
+            notification.setInstrument(instrument);
+            notification.setMarketDataGroups(new ArrayList<>(0));
+            return notification;
+        });
+        response.setSequenceNumber(quote.updates());
+        return response;
+    }
+}
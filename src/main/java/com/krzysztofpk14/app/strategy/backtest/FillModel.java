@@ -0,0 +1,24 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+/**
+ * Sposób realizacji zleceń w teście wstecznym.
+ */
+public enum FillModel {
+    /**
+     * Zlecenie rynkowe realizowane od razu po cenie ostatniej transakcji.
+     */
+    IMMEDIATE,
+
+    /**
+     * Zlecenie rynkowe realizowane po cenie następnej transakcji instrumentu.
+     */
+    NEXT_TICK,
+
+    /**
+     * Zlecenie rynkowe realizowane od razu po najlepszej cenie z arkusza: kupno po
+     * ostatniej ofercie sprzedaży (ask), a bez niej - po cenie ostatniej transakcji.
+     * Sprzedaż jest realizowana po cenie ostatniej transakcji, bo pliki notowań oznaczają
+     * transakcje typem "0", więc oferty kupna (bid) nie da się od nich odróżnić.
+     */
+    BOOK
+}
@@ -0,0 +1,90 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.util.Arrays;
+
+/**
+ * Rozkłady P&L i obsunięcia z symulacji Monte Carlo.
+ * <p>
+ * Wyniki są przechowywane w posortowanych tablicach prymitywnych, więc percentyle
+ * są wyznaczane w czasie stałym.
+ */
+public class MonteCarloResult {
+
+    private final double[] pnl;
+    private final double[] drawdown;
+
+    /**
+     * Tworzy wynik symulacji. Tablice są sortowane w miejscu.
+     *
+     * @param pnl P&L kolejnych symulacji
+     * @param drawdown Maksymalne obsunięcie kolejnych symulacji
+     */
+    MonteCarloResult(double[] pnl, double[] drawdown) {
+        Arrays.sort(pnl);
+        Arrays.sort(drawdown);
+        this.pnl = pnl;
+        this.drawdown = drawdown;
+    }
+
+    public int getSimulations() {
+        return pnl.length;
+    }
+
+    /**
+     * Zwraca percentyl rozkładu P&L.
+     *
+     * @param percentile Percentyl (0-100)
+     * @return Wartość P&L
+     */
+    public double getPnLPercentile(double percentile) {
+        return percentile(pnl, percentile);
+    }
+
+    /**
+     * Zwraca percentyl rozkładu maksymalnego obsunięcia.
+     *
+     * @param percentile Percentyl (0-100), np. 95 dla obsunięcia przekroczonego w 5% symulacji
+     * @return Wartość obsunięcia
+     */
+    public double getDrawdownPercentile(double percentile) {
+        return percentile(drawdown, percentile);
+    }
+
+    /**
+     * Zwraca odsetek symulacji zakończonych stratą.
+     *
+     * @return Prawdopodobieństwo straty (0.0-1.0)
+     */
+    public double getProbabilityOfLoss() {
+        int losses = 0;
+        while (losses < pnl.length && pnl[losses] < 0) {
+            losses++;
+        }
+        return (double) losses / pnl.length;
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentyl poza zakresem 0-100: " + percentile);
+        }
+        if (sorted.length == 1) {
+            return sorted[0];
+        }
+        // Interpolacja liniowa między sąsiednimi wynikami
+        double rank = percentile / 100.0 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    @Override
+    public String toString() {
+        return "Monte Carlo (" + getSimulations() + " symulacji): P&L P5=" + getPnLPercentile(5)
+                + ", P50=" + getPnLPercentile(50)
+                + ", P95=" + getPnLPercentile(95)
+                + "; obsunięcie P50=" + getDrawdownPercentile(50)
+                + ", P95=" + getDrawdownPercentile(95)
+                + ", P99=" + getDrawdownPercentile(99)
+                + "; prawdopodobieństwo straty=" + getProbabilityOfLoss();
+    }
+}
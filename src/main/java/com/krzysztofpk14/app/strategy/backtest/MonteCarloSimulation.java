@@ -0,0 +1,102 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Symulacja Monte Carlo wyników zamknięć pozycji.
+ * <p>
+ * Ten sam zestaw transakcji mógł zostać zawarty w innej kolejności lub w innych
+ * proporcjach. Symulacja sprawdza to na dwa sposoby:
+ * <ul>
+ *     <li>{@link #reshuffle} - losowa permutacja kolejności (P&L bez zmian, zmienia się obsunięcie),</li>
+ *     <li>{@link #bootstrap} - losowanie transakcji ze zwracaniem (zmienia się P&L i obsunięcie).</li>
+ * </ul>
+ * Symulacje są wykonywane równolegle w paczkach; każda paczka ma własną tablicę roboczą,
+ * a każda symulacja własne ziarno, więc wynik nie zależy od liczby wątków.
+ */
+public class MonteCarloSimulation {
+
+    // Liczba symulacji obsługiwanych przez jedno zadanie równoległe
+    private static final int BATCH = 64;
+
+    private final double[] tradePnL;
+
+    /**
+     * Tworzy symulację.
+     *
+     * @param tradePnL Wyniki kolejnych zamknięć pozycji (np. {@link BacktestResult#tradePnL()})
+     */
+    public MonteCarloSimulation(double[] tradePnL) {
+        this.tradePnL = tradePnL.clone();
+    }
+
+    /**
+     * Losuje kolejność transakcji.
+     *
+     * @param simulations Liczba symulacji
+     * @param seed Ziarno generatora - ta sama wartość daje te same wyniki
+     * @return Rozkład P&L i obsunięcia
+     */
+    public MonteCarloResult reshuffle(int simulations, long seed) {
+        return simulate(simulations, seed, false);
+    }
+
+    /**
+     * Losuje transakcje ze zwracaniem (bootstrap), zachowując ich liczbę.
+     *
+     * @param simulations Liczba symulacji
+     * @param seed Ziarno generatora - ta sama wartość daje te same wyniki
+     * @return Rozkład P&L i obsunięcia
+     */
+    public MonteCarloResult bootstrap(int simulations, long seed) {
+        return simulate(simulations, seed, true);
+    }
+
+    private MonteCarloResult simulate(int simulations, long seed, boolean withReplacement) {
+        if (simulations <= 0) {
+            throw new IllegalArgumentException("Liczba symulacji musi być dodatnia: " + simulations);
+        }
+        double[] pnl = new double[simulations];
+        double[] drawdown = new double[simulations];
+        int batches = (simulations + BATCH - 1) / BATCH;
+
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            double[] path = new double[tradePnL.length];
+            int end = Math.min(simulations, (batch + 1) * BATCH);
+            for (int simulation = batch * BATCH; simulation < end; simulation++) {
+                SplittableRandom random = new SplittableRandom(seed + simulation * 0x9E3779B97F4A7C15L);
+                if (withReplacement) {
+                    for (int i = 0; i < path.length; i++) {
+                        path[i] = tradePnL[random.nextInt(tradePnL.length)];
+                    }
+                } else {
+                    // Tasowanie Fishera-Yatesa
+                    System.arraycopy(tradePnL, 0, path, 0, path.length);
+                    for (int i = path.length - 1; i > 0; i--) {
+                        int j = random.nextInt(i + 1);
+                        double swap = path[i];
+                        path[i] = path[j];
+                        path[j] = swap;
+                    }
+                }
+
+                double equity = 0;
+                double peak = 0;
+                double maxDrawdown = 0;
+                for (double trade : path) {
+                    equity += trade;
+                    peak = Math.max(peak, equity);
+                    maxDrawdown = Math.max(maxDrawdown, peak - equity);
+                }
+                pnl[simulation] = equity;
+                drawdown[simulation] = maxDrawdown;
+            }
+        });
+        return new MonteCarloResult(pnl, drawdown);
+    }
+
+    public int getTradeCount() {
+        return tradePnL.length;
+    }
+}
@@ -0,0 +1,12 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.util.Map;
+
+/**
+ * Wynik testu wstecznego dla jednej kombinacji parametrów.
+ *
+ * @param parameters Sprawdzana kombinacja parametrów
+ * @param result Wynik testu wstecznego
+ */
+public record OptimizationResult(Map<String, Object> parameters, BacktestResult result) {
+}
@@ -0,0 +1,142 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.strategy.InvestmentStrategy;
+import com.krzysztofpk14.app.strategy.StrategyParameters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Równoległy dobór parametrów strategii.
+ * <p>
+ * Każda kombinacja parametrów jest sprawdzana osobnym, niezależnym testem wstecznym
+ * (własny symulator giełdy, własna instancja strategii), a testy wykonuje pula
+ * {@link ForkJoinPool}. Wszystkie testy czytają ten sam niezmienny {@link TickDataset}
+ * - każdy własnym kursorem mapującym plik tylko do odczytu - więc nie dzielą żadnego
+ * stanu zapisywalnego i skalują się z liczbą rdzeni.
+ */
+public class ParameterOptimizer {
+
+    /**
+     * Kryterium szeregowania wyników.
+     */
+    public enum Objective {
+        /**
+         * Najwyższy P&L po prowizjach.
+         */
+        PNL(Comparator.comparingDouble((OptimizationResult r) -> r.result().statistics().getNetPnL()).reversed()),
+
+        /**
+         * Najwyższy współczynnik Sharpe'a.
+         */
+        SHARPE(Comparator.comparingDouble((OptimizationResult r) -> r.result().sharpeRatio()).reversed()),
+
+        /**
+         * Najmniejsze obsunięcie kapitału.
+         */
+        DRAWDOWN(Comparator.comparingDouble((OptimizationResult r) -> r.result().maxDrawdown()));
+
+        private final Comparator<OptimizationResult> comparator;
+
+        Objective(Comparator<OptimizationResult> comparator) {
+            this.comparator = comparator;
+        }
+
+        public Comparator<OptimizationResult> comparator() {
+            return comparator;
+        }
+    }
+
+    private final BacktestRunner runner;
+    private final Function<BossaApiClient, InvestmentStrategy> strategyFactory;
+    private final StrategyParameters baseParameters;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Tworzy optymalizator.
+     *
+     * @param runner Konfiguracja testu wstecznego (model realizacji, poślizg, prowizje)
+     * @param strategyFactory Tworzy strategię korzystającą z podanego klienta API
+     * @param baseParameters Parametry wspólne dla wszystkich kombinacji (np. instrumenty)
+     */
+    public ParameterOptimizer(BacktestRunner runner, Function<BossaApiClient, InvestmentStrategy> strategyFactory,
+                              StrategyParameters baseParameters) {
+        this.runner = runner;
+        this.strategyFactory = strategyFactory;
+        this.baseParameters = baseParameters;
+    }
+
+    /**
+     * Ustawia liczbę testów wykonywanych równolegle.
+     *
+     * @param parallelism Liczba wątków (domyślnie liczba rdzeni)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Liczba wątków musi być dodatnia: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sprawdza kombinacje parametrów i szereguje wyniki.
+     *
+     * @param candidates Kombinacje parametrów (np. z {@link ParameterSpace})
+     * @param ticks Notowania historyczne, czytane równolegle przez wszystkie testy
+     * @param objective Kryterium szeregowania
+     * @return Wyniki od najlepszego; kombinacje, których test zakończył się błędem, są pomijane
+     * @throws InterruptedException gdy wątek zostanie przerwany
+     */
+    public List<OptimizationResult> optimize(List<Map<String, Object>> candidates, TickDataset ticks,
+                                             Objective objective) throws InterruptedException {
+        List<Callable<OptimizationResult>> tasks = new ArrayList<>(candidates.size());
+        for (Map<String, Object> candidate : candidates) {
+            tasks.add(() -> evaluate(candidate, ticks));
+        }
+
+        List<OptimizationResult> results = new ArrayList<>(candidates.size());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<OptimizationResult> future : pool.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Błąd podczas testu wstecznego: " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        results.sort(objective.comparator());
+        return results;
+    }
+
+    /**
+     * Wykonuje test wsteczny jednej kombinacji parametrów.
+     *
+     * @param candidate Kombinacja parametrów
+     * @param ticks Notowania historyczne
+     * @return Wynik testu
+     * @throws IOException Jeśli wystąpi błąd odczytu notowań
+     */
+    public OptimizationResult evaluate(Map<String, Object> candidate, TickDataset ticks) throws IOException {
+        StrategyParameters parameters = baseParameters.copy();
+        for (Map.Entry<String, Object> entry : candidate.entrySet()) {
+            parameters.setParam(entry.getKey(), entry.getValue());
+        }
+        return new OptimizationResult(candidate, runner.run(strategyFactory, parameters, ticks));
+    }
+}
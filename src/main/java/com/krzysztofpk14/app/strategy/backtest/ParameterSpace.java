@@ -0,0 +1,146 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Przestrzeń przeszukiwania parametrów strategii.
+ * <p>
+ * Każdy wymiar to nazwa parametru {@link com.krzysztofpk14.app.strategy.StrategyParameters}
+ * i lista dopuszczalnych wartości. Przestrzeń generuje pełną siatkę kombinacji albo
+ * losową próbkę, z pominięciem kombinacji odrzuconych przez ograniczenia
+ * (np. krótka średnia dłuższa od długiej).
+ */
+public class ParameterSpace {
+
+    private final Map<String, List<Object>> dimensions = new LinkedHashMap<>();
+    private final List<Predicate<Map<String, Object>>> constraints = new ArrayList<>();
+
+    /**
+     * Dodaje wymiar z wartościami całkowitymi {@code from, from + step, ..., <= to}.
+     *
+     * @param name Nazwa parametru
+     * @param from Wartość początkowa
+     * @param to Wartość końcowa (włącznie)
+     * @param step Krok
+     * @return Ten obiekt dla fluent API
+     */
+    public ParameterSpace addRange(String name, int from, int to, int step) {
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("Niepoprawny zakres parametru " + name);
+        }
+        List<Object> values = new ArrayList<>();
+        for (int value = from; value <= to; value += step) {
+            values.add(value);
+        }
+        dimensions.put(name, values);
+        return this;
+    }
+
+    /**
+     * Dodaje wymiar z podanymi wartościami.
+     *
+     * @param name Nazwa parametru
+     * @param values Dopuszczalne wartości
+     * @return Ten obiekt dla fluent API
+     */
+    public ParameterSpace addValues(String name, Object... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Brak wartości parametru " + name);
+        }
+        dimensions.put(name, List.of(values));
+        return this;
+    }
+
+    /**
+     * Dodaje ograniczenie - kombinacje, dla których zwraca false, są pomijane.
+     *
+     * @param constraint Warunek poprawności kombinacji
+     * @return Ten obiekt dla fluent API
+     */
+    public ParameterSpace addConstraint(Predicate<Map<String, Object>> constraint) {
+        constraints.add(constraint);
+        return this;
+    }
+
+    /**
+     * Zwraca liczbę kombinacji pełnej siatki (przed zastosowaniem ograniczeń).
+     *
+     * @return Liczba kombinacji
+     */
+    public long getGridSize() {
+        long size = 1;
+        for (List<Object> values : dimensions.values()) {
+            size *= values.size();
+        }
+        return size;
+    }
+
+    /**
+     * Generuje wszystkie poprawne kombinacje parametrów.
+     *
+     * @return Kombinacje w kolejności leksykograficznej wymiarów
+     */
+    public List<Map<String, Object>> grid() {
+        List<Map<String, Object>> combinations = new ArrayList<>();
+        List<String> names = new ArrayList<>(dimensions.keySet());
+        int[] indexes = new int[names.size()];
+        long total = getGridSize();
+        for (long n = 0; n < total; n++) {
+            Map<String, Object> combination = new LinkedHashMap<>();
+            for (int d = 0; d < names.size(); d++) {
+                combination.put(names.get(d), dimensions.get(names.get(d)).get(indexes[d]));
+            }
+            if (isValid(combination)) {
+                combinations.add(combination);
+            }
+            // Licznik o podstawach równych liczbie wartości w wymiarach
+            for (int d = names.size() - 1; d >= 0; d--) {
+                if (++indexes[d] < dimensions.get(names.get(d)).size()) {
+                    break;
+                }
+                indexes[d] = 0;
+            }
+        }
+        return combinations;
+    }
+
+    /**
+     * Losuje różne poprawne kombinacje parametrów.
+     *
+     * @param count Liczba kombinacji
+     * @param seed Ziarno generatora - ta sama wartość daje tę samą próbkę
+     * @return Kombinacje (mniej niż {@code count}, jeśli przestrzeń jest mniejsza)
+     */
+    public List<Map<String, Object>> sample(int count, long seed) {
+        Random random = new Random(seed);
+        Set<Map<String, Object>> combinations = new LinkedHashSet<>();
+        long attempts = Math.max(count * 20L, 1000);
+        while (combinations.size() < count && attempts-- > 0) {
+            Map<String, Object> combination = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Object>> dimension : dimensions.entrySet()) {
+                List<Object> values = dimension.getValue();
+                combination.put(dimension.getKey(), values.get(random.nextInt(values.size())));
+            }
+            if (isValid(combination)) {
+                combinations.add(combination);
+            }
+        }
+        return new ArrayList<>(combinations);
+    }
+
+    private boolean isValid(Map<String, Object> combination) {
+        for (Predicate<Map<String, Object>> constraint : constraints) {
+            if (!constraint.test(combination)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
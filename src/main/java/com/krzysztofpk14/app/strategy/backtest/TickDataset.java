@@ -0,0 +1,220 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.tick.TickCursor;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Niezmienny zbiór notowań historycznych dla testów wstecznych.
+ * <p>
+ * Zbiór opisuje plik lub katalog w jednym z formatów pakietu
+ * {@link com.krzysztofpk14.app.bossaapi.tick} (CSV, binarny, kolumnowy, magazyn kolumnowy)
+ * i fragment jego notowań. Każdy test otwiera własny kursor ({@link #open()}), który mapuje
+ * plik oknami tylko do odczytu - równoległe testy czytają te same strony pamięci podręcznej
+ * systemu bez kopiowania, a wielkość pliku nie jest ograniczona. Sam zbiór nie ma stanu
+ * zapisywalnego, więc może być współdzielony przez wiele wątków.
+ * <p>
+ * Przy otwarciu plik jest czytany raz: zbiór liczy notowania i nadaje symbolom
+ * identyfikatory w {@link InstrumentRegistry} w kolejności pierwszego wystąpienia.
+ */
+public class TickDataset {
+
+    private final Path file;
+    private final InstrumentRegistry registry;
+    // Liczba transakcji instrumentu w całym pliku, według identyfikatora
+    private final long[] tradeCounts;
+    private final long from;
+    private final long to;
+
+    private TickDataset(Path file, InstrumentRegistry registry, long[] tradeCounts, long from, long to) {
+        this.file = file;
+        this.registry = registry;
+        this.tradeCounts = tradeCounts;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Otwiera zbiór notowań. Format jest dobierany jak w {@link TickCursor#open(Path)}.
+     *
+     * @param file Ścieżka do pliku lub katalogu magazynu
+     * @return Zbiór obejmujący wszystkie notowania
+     * @throws IOException Jeśli pliku nie da się odczytać
+     */
+    public static TickDataset open(Path file) throws IOException {
+        InstrumentRegistry registry = new InstrumentRegistry();
+        long[] tradeCounts = new long[16];
+        long size = 0;
+        try (TickCursor cursor = TickCursor.open(file)) {
+            while (cursor.next()) {
+                int symbolId = registry.register(cursor.symbol());
+                if (symbolId >= tradeCounts.length) {
+                    tradeCounts = Arrays.copyOf(tradeCounts, tradeCounts.length * 2);
+                }
+                if (isTrade(cursor.entryType())) {
+                    tradeCounts[symbolId]++;
+                }
+                size++;
+            }
+        }
+        return new TickDataset(file, registry, tradeCounts, 0, size);
+    }
+
+    /**
+     * Sprawdza, czy wpis jest transakcją. Symulator oznacza transakcje typem
+     * {@link MarketDataResponse#TRADE} ("0"), dlatego "0" i "2" są traktowane jako transakcja
+     * (tak jak w {@link com.krzysztofpk14.app.bossaapi.client.MarketDataCache}).
+     *
+     * @param entryType Typ wpisu (kod znaku MDEntryTyp)
+     * @return true dla transakcji
+     */
+    static boolean isTrade(byte entryType) {
+        return entryType == '0' || entryType == '2';
+    }
+
+    /**
+     * Otwiera kursor po notowaniach zbioru. Każde wywołanie zwraca nowy, niezależny kursor.
+     *
+     * @return Kursor ustawiony przed pierwszym notowaniem zbioru
+     * @throws IOException Jeśli pliku nie da się otworzyć
+     */
+    public TickCursor open() throws IOException {
+        TickCursor cursor = TickCursor.open(file);
+        try {
+            for (long i = 0; i < from; i++) {
+                if (!cursor.next()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            cursor.close();
+            throw e;
+        }
+        return new RangeCursor(cursor, to - from);
+    }
+
+    /**
+     * Zwraca fragment zbioru bez kopiowania danych.
+     *
+     * @param from Numer pierwszego notowania (włącznie)
+     * @param to Numer ostatniego notowania (wyłącznie)
+     * @return Notowania z zakresu
+     */
+    public TickDataset range(long from, long to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException("Zakres " + from + ".." + to + " poza 0.." + size());
+        }
+        return new TickDataset(file, registry, tradeCounts, this.from + from, this.from + to);
+    }
+
+    /**
+     * Zwraca kolumnę cen transakcji instrumentu, np. dla
+     * {@link com.krzysztofpk14.app.strategy.indicator.ColumnarIndicators}.
+     *
+     * @param symbol Symbol instrumentu
+     * @return Ceny w kolejności czasu (pusta tablica dla nieznanego symbolu)
+     * @throws IOException Jeśli wystąpi błąd odczytu
+     */
+    public double[] getPrices(String symbol) throws IOException {
+        int symbolId = registry.getId(symbol);
+        if (symbolId == InstrumentRegistry.UNKNOWN) {
+            return new double[0];
+        }
+        long capacity = Math.min(tradeCounts[symbolId], size());
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Kolumna cen " + symbol + " nie mieści się w tablicy: " + capacity);
+        }
+        double[] prices = new double[(int) capacity];
+        int count = 0;
+        try (TickCursor cursor = open()) {
+            while (cursor.next()) {
+                if (isTrade(cursor.entryType()) && registry.getId(cursor.symbol()) == symbolId) {
+                    prices[count++] = Price.toDouble(cursor.price());
+                }
+            }
+        }
+        return count == prices.length ? prices : Arrays.copyOf(prices, count);
+    }
+
+    /**
+     * Zwraca liczbę notowań zbioru.
+     *
+     * @return Liczba notowań
+     */
+    public long size() {
+        return to - from;
+    }
+
+    /**
+     * Zwraca symbole instrumentów występujących w pliku.
+     *
+     * @return Symbole w kolejności pierwszego wystąpienia
+     */
+    public List<String> getSymbols() {
+        List<String> symbols = new ArrayList<>(registry.size());
+        for (int id = 0; id < registry.size(); id++) {
+            symbols.add(registry.getSymbol(id));
+        }
+        return symbols;
+    }
+
+    /**
+     * Kursor zatrzymujący się po podanej liczbie notowań.
+     */
+    private static class RangeCursor implements TickCursor {
+        private final TickCursor cursor;
+        private long remaining;
+
+        RangeCursor(TickCursor cursor, long remaining) {
+            this.cursor = cursor;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (remaining <= 0 || !cursor.next()) {
+                remaining = 0;
+                return false;
+            }
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public String symbol() {
+            return cursor.symbol();
+        }
+
+        @Override
+        public long timestampNanos() {
+            return cursor.timestampNanos();
+        }
+
+        @Override
+        public long price() {
+            return cursor.price();
+        }
+
+        @Override
+        public long size() {
+            return cursor.size();
+        }
+
+        @Override
+        public byte entryType() {
+            return cursor.entryType();
+        }
+
+        @Override
+        public void close() throws IOException {
+            cursor.close();
+        }
+    }
+}
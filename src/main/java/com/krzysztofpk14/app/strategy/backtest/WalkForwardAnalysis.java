@@ -0,0 +1,130 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analiza walk-forward (optymalizacja krocząca).
+ * <p>
+ * Zbiór notowań jest dzielony na kolejne okna: w okresie optymalizacji
+ * (in-sample) {@link ParameterOptimizer} wybiera najlepsze parametry, a następnie
+ * są one sprawdzane na kolejnym, niewidzianym wcześniej okresie weryfikacji
+ * (out-of-sample). Okno przesuwa się o długość okresu weryfikacji, więc okresy
+ * weryfikacji tworzą ciągłą historię handlu. Każdy test startuje od nowej instancji
+ * strategii, dlatego na początku okresu weryfikacji wskaźniki strategii się rozgrzewają.
+ */
+public class WalkForwardAnalysis {
+
+    private final ParameterOptimizer optimizer;
+    private final List<Map<String, Object>> candidates;
+    private final ParameterOptimizer.Objective objective;
+
+    /**
+     * Tworzy analizę.
+     *
+     * @param optimizer Optymalizator wykonujący testy wsteczne
+     * @param candidates Kombinacje parametrów sprawdzane w każdym oknie
+     * @param objective Kryterium wyboru parametrów
+     */
+    public WalkForwardAnalysis(ParameterOptimizer optimizer, List<Map<String, Object>> candidates,
+                               ParameterOptimizer.Objective objective) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("Brak kombinacji parametrów");
+        }
+        this.optimizer = optimizer;
+        this.candidates = candidates;
+        this.objective = objective;
+    }
+
+    /**
+     * Wykonuje analizę.
+     *
+     * @param ticks Notowania historyczne
+     * @param inSampleSize Liczba notowań w okresie optymalizacji
+     * @param outOfSampleSize Liczba notowań w okresie weryfikacji
+     * @return Okna w kolejności czasu
+     * @throws InterruptedException gdy wątek zostanie przerwany
+     * @throws IOException Jeśli wystąpi błąd odczytu notowań
+     */
+    public List<WalkForwardWindow> run(TickDataset ticks, long inSampleSize, long outOfSampleSize)
+            throws InterruptedException, IOException {
+        if (inSampleSize <= 0 || outOfSampleSize <= 0) {
+            throw new IllegalArgumentException("Długości okresów muszą być dodatnie");
+        }
+        List<WalkForwardWindow> windows = new ArrayList<>();
+        for (long from = 0; from + inSampleSize + outOfSampleSize <= ticks.size(); from += outOfSampleSize) {
+            long split = from + inSampleSize;
+            long to = split + outOfSampleSize;
+
+            List<OptimizationResult> ranking = optimizer.optimize(candidates, ticks.range(from, split), objective);
+            if (ranking.isEmpty()) {
+                System.err.println("Brak wyników optymalizacji dla okna od notowania " + from);
+                continue;
+            }
+            OptimizationResult best = ranking.get(0);
+            OptimizationResult verified = optimizer.evaluate(best.parameters(), ticks.range(split, to));
+            windows.add(new WalkForwardWindow(from, split, to, best.parameters(), best.result(), verified.result()));
+        }
+        return windows;
+    }
+
+    /**
+     * Sumuje P&L netto z okresów weryfikacji.
+     *
+     * @param windows Okna analizy
+     * @return P&L netto osiągnięty na danych niewidzianych podczas optymalizacji
+     */
+    public static double getOutOfSamplePnL(List<WalkForwardWindow> windows) {
+        double pnl = 0;
+        for (WalkForwardWindow window : windows) {
+            pnl += window.outOfSample().statistics().getNetPnL();
+        }
+        return pnl;
+    }
+
+    /**
+     * Zwraca efektywność walk-forward: stosunek P&L z okresów weryfikacji do P&L
+     * z okresów optymalizacji, przeliczonych na jedno notowanie historyczne.
+     * Wartości bliskie 1 oznaczają, że wyniki optymalizacji się utrzymują.
+     *
+     * @param windows Okna analizy
+     * @return Efektywność lub 0, jeśli optymalizacja nie dała zysku
+     */
+    public static double getEfficiency(List<WalkForwardWindow> windows) {
+        double inSample = 0;
+        double outOfSample = 0;
+        long inSampleTicks = 0;
+        long outOfSampleTicks = 0;
+        for (WalkForwardWindow window : windows) {
+            inSample += window.inSample().statistics().getNetPnL();
+            inSampleTicks += window.inSample().ticks();
+            outOfSample += window.outOfSample().statistics().getNetPnL();
+            outOfSampleTicks += window.outOfSample().ticks();
+        }
+        if (inSample <= 0 || outOfSampleTicks == 0) {
+            return 0;
+        }
+        return (outOfSample / outOfSampleTicks) / (inSample / inSampleTicks);
+    }
+
+    /**
+     * Łączy wyniki zamknięć pozycji ze wszystkich okresów weryfikacji, np. jako dane
+     * dla {@link MonteCarloSimulation}.
+     *
+     * @param windows Okna analizy
+     * @return Wyniki zamknięć w kolejności czasu
+     */
+    public static double[] getOutOfSampleTrades(List<WalkForwardWindow> windows) {
+        double[] trades = new double[0];
+        for (WalkForwardWindow window : windows) {
+            double[] windowTrades = window.outOfSample().tradePnL();
+            int offset = trades.length;
+            trades = Arrays.copyOf(trades, offset + windowTrades.length);
+            System.arraycopy(windowTrades, 0, trades, offset, windowTrades.length);
+        }
+        return trades;
+    }
+}
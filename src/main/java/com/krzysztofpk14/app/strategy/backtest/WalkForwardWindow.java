@@ -0,0 +1,18 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import java.util.Map;
+
+/**
+ * Jedno okno analizy walk-forward.
+ *
+ * @param inSampleFrom Indeks pierwszego notowania okresu optymalizacji
+ * @param outOfSampleFrom Indeks pierwszego notowania okresu weryfikacji
+ * @param outOfSampleTo Indeks za ostatnim notowaniem okresu weryfikacji
+ * @param parameters Parametry wybrane w okresie optymalizacji
+ * @param inSample Wynik wybranych parametrów w okresie optymalizacji
+ * @param outOfSample Wynik wybranych parametrów w okresie weryfikacji
+ */
+public record WalkForwardWindow(long inSampleFrom, long outOfSampleFrom, long outOfSampleTo,
+                                Map<String, Object> parameters,
+                                BacktestResult inSample, BacktestResult outOfSample) {
+}
@@ -0,0 +1,76 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Średni rzeczywisty zasięg (ATR) z wygładzaniem Wildera.
+ * Rzeczywisty zasięg to największa z wartości: high - low, |high - poprzednie close|,
+ * |low - poprzednie close|.
+ */
+public class AverageTrueRange implements Indicator {
+    private final int period;
+    private double previousClose = Double.NaN;
+    private double value;
+    private int count;
+
+    /**
+     * Tworzy wskaźnik.
+     *
+     * @param period Okres wygładzania
+     */
+    public AverageTrueRange(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Okres musi być dodatni: " + period);
+        }
+        this.period = period;
+    }
+
+    /**
+     * Dodaje świecę.
+     *
+     * @param high Cena najwyższa
+     * @param low Cena najniższa
+     * @param close Cena zamknięcia
+     * @return Bieżąca wartość ATR lub {@link Double#NaN} przed zebraniem {@code period} świec
+     */
+    public double update(double high, double low, double close) {
+        double trueRange = high - low;
+        if (!Double.isNaN(previousClose)) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        previousClose = close;
+
+        if (count < period) {
+            value += trueRange / period;
+            count++;
+        } else {
+            value = (value * (period - 1) + trueRange) / period;
+        }
+        return getValue();
+    }
+
+    /**
+     * Dodaje pojedynczą cenę transakcji (świeca o zerowym zasięgu).
+     *
+     * @param price Cena
+     * @return Bieżąca wartość ATR
+     */
+    public double update(double price) {
+        return update(price, price, price);
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double getValue() {
+        return isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        previousClose = Double.NaN;
+        value = 0;
+        count = 0;
+    }
+}
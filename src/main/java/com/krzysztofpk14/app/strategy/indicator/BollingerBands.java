@@ -0,0 +1,94 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Wstęgi Bollingera: średnia prosta i odchylenie standardowe (populacyjne)
+ * z okna liczone z sum bieżących wartości i ich kwadratów.
+ * Wartością wskaźnika jest środkowa wstęga.
+ */
+public class BollingerBands implements Indicator {
+    private final DoubleRingBuffer window;
+    private final double multiplier;
+    private double sum;
+    private double sumOfSquares;
+
+    /**
+     * Tworzy wskaźnik.
+     *
+     * @param period Liczba wartości w oknie
+     * @param multiplier Szerokość wstęg w odchyleniach standardowych (zwykle 2)
+     */
+    public BollingerBands(int period, double multiplier) {
+        this.window = new DoubleRingBuffer(period);
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Dodaje wartość.
+     *
+     * @param value Nowa wartość
+     */
+    public void update(double value) {
+        double evicted = window.add(value);
+        sum += value;
+        sumOfSquares += value * value;
+        if (!Double.isNaN(evicted)) {
+            sum -= evicted;
+            sumOfSquares -= evicted * evicted;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public double getValue() {
+        return getMiddle();
+    }
+
+    public double getMiddle() {
+        return window.size() == 0 ? Double.NaN : sum / window.size();
+    }
+
+    /**
+     * Zwraca odchylenie standardowe wartości w oknie.
+     *
+     * @return Odchylenie standardowe
+     */
+    public double getStandardDeviation() {
+        int n = window.size();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / n;
+        // Różnica sum może wyjść minimalnie ujemna przez zaokrąglenia
+        return Math.sqrt(Math.max(0, sumOfSquares / n - mean * mean));
+    }
+
+    public double getUpper() {
+        return getMiddle() + multiplier * getStandardDeviation();
+    }
+
+    public double getLower() {
+        return getMiddle() - multiplier * getStandardDeviation();
+    }
+
+    /**
+     * Zwraca położenie wartości względem wstęg (%B): 0 - dolna wstęga, 1 - górna.
+     *
+     * @param value Wartość
+     * @return Położenie względne lub {@link Double#NaN}, gdy wstęgi mają zerową szerokość
+     */
+    public double getPercentB(double value) {
+        double width = getUpper() - getLower();
+        return width > 0 ? (value - getLower()) / width : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum = 0;
+        sumOfSquares = 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import java.util.Arrays;
+
+/**
+ * Wskaźniki liczone od razu dla całej kolumny cen (np. w testach wstecznych i przy
+ * doborze parametrów), zamiast wartość po wartości.
+ * <p>
+ * Element {@code i} wyniku jest bit w bit równy wartości wskaźnika strumieniowego
+ * po podaniu mu {@code values[0..i]}. Rekurencje (sumy bieżące, wygładzanie) są
+ * dlatego liczone sekwencyjnie, w jednym przebiegu i w tej samej kolejności działań.
+ * Największy zysk przy doborze parametrów daje {@link IndicatorColumns}: każda kolumna
+ * jest liczona raz dla wszystkich kombinacji.
+ */
+public final class ColumnarIndicators {
+
+    private ColumnarIndicators() {
+    }
+
+    /**
+     * Średnia krocząca prosta, jak {@link SimpleMovingAverage#update(double)}.
+     *
+     * @param values Kolumna wartości
+     * @param period Okres średniej
+     * @return Średnie (na początku z niepełnego okna)
+     */
+    public static double[] sma(double[] values, int period) {
+        requirePeriod(period);
+        double[] out = new double[values.length];
+        double sum = 0;
+        double compensation = 0;
+        for (int i = 0; i < values.length; i++) {
+            double corrected = values[i] - compensation;
+            double total = sum + corrected;
+            compensation = (total - sum) - corrected;
+            sum = total;
+            if (i >= period) {
+                corrected = -values[i - period] - compensation;
+                total = sum + corrected;
+                compensation = (total - sum) - corrected;
+                sum = total;
+            }
+            out[i] = sum;
+        }
+        for (int i = 0; i < values.length; i++) {
+            out[i] = out[i] / Math.min(i + 1, period);
+        }
+        return out;
+    }
+
+    /**
+     * Wykładnicza średnia krocząca, jak {@link ExponentialMovingAverage#update(double)}.
+     * Rekurencja nie daje się zrównoleglić bez zmiany wyników, więc jest liczona skalarnie.
+     *
+     * @param values Kolumna wartości
+     * @param period Okres średniej
+     * @return Średnie lub {@link Double#NaN} przed zebraniem {@code period} wartości
+     */
+    public static double[] ema(double[] values, int period) {
+        requirePeriod(period);
+        double alpha = 2.0 / (period + 1);
+        double[] out = new double[values.length];
+        double value = Double.NaN;
+        double seedSum = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i < period) {
+                seedSum += values[i];
+                if (i == period - 1) {
+                    value = seedSum / period;
+                }
+            } else {
+                value += alpha * (values[i] - value);
+            }
+            out[i] = value;
+        }
+        return out;
+    }
+
+    /**
+     * Wskaźnik RSI Wildera, jak {@link RelativeStrengthIndex#update(double)}.
+     *
+     * @param prices Kolumna cen
+     * @param period Okres RSI
+     * @return Wartości RSI lub {@link Double#NaN} przed zebraniem {@code period} zmian
+     */
+    public static double[] rsi(double[] prices, int period) {
+        requirePeriod(period);
+        int n = prices.length;
+        double[] averageGains = new double[n];
+        double[] averageLosses = new double[n];
+        double averageGain = 0;
+        double averageLoss = 0;
+        for (int i = 1; i < n; i++) {
+            double change = prices[i] - prices[i - 1];
+            double gain = change > 0 ? change : 0;
+            double loss = change < 0 ? -change : 0;
+            if (i <= period) {
+                averageGain += gain / period;
+                averageLoss += loss / period;
+            } else {
+                averageGain = (averageGain * (period - 1) + gain) / period;
+                averageLoss = (averageLoss * (period - 1) + loss) / period;
+            }
+            averageGains[i] = averageGain;
+            averageLosses[i] = averageLoss;
+        }
+
+        // Wynik zapisywany w miejscu średnich zysków
+        int ready = Math.min(period, n);
+        Arrays.fill(averageGains, 0, ready, Double.NaN);
+        for (int i = ready; i < n; i++) {
+            averageGains[i] = relativeStrength(averageGains[i], averageLosses[i]);
+        }
+        return averageGains;
+    }
+
+    /**
+     * Odchylenie standardowe (populacyjne) z okna, jak
+     * {@link BollingerBands#getStandardDeviation()} po {@link BollingerBands#update(double)}.
+     *
+     * @param values Kolumna wartości
+     * @param period Liczba wartości w oknie
+     * @return Odchylenia standardowe (na początku z niepełnego okna)
+     */
+    public static double[] standardDeviation(double[] values, int period) {
+        requirePeriod(period);
+        int n = values.length;
+        double[] sums = new double[n];
+        double[] sumsOfSquares = new double[n];
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double value = values[i];
+            sum += value;
+            sumOfSquares += value * value;
+            if (i >= period) {
+                double evicted = values[i - period];
+                sum -= evicted;
+                sumOfSquares -= evicted * evicted;
+            }
+            sums[i] = sum;
+            sumsOfSquares[i] = sumOfSquares;
+        }
+
+        // Wynik zapisywany w miejscu sum
+        for (int i = 0; i < n; i++) {
+            sums[i] = standardDeviation(sums[i], sumsOfSquares[i], Math.min(i + 1, period));
+        }
+        return sums;
+    }
+
+    private static double standardDeviation(double sum, double sumOfSquares, double n) {
+        double mean = sum / n;
+        return Math.sqrt(Math.max(0, sumOfSquares / n - mean * mean));
+    }
+
+    private static double relativeStrength(double averageGain, double averageLoss) {
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50.0 : 100.0;
+        }
+        double rs = averageGain / averageLoss;
+        return 100.0 - 100.0 / (1.0 + rs);
+    }
+
+    private static void requirePeriod(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Okres musi być dodatni: " + period);
+        }
+    }
+}
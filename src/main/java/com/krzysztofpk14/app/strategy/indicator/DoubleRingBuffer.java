@@ -0,0 +1,82 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Bufor cykliczny wartości double o stałej pojemności.
+ * Dodanie wartości do pełnego bufora nadpisuje najstarszą i zwraca ją,
+ * co pozwala wskaźnikom aktualizować sumy bieżące w O(1).
+ */
+public class DoubleRingBuffer {
+    private final double[] values;
+    private int head;
+    private int size;
+
+    /**
+     * Tworzy bufor.
+     *
+     * @param capacity Pojemność bufora
+     */
+    public DoubleRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pojemność bufora musi być dodatnia: " + capacity);
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Dodaje wartość.
+     *
+     * @param value Nowa wartość
+     * @return Wartość usunięta z pełnego bufora lub {@link Double#NaN}, jeśli bufor nie był pełny
+     */
+    public double add(double value) {
+        double evicted = Double.NaN;
+        if (size == values.length) {
+            evicted = values[head];
+        } else {
+            size++;
+        }
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        return evicted;
+    }
+
+    /**
+     * Zwraca wartość według wieku.
+     *
+     * @param index 0 - najstarsza wartość, {@code size() - 1} - najnowsza
+     * @return Wartość
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Indeks " + index + " poza zakresem 0.." + (size - 1));
+        }
+        int position = head - size + index;
+        return values[position < 0 ? position + values.length : position];
+    }
+
+    /**
+     * Zwraca najnowszą wartość.
+     *
+     * @return Najnowsza wartość lub {@link Double#NaN}, jeśli bufor jest pusty
+     */
+    public double last() {
+        return size == 0 ? Double.NaN : get(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
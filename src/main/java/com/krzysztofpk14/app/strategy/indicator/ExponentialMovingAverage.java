@@ -0,0 +1,66 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Wykładnicza średnia krocząca (EMA) ze współczynnikiem 2 / (n + 1).
+ * Pierwsza wartość jest średnią prostą z {@code period} wartości.
+ */
+public class ExponentialMovingAverage implements Indicator {
+    private final int period;
+    private final double alpha;
+    private double value = Double.NaN;
+    private double seedSum;
+    private int count;
+
+    /**
+     * Tworzy średnią.
+     *
+     * @param period Okres średniej
+     */
+    public ExponentialMovingAverage(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Okres musi być dodatni: " + period);
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    /**
+     * Dodaje wartość.
+     *
+     * @param input Nowa wartość
+     * @return Bieżąca wartość średniej lub {@link Double#NaN} przed zebraniem {@code period} wartości
+     */
+    public double update(double input) {
+        if (count < period) {
+            seedSum += input;
+            count++;
+            if (count == period) {
+                value = seedSum / period;
+            }
+            return value;
+        }
+        value += alpha * (input - value);
+        return value;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double getValue() {
+        return value;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public void reset() {
+        value = Double.NaN;
+        seedSum = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Wspólny interfejs wskaźników strumieniowych.
+ * <p>
+ * Wskaźniki są aktualizowane kolejnymi wartościami (metody {@code update} w klasach
+ * konkretnych). Każda aktualizacja kosztuje O(1) i nie alokuje pamięci - stan
+ * przechowywany jest w tablicach prymitywnych przydzielonych w konstruktorze.
+ * Wskaźniki nie są bezpieczne wątkowo; strategia trzyma osobną instancję dla
+ * każdego instrumentu, a zdarzenia jednego instrumentu przychodzą z jednego toru.
+ */
+public interface Indicator {
+
+    /**
+     * Sprawdza, czy wskaźnik otrzymał wystarczająco danych, by jego wartość miała sens.
+     *
+     * @return true jeśli wartość jest dostępna
+     */
+    boolean isReady();
+
+    /**
+     * Zwraca bieżącą wartość wskaźnika.
+     *
+     * @return Wartość wskaźnika lub {@link Double#NaN}, jeśli wskaźnik nie jest gotowy
+     */
+    double getValue();
+
+    /**
+     * Przywraca stan początkowy bez zwalniania buforów.
+     */
+    void reset();
+}
@@ -0,0 +1,64 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kolumny wskaźników dla jednej kolumny cen, liczone raz i współdzielone.
+ * <p>
+ * Przy doborze parametrów tysiące kombinacji korzysta z kilkudziesięciu różnych
+ * okresów; każda kolumna jest liczona przy pierwszym użyciu i zapamiętywana.
+ * Obiekt jest bezpieczny wątkowo. Zwracanych tablic nie wolno modyfikować.
+ */
+public class IndicatorColumns {
+
+    private record Key(String indicator, int period) {
+    }
+
+    private final double[] values;
+    private final Map<Key, double[]> columns = new ConcurrentHashMap<>();
+
+    /**
+     * Tworzy zbiór kolumn.
+     *
+     * @param values Kolumna cen
+     */
+    public IndicatorColumns(double[] values) {
+        this.values = values.clone();
+    }
+
+    public double[] sma(int period) {
+        return columns.computeIfAbsent(new Key("SMA", period), key -> ColumnarIndicators.sma(values, period));
+    }
+
+    public double[] ema(int period) {
+        return columns.computeIfAbsent(new Key("EMA", period), key -> ColumnarIndicators.ema(values, period));
+    }
+
+    public double[] rsi(int period) {
+        return columns.computeIfAbsent(new Key("RSI", period), key -> ColumnarIndicators.rsi(values, period));
+    }
+
+    public double[] standardDeviation(int period) {
+        return columns.computeIfAbsent(new Key("STDDEV", period),
+                key -> ColumnarIndicators.standardDeviation(values, period));
+    }
+
+    /**
+     * Zwraca liczbę wartości w kolumnie.
+     *
+     * @return Długość kolumny
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Zwraca liczbę zapamiętanych kolumn wskaźników.
+     *
+     * @return Liczba kolumn
+     */
+    public int getCachedColumnCount() {
+        return columns.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Wskaźnik MACD: różnica szybkiej i wolnej średniej wykładniczej,
+ * linia sygnału (EMA tej różnicy) i histogram. Wartością wskaźnika jest linia MACD.
+ */
+public class Macd implements Indicator {
+    private final ExponentialMovingAverage fast;
+    private final ExponentialMovingAverage slow;
+    private final ExponentialMovingAverage signal;
+    private double macd = Double.NaN;
+
+    /**
+     * Tworzy wskaźnik z typowymi okresami 12, 26, 9.
+     */
+    public Macd() {
+        this(12, 26, 9);
+    }
+
+    /**
+     * Tworzy wskaźnik.
+     *
+     * @param fastPeriod Okres szybkiej średniej
+     * @param slowPeriod Okres wolnej średniej
+     * @param signalPeriod Okres linii sygnału
+     */
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("Okres szybkiej średniej musi być krótszy od wolnej");
+        }
+        this.fast = new ExponentialMovingAverage(fastPeriod);
+        this.slow = new ExponentialMovingAverage(slowPeriod);
+        this.signal = new ExponentialMovingAverage(signalPeriod);
+    }
+
+    /**
+     * Dodaje cenę.
+     *
+     * @param price Nowa cena
+     * @return Linia MACD lub {@link Double#NaN} przed zebraniem danych dla wolnej średniej
+     */
+    public double update(double price) {
+        double fastValue = fast.update(price);
+        double slowValue = slow.update(price);
+        if (!slow.isReady()) {
+            return Double.NaN;
+        }
+        macd = fastValue - slowValue;
+        signal.update(macd);
+        return macd;
+    }
+
+    @Override
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    @Override
+    public double getValue() {
+        return macd;
+    }
+
+    public double getSignal() {
+        return signal.getValue();
+    }
+
+    public double getHistogram() {
+        return macd - signal.getValue();
+    }
+
+    @Override
+    public void reset() {
+        fast.reset();
+        slow.reset();
+        signal.reset();
+        macd = Double.NaN;
+    }
+}
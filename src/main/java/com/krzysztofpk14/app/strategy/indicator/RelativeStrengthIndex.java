@@ -0,0 +1,82 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Wskaźnik RSI w wersji Wildera: pierwsze średnie zysków i strat są średnimi
+ * prostymi z {@code period} zmian, kolejne wygładzane wzorem
+ * {@code avg = (avg * (n - 1) + zmiana) / n}.
+ */
+public class RelativeStrengthIndex implements Indicator {
+    private final int period;
+    private double previous = Double.NaN;
+    private double averageGain;
+    private double averageLoss;
+    private int changes;
+
+    /**
+     * Tworzy wskaźnik.
+     *
+     * @param period Okres RSI
+     */
+    public RelativeStrengthIndex(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Okres musi być dodatni: " + period);
+        }
+        this.period = period;
+    }
+
+    /**
+     * Dodaje cenę.
+     *
+     * @param price Nowa cena
+     * @return Wartość RSI (0-100) lub {@link Double#NaN} przed zebraniem {@code period} zmian
+     */
+    public double update(double price) {
+        if (Double.isNaN(previous)) {
+            previous = price;
+            return Double.NaN;
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = change > 0 ? change : 0;
+        double loss = change < 0 ? -change : 0;
+
+        if (changes < period) {
+            averageGain += gain / period;
+            averageLoss += loss / period;
+            changes++;
+        } else {
+            averageGain = (averageGain * (period - 1) + gain) / period;
+            averageLoss = (averageLoss * (period - 1) + loss) / period;
+        }
+        return getValue();
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    @Override
+    public double getValue() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50.0 : 100.0;
+        }
+        double rs = averageGain / averageLoss;
+        return 100.0 - 100.0 / (1.0 + rs);
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public void reset() {
+        previous = Double.NaN;
+        averageGain = 0;
+        averageLoss = 0;
+        changes = 0;
+    }
+}
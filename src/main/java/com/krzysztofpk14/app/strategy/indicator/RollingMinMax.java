@@ -0,0 +1,102 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Minimum i maksimum z okna kroczącego wyznaczane kolejkami monotonicznymi.
+ * <p>
+ * Kolejki przechowują numery kolejnych wartości w tablicach cyklicznych; każda
+ * wartość trafia do kolejki i opuszcza ją co najwyżej raz, więc aktualizacja
+ * kosztuje zamortyzowane O(1). Wartością wskaźnika jest maksimum.
+ */
+public class RollingMinMax implements Indicator {
+    private final int period;
+    private final double[] values;
+
+    // Kolejki numerów wartości: minimum - rosnące wartości, maksimum - malejące
+    private final long[] minQueue;
+    private final long[] maxQueue;
+    private int minHead;
+    private int minSize;
+    private int maxHead;
+    private int maxSize;
+    private long sequence;
+
+    /**
+     * Tworzy wskaźnik.
+     *
+     * @param period Liczba wartości w oknie
+     */
+    public RollingMinMax(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Okres musi być dodatni: " + period);
+        }
+        this.period = period;
+        this.values = new double[period];
+        this.minQueue = new long[period];
+        this.maxQueue = new long[period];
+    }
+
+    /**
+     * Dodaje wartość.
+     *
+     * @param value Nowa wartość
+     */
+    public void update(double value) {
+        long current = sequence++;
+        values[(int) (current % period)] = value;
+        long oldest = current - period + 1;
+
+        // Usuń wartości, które wypadły z okna
+        if (minSize > 0 && minQueue[minHead] < oldest) {
+            minHead = (minHead + 1) % period;
+            minSize--;
+        }
+        if (maxSize > 0 && maxQueue[maxHead] < oldest) {
+            maxHead = (maxHead + 1) % period;
+            maxSize--;
+        }
+
+        // Usuń z końca wartości, które nie mogą już być minimum / maksimum
+        while (minSize > 0 && valueAt(minQueue[(minHead + minSize - 1) % period]) >= value) {
+            minSize--;
+        }
+        minQueue[(minHead + minSize) % period] = current;
+        minSize++;
+
+        while (maxSize > 0 && valueAt(maxQueue[(maxHead + maxSize - 1) % period]) <= value) {
+            maxSize--;
+        }
+        maxQueue[(maxHead + maxSize) % period] = current;
+        maxSize++;
+    }
+
+    private double valueAt(long index) {
+        return values[(int) (index % period)];
+    }
+
+    @Override
+    public boolean isReady() {
+        return sequence >= period;
+    }
+
+    @Override
+    public double getValue() {
+        return getMax();
+    }
+
+    public double getMin() {
+        return minSize == 0 ? Double.NaN : valueAt(minQueue[minHead]);
+    }
+
+    public double getMax() {
+        return maxSize == 0 ? Double.NaN : valueAt(maxQueue[maxHead]);
+    }
+
+    @Override
+    public void reset() {
+        minHead = 0;
+        minSize = 0;
+        maxHead = 0;
+        maxSize = 0;
+        sequence = 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Prosta średnia krocząca (SMA) liczona z sumy bieżącej.
+ * Suma jest prowadzona z kompensacją (Kahan), więc błąd zaokrągleń
+ * nie narasta przy długich strumieniach notowań.
+ */
+public class SimpleMovingAverage implements Indicator {
+    private final DoubleRingBuffer window;
+    private double sum;
+    private double compensation;
+
+    /**
+     * Tworzy średnią.
+     *
+     * @param period Liczba wartości w oknie
+     */
+    public SimpleMovingAverage(int period) {
+        this.window = new DoubleRingBuffer(period);
+    }
+
+    /**
+     * Dodaje wartość i zwraca średnią z okna (także z niepełnego).
+     *
+     * @param value Nowa wartość
+     * @return Średnia z wartości w oknie
+     */
+    public double update(double value) {
+        double evicted = window.add(value);
+        add(value);
+        if (!Double.isNaN(evicted)) {
+            add(-evicted);
+        }
+        return sum / window.size();
+    }
+
+    private void add(double value) {
+        double corrected = value - compensation;
+        double total = sum + corrected;
+        compensation = (total - sum) - corrected;
+        sum = total;
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public double getValue() {
+        return window.size() == 0 ? Double.NaN : sum / window.size();
+    }
+
+    public int getPeriod() {
+        return window.capacity();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum = 0;
+        compensation = 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+/**
+ * Średnia cena ważona wolumenem (VWAP). Bez okresu liczona narastająco
+ * (np. od początku sesji, do {@link #reset()}), z okresem - z ostatnich
+ * {@code period} transakcji.
+ */
+public class VolumeWeightedAveragePrice implements Indicator {
+    private final DoubleRingBuffer notionals;
+    private final DoubleRingBuffer volumes;
+    private double notionalSum;
+    private double volumeSum;
+
+    /**
+     * Tworzy wskaźnik narastający.
+     */
+    public VolumeWeightedAveragePrice() {
+        this.notionals = null;
+        this.volumes = null;
+    }
+
+    /**
+     * Tworzy wskaźnik z oknem kroczącym.
+     *
+     * @param period Liczba transakcji w oknie
+     */
+    public VolumeWeightedAveragePrice(int period) {
+        this.notionals = new DoubleRingBuffer(period);
+        this.volumes = new DoubleRingBuffer(period);
+    }
+
+    /**
+     * Dodaje transakcję.
+     *
+     * @param price Cena
+     * @param volume Wolumen
+     * @return Bieżąca wartość VWAP
+     */
+    public double update(double price, double volume) {
+        double notional = price * volume;
+        notionalSum += notional;
+        volumeSum += volume;
+        if (notionals != null) {
+            double evictedNotional = notionals.add(notional);
+            double evictedVolume = volumes.add(volume);
+            if (!Double.isNaN(evictedNotional)) {
+                notionalSum -= evictedNotional;
+                volumeSum -= evictedVolume;
+            }
+        }
+        return getValue();
+    }
+
+    @Override
+    public boolean isReady() {
+        return volumeSum > 0;
+    }
+
+    @Override
+    public double getValue() {
+        return volumeSum > 0 ? notionalSum / volumeSum : Double.NaN;
+    }
+
+    public double getVolume() {
+        return volumeSum;
+    }
+
+    @Override
+    public void reset() {
+        if (notionals != null) {
+            notionals.clear();
+            volumes.clear();
+        }
+        notionalSum = 0;
+        volumeSum = 0;
+    }
+}
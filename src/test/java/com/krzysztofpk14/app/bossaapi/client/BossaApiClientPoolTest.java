@@ -0,0 +1,105 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+
+public class BossaApiClientPoolTest {
+
+    private final BossaApiClientPool pool = new BossaApiClientPool(null, 3, 1);
+
+    @AfterEach
+    public void tearDown() {
+        pool.disconnect();
+    }
+
+    @Test
+    public void testSymbolsSpreadEvenlyAndStably() {
+        // Given
+        int[] perConnection = new int[pool.getMarketDataConnectionCount()];
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            perConnection[pool.getMarketDataConnectionIndex("SYM" + i)]++;
+        }
+
+        // Then
+        assertEquals(3, pool.getMarketDataConnectionCount());
+        for (int count : perConnection) {
+            assertEquals(10, count);
+        }
+        assertEquals(pool.getMarketDataConnectionIndex("SYM7"), pool.getMarketDataConnectionIndex("SYM7"));
+    }
+
+    @Test
+    public void testSubscribeRequiresLogin() throws Exception {
+        // Given
+        MarketDataRequest request = new MarketDataRequest();
+        request.setSubscriptionRequestType(MarketDataRequest.SUBSCRIBE);
+        request.addInstrument("KGHM");
+        request.addInstrument("PKO");
+
+        // When
+        CompletableFuture<MarketDataResponse> future = pool.subscribeMarketData(request);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(0, pool.getActiveSubscriptionCount());
+    }
+
+    @Test
+    public void testConnectOpensOrderAndMarketDataConnections() throws Exception {
+        // Given
+        List<Socket> accepted = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 4; i++) {
+                        accepted.add(server.accept());
+                    }
+                } catch (Exception e) {
+                    // Serwer zamknięty
+                }
+            });
+            acceptor.start();
+
+            // When
+            pool.connect("localhost", server.getLocalPort());
+            acceptor.join(2000);
+
+            // Then: połączenie zleceń i trzy połączenia danych rynkowych
+            assertTrue(pool.isConnected());
+            assertEquals(4, accepted.size());
+
+            pool.disconnect();
+            assertFalse(pool.isConnected());
+        } finally {
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionsShareMarketDataCache() {
+        // Given
+        MarketDataCache cache = pool.getMarketDataCache();
+
+        // When
+        int index = pool.getMarketDataConnectionIndex("CDR");
+
+        // Then: identyfikator instrumentu pochodzi z rejestru wspólnej pamięci notowań
+        assertEquals(cache.getRegistry().getId("CDR") % 3, index);
+    }
+}
@@ -7,6 +7,7 @@ import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
 import com.krzysztofpk14.app.bossaapi.model.response.UserResponse;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.server.BossaApiServer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -80,6 +81,41 @@ public class BossaApiClientTest {
         assertNotNull(future);
     }
     
+    @Test
+    void testSyncCallsRequireLogin() {
+        // When/Then - błąd z Future jest zgłaszany jako wyjątek wywołania synchronicznego
+        assertThrows(IllegalStateException.class, () -> client.sendOrderSync(createTestOrderRequest()));
+        assertThrows(IllegalStateException.class, () -> client.subscribeMarketDataSync(createTestMarketDataRequest()));
+        assertThrows(IllegalStateException.class, () -> client.logoutSync());
+    }
+    
+    @Test
+    void testSyncLoginAndLogoutWithRunningReceiver() throws Exception {
+        // Given
+        BossaApiServer server = new BossaApiServer(24446);
+        server.start();
+        try {
+            client.connect("localhost", 24446);
+            
+            // When - odpowiedź odbiera wątek asynchroniczny, wywołanie czeka na Future
+            UserResponse login = client.loginSync("BOS", "BOS");
+            
+            // Then
+            assertEquals(UserResponse.LOGGED_IN, login.getUserStatus());
+            assertTrue(client.isLoggedIn());
+            
+            // When - kolejne wywołanie synchroniczne po zalogowaniu
+            UserResponse logout = client.logoutSync();
+            
+            // Then
+            assertEquals(UserResponse.LOGGED_OUT, logout.getUserStatus());
+            assertFalse(client.isLoggedIn());
+        } finally {
+            client.disconnect();
+            server.stop();
+        }
+    }
+    
     // Helper methods
     private OrderRequest createTestOrderRequest() {
         OrderRequest order = new OrderRequest();
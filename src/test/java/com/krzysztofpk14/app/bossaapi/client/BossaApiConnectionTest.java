@@ -4,11 +4,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import com.krzysztofpk14.app.bossaapi.util.BufferPool;
+
 public class BossaApiConnectionTest {
     
     private BossaApiConnection connection;
@@ -73,4 +85,149 @@ public class BossaApiConnectionTest {
         // When/Then - Should not throw exception
         connection.stopReceiving();
     }
+
+    @Test
+    public void testSendMessageWritesLengthPrefixedFrame() throws Exception {
+        // Given
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.setTcpNoDelay(true);
+            connection.setBufferSizes(1024, 1024);
+            connection.connect("localhost", server.getLocalPort());
+            
+            try (Socket accepted = server.accept()) {
+                // When
+                connection.sendMessage("<FIXML><UserReq/></FIXML>");
+                
+                // Then
+                DataInputStream input = new DataInputStream(accepted.getInputStream());
+                byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                assertEquals("<FIXML><UserReq/></FIXML>", new String(body, StandardCharsets.UTF_8));
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    @Test
+    public void testConnectionLostListenerCalledWhenServerCloses() throws Exception {
+        // Given
+        CountDownLatch lost = new CountDownLatch(1);
+        connection.setConnectionLostListener(lost::countDown);
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.connect("localhost", server.getLocalPort());
+            connection.startReceivingAsync(message -> { });
+            
+            // When
+            server.accept().close();
+            
+            // Then
+            assertTrue(lost.await(2, TimeUnit.SECONDS));
+            assertFalse(connection.isConnected());
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    @Test
+    public void testDisconnectDoesNotReportConnectionLoss() throws Exception {
+        // Given
+        AtomicBoolean lost = new AtomicBoolean();
+        connection.setConnectionLostListener(() -> lost.set(true));
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.connect("localhost", server.getLocalPort());
+            try (Socket accepted = server.accept()) {
+                connection.startReceivingAsync(message -> { });
+                
+                // When
+                connection.disconnect();
+                
+                // Then: zamknięcie przez klienta widać po stronie serwera jako koniec strumienia
+                assertEquals(-1, accepted.getInputStream().read());
+                assertFalse(lost.get());
+            }
+        }
+    }
+    
+    @Test
+    public void testSendMessagesWritesAllFrames() throws Exception {
+        // Given
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.connect("localhost", server.getLocalPort());
+            
+            try (Socket accepted = server.accept()) {
+                // When
+                connection.sendMessages(List.of("<A/>", "<B/>"));
+                
+                // Then
+                DataInputStream input = new DataInputStream(accepted.getInputStream());
+                for (String expected : new String[] {"<A/>", "<B/>"}) {
+                    byte[] body = new byte[input.readInt()];
+                    input.readFully(body);
+                    assertEquals(expected, new String(body, StandardCharsets.UTF_8));
+                }
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    @Test
+    public void testReceivedFramesReusePooledBuffers() throws Exception {
+        // Given
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.connect("localhost", server.getLocalPort());
+            connection.startReceivingFrames(frame -> {
+                received.add(frame.toString());
+                frame.release();
+            }, Runnable::run);
+            
+            try (Socket accepted = server.accept()) {
+                DataOutputStream output = new DataOutputStream(accepted.getOutputStream());
+                
+                // When
+                for (int i = 0; i < 100; i++) {
+                    byte[] body = ("<Msg n=\"" + i + "\"/>").getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(body.length);
+                    output.write(body);
+                }
+                output.flush();
+                
+                // Then
+                for (int i = 0; i < 100; i++) {
+                    assertEquals("<Msg n=\"" + i + "\"/>", received.poll(5, TimeUnit.SECONDS));
+                }
+                BufferPool pool = connection.getBufferPool();
+                assertEquals(1L, pool.getAllocationCount());
+                assertEquals(1, pool.getFreeCount());
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    @Test
+    public void testSendAndReceiveRejectedWhileAsyncReceiving() throws Exception {
+        // Given
+        try (ServerSocket server = new ServerSocket(0)) {
+            connection.connect("localhost", server.getLocalPort());
+            connection.startReceivingAsync(message -> { });
+            
+            try (Socket accepted = server.accept()) {
+                // When/Then - odpowiedź trafiłaby do wątku odbierającego
+                assertThrows(IllegalStateException.class, () -> connection.sendAndReceive("<A/>"));
+                // Odrzucone żądanie nie zostało wysłane
+                assertEquals(0, accepted.getInputStream().available());
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    @Test
+    public void testInvalidBufferSizesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> connection.setBufferSizes(0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> connection.setSocketBufferSizes(-1, 0));
+    }
 }
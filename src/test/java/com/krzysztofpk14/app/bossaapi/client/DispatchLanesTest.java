@@ -0,0 +1,93 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DispatchLanesTest {
+
+    private DispatchLanes lanes;
+
+    @BeforeEach
+    public void setUp() {
+        lanes = new DispatchLanes(4, "DispatchLanesTest");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lanes.close();
+    }
+
+    @Test
+    public void testOrderPreservedPerKey() throws InterruptedException {
+        // Given
+        List<Integer> kghm = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> pko = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2000);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            int sequence = i;
+            lanes.execute("KGHM", () -> { kghm.add(sequence); done.countDown(); });
+            lanes.execute("PKO", () -> { pko.add(sequence); done.countDown(); });
+        }
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), kghm.get(i));
+            assertEquals(Integer.valueOf(i), pko.get(i));
+        }
+    }
+
+    @Test
+    public void testBlockedLaneDoesNotStallOtherKeys() throws InterruptedException {
+        // Given: dwa klucze w różnych torach
+        String slowKey = "KGHM";
+        String fastKey = null;
+        for (String candidate : new String[] {"PKO", "PKN", "PZU", "CDR", "LPP", "PGE"}) {
+            if (lanes.laneFor(candidate) != lanes.laneFor(slowKey)) {
+                fastKey = candidate;
+                break;
+            }
+        }
+        assertNotNull(fastKey);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+
+        // When
+        lanes.execute(slowKey, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        lanes.execute(fastKey, fastDone::countDown);
+
+        // Then
+        assertTrue(fastDone.await(2, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopLane() throws InterruptedException {
+        // Given
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        lanes.execute("KGHM", () -> { throw new IllegalStateException("test"); });
+        lanes.execute("KGHM", done::countDown);
+
+        // Then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(4, lanes.getLaneCount());
+    }
+}
@@ -0,0 +1,149 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FrameWriterTest {
+
+    @Test
+    public void testFrameLayout() throws IOException {
+        // Given
+        CountingOutputStream output = new CountingOutputStream();
+        FrameWriter writer = new FrameWriter(output, 16, false);
+
+        // When
+        writer.writeFrame("<FIXML/>");
+        writer.writeFrame("zażółć");
+
+        // Then
+        List<String> frames = decode(output.toByteArray());
+        assertEquals(List.of("<FIXML/>", "zażółć"), frames);
+        assertEquals(2, output.writes.get(), "Każda ramka powinna być jednym zapisem");
+        assertEquals(2, writer.getFlushes());
+    }
+
+    @Test
+    public void testMessageLargerThanBuffer() throws IOException {
+        // Given
+        CountingOutputStream output = new CountingOutputStream();
+        FrameWriter writer = new FrameWriter(output, 8, true);
+        String large = "X".repeat(10_000);
+
+        // When
+        writer.writeFrame("A");
+        writer.writeFrame(large);
+
+        // Then
+        assertEquals(List.of("A", large), decode(output.toByteArray()));
+    }
+
+    @Test
+    public void testConcurrentWritersAreCoalesced() throws Exception {
+        // Given: wolne gniazdo - wątki gromadzą się w kolejce do zapisu
+        CountingOutputStream output = new CountingOutputStream(2);
+        FrameWriter writer = new FrameWriter(output, 1024, true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        int framesPerThread = 50;
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < framesPerThread; i++) {
+                        writer.writeFrame("T" + thread + "-" + i);
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then: wszystkie ramki są kompletne, a zapisów jest mniej niż ramek
+        List<String> frames = decode(output.toByteArray());
+        assertEquals(8 * framesPerThread, frames.size());
+        assertEquals(8 * framesPerThread, new HashSet<>(frames).size());
+        assertEquals(8 * framesPerThread, writer.getFramesWritten());
+        assertTrue(writer.getFlushes() < writer.getFramesWritten());
+        Set<String> firstThread = new HashSet<>();
+        for (String frame : frames) {
+            if (frame.startsWith("T0-")) {
+                firstThread.add(frame);
+                // Kolejność ramek jednego wątku jest zachowana
+                assertEquals("T0-" + (firstThread.size() - 1), frame);
+            }
+        }
+    }
+
+    private static List<String> decode(byte[] bytes) {
+        List<String> frames = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            byte[] body = new byte[length];
+            buffer.get(body);
+            frames.add(new String(body, StandardCharsets.UTF_8));
+        }
+        return frames;
+    }
+
+    /**
+     * Strumień liczący zapisy, opcjonalnie spowalniający każdy zapis.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final AtomicInteger writes = new AtomicInteger();
+        private final long delayMillis;
+
+        CountingOutputStream() {
+            this(0);
+        }
+
+        CountingOutputStream(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void write(int b) {
+            writes.incrementAndGet();
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            writes.incrementAndGet();
+            bytes.write(data, offset, length);
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
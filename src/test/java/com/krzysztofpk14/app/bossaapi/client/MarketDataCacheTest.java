@@ -0,0 +1,146 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+public class MarketDataCacheTest {
+
+    private final MarketDataCache cache = new MarketDataCache();
+
+    @Test
+    public void testTradesUpdateLastPriceAndOhlc() {
+        // Given
+        cache.apply(message("KGHM", group(MarketDataResponse.TRADE, "150.00", "10")));
+        cache.apply(message("KGHM", group(MarketDataResponse.TRADE, "152.50", "5")));
+
+        // When
+        MarketDataCache.Quote quote = cache.apply(message("KGHM", group(MarketDataResponse.TRADE, "149.00", "7")));
+
+        // Then
+        assertSame(quote, cache.get("KGHM"));
+        assertSame(quote, cache.get(cache.getRegistry().getId("KGHM")));
+        assertEquals(Price.parse("149.00"), quote.lastPrice());
+        assertEquals(7L, quote.lastSize());
+        assertEquals(Price.parse("150.00"), quote.open());
+        assertEquals(Price.parse("152.50"), quote.high());
+        assertEquals(Price.parse("149.00"), quote.low());
+        assertEquals(3L, quote.updates());
+        assertTrue(quote.newTrade());
+    }
+
+    @Test
+    public void testOfferKeepsLastTrade() {
+        // Given
+        cache.apply(message("PKO", group(MarketDataResponse.TRADE, "45.10", "100")));
+
+        // When
+        MarketDataCache.Quote quote = cache.apply(message("PKO",
+                group(MarketDataResponse.MarketDataGroup.OFFER, "45.20", "300")));
+
+        // Then
+        assertEquals(Price.parse("45.10"), quote.lastPrice());
+        assertEquals(Price.parse("45.20"), quote.askPrice());
+        assertEquals(300L, quote.askSize());
+        assertFalse(quote.newTrade());
+    }
+
+    @Test
+    public void testFixedPointEntryMatchesMessage() {
+        // Given
+        cache.apply(message("KGHM", group(MarketDataResponse.TRADE, "150.00", "10")));
+
+        // When: wpisy stałoprzecinkowe bez komunikatu
+        cache.apply("KGHM", (byte) '1', Price.parse("150.20"), 40, null);
+        MarketDataCache.Quote quote = cache.apply("KGHM", (byte) '2', Price.parse("151.00"), 5, "20240102-09:00:00");
+
+        // Then
+        assertEquals(Price.parse("151.00"), quote.lastPrice());
+        assertEquals(5L, quote.lastSize());
+        assertEquals("20240102-09:00:00", quote.lastTime());
+        assertEquals(Price.parse("150.20"), quote.askPrice());
+        assertEquals(40L, quote.askSize());
+        assertEquals(Price.parse("150.00"), quote.open());
+        assertEquals(Price.parse("151.00"), quote.high());
+        assertEquals(3L, quote.updates());
+        assertTrue(quote.newTrade());
+        assertSame(quote, cache.get("KGHM"));
+    }
+
+    @Test
+    public void testSameMessageAppliedOnce() {
+        // Given
+        MarketDataResponse response = message("PZU", group(MarketDataResponse.TRADE, "42.00", "1"));
+        MarketDataCache.Quote first = cache.apply(response);
+
+        // When
+        MarketDataCache.Quote second = cache.apply(response);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1L, second.updates());
+    }
+
+    @Test
+    public void testStaleMessageDoesNotRollBackQuote() {
+        // Given
+        MarketDataResponse older = message("PZU", group(MarketDataResponse.TRADE, "100.00", "1"));
+        MarketDataResponse newer = message("PZU", group(MarketDataResponse.TRADE, "101.00", "1"));
+        cache.apply(older);
+        MarketDataCache.Quote latest = cache.apply(newer);
+
+        // When
+        MarketDataCache.Quote quote = cache.apply(older);
+
+        // Then
+        assertSame(latest, quote);
+        assertEquals(Price.parse("101.00"), quote.lastPrice());
+        assertEquals(2L, quote.updates());
+        assertEquals(1L, older.getSequenceNumber());
+        assertEquals(2L, newer.getSequenceNumber());
+    }
+
+    @Test
+    public void testUnknownSymbolAndMissingInstrument() {
+        assertNull(cache.get("CDR"));
+        assertEquals(Price.NONE, cache.getLastPrice("CDR"));
+        assertNull(cache.apply(new MarketDataResponse()));
+    }
+
+    @Test
+    public void testManySymbolsGrowStorage() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            cache.apply(message("SYM" + i, group(MarketDataResponse.TRADE, i + 1 + ".00", "1")));
+        }
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Price.parse(i + 1 + ".00"), cache.getLastPrice("SYM" + i));
+        }
+    }
+
+    private static MarketDataResponse message(String symbol, MarketDataResponse.MarketDataGroup group) {
+        MarketDataResponse response = new MarketDataResponse();
+        MarketDataResponse.Instrument instrument = new MarketDataResponse.Instrument();
+        instrument.setSymbol(symbol);
+        response.setInstrument(instrument);
+        List<MarketDataResponse.MarketDataGroup> groups = new ArrayList<>();
+        groups.add(group);
+        response.setMarketDataGroups(groups);
+        return response;
+    }
+
+    private static MarketDataResponse.MarketDataGroup group(String type, String price, String size) {
+        MarketDataResponse.MarketDataGroup group = new MarketDataResponse.MarketDataGroup();
+        group.setMarketDataEntryType(type);
+        group.setPrice(price);
+        group.setSize(size);
+        return group;
+    }
+}
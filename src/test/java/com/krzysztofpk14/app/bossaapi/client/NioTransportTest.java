@@ -0,0 +1,175 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class NioTransportTest {
+
+    private NioTransport transport;
+    private ServerSocket server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        transport = new NioTransport("test-nio");
+        server = new ServerSocket(0);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        transport.close();
+        server.close();
+    }
+
+    @Test
+    public void testPipelinedRequestsOnManyConnections() throws Exception {
+        // Given: serwer odsyła każdą ramkę z powrotem
+        int connections = 20;
+        int requestsPerConnection = 50;
+        Thread echo = startEchoServer(connections);
+        List<BossaApiConnection> clients = new ArrayList<>();
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        for (int i = 0; i < connections; i++) {
+            BossaApiConnection connection = new BossaApiConnection(transport);
+            connection.connect("localhost", server.getLocalPort());
+            connection.startReceivingAsync(received::add, Runnable::run);
+            clients.add(connection);
+        }
+
+        // When: wszystkie żądania wysłane bez czekania na odpowiedzi
+        for (int r = 0; r < requestsPerConnection; r++) {
+            for (int c = 0; c < connections; c++) {
+                clients.get(c).sendMessage("<Req c=\"" + c + "\" r=\"" + r + "\"/>");
+            }
+        }
+
+        // Then
+        for (int i = 0; i < connections * requestsPerConnection; i++) {
+            assertNotNull(received.poll(5, TimeUnit.SECONDS), "Brak odpowiedzi nr " + i);
+        }
+        assertEquals(connections, transport.getConnectionCount());
+        for (BossaApiConnection connection : clients) {
+            connection.disconnect();
+        }
+        assertEquals(0, transport.getConnectionCount());
+        echo.join(2000);
+    }
+
+    @Test
+    public void testFramesReceivedBeforeAsyncStartAreAvailableSynchronously() throws Exception {
+        // Given
+        BossaApiConnection connection = new BossaApiConnection(transport);
+        connection.connect("localhost", server.getLocalPort());
+        try (Socket accepted = server.accept()) {
+            DataOutputStream output = new DataOutputStream(accepted.getOutputStream());
+            byte[] body = "<UserRsp/>".getBytes(StandardCharsets.UTF_8);
+
+            // When
+            output.writeInt(body.length);
+            output.write(body);
+            output.flush();
+
+            // Then
+            assertEquals("<UserRsp/>", connection.receiveMessage());
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testLargeFrameSplitAcrossReads() throws Exception {
+        // Given: ramka większa niż bufor odbioru
+        BossaApiConnection connection = new BossaApiConnection(transport);
+        connection.setBufferSizes(1024, 64);
+        connection.connect("localhost", server.getLocalPort());
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        connection.startReceivingAsync(received::add, Runnable::run);
+        String large = "x".repeat(100_000);
+        try (Socket accepted = server.accept()) {
+            DataOutputStream output = new DataOutputStream(accepted.getOutputStream());
+            byte[] body = large.getBytes(StandardCharsets.UTF_8);
+
+            // When
+            output.writeInt(body.length);
+            output.write(body);
+            output.flush();
+
+            // Then
+            assertEquals(large, received.poll(5, TimeUnit.SECONDS));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testIdleConnectionStaysOpenAndServerCloseIsReported() throws Exception {
+        // Given
+        CountDownLatch lost = new CountDownLatch(1);
+        BossaApiConnection connection = new BossaApiConnection(transport);
+        connection.setConnectionLostListener(lost::countDown);
+        connection.connect("localhost", server.getLocalPort());
+        connection.startReceivingAsync(message -> { }, Runnable::run);
+        Socket accepted = server.accept();
+
+        // When: brak ruchu na połączeniu
+        Thread.sleep(200);
+
+        // Then
+        assertTrue(connection.isConnected());
+        assertEquals(1L, lost.getCount());
+
+        // When: serwer zamyka połączenie
+        accepted.close();
+
+        // Then
+        assertTrue(lost.await(2, TimeUnit.SECONDS));
+        assertFalse(connection.isConnected());
+    }
+
+    private Thread startEchoServer(int connections) {
+        Thread thread = new Thread(() -> {
+            try {
+                for (int i = 0; i < connections; i++) {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> echo(socket));
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (Exception e) {
+                // Serwer zamknięty
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void echo(Socket socket) {
+        try (socket) {
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            while (true) {
+                byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                output.writeInt(body.length);
+                output.write(body);
+                output.flush();
+            }
+        } catch (Exception e) {
+            // Połączenie zamknięte
+        }
+    }
+}
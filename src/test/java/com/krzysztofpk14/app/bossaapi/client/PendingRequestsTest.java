@@ -0,0 +1,136 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.krzysztofpk14.app.bossaapi.util.TimerWheel;
+
+public class PendingRequestsTest {
+
+    private TimerWheel wheel;
+    private PendingRequests pendingRequests;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new TimerWheel("PendingRequestsTest", 10, 64);
+        pendingRequests = new PendingRequests(wheel, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    public void testCompleteWithFirstResponse() throws Exception {
+        // Given
+        CompletableFuture<String> future = pendingRequests.register(PendingRequests.Type.ORDER, "ORD-1", 10_000);
+
+        // When
+        boolean first = pendingRequests.complete(PendingRequests.Type.ORDER, "ORD-1", "NEW");
+        boolean second = pendingRequests.complete(PendingRequests.Type.ORDER, "ORD-1", "FILL");
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals("NEW", future.get());
+        assertEquals(0, pendingRequests.size());
+        assertEquals(0, wheel.getPendingTimeouts());
+    }
+
+    @Test
+    public void testTypesHaveSeparateIdSpaces() throws Exception {
+        // Given
+        CompletableFuture<String> order = pendingRequests.register(PendingRequests.Type.ORDER, "1", 10_000);
+        CompletableFuture<String> marketData = pendingRequests.register(PendingRequests.Type.MARKET_DATA, "1", 10_000);
+
+        // When
+        pendingRequests.complete(PendingRequests.Type.MARKET_DATA, "1", "MD");
+
+        // Then
+        assertEquals("MD", marketData.get());
+        assertFalse(order.isDone());
+        assertTrue(pendingRequests.isPending(PendingRequests.Type.ORDER, "1"));
+    }
+
+    @Test
+    public void testTimeoutRemovesEntry() {
+        // Given
+        CompletableFuture<String> future = pendingRequests.register(PendingRequests.Type.USER, "U-1", 30);
+
+        // When
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+
+        // Then
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, pendingRequests.size());
+        assertFalse(pendingRequests.isPending(PendingRequests.Type.USER, "U-1"));
+    }
+
+    @Test
+    public void testCallerCancellationReleasesEntry() {
+        // Given
+        CompletableFuture<String> future = pendingRequests.register(PendingRequests.Type.ORDER, "ORD-2", 10_000);
+
+        // When
+        future.cancel(false);
+
+        // Then
+        assertEquals(0, pendingRequests.size());
+        assertEquals(0, wheel.getPendingTimeouts());
+    }
+
+    @Test
+    public void testLimitRejectsNewRequests() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            pendingRequests.register(PendingRequests.Type.ORDER, "ORD-" + i, 10_000);
+        }
+
+        // When
+        CompletableFuture<String> rejected = pendingRequests.register(PendingRequests.Type.ORDER, "ORD-X", 10_000);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+        assertEquals(3, pendingRequests.size());
+    }
+
+    @Test
+    public void testDuplicateIdReplacesPreviousRequest() throws Exception {
+        // Given
+        CompletableFuture<String> previous = pendingRequests.register(PendingRequests.Type.MARKET_DATA, "MD-1", 10_000);
+
+        // When
+        CompletableFuture<String> current = pendingRequests.register(PendingRequests.Type.MARKET_DATA, "MD-1", 10_000);
+        pendingRequests.complete(PendingRequests.Type.MARKET_DATA, "MD-1", "OK");
+
+        // Then
+        assertTrue(previous.isCompletedExceptionally());
+        assertEquals("OK", current.get());
+        assertEquals(0, pendingRequests.size());
+    }
+
+    @Test
+    public void testFailAll() {
+        // Given
+        CompletableFuture<String> first = pendingRequests.register(PendingRequests.Type.USER, "U-1", 10_000);
+        CompletableFuture<String> second = pendingRequests.register(PendingRequests.Type.ORDER, "ORD-1", 10_000);
+
+        // When
+        pendingRequests.failAll(new IllegalStateException("disconnected"));
+
+        // Then
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, pendingRequests.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.krzysztofpk14.app.bossaapi.client;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReconnectSupervisorTest {
+
+    @Test
+    public void testExponentialBackoffIsCapped() {
+        // Given
+        ReconnectSupervisor supervisor = new ReconnectSupervisor("test", () -> { }, 100, 1000);
+
+        // When / Then
+        assertEquals(100, supervisor.delayAfter(1));
+        assertEquals(200, supervisor.delayAfter(2));
+        assertEquals(400, supervisor.delayAfter(3));
+        assertEquals(800, supervisor.delayAfter(4));
+        assertEquals(1000, supervisor.delayAfter(5));
+        assertEquals(1000, supervisor.delayAfter(100));
+    }
+
+    @Test
+    public void testRetriesUntilActionSucceeds() throws Exception {
+        // Given: dwie pierwsze próby kończą się błędem
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch reconnected = new CountDownLatch(1);
+        ReconnectSupervisor supervisor = new ReconnectSupervisor("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IOException("Serwer niedostępny");
+            }
+        }, 10, 50);
+        supervisor.setReconnectListener(reconnected::countDown);
+
+        // When
+        supervisor.trigger();
+
+        // Then
+        assertTrue(reconnected.await(2, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+        assertEquals(3L, supervisor.getAttempts());
+    }
+
+    @Test
+    public void testStopInterruptsRetries() throws Exception {
+        // Given
+        CountDownLatch firstAttempt = new CountDownLatch(1);
+        ReconnectSupervisor supervisor = new ReconnectSupervisor("test", () -> {
+            firstAttempt.countDown();
+            throw new IOException("Serwer niedostępny");
+        }, 10_000, 10_000);
+        supervisor.trigger();
+        assertTrue(firstAttempt.await(2, TimeUnit.SECONDS));
+
+        // When
+        supervisor.stop();
+
+        // Then
+        assertFalse(supervisor.isReconnecting());
+        assertEquals(1L, supervisor.getAttempts());
+    }
+
+    @Test
+    public void testInvalidDelaysRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ReconnectSupervisor("test", () -> { }, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ReconnectSupervisor("test", () -> { }, 200, 100));
+    }
+}
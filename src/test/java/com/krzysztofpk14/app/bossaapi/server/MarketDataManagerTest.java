@@ -0,0 +1,135 @@
+package com.krzysztofpk14.app.bossaapi.server;
+
+import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MarketDataManagerTest {
+
+    private MarketDataManager marketDataManager;
+    private List<MarketDataResponse> received;
+
+    @BeforeEach
+    public void setUp() {
+        marketDataManager = new MarketDataManager();
+        received = new ArrayList<>();
+        marketDataManager.registerMarketDataListener(received::add);
+    }
+
+    @Test
+    public void testPublishesOnlyToSubscribedSymbols() {
+        // Given
+        marketDataManager.subscribeMarketData(createRequest("req-1", "KGHM"), null);
+
+        // When
+        marketDataManager.publishTick("PKO", Price.fromDouble(47.5), 10, (byte) '0', 0);
+        marketDataManager.publishTick("KGHM", Price.fromDouble(151), 10, (byte) '0', 0);
+
+        // Then
+        assertEquals(1, received.size());
+        assertEquals("KGHM", received.get(0).getInstrument().getSymbol());
+        assertEquals("req-1", received.get(0).getRequestId());
+    }
+
+    @Test
+    public void testSubscriptionWithoutInstrumentsReceivesAllSymbols() {
+        // Given
+        marketDataManager.subscribeMarketData(createRequest("req-all"), null);
+
+        // When
+        marketDataManager.publishTick("PKO", Price.fromDouble(47.5), 10, (byte) '0', 0);
+        marketDataManager.publishTick("NEW", Price.fromDouble(1), 10, (byte) '0', 0);
+
+        // Then
+        assertEquals(2, received.size());
+        assertEquals("NEW", received.get(1).getInstrument().getSymbol());
+    }
+
+    @Test
+    public void testExplicitAllSubscriptionReceivesAllSymbols() {
+        // Given
+        assertTrue(marketDataManager.subscribeMarketData(createRequest("req-all", MarketDataManager.ALL_SYMBOLS), null));
+
+        // When
+        marketDataManager.publishTick("PKO", Price.fromDouble(47.5), 10, (byte) '0', 0);
+        marketDataManager.publishTick("KGHM", Price.fromDouble(151), 10, (byte) '0', 0);
+
+        // Then
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void testUnknownSymbolsAreRejected() {
+        // Given
+        int registered = marketDataManager.getInstrumentRegistry().size();
+
+        // When
+        boolean unknownOnly = marketDataManager.subscribeMarketData(createRequest("req-1", "XYZ1", "XYZ2"), null);
+        boolean mixed = marketDataManager.subscribeMarketData(createRequest("req-2", "KGHM", "XYZ3"), null);
+        marketDataManager.publishTick("KGHM", Price.fromDouble(151), 10, (byte) '0', 0);
+
+        // Then
+        assertFalse(unknownOnly);
+        assertTrue(mixed);
+        assertEquals(registered, marketDataManager.getInstrumentRegistry().size(), "Subscriptions must not grow the registry");
+        assertEquals(1, received.size());
+        assertEquals("req-2", received.get(0).getRequestId());
+    }
+
+    @Test
+    public void testUnsubscribeStopsUpdates() {
+        // Given
+        marketDataManager.subscribeMarketData(createRequest("req-1", "KGHM"), null);
+        marketDataManager.unsubscribeMarketData("req-1");
+
+        // When
+        marketDataManager.publishTick("KGHM", Price.fromDouble(151), 10, (byte) '0', 0);
+
+        // Then
+        assertTrue(received.isEmpty());
+        assertFalse(marketDataManager.hasSubscription("req-1", null));
+    }
+
+    @Test
+    public void testUnsubscribeAllRemovesSessionSubscriptions() {
+        // Given
+        marketDataManager.subscribeMarketData(createRequest("req-1", "KGHM", "PKO"), null);
+        assertTrue(marketDataManager.hasSubscription("req-1", null));
+
+        // When
+        marketDataManager.unsubscribeAllMarketData(null);
+        marketDataManager.publishTick("PKO", Price.fromDouble(47.5), 10, (byte) '0', 0);
+
+        // Then
+        assertFalse(marketDataManager.hasSubscription("req-1", null));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotUsesLatestPrice() {
+        // Given
+        marketDataManager.publishTick("KGHM", Price.fromDouble(155.25), 10, (byte) '0', 0);
+
+        // When
+        MarketDataResponse snapshot = marketDataManager.getMarketDataSnapshot(createRequest("snap", "KGHM"));
+
+        // Then
+        assertEquals("155.25", snapshot.getMarketDataGroups().get(0).getPrice());
+    }
+
+    private MarketDataRequest createRequest(String requestId, String... symbols) {
+        MarketDataRequest request = new MarketDataRequest();
+        request.setRequestId(requestId);
+        for (String symbol : symbols) {
+            request.addInstrument(symbol);
+        }
+        return request;
+    }
+}
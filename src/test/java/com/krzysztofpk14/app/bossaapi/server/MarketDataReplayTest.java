@@ -0,0 +1,134 @@
+package com.krzysztofpk14.app.bossaapi.server;
+
+import com.krzysztofpk14.app.bossaapi.model.request.MarketDataRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MarketDataReplayTest {
+
+    private Path file;
+    private MarketDataManager marketDataManager;
+    private List<MarketDataResponse> received;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("replay", ".csv");
+        marketDataManager = new MarketDataManager();
+        received = new CopyOnWriteArrayList<>();
+        marketDataManager.registerMarketDataListener(received::add);
+
+        MarketDataRequest request = new MarketDataRequest();
+        request.setRequestId("replay-req");
+        request.addInstrument("KGHM");
+        marketDataManager.subscribeMarketData(request, null);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        marketDataManager.stopReplay();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testAsFastAsPossibleReplaysSubscribedSymbols() throws Exception {
+        // Given
+        Files.write(file, ("1000,KGHM,150.5,100\n"
+                + "2000,PKO,47.2,10\n"
+                + "3000,KGHM,151.25,200,2\n").getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        MarketDataReplay replay = marketDataManager.startReplay(file, MarketDataReplay.Pacing.AS_FAST_AS_POSSIBLE, 1);
+        awaitCompletion(replay);
+
+        // Then
+        assertEquals(3, replay.getReplayedTicks());
+        assertEquals(2, received.size());
+        MarketDataResponse.MarketDataGroup first = received.get(0).getMarketDataGroups().get(0);
+        assertEquals("KGHM", received.get(0).getInstrument().getSymbol());
+        assertEquals("replay-req", received.get(0).getRequestId());
+        assertEquals("150.50", first.getPrice());
+        assertEquals("100", first.getSize());
+        assertEquals(MarketDataResponse.TRADE, first.getMarketDataEntryType());
+
+        MarketDataResponse.MarketDataGroup second = received.get(1).getMarketDataGroups().get(0);
+        assertEquals("151.25", second.getPrice());
+        assertEquals("2", second.getMarketDataEntryType());
+    }
+
+    @Test
+    public void testListenerAddedAfterCompletionRunsImmediately() throws Exception {
+        // Given
+        Files.write(file, "1000,KGHM,150.5,100\n".getBytes(StandardCharsets.US_ASCII));
+        MarketDataReplay replay = marketDataManager.startReplay(file, MarketDataReplay.Pacing.AS_FAST_AS_POSSIBLE, 1);
+        awaitCompletion(replay);
+
+        // When
+        CountDownLatch completed = new CountDownLatch(1);
+        replay.setCompletionListener(completed::countDown);
+
+        // Then
+        assertTrue(completed.await(5, TimeUnit.SECONDS), "Listener registered after completion should still run");
+    }
+
+    @Test
+    public void testAcceleratedPacingCompressesGaps() throws Exception {
+        // Given - 2 sekundy danych odtwarzane 20 razy szybciej
+        Files.write(file, ("0,KGHM,150,1\n"
+                + "1000,KGHM,151,1\n"
+                + "2000,KGHM,152,1\n").getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        long start = System.nanoTime();
+        MarketDataReplay replay = marketDataManager.startReplay(file, MarketDataReplay.Pacing.ACCELERATED, 20);
+        awaitCompletion(replay);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals(3, received.size());
+        assertTrue(elapsedMillis >= 90, "Odtwarzanie zbyt szybkie: " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis < 1500, "Odtwarzanie zbyt wolne: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testStopInterruptsWallClockReplay() throws Exception {
+        // Given - odstęp godziny między tickami
+        Files.write(file, ("0,KGHM,150,1\n"
+                + "3600000,KGHM,151,1\n").getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        MarketDataReplay replay = marketDataManager.startReplay(file, MarketDataReplay.Pacing.WALL_CLOCK, 1);
+        Thread.sleep(100);
+        marketDataManager.stopReplay();
+
+        // Then
+        assertFalse(replay.isRunning());
+        assertEquals(1, replay.getReplayedTicks());
+    }
+
+    @Test
+    public void testRejectsNonPositiveSpeed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MarketDataReplay(marketDataManager, null, MarketDataReplay.Pacing.ACCELERATED, 0));
+    }
+
+    private void awaitCompletion(MarketDataReplay replay) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (replay.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(replay.isRunning());
+    }
+}
@@ -1,8 +1,11 @@
 package com.krzysztofpk14.app.bossaapi.server;
 
 import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderStatusRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,13 +19,19 @@ import java.util.function.Consumer;
 public class OrderManagerTest {
 
     private OrderManager orderManager;
+    private InstrumentRegistry instrumentRegistry;
     private List<ExecutionReport> receivedReports;
     private MarketDataManager mockMarketDataManager;
     
     @BeforeEach
     public void setUp() {
+        // Zlecenia są przyjmowane tylko na instrumenty z rejestru
+        instrumentRegistry = new InstrumentRegistry();
+        for (String symbol : List.of("AAPL", "MSFT", "AMZN", "GOOGL", "NVDA")) {
+            instrumentRegistry.register(symbol);
+        }
         mockMarketDataManager = new MockMarketDataManager();
-        orderManager = new OrderManager();
+        orderManager = new OrderManager(instrumentRegistry);
         orderManager.setMarketDataManager(mockMarketDataManager);
         receivedReports = new ArrayList<>();
         
@@ -49,6 +58,41 @@ public class OrderManagerTest {
         assertEquals(order.getPrice(), report.getPrice());
         assertEquals("AAPL", report.getInstrument().getSymbol());
     }
+    @Test
+    public void testUnknownInstrumentRejected() {
+        // Given
+        OrderRequest order = createTestLimitOrder("unknown-1", "XYZ", "10.00", "1", OrderRequest.BUY);
+        int registered = instrumentRegistry.size();
+        
+        // When
+        ExecutionReport report = orderManager.processOrder(order, "testuser");
+        
+        // Then
+        assertEquals(ExecutionReport.REJECTED, report.getExecutionType());
+        assertEquals(ExecutionReport.REJECTED_ORDER, report.getOrderStatus());
+        assertEquals("unknown-1", report.getClientOrderId());
+        assertNotNull(report.getText(), "Rejection should explain the reason");
+        assertEquals(registered, instrumentRegistry.size(), "Client symbols must not grow the registry");
+        assertEquals(0, orderManager.getActiveOrderCount());
+        assertTrue(receivedReports.isEmpty(), "Rejection goes only to the sender");
+    }
+    
+    @Test
+    public void testOrderWithoutInstrumentRejected() {
+        // Given
+        OrderRequest order = createTestLimitOrder("no-instrument", "AAPL", "10.00", "1", OrderRequest.BUY);
+        order.setInstrument(null);
+        
+        // When
+        ExecutionReport report = orderManager.processOrder(order, "testuser");
+        
+        // Then
+        assertEquals(ExecutionReport.REJECTED, report.getExecutionType());
+        assertEquals(ExecutionReport.REJECTED_ORDER, report.getOrderStatus());
+        assertNull(report.getInstrument());
+        assertEquals(0, orderManager.getActiveOrderCount());
+    }
+    
       // Test to verify that order is stored properly (checking by order count instead of direct retrieval)
     @Test
     public void testOrderStorage() {
@@ -109,6 +153,86 @@ public class OrderManagerTest {
         ExecutionReport execReport = receivedReports.get(0);
         assertEquals(ExecutionReport.TRANSACTION, execReport.getExecutionType());
         assertEquals("10", execReport.getLastQuantity(), "Last quantity should match order quantity");
+        assertEquals("95.00", execReport.getLastPrice(), "Last price should be formatted with a dot separator");
+    }
+    
+    @Test
+    public void testLimitPriceRoundedToTickSize() {
+        // Given: KGHM quoted in 0.05 steps, buy limit off the tick grid (150.04 -> 150.00)
+        InstrumentRegistry registry = new InstrumentRegistry();
+        registry.register("KGHM", Price.parse("0.05"));
+        MockMarketDataManager marketDataManager = new MockMarketDataManager();
+        OrderManager tickAwareManager = new OrderManager(registry);
+        tickAwareManager.setMarketDataManager(marketDataManager);
+        List<ExecutionReport> reports = new ArrayList<>();
+        tickAwareManager.registerExecutionListener(reports::add);
+        tickAwareManager.processOrder(createTestLimitOrder("tick-1", "KGHM", "150.04", "1", OrderRequest.BUY), "user");
+        reports.clear();
+        
+        // When: price above the rounded limit
+        marketDataManager.triggerPriceUpdate(createTrade("KGHM", "150.02"));
+        
+        // Then
+        assertTrue(reports.isEmpty(), "Order should not execute above the rounded limit");
+        
+        // When: price at the rounded limit
+        marketDataManager.triggerPriceUpdate(createTrade("KGHM", "150.00"));
+        
+        // Then
+        assertEquals(1, reports.size());
+        assertEquals("150.00", reports.get(0).getLastPrice());
+    }
+    
+    @Test
+    public void testOrderStatusAfterExecution() {
+        // Given
+        ExecutionReport accepted = orderManager.processOrder(
+                createTestLimitOrder("status-1", "AAPL", "120.00", "10", OrderRequest.BUY), "testuser");
+        ((MockMarketDataManager) mockMarketDataManager).triggerPriceUpdate(createTrade("AAPL", "95.00"));
+        
+        // When: zakończone zlecenie wskazywane przez OrderID z raportu NEW
+        OrderStatusRequest request = new OrderStatusRequest("req-1", "status-1", "AAPL");
+        request.setOrderId(accepted.getOrderId());
+        ExecutionReport status = orderManager.getOrderStatus(request, "testuser");
+        ExecutionReport byClientOrderId = orderManager.getOrderStatus(
+                new OrderStatusRequest("req-2", "status-1", "AAPL"), "testuser");
+        ExecutionReport unknown = orderManager.getOrderStatus(new OrderStatusRequest("req-3", "missing", "AAPL"), "testuser");
+        
+        // Then
+        assertNull(byClientOrderId, "Finished orders should leave the ClOrdID index");
+        assertNotNull(status);
+        assertEquals(ExecutionReport.ORDER_STATUS, status.getExecutionType());
+        assertEquals(ExecutionReport.DONE, status.getOrderStatus());
+        assertEquals("status-1", status.getClientOrderId());
+        assertEquals("10", status.getCumulativeQuantity());
+        assertEquals("95.00", status.getLastPrice());
+        assertEquals("95.00", status.getAveragePrice());
+        assertEquals("testuser", status.getAccount(), "Status report should name the order's owner");
+        assertNull(unknown);
+    }
+    
+    @Test
+    public void testOrderStatusOnlyForOwner() {
+        // Given: dwóch klientów używa tego samego ClOrdID
+        ExecutionReport first = orderManager.processOrder(
+                createTestLimitOrder("MAC-ORD-LONG1", "AAPL", "100.00", "10", OrderRequest.BUY), "alice");
+        ExecutionReport second = orderManager.processOrder(
+                createTestLimitOrder("MAC-ORD-LONG1", "AAPL", "101.00", "5", OrderRequest.BUY), "bob");
+        
+        // When
+        ExecutionReport alice = orderManager.getOrderStatus(new OrderStatusRequest("req-1", "MAC-ORD-LONG1", "AAPL"), "alice");
+        ExecutionReport bob = orderManager.getOrderStatus(new OrderStatusRequest("req-2", "MAC-ORD-LONG1", "AAPL"), "bob");
+        OrderStatusRequest foreign = new OrderStatusRequest("req-3", null, "AAPL");
+        foreign.setOrderId(first.getOrderId());
+        
+        // Then
+        assertEquals(first.getOrderId(), alice.getOrderId());
+        assertEquals(second.getOrderId(), bob.getOrderId());
+        assertEquals("10", alice.getOrderQuantity().getQuantity());
+        assertEquals("5", bob.getOrderQuantity().getQuantity());
+        assertNull(orderManager.getOrderStatus(foreign, "bob"), "Another user's order should not be visible");
+        assertNull(orderManager.getOrderStatus(foreign, null));
+        assertEquals(2, orderManager.getActiveOrderCount());
     }
     
     @Test
@@ -185,6 +309,17 @@ public class OrderManagerTest {
         return order;
     }
     
+    private MarketDataResponse createTrade(String symbol, String price) {
+        MarketDataResponse marketData = new MarketDataResponse();
+        marketData.setInstrument(createMarketDataInstrument(symbol));
+        List<MarketDataResponse.MarketDataGroup> groups = new ArrayList<>();
+        MarketDataResponse.MarketDataGroup group = new MarketDataResponse.MarketDataGroup();
+        group.setPrice(price);
+        groups.add(group);
+        marketData.setMarketDataGroups(groups);
+        return marketData;
+    }
+    
     private void collectExecutionReport(ExecutionReport report) {
         receivedReports.add(report);
     }
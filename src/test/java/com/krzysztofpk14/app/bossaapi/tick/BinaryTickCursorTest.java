@@ -0,0 +1,88 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+public class BinaryTickCursorTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Given
+        try (BinaryTickWriter writer = new BinaryTickWriter(file, Arrays.asList("KGHM", "PKO"))) {
+            writer.write("KGHM", 1_000L, Price.fromDouble(150.5), 100, (byte) '2');
+            writer.write("PKO", 2_000L, Price.fromDouble(47.2), 50, (byte) '0');
+        }
+
+        // When
+        try (TickCursor cursor = TickCursor.open(file)) {
+            // Then
+            assertTrue(cursor instanceof BinaryTickCursor);
+            assertTrue(cursor.next());
+            assertEquals("KGHM", cursor.symbol());
+            assertEquals(1_000L, cursor.timestampNanos());
+            assertEquals(150.5, Price.toDouble(cursor.price()), 0.0);
+            assertEquals(100L, cursor.size());
+            assertEquals((byte) '2', cursor.entryType());
+
+            assertTrue(cursor.next());
+            assertEquals("PKO", cursor.symbol());
+            assertEquals(472_000L, cursor.price());
+
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    public void testRecordsCrossingMappingWindow() throws IOException {
+        // Given
+        int count = 1000;
+        try (BinaryTickWriter writer = new BinaryTickWriter(file, Arrays.asList("CDR"))) {
+            for (int i = 0; i < count; i++) {
+                writer.write("CDR", i, i * 10L, i, (byte) '0');
+            }
+        }
+
+        // When
+        int read = 0;
+        try (TickCursor cursor = new BinaryTickCursor(file, 1024)) {
+            while (cursor.next()) {
+                assertEquals(read, cursor.timestampNanos());
+                assertEquals(read * 10L, cursor.price());
+                read++;
+            }
+        }
+
+        // Then
+        assertEquals(count, read);
+    }
+
+    @Test
+    public void testRejectsInvalidHeader() throws IOException {
+        // Given
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        // When / Then
+        assertThrows(IOException.class, () -> new BinaryTickCursor(file));
+    }
+}
@@ -0,0 +1,121 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class ColumnarTickCursorTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("KGHM", TickFormat.COLUMNAR_EXTENSION);
+        Files.delete(file);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testRoundTripAcrossBlocks() throws IOException {
+        // Given - więcej ticków niż mieści jeden blok, ceny rosnące i malejące
+        int count = TickFormat.COLUMNAR_BLOCK_TICKS * 2 + 17;
+        long start = 1_700_000_000_000_000_000L;
+        try (ColumnarTickWriter writer = new ColumnarTickWriter(file, "KGHM")) {
+            for (int i = 0; i < count; i++) {
+                writer.write(start + i * 1_000_000L, 1_500_000L + (i % 7 - 3) * 100L, i % 500, (byte) (i % 2 == 0 ? '0' : '2'));
+            }
+        }
+
+        // When
+        int read = 0;
+        try (TickCursor cursor = TickCursor.open(file)) {
+            assertTrue(cursor instanceof ColumnarTickCursor);
+            while (cursor.next()) {
+                // Then
+                assertEquals("KGHM", cursor.symbol());
+                assertEquals(start + read * 1_000_000L, cursor.timestampNanos());
+                assertEquals(1_500_000L + (read % 7 - 3) * 100L, cursor.price());
+                assertEquals(read % 500, cursor.size());
+                assertEquals((byte) (read % 2 == 0 ? '0' : '2'), cursor.entryType());
+                read++;
+            }
+        }
+        assertEquals(count, read);
+    }
+
+    @Test
+    public void testAppendToExistingFile() throws IOException {
+        // Given
+        try (ColumnarTickWriter writer = new ColumnarTickWriter(file, "KGHM")) {
+            writer.write(1, 10, 1, (byte) '0');
+        }
+        try (ColumnarTickWriter writer = new ColumnarTickWriter(file, "KGHM")) {
+            writer.write(2, 20, 2, (byte) '0');
+        }
+
+        // When
+        try (TickCursor cursor = new ColumnarTickCursor(file)) {
+            // Then
+            assertTrue(cursor.next());
+            assertEquals(10, cursor.price());
+            assertTrue(cursor.next());
+            assertEquals(20, cursor.price());
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    public void testEncodingIsCompact() throws IOException {
+        // Given - ticki co 1 ms z małymi zmianami ceny
+        int count = 1000;
+        try (ColumnarTickWriter writer = new ColumnarTickWriter(file, "KGHM")) {
+            for (int i = 0; i < count; i++) {
+                writer.write(1_700_000_000_000_000_000L + i * 1_000_000L, 1_500_000L + (i % 3) * 100L, 100, (byte) '0');
+            }
+        }
+
+        // Then - znacznie mniej niż 29 bajtów na tick formatu rekordowego
+        assertTrue(Files.size(file) < count * 10L, "Rozmiar pliku: " + Files.size(file));
+    }
+
+    @Test
+    public void testMergingCursorOrdersByTime() throws IOException {
+        // Given
+        Path other = Files.createTempFile("PKO", TickFormat.COLUMNAR_EXTENSION);
+        Files.delete(other);
+        try {
+            try (ColumnarTickWriter kghm = new ColumnarTickWriter(file, "KGHM");
+                 ColumnarTickWriter pko = new ColumnarTickWriter(other, "PKO")) {
+                kghm.write(1, 1, 1, (byte) '0');
+                kghm.write(4, 4, 1, (byte) '0');
+                pko.write(2, 2, 1, (byte) '0');
+                pko.write(3, 3, 1, (byte) '0');
+                pko.write(5, 5, 1, (byte) '0');
+            }
+
+            // When
+            StringBuilder order = new StringBuilder();
+            try (TickCursor cursor = new MergingTickCursor(Arrays.asList(
+                    new ColumnarTickCursor(file), new ColumnarTickCursor(other)))) {
+                while (cursor.next()) {
+                    order.append(cursor.timestampNanos()).append(cursor.symbol()).append(' ');
+                }
+            }
+
+            // Then
+            assertEquals("1KGHM 2PKO 3PKO 4KGHM 5PKO ", order.toString());
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+public class CsvTickCursorTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadsTicksAndSkipsHeader() throws IOException {
+        // Given
+        Files.write(file, ("timestamp,symbol,price,size,type\r\n"
+                + "1000,KGHM,150.5,100,2\r\n"
+                + "1500,PKO,47.2125,250\n"
+                + "2000,KGHM,151,10").getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        try (TickCursor cursor = new CsvTickCursor(file, TimeUnit.MILLISECONDS)) {
+            // Then
+            assertTrue(cursor.next());
+            assertEquals("KGHM", cursor.symbol());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), cursor.timestampNanos());
+            assertEquals(1_505_000L, cursor.price());
+            assertEquals(100L, cursor.size());
+            assertEquals((byte) '2', cursor.entryType());
+
+            assertTrue(cursor.next());
+            assertEquals("PKO", cursor.symbol());
+            assertEquals(472_125L, cursor.price());
+            assertEquals(250L, cursor.size());
+            assertEquals(TickFormat.DEFAULT_ENTRY_TYPE, cursor.entryType());
+
+            assertTrue(cursor.next());
+            String symbol = cursor.symbol();
+            assertEquals("KGHM", symbol);
+            assertEquals(1_510_000L, cursor.price());
+
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    public void testExtraDecimalsRoundLikePriceParse() throws IOException {
+        // Given - ceny z 5 miejscami po przecinku
+        String[] prices = {"47.21255", "47.21254", "-1.00005", "0.99999"};
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < prices.length; i++) {
+            csv.append(i).append(",PKO,").append(prices[i]).append(",1\n");
+        }
+        Files.write(file, csv.toString().getBytes(StandardCharsets.US_ASCII));
+
+        // When / Then
+        try (TickCursor cursor = new CsvTickCursor(file, TimeUnit.MILLISECONDS)) {
+            for (String price : prices) {
+                assertTrue(cursor.next());
+                assertEquals(Price.parse(price), cursor.price(), price);
+            }
+        }
+        assertEquals(472_126L, Price.parse("47.21255"));
+    }
+
+    @Test
+    public void testReusesSymbolInstances() throws IOException {
+        // Given
+        Files.write(file, "1,CDR,1.0,1\n2,CDR,2.0,1\n".getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        try (TickCursor cursor = new CsvTickCursor(file, TimeUnit.MILLISECONDS)) {
+            cursor.next();
+            String first = cursor.symbol();
+            cursor.next();
+
+            // Then
+            assertSame(first, cursor.symbol());
+        }
+    }
+
+    @Test
+    public void testLinesCrossingMappingWindow() throws IOException {
+        // Given - plik kilkukrotnie większy niż okno mapowania
+        StringBuilder sb = new StringBuilder();
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            sb.append(i + 1).append(",PKN,").append(78 + i % 10).append(".25,").append(i).append('\n');
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        int read = 0;
+        long lastSize = -1;
+        try (TickCursor cursor = new CsvTickCursor(file, TimeUnit.MILLISECONDS, 1024)) {
+            while (cursor.next()) {
+                assertEquals("PKN", cursor.symbol());
+                assertEquals(lastSize + 1, cursor.size());
+                lastSize = cursor.size();
+                read++;
+            }
+        }
+
+        // Then
+        assertEquals(count, read);
+    }
+
+    @Test
+    public void testOpenSelectsCsvByExtension() throws IOException {
+        // Given
+        Files.write(file, "5,PZU,33.8,1\n".getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        try (TickCursor cursor = TickCursor.open(file)) {
+            // Then
+            assertTrue(cursor instanceof CsvTickCursor);
+            assertTrue(cursor.next());
+            assertEquals("PZU", cursor.symbol());
+        }
+    }
+}
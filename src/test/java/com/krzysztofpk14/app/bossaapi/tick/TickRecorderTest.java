@@ -0,0 +1,162 @@
+package com.krzysztofpk14.app.bossaapi.tick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+
+public class TickRecorderTest {
+
+    // 2024-03-01T10:00:00Z w nanosekundach
+    private static final long DAY_ONE = 1_709_287_200_000_000_000L;
+    private static final long ONE_DAY = 86_400_000_000_000L;
+
+    private Path root;
+    private InstrumentRegistry registry;
+    private TickRecorder recorder;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("ticks");
+        registry = new InstrumentRegistry();
+        recorder = new TickRecorder(root, registry, 1024, ZoneOffset.UTC).start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        recorder.close();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testWritesPerDayPerSymbolFiles() throws IOException {
+        // Given
+        recorder.record(registry.register("KGHM"), DAY_ONE, 1_500_000L, 100, (byte) '0');
+        recorder.record(registry.register("PKO"), DAY_ONE + 1, 472_000L, 10, (byte) '0');
+        recorder.record(registry.register("KGHM"), DAY_ONE + ONE_DAY, 1_510_000L, 50, (byte) '2');
+
+        // When
+        recorder.close();
+
+        // Then
+        assertEquals(3, recorder.getRecordedTicks());
+        assertEquals(0, recorder.getDroppedTicks());
+        assertTrue(Files.exists(ColumnarTickStore.symbolFile(root, LocalDate.of(2024, 3, 1), "KGHM")));
+        assertTrue(Files.exists(ColumnarTickStore.symbolFile(root, LocalDate.of(2024, 3, 1), "PKO")));
+        assertTrue(Files.exists(ColumnarTickStore.symbolFile(root, LocalDate.of(2024, 3, 2), "KGHM")));
+        assertFalse(Files.exists(ColumnarTickStore.symbolFile(root, LocalDate.of(2024, 3, 2), "PKO")));
+    }
+
+    @Test
+    public void testRecordedStoreIsReplayable() throws IOException {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            recorder.record(registry.register(i % 2 == 0 ? "KGHM" : "PKO"), DAY_ONE + i * 1_000L, 1_000_000L + i, i, (byte) '0');
+        }
+        recorder.record(registry.register("CDR"), DAY_ONE + ONE_DAY, 3_315_000L, 1, (byte) '0');
+        recorder.close();
+
+        // When
+        int read = 0;
+        long lastTimestamp = Long.MIN_VALUE;
+        try (TickCursor cursor = TickCursor.open(root)) {
+            while (cursor.next()) {
+                // Then - ticki z wielu plików i dni w kolejności czasowej
+                assertTrue(cursor.timestampNanos() >= lastTimestamp);
+                lastTimestamp = cursor.timestampNanos();
+                if (read < 100) {
+                    assertEquals(read % 2 == 0 ? "KGHM" : "PKO", cursor.symbol());
+                    assertEquals(1_000_000L + read, cursor.price());
+                } else {
+                    assertEquals("CDR", cursor.symbol());
+                }
+                read++;
+            }
+        }
+        assertEquals(101, read);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        // Given
+        int producers = 4;
+        int perProducer = 5000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            String symbol = "S" + p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!recorder.record(registry.register(symbol), DAY_ONE + i, i, 1, (byte) '0')) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        recorder.close();
+
+        // Then - każdy tick zapisany dokładnie raz, w kolejności per symbol
+        assertEquals((long) producers * perProducer, recorder.getRecordedTicks());
+        for (int p = 0; p < producers; p++) {
+            try (TickCursor cursor = new ColumnarTickCursor(
+                    ColumnarTickStore.symbolFile(root, LocalDate.of(2024, 3, 1), "S" + p))) {
+                int expected = 0;
+                while (cursor.next()) {
+                    assertEquals(expected++, cursor.price());
+                }
+                assertEquals(perProducer, expected);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownSymbolIdSkipsOnlyThatTick() throws IOException {
+        // Given - tick z identyfikatorem spoza rejestru między poprawnymi tickami
+        recorder.record(registry.register("KGHM"), DAY_ONE, 1_500_000L, 100, (byte) '0');
+        recorder.record(42, DAY_ONE + 1, 1_000_000L, 1, (byte) '0');
+        recorder.record(registry.register("KGHM"), DAY_ONE + 2, 1_510_000L, 50, (byte) '0');
+
+        // When
+        recorder.close();
+
+        // Then
+        assertEquals(2, recorder.getRecordedTicks());
+        assertEquals(1, recorder.getDroppedTicks());
+        int read = 0;
+        try (TickCursor cursor = TickCursor.open(root)) {
+            while (cursor.next()) {
+                assertEquals("KGHM", cursor.symbol());
+                read++;
+            }
+        }
+        assertEquals(2, read);
+    }
+
+    @Test
+    public void testRecordAfterCloseIsRejected() {
+        // When
+        recorder.close();
+
+        // Then
+        assertFalse(recorder.record(registry.register("KGHM"), DAY_ONE, 1, 1, (byte) '0'));
+    }
+}
@@ -0,0 +1,91 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReleasedBufferIsReused() {
+        // Given
+        BufferPool pool = new BufferPool(64, 4);
+        BufferPool.Buffer first = pool.acquire(10);
+
+        // When
+        first.release();
+        BufferPool.Buffer second = pool.acquire(20);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(20, second.length());
+        assertEquals(1L, pool.getAllocationCount());
+    }
+
+    @Test
+    public void testDoubleReleaseIgnored() {
+        // Given
+        BufferPool pool = new BufferPool(64, 4);
+        BufferPool.Buffer buffer = pool.acquire(10);
+
+        // When
+        buffer.release();
+        buffer.release();
+
+        // Then
+        assertEquals(1, pool.getFreeCount());
+        assertNotSame(pool.acquire(1), pool.acquire(1));
+    }
+
+    @Test
+    public void testLargeFrameNotPooled() {
+        // Given
+        BufferPool pool = new BufferPool(64, 4);
+
+        // When
+        BufferPool.Buffer large = pool.acquire(100);
+        large.release();
+
+        // Then
+        assertEquals(100, large.array().length);
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void testPoolSizeLimited() {
+        // Given
+        BufferPool pool = new BufferPool(16, 2);
+        BufferPool.Buffer a = pool.acquire(1);
+        BufferPool.Buffer b = pool.acquire(1);
+        BufferPool.Buffer c = pool.acquire(1);
+
+        // When
+        a.release();
+        b.release();
+        c.release();
+
+        // Then
+        assertEquals(2, pool.getFreeCount());
+    }
+
+    @Test
+    public void testInputStreamAndTextView() throws Exception {
+        // Given
+        BufferPool pool = new BufferPool(64, 4);
+        byte[] text = "<FIXML ąę/>".getBytes(StandardCharsets.UTF_8);
+        BufferPool.Buffer buffer = pool.acquire(text.length);
+        System.arraycopy(text, 0, buffer.array(), 0, text.length);
+
+        // When
+        InputStream stream = buffer.inputStream();
+        byte[] read = stream.readAllBytes();
+
+        // Then
+        assertEquals(new String(text, StandardCharsets.UTF_8), new String(read, StandardCharsets.UTF_8));
+        assertEquals(-1, stream.read());
+        assertEquals("<FIXML ąę/>", buffer.toString());
+        assertEquals(text.length, buffer.inputStream().available());
+    }
+}
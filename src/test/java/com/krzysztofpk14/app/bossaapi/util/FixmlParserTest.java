@@ -88,6 +88,25 @@ class FixmlParserTest {
         assertTrue(message.getMessage() instanceof UserRequest);
     }
 
+    @Test
+    void testParseFromPooledBuffer() throws JAXBException {
+        // Given: ramka z dopisanymi znakami NUL, większa część bufora pozostaje nieużywana
+        byte[] xml = ("\u0000<FIXML v=\"5.0\">" +
+                "<UserReq UserReqID=\"REQ123\" UserReqTyp=\"1\" Username=\"testUser\" Password=\"testPass\"/>" +
+                "</FIXML>\u0000").getBytes(StandardCharsets.UTF_8);
+        BufferPool pool = new BufferPool();
+        BufferPool.Buffer frame = pool.acquire(xml.length);
+        System.arraycopy(xml, 0, frame.array(), 0, xml.length);
+
+        // When
+        FixmlMessage message = FixmlParser.parse(frame);
+
+        // Then
+        assertTrue(message.getMessage() instanceof UserRequest);
+        assertEquals("REQ123", ((UserRequest) message.getMessage()).getUserReqID());
+        frame.release();
+    }
+
     @Test
     void testParseFromInputStream() throws JAXBException {
         // Given
@@ -0,0 +1,68 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public class FixmlTimeFormatterTest {
+
+    private static final ZoneId WARSAW = ZoneId.of("Europe/Warsaw");
+    private static final DateTimeFormatter REFERENCE =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS").withZone(WARSAW);
+
+    private final FixmlTimeFormatter formatter = new FixmlTimeFormatter(WARSAW);
+
+    @Test
+    public void testFormat() {
+        // Given
+        long millis = LocalDateTime.of(2024, 3, 5, 9, 7, 3, 45_000_000).atZone(WARSAW).toInstant().toEpochMilli();
+
+        // When / Then
+        assertEquals("20240305-09:07:03.045", formatter.format(millis));
+        assertEquals("20240305-09:07:03.045", formatter.formatNanos(millis * 1_000_000L + 999_999L));
+    }
+
+    @Test
+    public void testMatchesDateTimeFormatterAcrossDaysAndDstChanges() {
+        // Given: zakres obejmujący przejście na czas letni (31.03.2024) i północ
+        long start = LocalDateTime.of(2024, 3, 30, 22, 0).atZone(WARSAW).toInstant().toEpochMilli();
+        long end = LocalDateTime.of(2024, 4, 1, 2, 0).atZone(WARSAW).toInstant().toEpochMilli();
+
+        // When / Then
+        for (long millis = start; millis < end; millis += 59_999L) {
+            assertEquals(REFERENCE.format(Instant.ofEpochMilli(millis)), formatter.format(millis));
+        }
+    }
+
+    @Test
+    public void testBackwardDstChangeAndOutOfOrderTimestamps() {
+        // Given: przejście na czas zimowy (27.10.2024) i czasy podawane na przemian
+        long before = Instant.parse("2024-10-27T00:30:00Z").toEpochMilli();
+        long after = Instant.parse("2024-10-27T01:30:00Z").toEpochMilli();
+        long previousDay = Instant.parse("2024-10-25T12:00:00.123Z").toEpochMilli();
+
+        // When / Then
+        for (long millis : new long[] {before, after, previousDay, after, before}) {
+            assertEquals(REFERENCE.format(Instant.ofEpochMilli(millis)), formatter.format(millis));
+        }
+    }
+
+    @Test
+    public void testWriteAtOffset() {
+        // Given
+        byte[] buffer = new byte[FixmlTimeFormatter.LENGTH + 2];
+        long millis = Instant.parse("2024-06-01T10:00:00Z").toEpochMilli();
+
+        // When
+        int end = formatter.write(millis, buffer, 2);
+
+        // Then
+        assertEquals(buffer.length, end);
+        assertEquals("20240601-12:00:00.000", new String(buffer, 2, FixmlTimeFormatter.LENGTH, StandardCharsets.US_ASCII));
+    }
+}
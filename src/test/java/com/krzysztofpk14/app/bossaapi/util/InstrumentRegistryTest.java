@@ -0,0 +1,87 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.krzysztofpk14.app.bossaapi.server.SecurityManager;
+
+public class InstrumentRegistryTest {
+
+    private InstrumentRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new InstrumentRegistry();
+    }
+
+    @Test
+    public void testRegisterAssignsDenseIds() {
+        // When
+        int kghm = registry.register("KGHM");
+        int pko = registry.register("PKO");
+
+        // Then
+        assertEquals(0, kghm);
+        assertEquals(1, pko);
+        assertEquals(kghm, registry.register("KGHM"));
+        assertEquals(2, registry.size());
+        assertEquals("PKO", registry.getSymbol(pko));
+    }
+
+    @Test
+    public void testUnknownSymbol() {
+        assertEquals(InstrumentRegistry.UNKNOWN, registry.getId("XYZ"));
+        assertEquals(InstrumentRegistry.UNKNOWN, registry.getId(null));
+        assertNull(registry.getSymbol(5));
+        assertNull(registry.getSymbol(-1));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, registry.register("SYM" + i));
+        }
+
+        // Then
+        assertEquals(100, registry.size());
+        assertEquals("SYM99", registry.getSymbol(99));
+        assertEquals(42, registry.getId("SYM42"));
+    }
+
+    @Test
+    public void testSeededBySecurityManager() {
+        // When
+        new SecurityManager(registry);
+
+        // Then
+        assertEquals(10, registry.size());
+        assertNotEquals(InstrumentRegistry.UNKNOWN, registry.getId("KGHM"));
+        assertNotEquals(InstrumentRegistry.UNKNOWN, registry.getId("CPS"));
+    }
+
+    @Test
+    public void testTickSizes() {
+        // Given
+        int kghm = registry.register("KGHM", Price.parse("0.05"));
+        int pko = registry.register("PKO");
+
+        // Then
+        assertEquals(500L, registry.getTickSize(kghm));
+        assertEquals(InstrumentRegistry.DEFAULT_TICK_SIZE, registry.getTickSize(pko));
+        assertEquals(InstrumentRegistry.DEFAULT_TICK_SIZE, registry.getTickSize(99));
+        assertThrows(IllegalArgumentException.class, () -> registry.setTickSize(pko, 0));
+        assertThrows(IllegalArgumentException.class, () -> registry.setTickSize(99, 100));
+    }
+
+    @Test
+    public void testTickSizesSeededBySecurityManager() {
+        // When
+        new SecurityManager(registry);
+
+        // Then
+        assertEquals(Price.parse("0.05"), registry.getTickSize(registry.getId("KGHM")));
+        assertEquals(Price.parse("0.005"), registry.getTickSize(registry.getId("PGE")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+public class PriceTest {
+
+    @Test
+    public void testParse() {
+        assertEquals(1_502_500L, Price.parse("150.25"));
+        assertEquals(1_500_000L, Price.parse("150"));
+        assertEquals(1_500_000L, Price.parse("150."));
+        assertEquals(500L, Price.parse("0.05"));
+        assertEquals(500L, Price.parse(".05"));
+        assertEquals(-500L, Price.parse("-0.05"));
+        assertEquals(472_125L, Price.parse(" 47.2125 "));
+        assertEquals(1_500_000L, Price.parse("1.5E2"));
+    }
+
+    @Test
+    public void testParseRoundsExtraDecimals() {
+        assertEquals(10_001L, Price.parse("1.00005"));
+        assertEquals(10_000L, Price.parse("1.000049"));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        assertThrows(NumberFormatException.class, () -> Price.parse(null));
+        assertThrows(NumberFormatException.class, () -> Price.parse(""));
+        assertThrows(NumberFormatException.class, () -> Price.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Price.parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> Price.parse("-"));
+        assertEquals(7L, Price.parse("x", 7L));
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("150.50", Price.format(1_505_000L));
+        assertEquals("47.2125", Price.format(472_125L));
+        assertEquals("-0.05", Price.format(-500L));
+        assertEquals("0.00", Price.format(0L));
+        assertEquals("8.355", Price.format(83_550L));
+    }
+
+    @Test
+    public void testWriteAndAppend() {
+        // Given
+        byte[] buffer = new byte[32];
+        buffer[0] = '#';
+
+        // When
+        int end = Price.write(1_505_000L, buffer, 1);
+        StringBuilder builder = Price.appendTo(-472_125L, new StringBuilder("px="));
+
+        // Then
+        assertEquals("#150.50", new String(buffer, 0, end, StandardCharsets.US_ASCII));
+        assertEquals("px=-47.2125", builder.toString());
+    }
+
+    @Test
+    public void testRoundTripWithDouble() {
+        assertEquals(472_000L, Price.fromDouble(47.2));
+        assertEquals(47.2, Price.toDouble(472_000L), 0.0);
+    }
+
+    @Test
+    public void testTickRounding() {
+        // Given
+        long tick = Price.parse("0.05");
+
+        // Then
+        assertEquals(Price.parse("150.05"), Price.roundToTick(Price.parse("150.03"), tick));
+        assertEquals(Price.parse("150.00"), Price.roundToTick(Price.parse("150.02"), tick));
+        assertEquals(Price.parse("150.00"), Price.floorToTick(Price.parse("150.04"), tick));
+        assertEquals(Price.parse("150.05"), Price.ceilToTick(Price.parse("150.01"), tick));
+        assertEquals(Price.parse("150.05"), Price.ceilToTick(Price.parse("150.05"), tick));
+        assertTrue(Price.isOnTick(Price.parse("150.10"), tick));
+        assertFalse(Price.isOnTick(Price.parse("150.11"), tick));
+        assertEquals(-500L, Price.floorToTick(-1L, 500L));
+    }
+
+    @Test
+    public void testNotional() {
+        assertEquals(Price.parse("1505.00"), Price.notional(Price.parse("150.50"), 10));
+        assertThrows(ArithmeticException.class, () -> Price.notional(Long.MAX_VALUE / 2, 3));
+    }
+}
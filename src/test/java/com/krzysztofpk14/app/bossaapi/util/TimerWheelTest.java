@@ -0,0 +1,72 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimerWheelTest {
+
+    private TimerWheel wheel;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new TimerWheel("TimerWheelTest", 10, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    public void testTimeoutExpiresAfterDelay() throws InterruptedException {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // When
+        TimerWheel.Timeout timeout = wheel.schedule(50, latch::countDown);
+
+        // Then
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, wheel.getPendingTimeouts());
+    }
+
+    @Test
+    public void testTimeoutLongerThanOneRotation() throws InterruptedException {
+        // Given: koło 8 x 10 ms obraca się co 80 ms
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // When
+        wheel.schedule(200, latch::countDown);
+
+        // Then
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotRun() throws InterruptedException {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(30, runs::incrementAndGet);
+
+        // When
+        assertTrue(timeout.cancel());
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.getPendingTimeouts());
+    }
+}
@@ -0,0 +1,61 @@
+package com.krzysztofpk14.app.bossaapi.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testBurstThenRefillAtRate() {
+        // Given: 10 zleceń na sekundę, do 3 naraz
+        TokenBucket bucket = new TokenBucket(10, 3, now::get);
+
+        // When / Then
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // When: po 100 ms przybywa jeden żeton
+        now.addAndGet(100_000_000L);
+
+        // Then
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    public void testRefillCappedAtBurst() {
+        // Given
+        TokenBucket bucket = new TokenBucket(100, 2, now::get);
+
+        // When
+        now.addAndGet(60_000_000_000L);
+
+        // Then
+        assertEquals(2, bucket.getAvailableTokens());
+    }
+
+    @Test
+    public void testReleaseReturnsToken() {
+        // Given
+        TokenBucket bucket = new TokenBucket(1, 1, now::get);
+        assertTrue(bucket.tryAcquire());
+
+        // When
+        bucket.release();
+
+        // Then
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
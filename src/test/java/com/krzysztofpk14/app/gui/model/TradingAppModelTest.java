@@ -67,7 +67,6 @@ public class TradingAppModelTest {
         assertNotNull(model.getOrders(), "Orders collection should not be null");
         assertNotNull(model.getStrategies(), "Strategies collection should not be null");
         assertNotNull(model.getAvailableSymbols(), "Available symbols should not be null");
-        assertNotNull(model.getPriceData(), "Price data map should not be null");
     }
     
     @Test
@@ -79,7 +78,6 @@ public class TradingAppModelTest {
         
         // Available symbols might be null initially until set
         assertNotNull(model.getAvailableSymbols(), "Available symbols should not be null");
-        assertEquals(0, model.getPriceData().size(), "Price data map should be empty initially");
     }
     
     @Test
@@ -96,56 +94,6 @@ public class TradingAppModelTest {
                 "Available symbols property getter should return the same list as the direct getter");
     }
     
-    @Test
-    public void testAddPriceDataPoint() {
-        // Given
-        String symbol = "KGHM";
-        double price = 150.75;
-        long timestamp = System.currentTimeMillis();
-        
-        // When - add first point
-        model.addPriceDataPoint(symbol, price, timestamp);
-        
-        // Then
-        assertTrue(model.getPriceData().containsKey(symbol), "Price data map should contain the symbol");
-        assertEquals(1, model.getPriceData().get(symbol).size(), "Symbol should have 1 data point");
-        PriceDataPoint point = model.getPriceData().get(symbol).get(0);
-        assertEquals(price, point.getPrice(), "Price should match");
-        assertEquals(timestamp, point.getTimestamp(), "Timestamp should match");
-        assertEquals(0, point.getIndex(), "Index should be 0 for first point");
-        
-        // When - add second point
-        double price2 = 151.25;
-        long timestamp2 = timestamp + 1000;
-        model.addPriceDataPoint(symbol, price2, timestamp2);
-        
-        // Then
-        assertEquals(2, model.getPriceData().get(symbol).size(), "Symbol should have 2 data points");
-        PriceDataPoint point2 = model.getPriceData().get(symbol).get(1);
-        assertEquals(price2, point2.getPrice(), "Price should match for second point");
-        assertEquals(timestamp2, point2.getTimestamp(), "Timestamp should match for second point");
-        assertEquals(1, point2.getIndex(), "Index should be 1 for second point");
-    }
-    
-    @Test
-    public void testPriceDataLimit() {
-        // Given
-        String symbol = "KGHM";
-        
-        // When - add more than 1000 points
-        for (int i = 0; i < 1010; i++) {
-            model.addPriceDataPoint(symbol, 100 + i, System.currentTimeMillis() + i);
-        }
-        
-        // Then - should be limited to 1000 points
-        assertEquals(1000, model.getPriceData().get(symbol).size(), 
-                "Symbol should have max 1000 data points");
-        
-        // First points should be removed
-        PriceDataPoint firstPoint = model.getPriceData().get(symbol).get(0);
-        assertEquals(100 + 10, firstPoint.getPrice(), "First point should now be the 11th added");
-    }
-    
     @Test
     public void testApiLogger() {
         // The API logger should be initialized and accessible
@@ -153,24 +101,6 @@ public class TradingAppModelTest {
         assertNotNull(logger, "API logger should not be null");
     }
     
-    @Test
-    public void testMultipleSymbols() {
-        // Add price data for multiple symbols
-        model.addPriceDataPoint("KGHM", 150.75, 1000L);
-        model.addPriceDataPoint("PKO", 35.50, 1000L);
-        model.addPriceDataPoint("PZU", 42.25, 1000L);
-        
-        // Verify each symbol has its own data
-        assertEquals(3, model.getPriceData().size(), "Price data map should have 3 symbols");
-        assertEquals(1, model.getPriceData().get("KGHM").size(), "KGHM should have 1 data point");
-        assertEquals(1, model.getPriceData().get("PKO").size(), "PKO should have 1 data point");
-        assertEquals(1, model.getPriceData().get("PZU").size(), "PZU should have 1 data point");
-        
-        // Verify correct prices
-        assertEquals(150.75, model.getPriceData().get("KGHM").get(0).getPrice(), "KGHM price should match");
-        assertEquals(35.50, model.getPriceData().get("PKO").get(0).getPrice(), "PKO price should match");
-        assertEquals(42.25, model.getPriceData().get("PZU").get(0).getPrice(), "PZU price should match");
-    }
       @Test
     public void testObservableCollections() {
         // Given
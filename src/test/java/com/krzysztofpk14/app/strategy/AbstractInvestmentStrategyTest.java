@@ -0,0 +1,307 @@
+package com.krzysztofpk14.app.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tests for order throttling and batching in AbstractInvestmentStrategy.
+ */
+public class AbstractInvestmentStrategyTest {
+
+    private RecordingClient client;
+    private OrderingStrategy strategy;
+
+    /**
+     * Test double recording sent orders; optionally rejects them like the client throttle.
+     */
+    private static class RecordingClient extends BossaApiClient {
+        private final List<OrderRequest> singleOrders = new ArrayList<>();
+        private final List<List<OrderRequest>> batches = new ArrayList<>();
+        private boolean rejectAll;
+
+        @Override
+        public CompletableFuture<ExecutionReport> sendOrder(OrderRequest order) {
+            singleOrders.add(order);
+            return result();
+        }
+
+        @Override
+        public List<CompletableFuture<ExecutionReport>> sendOrders(List<OrderRequest> orders) {
+            batches.add(new ArrayList<>(orders));
+            List<CompletableFuture<ExecutionReport>> futures = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                futures.add(result());
+            }
+            return futures;
+        }
+
+        private CompletableFuture<ExecutionReport> result() {
+            return rejectAll
+                    ? CompletableFuture.failedFuture(new RejectedExecutionException("limit"))
+                    : new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Strategy sending a fixed number of orders for every market data message.
+     */
+    private static class OrderingStrategy extends AbstractInvestmentStrategy {
+        private final int ordersPerMessage;
+        private final List<OrderRequest> throttled = new ArrayList<>();
+        private int ordersPerReport;
+        private int ordersOnStop;
+
+        OrderingStrategy(BossaApiClient client, int ordersPerMessage) {
+            super(client);
+            this.ordersPerMessage = ordersPerMessage;
+        }
+
+        @Override
+        protected void doInitialize(StrategyParameters parameters) {
+        }
+
+        @Override
+        protected void doStart() {
+        }
+
+        @Override
+        protected void doStop() {
+            sendOrders(ordersOnStop);
+        }
+
+        @Override
+        protected void processMarketData(MarketDataResponse marketData, MarketDataCache.Quote quote) {
+            sendOrders(ordersPerMessage);
+        }
+
+        @Override
+        protected void processExecutionReport(ExecutionReport report) {
+            sendOrders(ordersPerReport);
+        }
+
+        private void sendOrders(int count) {
+            for (int i = 0; i < count; i++) {
+                OrderRequest order = new OrderRequest();
+                order.setSide(OrderRequest.BUY);
+                sendOrder(order);
+            }
+        }
+
+        @Override
+        protected void onOrderThrottled(OrderRequest order) {
+            super.onOrderThrottled(order);
+            throttled.add(order);
+        }
+
+        @Override
+        public String getName() {
+            return "Ordering";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Sends orders on every message";
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        client = new RecordingClient();
+        strategy = new OrderingStrategy(client, 5);
+    }
+
+    @Test
+    public void testStrategyThrottleReportsOverflow() {
+        // Given: 2 zlecenia naraz, wolne uzupełnianie
+        strategy.initialize(parameters()
+                .setParam(AbstractInvestmentStrategy.PARAM_MAX_ORDERS_PER_SECOND, 0.001)
+                .setParam(AbstractInvestmentStrategy.PARAM_ORDER_BURST, 2));
+        strategy.start();
+
+        // When
+        strategy.onMarketData(message("KGHM"));
+
+        // Then
+        assertEquals(2, client.singleOrders.size());
+        assertEquals(3, strategy.throttled.size());
+        assertEquals(3, strategy.getStatistics().getThrottledOrders());
+        assertEquals(2, strategy.orders.size());
+    }
+
+    @Test
+    public void testBatchModeSendsOrdersOfOneMessageTogether() {
+        // Given
+        strategy.initialize(parameters().setParam(AbstractInvestmentStrategy.PARAM_BATCH_ORDERS, true));
+        strategy.start();
+
+        // When
+        strategy.onMarketData(message("KGHM"));
+        strategy.onMarketData(message("KGHM"));
+
+        // Then
+        assertTrue(client.singleOrders.isEmpty());
+        assertEquals(2, client.batches.size());
+        assertEquals(5, client.batches.get(0).size());
+        assertEquals(0, strategy.getQueuedOrderCount());
+        assertEquals(10, strategy.orders.size());
+    }
+
+    @Test
+    public void testBatchModeFlushesAfterReportsAndStop() {
+        // Given
+        strategy.ordersPerReport = 2;
+        strategy.ordersOnStop = 3;
+        strategy.initialize(parameters().setParam(AbstractInvestmentStrategy.PARAM_BATCH_ORDERS, true));
+        strategy.start();
+        strategy.onMarketData(message("KGHM"));
+        String clientOrderId = client.batches.get(0).get(0).getClientOrderId();
+
+        // When
+        strategy.onExecutionReport(fill(clientOrderId, OrderRequest.BUY, "10", "100", ExecutionReport.ACTIVE));
+
+        // Then
+        assertEquals(2, client.batches.size());
+        assertEquals(2, client.batches.get(1).size());
+        assertEquals(0, strategy.getQueuedOrderCount());
+
+        // When
+        strategy.stop();
+
+        // Then
+        assertEquals(3, client.batches.size());
+        assertEquals(3, client.batches.get(2).size());
+        assertEquals(0, strategy.getQueuedOrderCount());
+        assertTrue(client.singleOrders.isEmpty());
+    }
+
+    @Test
+    public void testClientThrottleRejectionReportedToStrategy() {
+        // Given
+        client.rejectAll = true;
+        strategy.initialize(parameters().setParam(AbstractInvestmentStrategy.PARAM_BATCH_ORDERS, true));
+        strategy.start();
+
+        // When
+        strategy.onMarketData(message("KGHM"));
+
+        // Then
+        assertEquals(5, strategy.throttled.size());
+        assertTrue(strategy.orders.isEmpty());
+    }
+
+    @Test
+    public void testSharedRegistryTracksOpenOrders() {
+        // Given
+        OrderRegistry shared = new OrderRegistry();
+        strategy.setOrderRegistry(shared);
+        strategy.initialize(parameters()
+                .setParam(AbstractInvestmentStrategy.PARAM_MAX_ORDERS_PER_SECOND, 0.001)
+                .setParam(AbstractInvestmentStrategy.PARAM_ORDER_BURST, 2));
+        strategy.start();
+
+        // When: 2 zlecenia wysłane, 3 zatrzymane przez limit
+        strategy.onMarketData(message("KGHM"));
+
+        // Then
+        assertEquals(2, shared.size());
+        String clientOrderId = client.singleOrders.get(0).getClientOrderId();
+        assertSame(strategy, shared.getOwner(clientOrderId));
+        assertEquals(OrderRegistry.OrderState.PENDING, strategy.orders.getState(clientOrderId));
+
+        // When: raport końcowy
+        strategy.onExecutionReport(fill(clientOrderId, OrderRequest.BUY, "100", "100", ExecutionReport.DONE));
+
+        // Then: zlecenie usunięte z rejestru strategii
+        assertFalse(strategy.orders.contains(clientOrderId));
+        assertEquals(1, strategy.orders.size());
+    }
+
+    @Test
+    public void testPartialFillsUpdatePosition() {
+        // Given
+        strategy.initialize(parameters());
+        strategy.start();
+        strategy.orders.register("ORD-1", strategy);
+
+        // When: zlecenie na 100 akcji realizowane w dwóch częściach, potem raport statusu
+        strategy.onExecutionReport(fill("ORD-1", OrderRequest.BUY, "40", "100", ExecutionReport.ACTIVE));
+        assertEquals(40L, strategy.positions.get("KGHM").getNetQuantity());
+        strategy.onExecutionReport(fill("ORD-1", OrderRequest.BUY, "60", "100", ExecutionReport.DONE));
+        ExecutionReport status = fill("ORD-1", OrderRequest.BUY, null, "100", ExecutionReport.DONE);
+        status.setExecutionType(ExecutionReport.ORDER_STATUS);
+        strategy.onExecutionReport(status);
+
+        // Then
+        assertEquals(100L, strategy.positions.get("KGHM").getNetQuantity());
+        assertEquals(2, strategy.getStatistics().getTotalBuys());
+        assertEquals(100.0, strategy.getStatistics().getTotalBuyVolume(), 0.001);
+    }
+
+    @Test
+    public void testStatusReportAfterReconnectRecoversLostFill() {
+        // Given: 40 ze 100 akcji wykonane przed zerwaniem połączenia
+        strategy.initialize(parameters());
+        strategy.start();
+        strategy.orders.register("ORD-1", strategy);
+        strategy.onExecutionReport(fill("ORD-1", OrderRequest.BUY, "40", "100", ExecutionReport.ACTIVE));
+
+        // When: raport wykonania reszty zginął, serwer odpowiada na zapytanie o status
+        ExecutionReport status = fill("ORD-1", OrderRequest.BUY, "60", "100", ExecutionReport.DONE);
+        status.setExecutionType(ExecutionReport.ORDER_STATUS);
+        status.setCumulativeQuantity("100");
+        status.setLastPrice("102.00");
+        strategy.onExecutionReport(status);
+        strategy.onExecutionReport(status);
+
+        // Then
+        assertEquals(100L, strategy.positions.get("KGHM").getNetQuantity());
+        assertEquals(2, strategy.getStatistics().getTotalBuys());
+        assertEquals(100.0, strategy.getStatistics().getTotalBuyVolume(), 0.001);
+        assertEquals(4000.0 + 6120.0, strategy.getStatistics().getTotalBuyValue(), 0.001);
+        assertFalse(strategy.orders.contains("ORD-1"));
+    }
+
+    private static ExecutionReport fill(String clientOrderId, String side, String lastQuantity,
+                                        String orderQuantity, String status) {
+        ExecutionReport report = new ExecutionReport();
+        report.setClientOrderId(clientOrderId);
+        report.setExecutionType(ExecutionReport.TRANSACTION);
+        report.setOrderStatus(status);
+        report.setSide(side);
+        report.setPrice("100.00");
+        report.setLastPrice("100.00");
+        report.setLastQuantity(lastQuantity);
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol("KGHM");
+        report.setInstrument(instrument);
+        ExecutionReport.OrderQuantity quantity = new ExecutionReport.OrderQuantity();
+        quantity.setQuantity(orderQuantity);
+        report.setOrderQuantity(quantity);
+        return report;
+    }
+
+    private static StrategyParameters parameters() {
+        return new StrategyParameters().setInstruments(Arrays.asList("KGHM")).setClosePositionsOnStop(false);
+    }
+
+    private static MarketDataResponse message(String symbol) {
+        MarketDataResponse response = new MarketDataResponse();
+        MarketDataResponse.Instrument instrument = new MarketDataResponse.Instrument();
+        instrument.setSymbol(symbol);
+        response.setInstrument(instrument);
+        return response;
+    }
+}
@@ -0,0 +1,142 @@
+package com.krzysztofpk14.app.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+/**
+ * Tests for reading fills from execution reports.
+ */
+public class FillTest {
+
+    @Test
+    public void testTransactionReportUsesLastQuantityAndPrice() {
+        // Given
+        ExecutionReport report = report(ExecutionReport.TRANSACTION, ExecutionReport.ACTIVE);
+        report.setLastQuantity("30");
+        report.setLastPrice("101.50");
+
+        // When
+        Fill fill = Fill.from(report);
+
+        // Then
+        assertNotNull(fill);
+        assertEquals("KGHM", fill.symbol());
+        assertEquals(30L, fill.quantity());
+        assertEquals(Price.fromDouble(101.5), fill.price());
+        assertTrue(fill.isBuy());
+        assertEquals(3045.0, fill.getValue(), 0.001);
+    }
+
+    @Test
+    public void testTransactionReportCarriesCommission() {
+        // Given
+        ExecutionReport report = report(ExecutionReport.TRANSACTION, ExecutionReport.DONE);
+        ExecutionReport.Commission commission = new ExecutionReport.Commission();
+        commission.setAmount("3.90");
+        report.setCommission(commission);
+
+        // When
+        Fill fill = Fill.from(report);
+
+        // Then
+        assertEquals(Price.fromDouble(3.9), fill.commission());
+        assertEquals(3.9, fill.getCommissionValue(), 0.001);
+        assertEquals(0L, Fill.from(report(ExecutionReport.TRANSACTION, ExecutionReport.DONE)).commission());
+    }
+
+    @Test
+    public void testTransactionWithoutLastFieldsUsesOrder() {
+        Fill fill = Fill.from(report(ExecutionReport.TRANSACTION, ExecutionReport.DONE));
+
+        assertNotNull(fill);
+        assertEquals(100L, fill.quantity());
+        assertEquals(Price.fromDouble(100.0), fill.price());
+    }
+
+    @Test
+    public void testDoneReportWithoutTypeIsWholeOrder() {
+        Fill fill = Fill.from(report(null, ExecutionReport.DONE));
+
+        assertNotNull(fill);
+        assertEquals(100L, fill.quantity());
+    }
+
+    @Test
+    public void testStatusReportFillsOnlyUnsettledQuantity() {
+        // Given: 40 z 100 akcji rozliczono, raport statusu po przerwie podaje CumQty=100,
+        // a ostatnia transakcja objęła tylko 30 z brakujących 60 akcji
+        ExecutionReport status = report(ExecutionReport.ORDER_STATUS, ExecutionReport.DONE);
+        status.setCumulativeQuantity("100");
+        status.setLastPrice("101.00");
+        status.setLastQuantity("30");
+        status.setAveragePrice("100.60");
+
+        // When
+        Fill fill = Fill.from(status, 40);
+
+        // Then
+        assertNotNull(fill);
+        assertEquals(60L, fill.quantity());
+        assertEquals(Price.fromDouble(100.6), fill.price(), "Several lost fills should be priced at AvgPx");
+        assertNull(Fill.from(status, 100), "Status report should not repeat settled quantity");
+    }
+
+    @Test
+    public void testStatusReportForLastFillOnlyUsesLastPrice() {
+        // Given: brakuje dokładnie ostatniej transakcji (60 akcji po 101.00)
+        ExecutionReport status = report(ExecutionReport.ORDER_STATUS, ExecutionReport.DONE);
+        status.setCumulativeQuantity("100");
+        status.setLastPrice("101.00");
+        status.setLastQuantity("60");
+        status.setAveragePrice("100.60");
+
+        // When
+        Fill fill = Fill.from(status, 40);
+
+        // Then
+        assertNotNull(fill);
+        assertEquals(60L, fill.quantity());
+        assertEquals(Price.fromDouble(101.0), fill.price(), "A single lost fill should be priced at LastPx");
+    }
+
+    @Test
+    public void testStatusReportWithoutLastPriceUsesAveragePrice() {
+        ExecutionReport status = report(ExecutionReport.ORDER_STATUS, ExecutionReport.ACTIVE);
+        status.setCumulativeQuantity("30");
+        status.setAveragePrice("100.50");
+
+        Fill fill = Fill.from(status, 0);
+
+        assertNotNull(fill);
+        assertEquals(30L, fill.quantity());
+        assertEquals(Price.fromDouble(100.5), fill.price());
+    }
+
+    @Test
+    public void testNonTransactionReportsAreIgnored() {
+        assertNull(Fill.from(report(ExecutionReport.NEW, ExecutionReport.ACTIVE)));
+        assertNull(Fill.from(report(ExecutionReport.ORDER_STATUS, ExecutionReport.DONE)));
+        assertNull(Fill.from(report(null, ExecutionReport.ACTIVE)));
+        assertNull(Fill.from(new ExecutionReport()));
+    }
+
+    private static ExecutionReport report(String executionType, String status) {
+        ExecutionReport report = new ExecutionReport();
+        report.setClientOrderId("ORD-1");
+        report.setExecutionType(executionType);
+        report.setOrderStatus(status);
+        report.setSide(OrderRequest.BUY);
+        report.setPrice("100.00");
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol("KGHM");
+        report.setInstrument(instrument);
+        ExecutionReport.OrderQuantity quantity = new ExecutionReport.OrderQuantity();
+        quantity.setQuantity("100");
+        report.setOrderQuantity(quantity);
+        return report;
+    }
+}
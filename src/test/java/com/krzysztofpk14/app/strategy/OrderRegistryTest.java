@@ -0,0 +1,253 @@
+package com.krzysztofpk14.app.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.gui.TradingAppGUI;
+
+/**
+ * Tests for the order ownership registry.
+ */
+public class OrderRegistryTest {
+
+    private OrderRegistry registry;
+    private InvestmentStrategy first;
+    private InvestmentStrategy second;
+
+    /**
+     * Minimal strategy used only as an order owner.
+     */
+    private static class OwnerStrategy implements InvestmentStrategy {
+        private final String name;
+
+        OwnerStrategy(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void initialize(StrategyParameters parameters) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void onMarketData(MarketDataResponse marketData) {
+        }
+
+        @Override
+        public void onExecutionReport(ExecutionReport report) {
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        @Override
+        public StrategyStatus getStatus() {
+            return StrategyStatus.RUNNING;
+        }
+
+        @Override
+        public String getStatusString() {
+            return getStatus().toString();
+        }
+
+        @Override
+        public StrategyStatistics getStatistics() {
+            return null;
+        }
+
+        @Override
+        public void displayStatistics() {
+        }
+
+        @Override
+        public String getParametersAsString() {
+            return "";
+        }
+
+        @Override
+        public String getInstruments() {
+            return "";
+        }
+
+        @Override
+        public void setGui(TradingAppGUI gui) {
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        registry = new OrderRegistry();
+        first = new OwnerStrategy("First");
+        second = new OwnerStrategy("Second");
+    }
+
+    @Test
+    public void testRegisterAndLookup() {
+        // When
+        registry.register("ORD-1", first);
+        registry.register("ORD-2", second);
+
+        // Then
+        assertSame(first, registry.getOwner("ORD-1"));
+        assertSame(second, registry.getOwner("ORD-2"));
+        assertNull(registry.getOwner("ORD-3"));
+        assertNull(registry.getOwner(null));
+        assertEquals(OrderRegistry.OrderState.PENDING, registry.getState("ORD-1"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testStateFollowsReports() {
+        // Given
+        registry.register("ORD-1", first);
+
+        // When / Then
+        assertSame(first, registry.onExecutionReport(report("ORD-1", ExecutionReport.NEW, ExecutionReport.NEW_ORDER)).owner());
+        assertEquals(OrderRegistry.OrderState.ACTIVE, registry.getState("ORD-1"));
+
+        registry.onExecutionReport(report("ORD-1", ExecutionReport.TRANSACTION, ExecutionReport.ACTIVE));
+        assertEquals(OrderRegistry.OrderState.PARTIALLY_FILLED, registry.getState("ORD-1"));
+
+        registry.onExecutionReport(report("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.ACTIVE));
+        assertEquals(OrderRegistry.OrderState.PARTIALLY_FILLED, registry.getState("ORD-1"),
+                "Status report should not undo a partial fill");
+
+        registry.onExecutionReport(report("ORD-1", ExecutionReport.CANCELING, ExecutionReport.ORDER_DURING_CANCELATION));
+        assertEquals(OrderRegistry.OrderState.PARTIALLY_FILLED, registry.getState("ORD-1"));
+    }
+
+    @Test
+    public void testTerminalOrdersEvicted() {
+        // Given
+        registry.register("ORD-1", first);
+        registry.register("ORD-2", first);
+        registry.register("ORD-3", second);
+        registry.register("ORD-4", second);
+
+        // When
+        InvestmentStrategy owner = registry.onExecutionReport(report("ORD-1", ExecutionReport.TRANSACTION, ExecutionReport.DONE)).owner();
+        registry.onExecutionReport(report("ORD-2", ExecutionReport.CANCELING, ExecutionReport.CANCELED));
+        registry.onExecutionReport(report("ORD-3", ExecutionReport.REJECTED, ExecutionReport.REJECTED_ORDER));
+
+        // Then
+        assertSame(first, owner, "Final report should still be routed to the owner");
+        assertFalse(registry.contains("ORD-1"));
+        assertFalse(registry.contains("ORD-2"));
+        assertFalse(registry.contains("ORD-3"));
+        assertTrue(registry.contains("ORD-4"));
+        assertNull(registry.onExecutionReport(report("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.DONE)),
+                "Reports after eviction should have no owner");
+    }
+
+    @Test
+    public void testStatusReportRecoversFillsLostDuringOutage() {
+        // Given: jedno wykonanie częściowe przed zerwaniem połączenia
+        registry.register("ORD-1", first);
+        OrderRegistry.OrderUpdate partial = registry.onExecutionReport(
+                fill("ORD-1", ExecutionReport.TRANSACTION, ExecutionReport.ACTIVE, "40", null));
+        assertEquals(40L, partial.fill().quantity());
+        assertEquals(40L, registry.getExecutedQuantity("ORD-1"));
+
+        // When: po ponownym połączeniu serwer odpowiada raportem statusu
+        OrderRegistry.OrderUpdate active = registry.onExecutionReport(
+                fill("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.ACTIVE, "25", "70"));
+        OrderRegistry.OrderUpdate done = registry.onExecutionReport(
+                fill("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.DONE, "30", "100"));
+
+        // Then
+        assertSame(first, active.owner());
+        assertEquals(30L, active.fill().quantity());
+        assertEquals(30L, done.fill().quantity());
+        assertEquals(OrderRegistry.OrderState.FILLED, done.state());
+        assertFalse(registry.contains("ORD-1"));
+    }
+
+    @Test
+    public void testRepeatedStatusReportAddsNothing() {
+        registry.register("ORD-1", first);
+        registry.onExecutionReport(fill("ORD-1", ExecutionReport.TRANSACTION, ExecutionReport.ACTIVE, "40", null));
+
+        OrderRegistry.OrderUpdate update = registry.onExecutionReport(
+                fill("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.ACTIVE, "40", "40"));
+
+        assertSame(first, update.owner());
+        assertNull(update.fill());
+        assertEquals(40L, registry.getExecutedQuantity("ORD-1"));
+    }
+
+    @Test
+    public void testStatusReportForOtherOrderIdIgnored() {
+        // Given: serwer nadał zleceniu OrdID w potwierdzeniu przyjęcia
+        registry.register("ORD-1", first);
+        ExecutionReport accepted = report("ORD-1", ExecutionReport.NEW, ExecutionReport.NEW_ORDER);
+        accepted.setOrderId("SRV-1");
+        registry.onExecutionReport(accepted);
+
+        // When: przychodzi raport statusu innego zlecenia z tym samym ClOrdID
+        ExecutionReport foreign = fill("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.DONE, "100", "100");
+        foreign.setOrderId("SRV-2");
+
+        // Then
+        assertNull(registry.onExecutionReport(foreign), "Status of another order should be ignored");
+        assertEquals(0L, registry.getExecutedQuantity("ORD-1"));
+        assertEquals(OrderRegistry.OrderState.ACTIVE, registry.getState("ORD-1"));
+
+        ExecutionReport own = fill("ORD-1", ExecutionReport.ORDER_STATUS, ExecutionReport.DONE, "100", "100");
+        own.setOrderId("SRV-1");
+        assertEquals(100L, registry.onExecutionReport(own).fill().quantity());
+    }
+
+    @Test
+    public void testRemoveOwner() {
+        registry.register("ORD-1", first);
+        registry.register("ORD-2", first);
+        registry.register("ORD-3", second);
+
+        assertEquals(2, registry.getOpenOrderCount(first));
+        registry.removeOwner(first);
+
+        assertEquals(0, registry.getOpenOrderCount(first));
+        assertEquals(1, registry.size());
+        registry.remove("ORD-3");
+        assertTrue(registry.isEmpty());
+    }
+
+    private static ExecutionReport report(String clientOrderId, String executionType, String orderStatus) {
+        ExecutionReport report = new ExecutionReport();
+        report.setClientOrderId(clientOrderId);
+        report.setExecutionType(executionType);
+        report.setOrderStatus(orderStatus);
+        return report;
+    }
+
+    private static ExecutionReport fill(String clientOrderId, String executionType, String orderStatus,
+                                        String lastQuantity, String cumulativeQuantity) {
+        ExecutionReport report = report(clientOrderId, executionType, orderStatus);
+        report.setSide("1");
+        report.setPrice("100.00");
+        report.setLastPrice("100.00");
+        report.setLastQuantity(lastQuantity);
+        report.setCumulativeQuantity(cumulativeQuantity);
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol("KGHM");
+        report.setInstrument(instrument);
+        return report;
+    }
+}
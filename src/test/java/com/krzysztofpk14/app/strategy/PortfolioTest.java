@@ -0,0 +1,157 @@
+package com.krzysztofpk14.app.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.util.InstrumentRegistry;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for the portfolio position and P&L engine.
+ */
+public class PortfolioTest {
+
+    private static final double DELTA = 0.001;
+
+    private InstrumentRegistry registry;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new InstrumentRegistry();
+        portfolio = new Portfolio(registry);
+    }
+
+    @Test
+    public void testPartialFillsBuildPosition() {
+        // When
+        portfolio.applyFill("RSI", fill("KGHM", OrderRequest.BUY, 40, 100.0));
+        portfolio.applyFill("RSI", fill("KGHM", OrderRequest.BUY, 60, 101.0));
+
+        // Then
+        assertEquals(100L, portfolio.getNetQuantity("RSI", "KGHM"));
+        assertEquals(2L, portfolio.getFillCount());
+        // Wycena po cenie pierwszego wykonania, dopóki nie ma notowania
+        assertEquals(-60.0, portfolio.getUnrealizedPnL("RSI"), DELTA);
+    }
+
+    @Test
+    public void testMarkToMarketAndRealizedPnL() {
+        // Given
+        portfolio.applyFill("RSI", fill("KGHM", OrderRequest.BUY, 100, 100.0));
+
+        // When
+        portfolio.markToMarket(registry.getId("KGHM"), Price.fromDouble(105.0));
+
+        // Then
+        assertEquals(500.0, portfolio.getUnrealizedPnL("RSI"), DELTA);
+        assertEquals(500.0, portfolio.getUnrealizedPnL("RSI", "KGHM"), DELTA);
+        assertEquals(0.0, portfolio.getRealizedPnL("RSI"), DELTA);
+
+        // When: częściowe zamknięcie
+        portfolio.applyFill("RSI", fill("KGHM", OrderRequest.SELL, 40, 106.0));
+        portfolio.markToMarket(registry.getId("KGHM"), Price.fromDouble(104.0));
+
+        // Then
+        assertEquals(240.0, portfolio.getRealizedPnL("RSI"), DELTA);
+        assertEquals(240.0, portfolio.getUnrealizedPnL("RSI"), DELTA);
+        assertEquals(480.0, portfolio.getTotalPnL("RSI"), DELTA);
+    }
+
+    @Test
+    public void testShortPositionGainsWhenPriceFalls() {
+        portfolio.applyFill("MA", fill("PKO", OrderRequest.SELL, 50, 40.0));
+        portfolio.markToMarket(registry.getId("PKO"), Price.fromDouble(38.0));
+
+        assertEquals(-50L, portfolio.getNetQuantity("MA", "PKO"));
+        assertEquals(100.0, portfolio.getUnrealizedPnL("MA"), DELTA);
+    }
+
+    @Test
+    public void testAggregateAcrossStrategies() {
+        // Given
+        portfolio.applyFill("RSI", fill("KGHM", OrderRequest.BUY, 10, 100.0));
+        portfolio.applyFill("MA", fill("KGHM", OrderRequest.SELL, 10, 100.0));
+        portfolio.applyFill("MA", fill("PKO", OrderRequest.BUY, 10, 40.0));
+        portfolio.applyFill("MA", fill("PKO", OrderRequest.SELL, 10, 45.0));
+
+        // When
+        portfolio.markToMarket(registry.getId("KGHM"), Price.fromDouble(110.0));
+
+        // Then
+        assertEquals(100.0, portfolio.getUnrealizedPnL("RSI"), DELTA);
+        assertEquals(-100.0, portfolio.getUnrealizedPnL("MA"), DELTA);
+        assertEquals(50.0, portfolio.getRealizedPnL("MA"), DELTA);
+        assertEquals(0.0, portfolio.getTotalUnrealizedPnL(), DELTA);
+        assertEquals(50.0, portfolio.getTotalRealizedPnL(), DELTA);
+        assertEquals(List.of("RSI", "MA"), portfolio.getStrategies());
+    }
+
+    @Test
+    public void testCommissionReducesRealizedPnL() {
+        // When
+        portfolio.applyFill("RSI", new Fill("ORD", "KGHM", OrderRequest.BUY, 10, Price.fromDouble(100.0), Price.fromDouble(2.0)));
+
+        // Then
+        assertEquals(-2.0, portfolio.getRealizedPnL("RSI"), DELTA);
+        assertEquals(-2.0, portfolio.getTotalPnL("RSI"), DELTA);
+    }
+
+    @Test
+    public void testUnknownStrategyAndSymbol() {
+        assertEquals(0L, portfolio.getNetQuantity("RSI", "KGHM"));
+        assertEquals(0.0, portfolio.getRealizedPnL("RSI"), DELTA);
+
+        portfolio.applyFill(null, fill("KGHM", OrderRequest.BUY, 10, 100.0));
+        assertEquals(10L, portfolio.getNetQuantity(Portfolio.UNASSIGNED, "KGHM"));
+    }
+
+    @Test
+    public void testConcurrentFillsAndMarks() throws Exception {
+        // Given: strategie zapisują wykonania, a tor danych wycenia pozycje
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int s = 0; s < 3; s++) {
+                String strategy = "S" + s;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        portfolio.applyFill(strategy, fill("SYM" + (i % 20), OrderRequest.BUY, 1, 10.0));
+                    }
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    portfolio.markToMarket(registry.getId("SYM" + (i % 20)), Price.fromDouble(11.0));
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            portfolio.markToMarket(registry.getId("SYM" + i), Price.fromDouble(11.0));
+        }
+
+        // Then
+        assertEquals(3000L, portfolio.getFillCount());
+        assertEquals(50L, portfolio.getNetQuantity("S1", "SYM7"));
+        assertEquals(3000.0, portfolio.getTotalUnrealizedPnL(), DELTA);
+    }
+
+    private static Fill fill(String symbol, String side, long quantity, double price) {
+        return new Fill("ORD", symbol, side, quantity, Price.fromDouble(price));
+    }
+}
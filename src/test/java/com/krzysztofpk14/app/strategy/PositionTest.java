@@ -1,5 +1,7 @@
 package com.krzysztofpk14.app.strategy;
 
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -195,4 +197,51 @@ public class PositionTest {
         position.addSell(50, 100.0);
         assertEquals(Position.Direction.SHORT, position.getDirection(), "Direction should be SHORT");
     }
+    
+    @Test
+    public void testNetQuantityAndFlat() {
+        assertTrue(position.isFlat(), "New position should be flat");
+        
+        position.addSell(30, 100.0);
+        assertEquals(-30L, position.getNetQuantity(), "Short position should have negative net quantity");
+        assertFalse(position.isFlat(), "Short position should not be flat");
+        
+        position.addBuy(30, 90.0);
+        assertTrue(position.isFlat(), "Covered position should be flat");
+    }
+    
+    @Test
+    public void testUnrealizedPnL() {
+        // Given: A long position
+        position.addBuy(100, 50.0);
+        
+        // Then: Open quantity is valued at the mark price
+        assertEquals(Price.fromDouble(200.0), position.getUnrealizedPnLFixed(Price.fromDouble(52.0)));
+        assertEquals(Price.fromDouble(-100.0), position.getUnrealizedPnLFixed(Price.fromDouble(49.0)));
+        
+        // When: Reversing to a short position
+        position.addSell(150, 55.0);
+        
+        // Then: Short position gains when the price falls
+        assertEquals(Price.fromDouble(500.0), position.getRealizedPnLFixed(), "Closing the long should realize 500");
+        assertEquals(Price.fromDouble(100.0), position.getUnrealizedPnLFixed(Price.fromDouble(53.0)));
+        
+        position.addBuy(50, 53.0);
+        assertEquals(0L, position.getUnrealizedPnLFixed(Price.fromDouble(60.0)), "Flat position has no unrealized P&L");
+    }
+    
+    @Test
+    public void testCommissionReducesRealizedPnL() {
+        // Given: A round trip with a commission on each fill
+        position.addBuy(10, 100.0);
+        position.addCommissionFixed(Price.fromDouble(1.5));
+        
+        // When
+        position.addSell(10, 103.0);
+        position.addCommissionFixed(Price.fromDouble(1.5));
+        
+        // Then: Costs of both fills are included in the trade result
+        assertTrue(position.isFlat());
+        assertEquals(27.0, position.getRealizedPnL(), 0.001);
+    }
 }
@@ -0,0 +1,151 @@
+package com.krzysztofpk14.app.strategy;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StrategyMailboxTest {
+
+    @Test
+    public void testEventsProcessedInOrderOffCallerThread() throws Exception {
+        // Given
+        StrategyMailbox mailbox = new StrategyMailbox("test");
+        List<Integer> events = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            int event = i;
+            mailbox.post(() -> {
+                events.add(event);
+                threads.add(Thread.currentThread());
+            });
+        }
+
+        // Then
+        assertTrue(mailbox.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(1000, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).intValue());
+        }
+        assertTrue(threads.get(0).isVirtual(), "Mailbox should be drained by a virtual thread");
+        assertEquals(1000L, mailbox.getProcessedCount());
+        assertEquals(0, mailbox.getQueueDepth());
+    }
+
+    @Test
+    public void testExceptionDoesNotStopMailbox() throws Exception {
+        // Given
+        StrategyMailbox mailbox = new StrategyMailbox("failing");
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        mailbox.post(() -> {
+            throw new IllegalStateException("test");
+        });
+        mailbox.post(done::countDown);
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(mailbox.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(1L, mailbox.getFailureCount());
+        assertEquals(2L, mailbox.getProcessedCount());
+    }
+
+    @Test
+    public void testDepthAndLatencyWhileBlocked() throws Exception {
+        // Given
+        StrategyMailbox mailbox = new StrategyMailbox("slow");
+        CountDownLatch release = new CountDownLatch(1);
+        mailbox.post(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        mailbox.post(() -> { });
+        mailbox.post(() -> { });
+        Thread.sleep(20);
+
+        // Then
+        assertEquals(2, mailbox.getQueueDepth());
+        release.countDown();
+        assertTrue(mailbox.awaitIdle(5, TimeUnit.SECONDS));
+        assertTrue(mailbox.getMaxLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(mailbox.getAverageLatencyNanos() > 0);
+    }
+
+    @Test
+    public void testClosedMailboxRejectsEvents() {
+        // Given
+        StrategyMailbox mailbox = new StrategyMailbox("closed", Runnable::run);
+
+        // When
+        mailbox.close();
+
+        // Then
+        assertTrue(mailbox.isClosed());
+        assertFalse(mailbox.post(() -> fail("Closed mailbox should not run events")));
+    }
+
+    @Test
+    public void testFullMailboxCoalescesMarketDataPerSymbol() {
+        // Given: skrzynka na 2 zdarzenia, opróżniana ręcznie
+        List<Runnable> drains = new ArrayList<>();
+        StrategyMailbox mailbox = new StrategyMailbox("bounded", drains::add, 2);
+        List<String> events = new ArrayList<>();
+
+        // When
+        mailbox.post(() -> events.add("report-1"));
+        mailbox.postMarketData("KGHM", () -> events.add("KGHM-1"));
+        mailbox.postMarketData("KGHM", () -> events.add("KGHM-2"));
+        mailbox.postMarketData("KGHM", () -> events.add("KGHM-3"));
+        mailbox.postMarketData("PKO", () -> events.add("PKO-1"));
+        mailbox.post(() -> events.add("report-2"));
+
+        // Then
+        assertEquals(5, mailbox.getQueueDepth());
+        assertEquals(1L, mailbox.getCoalescedCount());
+        assertEquals(1, drains.size());
+        drains.remove(0).run();
+        assertEquals(List.of("report-1", "KGHM-1", "KGHM-3", "PKO-1", "report-2"), events);
+        assertEquals(0, mailbox.getQueueDepth());
+
+        // When: po opróżnieniu dane znów trafiają do skrzynki pojedynczo
+        mailbox.postMarketData("KGHM", () -> events.add("KGHM-4"));
+        mailbox.postMarketData("KGHM", () -> events.add("KGHM-5"));
+        drains.remove(0).run();
+
+        // Then
+        assertEquals(List.of("KGHM-4", "KGHM-5"), events.subList(5, 7));
+        assertEquals(1L, mailbox.getCoalescedCount());
+    }
+
+    @Test
+    public void testFullMailboxKeepsEveryReport() {
+        // Given
+        List<Runnable> drains = new ArrayList<>();
+        StrategyMailbox mailbox = new StrategyMailbox("reports", drains::add, 2);
+        List<Integer> events = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            int event = i;
+            assertTrue(mailbox.post(() -> events.add(event)));
+        }
+        drains.remove(0).run();
+
+        // Then
+        assertEquals(10, events.size());
+        assertEquals(0L, mailbox.getCoalescedCount());
+        assertThrows(IllegalArgumentException.class, () -> new StrategyMailbox("invalid", Runnable::run, 0));
+    }
+}
@@ -5,12 +5,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
 import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
 import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
 import com.krzysztofpk14.app.gui.TradingAppGUI;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -71,6 +74,7 @@ public class StrategyManagerTest {
         private int marketDataCount = 0;
         private int executionReportCount = 0;
         private TradingAppGUI gui;
+        private OrderRegistry orderRegistry;
         
         public TestStrategy(String name, String description) {
             this.name = name;
@@ -155,7 +159,18 @@ public class StrategyManagerTest {
             this.gui = gui;
         }
         
+        @Override
+        public void setOrderRegistry(OrderRegistry registry) {
+            this.orderRegistry = registry;
+        }
+        
         // Test helper methods
+        public void reportSentOrder(String clientOrderId) {
+            if (orderRegistry != null) {
+                orderRegistry.register(clientOrderId, this);
+            }
+        }
+        
         public boolean wasMarketDataProcessed() {
             return marketDataProcessed;
         }
@@ -398,4 +413,205 @@ public class StrategyManagerTest {
         // Should not throw an exception
         manager.displayStatistics();
     }
+    
+    @Test
+    public void testMarketDataRoutedBySymbol() {
+        // Given
+        TestStrategy unfiltered = new TestStrategy("All", "Receives every symbol");
+        manager.addStrategy(testStrategy1, new StrategyParameters().setInstruments(Arrays.asList("KGHM", "PKO")));
+        manager.addStrategy(testStrategy2, new StrategyParameters().setInstruments(Arrays.asList("PKO")));
+        manager.addStrategy(unfiltered, new StrategyParameters());
+        
+        // When
+        testClient.simulateMarketData(marketData("KGHM"));
+        testClient.simulateMarketData(marketData("PKO"));
+        testClient.simulateMarketData(marketData("CDR"));
+        
+        // Then
+        assertEquals(2, testStrategy1.getMarketDataCount(), "Strategy should receive only its symbols");
+        assertEquals(1, testStrategy2.getMarketDataCount(), "Strategy should receive only its symbols");
+        assertEquals(3, unfiltered.getMarketDataCount(), "Strategy without instruments should receive all symbols");
+        assertEquals(List.of(testStrategy1, testStrategy2, unfiltered), manager.getStrategiesForSymbol("PKO"));
+    }
+    
+    @Test
+    public void testRoutesUpdatedOnRemove() {
+        // Given
+        manager.addStrategy(testStrategy1, new StrategyParameters().setInstruments(Arrays.asList("KGHM")));
+        manager.addStrategy(testStrategy2, new StrategyParameters().setInstruments(Arrays.asList("KGHM")));
+        
+        // When
+        manager.removeStrategy("RSI Strategy");
+        testClient.simulateMarketData(marketData("KGHM"));
+        
+        // Then
+        assertEquals(0, testStrategy1.getMarketDataCount(), "Removed strategy should not receive market data");
+        assertEquals(1, testStrategy2.getMarketDataCount(), "Remaining strategy should receive market data");
+    }
+    
+    @Test
+    public void testExecutionReportRoutedToOwner() {
+        // Given
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        manager.addStrategy(testStrategy2, new StrategyParameters());
+        testStrategy2.reportSentOrder("MAC-ORD-1");
+        
+        ExecutionReport report = new TestExecutionReport();
+        report.setClientOrderId("MAC-ORD-1");
+        report.setOrderStatus(ExecutionReport.DONE);
+        
+        // When
+        testClient.simulateExecutionReport(report);
+        
+        // Then
+        assertNull(manager.getOrderOwner("MAC-ORD-1"), "Owner should be forgotten after the final report");
+        assertEquals(0, testStrategy1.getExecutionReportCount(), "Other strategy should not receive the report");
+        assertEquals(1, testStrategy2.getExecutionReportCount(), "Owner should receive the report");
+    }
+    
+    @Test
+    public void testActiveOrderOwnerKeptUntilFinalReport() {
+        // Given
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        testStrategy1.reportSentOrder("RSI-ORD-1");
+        ExecutionReport report = new TestExecutionReport();
+        report.setClientOrderId("RSI-ORD-1");
+        report.setOrderStatus(ExecutionReport.ACTIVE);
+        
+        // When
+        testClient.simulateExecutionReport(report);
+        
+        // Then
+        assertSame(testStrategy1, manager.getOrderOwner("RSI-ORD-1"), "Owner should be kept for an active order");
+    }
+    
+    @Test
+    public void testFillsAndQuotesUpdatePortfolio() {
+        // Given
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        testStrategy1.reportSentOrder("RSI-ORD-1");
+        ExecutionReport report = new TestExecutionReport();
+        report.setClientOrderId("RSI-ORD-1");
+        report.setExecutionType(ExecutionReport.TRANSACTION);
+        report.setOrderStatus(ExecutionReport.ACTIVE);
+        report.setSide(OrderRequest.BUY);
+        report.setLastPrice("100.00");
+        report.setLastQuantity("10");
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol("KGHM");
+        report.setInstrument(instrument);
+        
+        MarketDataResponse data = marketData("KGHM");
+        MarketDataResponse.MarketDataGroup trade = new MarketDataResponse.MarketDataGroup();
+        trade.setMarketDataEntryType(MarketDataResponse.TRADE);
+        trade.setPrice("103.00");
+        data.setMarketDataGroups(List.of(trade));
+        
+        // When
+        testClient.simulateExecutionReport(report);
+        testClient.simulateMarketData(data);
+        
+        // Then
+        Portfolio portfolio = manager.getPortfolio();
+        assertEquals(10L, portfolio.getNetQuantity("RSI Strategy", "KGHM"));
+        assertEquals(30.0, portfolio.getUnrealizedPnL("RSI Strategy"), 0.001);
+        assertEquals(30.0, portfolio.getTotalUnrealizedPnL(), 0.001);
+    }
+    
+    @Test
+    public void testStatusReportAfterReconnectFillsPortfolio() {
+        // Given: wykonanie częściowe przed zerwaniem połączenia
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        testStrategy1.reportSentOrder("RSI-ORD-1");
+        ExecutionReport partial = new TestExecutionReport();
+        partial.setClientOrderId("RSI-ORD-1");
+        partial.setExecutionType(ExecutionReport.TRANSACTION);
+        partial.setOrderStatus(ExecutionReport.ACTIVE);
+        partial.setSide(OrderRequest.BUY);
+        partial.setLastPrice("100.00");
+        partial.setLastQuantity("10");
+        ExecutionReport.Instrument instrument = new ExecutionReport.Instrument();
+        instrument.setSymbol("KGHM");
+        partial.setInstrument(instrument);
+        testClient.simulateExecutionReport(partial);
+        
+        // When: po ponownym połączeniu przychodzi tylko raport statusu
+        ExecutionReport status = new TestExecutionReport();
+        status.setClientOrderId("RSI-ORD-1");
+        status.setExecutionType(ExecutionReport.ORDER_STATUS);
+        status.setOrderStatus(ExecutionReport.DONE);
+        status.setSide(OrderRequest.BUY);
+        status.setLastPrice("101.00");
+        status.setCumulativeQuantity("25");
+        status.setInstrument(instrument);
+        testClient.simulateExecutionReport(status);
+        
+        // Then
+        Portfolio portfolio = manager.getPortfolio();
+        assertEquals(25L, portfolio.getNetQuantity("RSI Strategy", "KGHM"));
+        assertEquals(2L, portfolio.getFillCount());
+        assertNull(manager.getOrderOwner("RSI-ORD-1"));
+    }
+    
+    @Test
+    public void testRemovedStrategyOrdersForgotten() {
+        // Given
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        manager.addStrategy(testStrategy2, new StrategyParameters());
+        testStrategy1.reportSentOrder("RSI-ORD-1");
+        testStrategy2.reportSentOrder("MAC-ORD-1");
+        
+        // When
+        manager.removeStrategy("RSI Strategy");
+        testStrategy1.reportSentOrder("RSI-ORD-2");
+        
+        // Then
+        assertNull(manager.getOrderOwner("RSI-ORD-1"), "Orders of a removed strategy should be forgotten");
+        assertNull(manager.getOrderOwner("RSI-ORD-2"), "Removed strategy should be detached from the registry");
+        assertSame(testStrategy2, manager.getOrderOwner("MAC-ORD-1"));
+        assertEquals(1, manager.getOrderRegistry().size());
+    }
+    
+    private static MarketDataResponse marketData(String symbol) {
+        MarketDataResponse data = new TestMarketDataResponse();
+        MarketDataResponse.Instrument instrument = new MarketDataResponse.Instrument();
+        instrument.setSymbol(symbol);
+        data.setInstrument(instrument);
+        return data;
+    }
+    
+    @Test
+    public void testIsolatedExecutionUsesMailboxes() throws Exception {
+        // Given
+        manager = new StrategyManager(testClient, true);
+        CountDownLatch release = new CountDownLatch(1);
+        TestStrategy slow = new TestStrategy("Slow", "Blocks on market data") {
+            @Override
+            public void onMarketData(MarketDataResponse marketData) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onMarketData(marketData);
+            }
+        };
+        manager.addStrategy(slow, new StrategyParameters());
+        manager.addStrategy(testStrategy1, new StrategyParameters());
+        
+        // When
+        testClient.simulateMarketData(marketData("KGHM"));
+        testClient.simulateMarketData(marketData("KGHM"));
+        
+        // Then
+        assertTrue(manager.getMailbox(testStrategy1).awaitIdle(5, TimeUnit.SECONDS),
+                "Fast strategy should not wait for the slow one");
+        assertEquals(2, testStrategy1.getMarketDataCount(), "Fast strategy should process both updates");
+        assertEquals(0, slow.getMarketDataCount(), "Slow strategy should still be blocked");
+        
+        release.countDown();
+        assertTrue(manager.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(2, slow.getMarketDataCount(), "Slow strategy should catch up");
+        assertEquals(2L, manager.getMailbox(slow).getProcessedCount());
+    }
 }
@@ -213,4 +213,22 @@ public class StrategyParametersTest {
         assertEquals(0.75, params.getDoubleParam("threshold", 0.0), 0.001);
         assertTrue(params.getBooleanParam("active", false));
     }
+
+    @Test
+    public void testCopyIsIndependent() {
+        // Given
+        params.setInstruments(TEST_INSTRUMENTS)
+              .setClosePositionsOnStop(false)
+              .setParam("period", 14);
+
+        // When
+        StrategyParameters copy = params.copy();
+        copy.setParam("period", 20);
+
+        // Then
+        assertEquals(TEST_INSTRUMENTS, copy.getInstruments());
+        assertFalse(copy.isClosePositionsOnStop());
+        assertEquals(20, copy.getIntParam("period", 0));
+        assertEquals(14, params.getIntParam("period", 0));
+    }
 }
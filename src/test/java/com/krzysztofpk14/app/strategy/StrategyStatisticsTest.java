@@ -253,4 +253,98 @@ public class StrategyStatisticsTest {
         assertEquals(50, stats.getLosingTrades(), "Losing trades should be 50");
         assertEquals(200.0, stats.getTotalPnL(), DELTA, "Total P&L should be 200");
     }
+
+    @Test
+    public void testEquityCurveAndDrawdown() {
+        // When
+        stats.addTotalPnL(100.0, 1_000);
+        stats.addTotalPnL(-30.0, 2_000);
+        stats.addTotalPnL(-50.0, 3_000);
+        stats.addTotalPnL(200.0, 4_000);
+        
+        // Then
+        double[] curve = stats.getEquityCurve();
+        assertEquals(4, curve.length);
+        assertEquals(100.0, curve[0], DELTA);
+        assertEquals(20.0, curve[2], DELTA);
+        assertEquals(220.0, curve[3], DELTA);
+        assertEquals(3_000L, stats.getEquityCurveTimes()[2]);
+        assertEquals(80.0, stats.getMaxDrawdown(), DELTA, "Drawdown from 100 to 20");
+        assertEquals(0.0, stats.getRiskMetrics().drawdown(), DELTA, "New peak at 220");
+        assertEquals(4, stats.getRiskMetrics().closedTrades());
+    }
+    
+    @Test
+    public void testSharpeAndSortino() {
+        // When
+        double[] returns = {10.0, -5.0, 20.0, -15.0, 5.0};
+        for (double r : returns) {
+            stats.addTotalPnL(r);
+        }
+        
+        // Then: średnia 3, odchylenie próbkowe sqrt(730 / 4), odchylenie strat sqrt(250 / 5)
+        assertEquals(3.0 / Math.sqrt(182.5), stats.getSharpeRatio(), 1e-9);
+        assertEquals(3.0 / Math.sqrt(50.0), stats.getSortinoRatio(), 1e-9);
+        assertArrayEqualsDelta(returns, stats.getTradeReturns());
+    }
+    
+    @Test
+    public void testRiskRatiosWithoutEnoughData() {
+        // When
+        stats.addTotalPnL(10.0);
+        
+        // Then
+        assertEquals(0.0, stats.getSharpeRatio(), DELTA, "Sharpe needs at least two returns");
+        assertEquals(0.0, stats.getSortinoRatio(), DELTA, "Sortino needs at least one loss");
+    }
+    
+    @Test
+    public void testHoldingTimeAndExposure() {
+        // When
+        stats.recordHoldingTime(java.time.Duration.ofSeconds(10));
+        stats.recordHoldingTime(java.time.Duration.ofSeconds(30));
+        stats.updateExposure(5_000.0);
+        stats.updateExposure(1_000.0);
+        
+        // Then
+        assertEquals(20, stats.getAverageHoldingTime().toSeconds());
+        assertEquals(1_000.0, stats.getExposure(), DELTA);
+        assertEquals(5_000.0, stats.getRiskMetrics().maxExposure(), DELTA);
+    }
+    
+    @Test
+    public void testSnapshotIsConsistentUnderConcurrentWriters() throws InterruptedException {
+        // Given
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    stats.addTotalPnL(1.0);
+                }
+            });
+        }
+        
+        // When
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (int i = 0; i < 1_000; i++) {
+            RiskMetrics snapshot = stats.getRiskMetrics();
+            // Then: each snapshot comes from a single update
+            assertEquals((double) snapshot.closedTrades(), snapshot.equity(), DELTA);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(40_000, stats.getRiskMetrics().closedTrades());
+        assertEquals(40_000, stats.getEquityCurve().length);
+        assertEquals(40_000.0, stats.getTotalPnL(), DELTA);
+    }
+    
+    private static void assertArrayEqualsDelta(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], DELTA);
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+public class BacktestClientTest {
+
+    @Test
+    public void testImmediateFillWithSlippageAndCommission() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.IMMEDIATE);
+        client.setSlippageBps(10);
+        client.setCommission(0.001, 5.0);
+        trade(client, 1, "KGHM", "100.00");
+
+        // When
+        CompletableFuture<ExecutionReport> future = client.sendOrder(order("KGHM", "B1", OrderRequest.BUY, "100", null));
+
+        // Then: 100 + 0,1% poślizgu, prowizja max(5, 10010 * 0,001)
+        assertTrue(future.isDone());
+        ExecutionReport report = future.join();
+        assertEquals(Price.parse("100.1"), Price.parse(report.getPrice()));
+        assertEquals(ExecutionReport.DONE, report.getOrderStatus());
+        assertEquals(10.01, client.getTotalCommission(), 1e-9);
+        assertEquals(List.of(report), client.drainReports());
+        assertTrue(client.drainReports().isEmpty());
+    }
+
+    @Test
+    public void testNextTickFillWaitsForNextTrade() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.NEXT_TICK);
+        trade(client, 1, "PKO", "45.00");
+
+        // When
+        CompletableFuture<ExecutionReport> future = client.sendOrder(order("PKO", "S1", OrderRequest.SELL, "3", null));
+
+        // Then
+        assertFalse(future.isDone());
+        assertEquals(1, client.getPendingOrderCount());
+
+        // When
+        trade(client, 2, "CDR", "300.00");
+        trade(client, 3, "PKO", "44.50");
+
+        // Then
+        assertEquals(Price.parse("44.5"), Price.parse(future.join().getPrice()));
+        assertEquals(0, client.getPendingOrderCount());
+        assertEquals(1L, client.getFillCount());
+    }
+
+    @Test
+    public void testBookFillBuysAtAsk() {
+        // Given: transakcja po 42.00 i oferta sprzedaży po 42.10
+        BacktestClient client = new BacktestClient(FillModel.BOOK);
+        trade(client, 1, "PZU", "42.00");
+        client.onTick("PZU", 1, Price.parse("42.10"), 10, (byte) '1');
+
+        // When
+        ExecutionReport buy = client.sendOrder(order("PZU", "B1", OrderRequest.BUY, "1", null)).join();
+        ExecutionReport sell = client.sendOrder(order("PZU", "S1", OrderRequest.SELL, "1", null)).join();
+
+        // Then
+        assertEquals(Price.parse("42.1"), Price.parse(buy.getPrice()));
+        assertEquals(Price.parse("42"), Price.parse(sell.getPrice()), "Sells fill at the last trade without a bid");
+    }
+
+    @Test
+    public void testOfferDoesNotFillPendingOrders() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.NEXT_TICK);
+        trade(client, 1, "PKO", "45.00");
+        CompletableFuture<ExecutionReport> future = client.sendOrder(order("PKO", "B1", OrderRequest.BUY, "1", null));
+
+        // When
+        client.onTick("PKO", 2, Price.parse("45.10"), 10, (byte) '1');
+
+        // Then
+        assertFalse(future.isDone(), "Only trades should fill orders");
+        assertEquals(1, client.getPendingOrderCount());
+    }
+
+    @Test
+    public void testLimitOrderRestsUntilCrossed() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.IMMEDIATE);
+        trade(client, 1, "KGHM", "100.00");
+
+        // When
+        CompletableFuture<ExecutionReport> future = client.sendOrder(order("KGHM", "B1", OrderRequest.BUY, "1", "99.00"));
+        trade(client, 2, "KGHM", "99.50");
+
+        // Then
+        assertFalse(future.isDone());
+
+        // When
+        trade(client, 3, "KGHM", "98.80");
+
+        // Then
+        assertEquals(Price.parse("98.8"), Price.parse(future.join().getPrice()));
+    }
+
+    @Test
+    public void testRemainingMarketOrdersFilledAtLastPrice() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.NEXT_TICK);
+        trade(client, 1, "KGHM", "100.00");
+        CompletableFuture<ExecutionReport> market = client.sendOrder(order("KGHM", "S1", OrderRequest.SELL, "1", null));
+        CompletableFuture<ExecutionReport> limit = client.sendOrder(order("KGHM", "S2", OrderRequest.SELL, "1", "120.00"));
+
+        // When
+        client.fillRemainingMarketOrders();
+
+        // Then
+        assertEquals(Price.parse("100"), Price.parse(market.join().getPrice()));
+        assertFalse(limit.isDone());
+    }
+
+    @Test
+    public void testClientHasNoServerConnection() {
+        // Given
+        BacktestClient client = new BacktestClient(FillModel.IMMEDIATE);
+
+        // Then: symulator nie łączy się z serwerem
+        assertFalse(client.isConnected());
+        assertFalse(client.isReconnecting());
+        assertThrows(IOException.class, () -> client.connect("localhost", 1));
+        client.disconnect();
+    }
+
+    private static void trade(BacktestClient client, long millis, String symbol, String price) {
+        client.onTick(symbol, TimeUnit.MILLISECONDS.toNanos(millis), Price.parse(price), 10, (byte) '0');
+    }
+
+    static OrderRequest order(String symbol, String id, String side, String quantity, String limit) {
+        OrderRequest order = new OrderRequest();
+        order.setClientOrderId(id);
+        order.setSide(side);
+        OrderRequest.Instrument instrument = new OrderRequest.Instrument();
+        instrument.setSymbol(symbol);
+        order.setInstrument(instrument);
+        OrderRequest.OrderQuantity orderQuantity = new OrderRequest.OrderQuantity();
+        orderQuantity.setQuantity(quantity);
+        order.setOrderQuantity(orderQuantity);
+        order.setOrderType(limit != null ? OrderRequest.LIMIT : OrderRequest.MARKET);
+        order.setPrice(limit);
+        return order;
+    }
+}
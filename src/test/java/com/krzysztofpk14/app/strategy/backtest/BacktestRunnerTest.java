@@ -0,0 +1,172 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.krzysztofpk14.app.bossaapi.client.BossaApiClient;
+import com.krzysztofpk14.app.bossaapi.client.MarketDataCache;
+import com.krzysztofpk14.app.bossaapi.model.request.OrderRequest;
+import com.krzysztofpk14.app.bossaapi.model.response.ExecutionReport;
+import com.krzysztofpk14.app.bossaapi.model.response.MarketDataResponse;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+import com.krzysztofpk14.app.strategy.AbstractInvestmentStrategy;
+import com.krzysztofpk14.app.strategy.MovingAverageCrossoverStrategy;
+import com.krzysztofpk14.app.strategy.StrategyParameters;
+
+public class BacktestRunnerTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Buys on the first trade and sells on the third one.
+     */
+    private static class BuyThenSellStrategy extends AbstractInvestmentStrategy {
+        private int trades;
+
+        BuyThenSellStrategy(BossaApiClient apiClient) {
+            super(apiClient);
+        }
+
+        @Override
+        protected void doInitialize(StrategyParameters parameters) {
+        }
+
+        @Override
+        protected void doStart() {
+        }
+
+        @Override
+        protected void doStop() {
+        }
+
+        @Override
+        protected void processMarketData(MarketDataResponse marketData, MarketDataCache.Quote quote) {
+            trades++;
+            if (trades == 1) {
+                sendOrder(BacktestClientTest.order("KGHM", "BUY-1", OrderRequest.BUY, "10", null));
+            } else if (trades == 3) {
+                sendOrder(BacktestClientTest.order("KGHM", "SELL-1", OrderRequest.SELL, "10", null));
+            }
+        }
+
+        @Override
+        protected void processExecutionReport(ExecutionReport report) {
+        }
+
+        @Override
+        public String getName() {
+            return "Buy then sell";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Test strategy";
+        }
+    }
+
+    @Test
+    public void testRoundTripProducesStatistics() throws IOException {
+        // Given
+        BacktestRunner runner = new BacktestRunner(FillModel.NEXT_TICK);
+        runner.setCommission(0, 1.0);
+        TickDataset ticks = TickDatasetTest.write(file, List.of(
+                "1,KGHM,100.00,1",
+                "2,KGHM,101.00,1",
+                "3,KGHM,103.00,1",
+                "4,KGHM,104.00,1"));
+
+        // When
+        BacktestResult result = runner.run(BuyThenSellStrategy::new,
+                new StrategyParameters().setInstruments(Arrays.asList("KGHM")), ticks);
+
+        // Then: kupno po 101, sprzedaż po 104
+        assertEquals(4L, result.ticks());
+        assertEquals(2L, result.orders());
+        assertEquals(2L, result.fills());
+        assertEquals(1, result.statistics().getTotalBuys());
+        assertEquals(1, result.statistics().getTotalSells());
+        // Prowizja 1,00 od każdego wykonania pomniejsza wynik transakcji
+        assertEquals(28.0, result.statistics().getTotalPnL(), 1e-9);
+        assertEquals(2.0, result.statistics().getTotalCommission(), 1e-9);
+        assertEquals(28.0, result.statistics().getNetPnL(), 1e-9);
+        assertEquals(1, result.statistics().getWinningTrades());
+        assertEquals(1, result.tradePnL().length);
+        assertEquals(28.0, result.tradePnL()[0], 1e-9);
+        assertEquals(28.0, result.statistics().getRiskMetrics().equity(), 1e-9);
+        // Czas transakcji z symulatora: otwarcie przy transakcji 2, zamknięcie przy 4
+        assertEquals(2L, result.statistics().getAverageHoldingTime().toMillis());
+        assertEquals(0.0, result.statistics().getExposure(), 1e-9);
+        assertEquals(1010.0, result.statistics().getRiskMetrics().maxExposure(), 1e-9);
+    }
+
+    @Test
+    public void testOpenPositionClosedAtEnd() throws IOException {
+        // Given
+        BacktestRunner runner = new BacktestRunner(FillModel.IMMEDIATE);
+        TickDataset ticks = TickDatasetTest.write(file, List.of(
+                "1,KGHM,100.00,1",
+                "2,KGHM,95.00,1"));
+
+        // When
+        BacktestResult result = runner.run(BuyThenSellStrategy::new,
+                new StrategyParameters().setInstruments(Arrays.asList("KGHM")), ticks);
+
+        // Then: pozycja zamknięta przy zatrzymaniu po ostatniej cenie
+        assertEquals(2L, result.fills());
+        assertEquals(-50.0, result.statistics().getTotalPnL(), 1e-9);
+        assertEquals(1, result.statistics().getLosingTrades());
+    }
+
+    @Test
+    public void testMovingAverageStrategyIsDeterministic() throws IOException {
+        // Given
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            double price = 100 + 10 * Math.sin(i / 50.0);
+            rows.add(i + ",KGHM," + Price.format(Price.fromDouble(price)) + ",1");
+        }
+        TickDataset ticks = TickDatasetTest.write(file, rows);
+        BacktestRunner runner = new BacktestRunner(FillModel.NEXT_TICK);
+        runner.setSlippageBps(5);
+
+        // When
+        BacktestResult first = runner.run(MovingAverageCrossoverStrategy::new, parameters(), ticks);
+        BacktestResult second = runner.run(MovingAverageCrossoverStrategy::new, parameters(), ticks);
+
+        // Then
+        assertEquals(20_000L, first.ticks());
+        assertTrue(first.fills() > 10, "Sine wave should produce crossovers");
+        assertEquals(first.orders(), first.fills());
+        assertEquals(first.statistics().getTotalPnL(), second.statistics().getTotalPnL(), 1e-9);
+        assertEquals(first.fills(), second.fills());
+        assertTrue(first.ticksPerSecond() > 0);
+    }
+
+    private static StrategyParameters parameters() {
+        StrategyParameters parameters = new StrategyParameters();
+        parameters.setInstruments(Arrays.asList("KGHM"));
+        parameters.setParam("shortSMAPeriod", 5);
+        parameters.setParam("longSMAPeriod", 20);
+        parameters.setParam("tradeSize", 1000.0);
+        return parameters;
+    }
+}
@@ -0,0 +1,77 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulationTest {
+
+    private static final double[] TRADES = {10, -5, 20, -15, 8, -3, 12, -7, 5, -2};
+
+    @Test
+    public void testReshuffleKeepsPnLAndVariesDrawdown() {
+        // Given
+        MonteCarloSimulation simulation = new MonteCarloSimulation(TRADES);
+
+        // When
+        MonteCarloResult result = simulation.reshuffle(2_000, 7);
+
+        // Then: kolejność nie zmienia sumy
+        assertEquals(2_000, result.getSimulations());
+        assertEquals(23.0, result.getPnLPercentile(0), 1e-9);
+        assertEquals(23.0, result.getPnLPercentile(100), 1e-9);
+        assertEquals(0.0, result.getProbabilityOfLoss(), 1e-9);
+        assertTrue(result.getDrawdownPercentile(95) > result.getDrawdownPercentile(5));
+        // Najgorszy przypadek: wszystkie straty po kolei
+        assertTrue(result.getDrawdownPercentile(100) <= 32.0);
+    }
+
+    @Test
+    public void testBootstrapProducesDistribution() {
+        // Given
+        MonteCarloSimulation simulation = new MonteCarloSimulation(TRADES);
+
+        // When
+        MonteCarloResult result = simulation.bootstrap(5_000, 11);
+
+        // Then
+        assertTrue(result.getPnLPercentile(5) < result.getPnLPercentile(50));
+        assertTrue(result.getPnLPercentile(50) < result.getPnLPercentile(95));
+        assertTrue(result.getProbabilityOfLoss() > 0);
+        assertTrue(result.getProbabilityOfLoss() < 0.5);
+        assertTrue(result.getPnLPercentile(0) >= -150.0);
+        assertTrue(result.getPnLPercentile(100) <= 200.0);
+    }
+
+    @Test
+    public void testSameSeedGivesSameResult() {
+        // Given
+        MonteCarloSimulation simulation = new MonteCarloSimulation(TRADES);
+
+        // When
+        MonteCarloResult first = simulation.bootstrap(1_000, 3);
+        MonteCarloResult second = simulation.bootstrap(1_000, 3);
+
+        // Then
+        for (int p = 0; p <= 100; p += 10) {
+            assertEquals(first.getPnLPercentile(p), second.getPnLPercentile(p), 1e-12);
+            assertEquals(first.getDrawdownPercentile(p), second.getDrawdownPercentile(p), 1e-12);
+        }
+    }
+
+    @Test
+    public void testPercentileInterpolation() {
+        // Given
+        MonteCarloResult result = new MonteCarloResult(new double[] {4, 1, 3, 2}, new double[] {0, 0, 0, 0});
+
+        // Then
+        assertEquals(1.0, result.getPnLPercentile(0), 1e-9);
+        assertEquals(2.5, result.getPnLPercentile(50), 1e-9);
+        assertEquals(4.0, result.getPnLPercentile(100), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> result.getPnLPercentile(101));
+    }
+
+    @Test
+    public void testInvalidSimulationCount() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloSimulation(TRADES).reshuffle(0, 1));
+    }
+}
@@ -0,0 +1,117 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+import com.krzysztofpk14.app.strategy.MovingAverageCrossoverStrategy;
+import com.krzysztofpk14.app.strategy.StrategyParameters;
+
+public class ParameterOptimizerTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private TickDataset sineTicks() throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            double price = 100 + 10 * Math.sin(i / 50.0);
+            rows.add(i + ",KGHM," + Price.format(Price.fromDouble(price)) + ",1");
+        }
+        return TickDatasetTest.write(file, rows);
+    }
+
+    private static ParameterOptimizer optimizer() {
+        StrategyParameters base = new StrategyParameters();
+        base.setInstruments(Arrays.asList("KGHM"));
+        base.setParam("tradeSize", 1000.0);
+        return new ParameterOptimizer(new BacktestRunner(FillModel.NEXT_TICK),
+                MovingAverageCrossoverStrategy::new, base);
+    }
+
+    private static List<Map<String, Object>> candidates() {
+        return new ParameterSpace()
+                .addRange("shortSMAPeriod", 2, 10, 2)
+                .addRange("longSMAPeriod", 10, 40, 10)
+                .addConstraint(c -> (Integer) c.get("shortSMAPeriod") < (Integer) c.get("longSMAPeriod"))
+                .grid();
+    }
+
+    @Test
+    public void testResultsSortedByObjective() throws Exception {
+        // Given
+        ParameterOptimizer optimizer = optimizer();
+        List<Map<String, Object>> candidates = candidates();
+
+        // When
+        List<OptimizationResult> byPnL = optimizer.optimize(candidates, sineTicks(), ParameterOptimizer.Objective.PNL);
+        List<OptimizationResult> byDrawdown = optimizer.optimize(candidates, sineTicks(), ParameterOptimizer.Objective.DRAWDOWN);
+
+        // Then
+        assertEquals(candidates.size(), byPnL.size());
+        for (int i = 1; i < byPnL.size(); i++) {
+            assertTrue(byPnL.get(i - 1).result().statistics().getNetPnL()
+                    >= byPnL.get(i).result().statistics().getNetPnL());
+            assertTrue(byDrawdown.get(i - 1).result().maxDrawdown() <= byDrawdown.get(i).result().maxDrawdown());
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        // Given
+        TickDataset ticks = sineTicks();
+        ParameterOptimizer sequential = optimizer();
+        sequential.setParallelism(1);
+        ParameterOptimizer parallel = optimizer();
+        parallel.setParallelism(4);
+
+        // When
+        List<OptimizationResult> expected = sequential.optimize(candidates(), ticks, ParameterOptimizer.Objective.PNL);
+        List<OptimizationResult> actual = parallel.optimize(candidates(), ticks, ParameterOptimizer.Objective.PNL);
+
+        // Then
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).result().statistics().getTotalPnL(),
+                    actual.get(i).result().statistics().getTotalPnL(), 1e-9);
+            assertEquals(expected.get(i).result().fills(), actual.get(i).result().fills());
+        }
+    }
+
+    @Test
+    public void testCandidateParametersApplied() throws IOException {
+        // Given
+        ParameterOptimizer optimizer = optimizer();
+
+        // When
+        OptimizationResult result = optimizer.evaluate(Map.of("shortSMAPeriod", 5, "longSMAPeriod", 20), sineTicks());
+
+        // Then
+        assertEquals(5, result.parameters().get("shortSMAPeriod"));
+        assertTrue(result.result().fills() > 0);
+    }
+
+    @Test
+    public void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> optimizer().setParallelism(0));
+    }
+}
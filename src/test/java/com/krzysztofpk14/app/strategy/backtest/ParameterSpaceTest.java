@@ -0,0 +1,80 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+public class ParameterSpaceTest {
+
+    @Test
+    public void testGridContainsAllCombinations() {
+        // Given
+        ParameterSpace space = new ParameterSpace()
+                .addRange("shortSMAPeriod", 5, 15, 5)
+                .addValues("tradeSize", 100.0, 200.0);
+
+        // When
+        List<Map<String, Object>> grid = space.grid();
+
+        // Then
+        assertEquals(6L, space.getGridSize());
+        assertEquals(6, grid.size());
+        assertEquals(Map.of("shortSMAPeriod", 5, "tradeSize", 100.0), grid.get(0));
+        assertEquals(Map.of("shortSMAPeriod", 15, "tradeSize", 200.0), grid.get(5));
+    }
+
+    @Test
+    public void testConstraintFiltersCombinations() {
+        // Given
+        ParameterSpace space = new ParameterSpace()
+                .addRange("shortSMAPeriod", 5, 30, 5)
+                .addRange("longSMAPeriod", 10, 30, 10)
+                .addConstraint(c -> (Integer) c.get("shortSMAPeriod") < (Integer) c.get("longSMAPeriod"));
+
+        // When
+        List<Map<String, Object>> grid = space.grid();
+
+        // Then: 10 -> {5}, 20 -> {5,10,15}, 30 -> {5..25}
+        assertEquals(9, grid.size());
+        for (Map<String, Object> combination : grid) {
+            assertTrue((Integer) combination.get("shortSMAPeriod") < (Integer) combination.get("longSMAPeriod"));
+        }
+    }
+
+    @Test
+    public void testSampleIsDeterministicAndDistinct() {
+        // Given
+        ParameterSpace space = new ParameterSpace()
+                .addRange("shortSMAPeriod", 1, 50, 1)
+                .addRange("longSMAPeriod", 10, 200, 1);
+
+        // When
+        List<Map<String, Object>> first = space.sample(20, 42);
+        List<Map<String, Object>> second = space.sample(20, 42);
+
+        // Then
+        assertEquals(20, first.size());
+        assertEquals(first, second);
+        assertEquals(20, first.stream().distinct().count());
+    }
+
+    @Test
+    public void testSampleLimitedBySpaceSize() {
+        // Given
+        ParameterSpace space = new ParameterSpace().addValues("tradeSize", 100.0, 200.0);
+
+        // When
+        List<Map<String, Object>> sample = space.sample(10, 1);
+
+        // Then
+        assertEquals(2, sample.size());
+    }
+
+    @Test
+    public void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSpace().addRange("x", 10, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSpace().addRange("x", 1, 5, 0));
+    }
+}
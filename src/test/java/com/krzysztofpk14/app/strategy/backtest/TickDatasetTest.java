@@ -0,0 +1,142 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.krzysztofpk14.app.bossaapi.tick.BinaryTickWriter;
+import com.krzysztofpk14.app.bossaapi.tick.TickCursor;
+import com.krzysztofpk14.app.bossaapi.util.Price;
+
+public class TickDatasetTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Writes CSV rows ({@code millis,symbol,price,size[,type]}) and opens them as a dataset.
+     */
+    static TickDataset write(Path file, List<String> rows) throws IOException {
+        Files.write(file, String.join("\n", rows).getBytes(StandardCharsets.US_ASCII));
+        return TickDataset.open(file);
+    }
+
+    private static List<String> rows() {
+        return List.of(
+                "czas,symbol,cena,wolumen,typ",
+                "1,KGHM,100.00,10,0",
+                "1,KGHM,100.10,5,1",
+                "2,PKOBP,45.50,5,0",
+                "3,KGHM,100.20,7,2");
+    }
+
+    private static List<String> read(TickCursor cursor) throws IOException {
+        List<String> ticks = new ArrayList<>();
+        try (cursor) {
+            while (cursor.next()) {
+                ticks.add(cursor.symbol() + "@" + Price.format(cursor.price()));
+            }
+        }
+        return ticks;
+    }
+
+    @Test
+    public void testOpenCountsTicksAndSymbols() throws IOException {
+        // When
+        TickDataset dataset = write(file, rows());
+
+        // Then
+        assertEquals(4L, dataset.size());
+        assertEquals(List.of("KGHM", "PKOBP"), dataset.getSymbols());
+        assertEquals(List.of("KGHM@100.00", "KGHM@100.10", "PKOBP@45.50", "KGHM@100.20"), read(dataset.open()));
+    }
+
+    @Test
+    public void testEachCursorIsIndependent() throws IOException {
+        // Given
+        TickDataset dataset = write(file, rows());
+
+        // When: dwa kursory czytane na przemian
+        try (TickCursor first = dataset.open(); TickCursor second = dataset.open()) {
+            assertTrue(first.next());
+            assertTrue(first.next());
+            assertTrue(second.next());
+
+            // Then
+            assertEquals(Price.parse("100.10"), first.price());
+            assertEquals(Price.parse("100.00"), second.price());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(1), second.timestampNanos());
+        }
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        // Given
+        TickDataset dataset = write(file, rows());
+
+        // When
+        TickDataset range = dataset.range(1, 3);
+
+        // Then
+        assertEquals(2L, range.size());
+        assertEquals(List.of("KGHM@100.10", "PKOBP@45.50"), read(range.open()));
+        assertEquals(List.of("PKOBP@45.50"), read(range.range(1, 2).open()));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.range(2, 5));
+    }
+
+    @Test
+    public void testPricesColumnContainsTradesOnly() throws IOException {
+        // Given
+        TickDataset dataset = write(file, rows());
+
+        // When
+        double[] prices = dataset.getPrices("KGHM");
+
+        // Then: oferta sprzedaży (typ 1) nie jest transakcją
+        assertEquals(2, prices.length);
+        assertEquals(100.0, prices[0], 0.0);
+        assertEquals(100.2, prices[1], 0.0);
+        assertEquals(1, dataset.range(0, 3).getPrices("KGHM").length);
+        assertEquals(0, dataset.getPrices("CDR").length);
+    }
+
+    @Test
+    public void testBinaryFile() throws IOException {
+        // Given: plik w binarnym formacie rekordowym zapisany przez rejestrator
+        Path binary = Files.createTempFile("ticks", ".bin");
+        try {
+            try (BinaryTickWriter writer = new BinaryTickWriter(binary, Arrays.asList("KGHM", "PKO"))) {
+                writer.write("KGHM", 1_000L, Price.fromDouble(150.5), 100, (byte) '0');
+                writer.write("PKO", 2_000L, Price.fromDouble(47.2), 50, (byte) '0');
+            }
+
+            // When
+            TickDataset dataset = TickDataset.open(binary);
+
+            // Then
+            assertEquals(2L, dataset.size());
+            assertEquals(List.of("KGHM@150.50", "PKO@47.20"), read(dataset.open()));
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.krzysztofpk14.app.strategy.backtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.krzysztofpk14.app.bossaapi.util.Price;
+import com.krzysztofpk14.app.strategy.MovingAverageCrossoverStrategy;
+import com.krzysztofpk14.app.strategy.StrategyParameters;
+
+public class WalkForwardAnalysisTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ticks", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private TickDataset sineTicks(int count) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double price = 100 + 10 * Math.sin(i / 50.0);
+            rows.add(i + ",KGHM," + Price.format(Price.fromDouble(price)) + ",1");
+        }
+        return TickDatasetTest.write(file, rows);
+    }
+
+    private static WalkForwardAnalysis analysis() {
+        StrategyParameters base = new StrategyParameters();
+        base.setInstruments(Arrays.asList("KGHM"));
+        base.setParam("tradeSize", 1000.0);
+        ParameterOptimizer optimizer = new ParameterOptimizer(new BacktestRunner(FillModel.NEXT_TICK),
+                MovingAverageCrossoverStrategy::new, base);
+        List<Map<String, Object>> candidates = new ParameterSpace()
+                .addRange("shortSMAPeriod", 3, 9, 3)
+                .addValues("longSMAPeriod", 20, 40)
+                .grid();
+        return new WalkForwardAnalysis(optimizer, candidates, ParameterOptimizer.Objective.PNL);
+    }
+
+    @Test
+    public void testWindowsRollByOutOfSampleSize() throws Exception {
+        // Given
+        TickDataset ticks = sineTicks(5_000);
+
+        // When
+        List<WalkForwardWindow> windows = analysis().run(ticks, 2_000, 1_000);
+
+        // Then: okna [0,2000)+[2000,3000), [1000,3000)+[3000,4000), [2000,4000)+[4000,5000)
+        assertEquals(3, windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            WalkForwardWindow window = windows.get(i);
+            assertEquals(i * 1_000, window.inSampleFrom());
+            assertEquals(i * 1_000 + 2_000, window.outOfSampleFrom());
+            assertEquals(i * 1_000 + 3_000, window.outOfSampleTo());
+            assertEquals(2_000L, window.inSample().ticks());
+            assertEquals(1_000L, window.outOfSample().ticks());
+            assertNotNull(window.parameters().get("shortSMAPeriod"));
+        }
+    }
+
+    @Test
+    public void testOutOfSampleSummary() throws Exception {
+        // Given
+        List<WalkForwardWindow> windows = analysis().run(sineTicks(4_000), 2_000, 1_000);
+
+        // When
+        double pnl = WalkForwardAnalysis.getOutOfSamplePnL(windows);
+        double[] trades = WalkForwardAnalysis.getOutOfSampleTrades(windows);
+
+        // Then
+        double sum = 0;
+        for (double trade : trades) {
+            sum += trade;
+        }
+        int expectedTrades = 0;
+        for (WalkForwardWindow window : windows) {
+            expectedTrades += window.outOfSample().tradePnL().length;
+        }
+        assertEquals(expectedTrades, trades.length);
+        assertEquals(pnl, sum, 1e-6);
+    }
+
+    @Test
+    public void testTooShortDatasetGivesNoWindows() throws Exception {
+        assertTrue(analysis().run(sineTicks(100), 2_000, 1_000).isEmpty());
+    }
+}
@@ -0,0 +1,26 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AverageTrueRangeTest {
+
+    @Test
+    public void testTrueRangeIncludesGapsAndWilderSmoothing() {
+        // Given
+        AverageTrueRange atr = new AverageTrueRange(2);
+
+        // When: TR = 2, potem luka w górę: max(1, |13 - 10|, |12 - 10|) = 3
+        assertTrue(Double.isNaN(atr.update(11, 9, 10)));
+        double first = atr.update(13, 12, 12.5);
+
+        // Then
+        assertEquals(2.5, first, 1e-12);
+
+        // When: TR = 1.5 -> (2.5 * 1 + 1.5) / 2
+        double second = atr.update(13, 11.5, 12);
+
+        // Then
+        assertEquals(2.0, second, 1e-12);
+    }
+}
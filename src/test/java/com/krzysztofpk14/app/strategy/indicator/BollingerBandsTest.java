@@ -0,0 +1,58 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class BollingerBandsTest {
+
+    @Test
+    public void testMatchesNaiveStandardDeviation() {
+        // Given
+        int period = 20;
+        BollingerBands bands = new BollingerBands(period, 2.0);
+        double[] prices = new double[500];
+        Random random = new Random(7);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 50 + random.nextGaussian();
+        }
+
+        for (int i = 0; i < prices.length; i++) {
+            // When
+            bands.update(prices[i]);
+
+            // Then
+            if (i >= period - 1) {
+                double mean = 0;
+                for (int j = i - period + 1; j <= i; j++) {
+                    mean += prices[j];
+                }
+                mean /= period;
+                double variance = 0;
+                for (int j = i - period + 1; j <= i; j++) {
+                    variance += (prices[j] - mean) * (prices[j] - mean);
+                }
+                double deviation = Math.sqrt(variance / period);
+
+                assertTrue(bands.isReady());
+                assertEquals(mean, bands.getMiddle(), 1e-9);
+                assertEquals(mean + 2 * deviation, bands.getUpper(), 1e-6);
+                assertEquals(mean - 2 * deviation, bands.getLower(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentB() {
+        // Given
+        BollingerBands bands = new BollingerBands(2, 1.0);
+        bands.update(10);
+        bands.update(20);
+
+        // Then: środek 15, odchylenie 5
+        assertEquals(0.0, bands.getPercentB(10), 1e-12);
+        assertEquals(0.5, bands.getPercentB(15), 1e-12);
+        assertEquals(1.0, bands.getPercentB(20), 1e-12);
+    }
+}
@@ -0,0 +1,111 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class ColumnarIndicatorsTest {
+
+    /**
+     * Random walk with flat stretches, so that RSI hits the no-loss and no-change branches.
+     */
+    private static double[] prices(int count) {
+        Random random = new Random(17);
+        double[] prices = new double[count];
+        double price = 100;
+        for (int i = 0; i < count; i++) {
+            if (i % 97 >= 80) {
+                prices[i] = price;
+                continue;
+            }
+            price = Math.max(1, price + random.nextGaussian());
+            prices[i] = Math.round(price * 10_000) / 10_000.0;
+        }
+        return prices;
+    }
+
+    private static void assertBitwiseEquals(double expected, double actual, int index) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual),
+                "Mismatch at index " + index + ": " + expected + " vs " + actual);
+    }
+
+    @Test
+    public void testSmaMatchesStreaming() {
+        double[] prices = prices(10_007);
+        for (int period : new int[] {1, 5, 50}) {
+            // Given
+            SimpleMovingAverage sma = new SimpleMovingAverage(period);
+
+            // When
+            double[] column = ColumnarIndicators.sma(prices, period);
+
+            // Then
+            for (int i = 0; i < prices.length; i++) {
+                assertBitwiseEquals(sma.update(prices[i]), column[i], i);
+            }
+        }
+    }
+
+    @Test
+    public void testEmaMatchesStreaming() {
+        // Given
+        double[] prices = prices(5_003);
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(26);
+
+        // When
+        double[] column = ColumnarIndicators.ema(prices, 26);
+
+        // Then
+        for (int i = 0; i < prices.length; i++) {
+            assertBitwiseEquals(ema.update(prices[i]), column[i], i);
+        }
+    }
+
+    @Test
+    public void testRsiMatchesStreaming() {
+        double[] prices = prices(10_007);
+        for (int period : new int[] {1, 14}) {
+            // Given
+            RelativeStrengthIndex rsi = new RelativeStrengthIndex(period);
+
+            // When
+            double[] column = ColumnarIndicators.rsi(prices, period);
+
+            // Then
+            for (int i = 0; i < prices.length; i++) {
+                assertBitwiseEquals(rsi.update(prices[i]), column[i], i);
+            }
+        }
+    }
+
+    @Test
+    public void testStandardDeviationMatchesStreaming() {
+        double[] prices = prices(10_007);
+        // Given
+        BollingerBands bands = new BollingerBands(20, 2);
+
+        // When
+        double[] column = ColumnarIndicators.standardDeviation(prices, 20);
+
+        // Then
+        for (int i = 0; i < prices.length; i++) {
+            bands.update(prices[i]);
+            assertBitwiseEquals(bands.getStandardDeviation(), column[i], i);
+        }
+    }
+
+    @Test
+    public void testShortAndEmptyColumns() {
+        // When
+        double[] empty = ColumnarIndicators.rsi(new double[0], 14);
+        double[] shortRsi = ColumnarIndicators.rsi(new double[] {1, 2, 3}, 14);
+        double[] shortSma = ColumnarIndicators.sma(new double[] {2, 4}, 10);
+
+        // Then
+        assertEquals(0, empty.length);
+        assertTrue(Double.isNaN(shortRsi[2]));
+        assertEquals(3.0, shortSma[1], 0.0);
+        assertThrows(IllegalArgumentException.class, () -> ColumnarIndicators.ema(new double[] {1}, 0));
+    }
+}
@@ -0,0 +1,42 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleRingBufferTest {
+
+    @Test
+    public void testAddEvictsOldestWhenFull() {
+        // Given
+        DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+
+        // When / Then
+        assertTrue(Double.isNaN(buffer.add(1)));
+        assertTrue(Double.isNaN(buffer.add(2)));
+        assertTrue(Double.isNaN(buffer.add(3)));
+        assertTrue(buffer.isFull());
+        assertEquals(1.0, buffer.add(4));
+        assertEquals(2.0, buffer.add(5));
+
+        assertEquals(3, buffer.size());
+        assertEquals(3.0, buffer.get(0));
+        assertEquals(4.0, buffer.get(1));
+        assertEquals(5.0, buffer.last());
+    }
+
+    @Test
+    public void testClearAndInvalidArguments() {
+        // Given
+        DoubleRingBuffer buffer = new DoubleRingBuffer(2);
+        buffer.add(1);
+
+        // When
+        buffer.clear();
+
+        // Then
+        assertEquals(0, buffer.size());
+        assertTrue(Double.isNaN(buffer.last()));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0));
+        assertThrows(IllegalArgumentException.class, () -> new DoubleRingBuffer(0));
+    }
+}
@@ -0,0 +1,23 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExponentialMovingAverageTest {
+
+    @Test
+    public void testSeededWithSimpleAverage() {
+        // Given
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(3);
+
+        // When / Then
+        assertTrue(Double.isNaN(ema.update(1)));
+        assertTrue(Double.isNaN(ema.update(2)));
+        assertEquals(2.0, ema.update(3), 1e-12);
+        assertTrue(ema.isReady());
+
+        // alpha = 2 / (3 + 1) = 0.5
+        assertEquals(4.0, ema.update(6), 1e-12);
+        assertEquals(3.0, ema.update(2), 1e-12);
+    }
+}
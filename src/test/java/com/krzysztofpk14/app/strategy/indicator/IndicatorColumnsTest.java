@@ -0,0 +1,39 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicatorColumnsTest {
+
+    @Test
+    public void testColumnsAreComputedOnce() {
+        // Given
+        IndicatorColumns columns = new IndicatorColumns(new double[] {1, 2, 3, 4, 5});
+
+        // When
+        double[] first = columns.sma(2);
+        double[] second = columns.sma(2);
+        columns.ema(2);
+        columns.rsi(2);
+        columns.standardDeviation(2);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(4.5, first[4], 0.0);
+        assertEquals(4, columns.getCachedColumnCount());
+        assertEquals(5, columns.size());
+    }
+
+    @Test
+    public void testSourceArrayIsCopied() {
+        // Given
+        double[] values = {1, 2, 3};
+        IndicatorColumns columns = new IndicatorColumns(values);
+
+        // When
+        values[2] = 100;
+
+        // Then
+        assertEquals(2.5, columns.sma(2)[2], 0.0);
+    }
+}
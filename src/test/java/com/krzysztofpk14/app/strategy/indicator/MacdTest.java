@@ -0,0 +1,43 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MacdTest {
+
+    @Test
+    public void testMatchesSeparateAverages() {
+        // Given
+        Macd macd = new Macd(3, 6, 4);
+        ExponentialMovingAverage fast = new ExponentialMovingAverage(3);
+        ExponentialMovingAverage slow = new ExponentialMovingAverage(6);
+        ExponentialMovingAverage signal = new ExponentialMovingAverage(4);
+
+        for (int i = 0; i < 50; i++) {
+            double price = 100 + 10 * Math.sin(i / 5.0);
+
+            // When
+            double value = macd.update(price);
+
+            // Then
+            double expectedFast = fast.update(price);
+            double expectedSlow = slow.update(price);
+            if (!slow.isReady()) {
+                assertTrue(Double.isNaN(value));
+                continue;
+            }
+            double expected = expectedFast - expectedSlow;
+            signal.update(expected);
+            assertEquals(expected, value, 1e-12);
+            assertEquals(signal.isReady(), macd.isReady());
+            if (macd.isReady()) {
+                assertEquals(expected - signal.getValue(), macd.getHistogram(), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsInvertedPeriods() {
+        assertThrows(IllegalArgumentException.class, () -> new Macd(26, 12, 9));
+    }
+}
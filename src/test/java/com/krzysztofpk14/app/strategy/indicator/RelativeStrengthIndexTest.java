@@ -0,0 +1,48 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelativeStrengthIndexTest {
+
+    @Test
+    public void testWilderSmoothing() {
+        // Given
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(2);
+
+        // When: zmiany +2, -1 -> średni zysk 1, średnia strata 0.5
+        rsi.update(10);
+        assertTrue(Double.isNaN(rsi.update(12)));
+        double first = rsi.update(11);
+
+        // Then
+        assertTrue(rsi.isReady());
+        assertEquals(100.0 - 100.0 / 3.0, first, 1e-9);
+
+        // When: zmiana +3 -> zysk (1 + 3) / 2 = 2, strata 0.5 / 2 = 0.25
+        double second = rsi.update(14);
+
+        // Then
+        assertEquals(100.0 - 100.0 / 9.0, second, 1e-9);
+    }
+
+    @Test
+    public void testBoundaries() {
+        // Given
+        RelativeStrengthIndex rising = new RelativeStrengthIndex(3);
+        RelativeStrengthIndex falling = new RelativeStrengthIndex(3);
+        RelativeStrengthIndex flat = new RelativeStrengthIndex(3);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            rising.update(100 + i);
+            falling.update(100 - i);
+            flat.update(100);
+        }
+
+        // Then
+        assertEquals(100.0, rising.getValue());
+        assertEquals(0.0, falling.getValue());
+        assertEquals(50.0, flat.getValue());
+    }
+}
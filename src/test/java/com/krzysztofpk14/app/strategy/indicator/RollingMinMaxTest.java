@@ -0,0 +1,60 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class RollingMinMaxTest {
+
+    @Test
+    public void testMatchesNaiveWindowScan() {
+        // Given
+        int period = 7;
+        RollingMinMax extremes = new RollingMinMax(period);
+        double[] values = new double[2000];
+        Random random = new Random(3);
+        for (int i = 0; i < values.length; i++) {
+            // Powtarzające się wartości sprawdzają remisy w kolejkach
+            values[i] = random.nextInt(20);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            // When
+            extremes.update(values[i]);
+
+            // Then
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int j = Math.max(0, i - period + 1); j <= i; j++) {
+                min = Math.min(min, values[j]);
+                max = Math.max(max, values[j]);
+            }
+            assertEquals(min, extremes.getMin());
+            assertEquals(max, extremes.getMax());
+        }
+    }
+
+    @Test
+    public void testMonotonicSeries() {
+        // Given
+        RollingMinMax extremes = new RollingMinMax(3);
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            extremes.update(i);
+        }
+
+        // Then
+        assertTrue(extremes.isReady());
+        assertEquals(8.0, extremes.getMin());
+        assertEquals(10.0, extremes.getMax());
+
+        // When
+        extremes.reset();
+
+        // Then
+        assertFalse(extremes.isReady());
+        assertTrue(Double.isNaN(extremes.getMin()));
+    }
+}
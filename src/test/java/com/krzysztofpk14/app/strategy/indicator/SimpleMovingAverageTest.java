@@ -0,0 +1,51 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class SimpleMovingAverageTest {
+
+    @Test
+    public void testMatchesNaiveAverage() {
+        // Given
+        int period = 5;
+        SimpleMovingAverage sma = new SimpleMovingAverage(period);
+        double[] prices = new double[1000];
+        Random random = new Random(42);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + random.nextGaussian() * 5;
+        }
+
+        for (int i = 0; i < prices.length; i++) {
+            // When
+            double value = sma.update(prices[i]);
+
+            // Then
+            int from = Math.max(0, i - period + 1);
+            double sum = 0;
+            for (int j = from; j <= i; j++) {
+                sum += prices[j];
+            }
+            assertEquals(sum / (i - from + 1), value, 1e-9);
+            assertEquals(i >= period - 1, sma.isReady());
+        }
+    }
+
+    @Test
+    public void testReset() {
+        // Given
+        SimpleMovingAverage sma = new SimpleMovingAverage(2);
+        sma.update(10);
+        sma.update(20);
+
+        // When
+        sma.reset();
+
+        // Then
+        assertFalse(sma.isReady());
+        assertTrue(Double.isNaN(sma.getValue()));
+        assertEquals(30.0, sma.update(30));
+    }
+}
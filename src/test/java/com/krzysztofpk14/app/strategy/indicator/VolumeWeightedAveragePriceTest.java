@@ -0,0 +1,43 @@
+package com.krzysztofpk14.app.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VolumeWeightedAveragePriceTest {
+
+    @Test
+    public void testCumulative() {
+        // Given
+        VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice();
+
+        // When
+        vwap.update(10, 100);
+        vwap.update(20, 300);
+
+        // Then
+        assertEquals(17.5, vwap.getValue(), 1e-12);
+        assertEquals(400.0, vwap.getVolume());
+
+        // When
+        vwap.reset();
+
+        // Then
+        assertFalse(vwap.isReady());
+        assertTrue(Double.isNaN(vwap.getValue()));
+    }
+
+    @Test
+    public void testRollingWindow() {
+        // Given
+        VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice(2);
+
+        // When
+        vwap.update(10, 100);
+        vwap.update(20, 100);
+        double value = vwap.update(30, 300);
+
+        // Then: okno zawiera tylko dwie ostatnie transakcje
+        assertEquals(27.5, value, 1e-12);
+        assertEquals(400.0, vwap.getVolume());
+    }
+}